@@ -0,0 +1,198 @@
+package org.hive2hive.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.KeyPair;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import net.tomp2p.p2p.Peer;
+
+import org.apache.commons.io.FileUtils;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.hive2hive.core.api.H2HNode;
+import org.hive2hive.core.api.configs.FileConfiguration;
+import org.hive2hive.core.api.configs.NetworkConfiguration;
+import org.hive2hive.core.api.interfaces.IH2HNode;
+import org.hive2hive.core.api.interfaces.INetworkConfiguration;
+import org.hive2hive.core.model.FileIndex;
+import org.hive2hive.core.model.FolderIndex;
+import org.hive2hive.core.model.Index;
+import org.hive2hive.core.model.versioned.UserProfile;
+import org.hive2hive.core.network.NetworkManager;
+import org.hive2hive.core.security.EncryptionUtil;
+import org.hive2hive.core.security.EncryptionUtil.RSA_KEYLENGTH;
+import org.hive2hive.core.security.H2HDefaultEncryption;
+import org.hive2hive.core.serializer.FSTSerializer;
+import org.hive2hive.core.serializer.IH2HSerialize;
+
+/**
+ * Shared fixtures of the benchmarks. All random data is created with a fixed seed such that every run works
+ * on the same input.
+ */
+final class BenchmarkUtil {
+
+	static final long SEED = 42L;
+
+	// FST needs reflective access to the JDK classes on Java 9+. Older JVMs ignore these options.
+	static final String IGNORE_UNRECOGNIZED = "-XX:+IgnoreUnrecognizedVMOptions";
+	static final String OPEN_IO = "--add-opens=java.base/java.io=ALL-UNNAMED";
+	static final String OPEN_LANG = "--add-opens=java.base/java.lang=ALL-UNNAMED";
+	static final String OPEN_MATH = "--add-opens=java.base/java.math=ALL-UNNAMED";
+	static final String OPEN_NET = "--add-opens=java.base/java.net=ALL-UNNAMED";
+	static final String OPEN_SECURITY = "--add-opens=java.base/java.security=ALL-UNNAMED";
+	static final String OPEN_TEXT = "--add-opens=java.base/java.text=ALL-UNNAMED";
+	static final String OPEN_UTIL = "--add-opens=java.base/java.util=ALL-UNNAMED";
+	static final String OPEN_CONCURRENT = "--add-opens=java.base/java.util.concurrent=ALL-UNNAMED";
+
+	static {
+		if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
+			Security.addProvider(new BouncyCastleProvider());
+		}
+	}
+
+	private BenchmarkUtil() {
+		// only static methods
+	}
+
+	static String securityProvider() {
+		return BouncyCastleProvider.PROVIDER_NAME;
+	}
+
+	static byte[] randomBytes(int size, Random random) {
+		byte[] data = new byte[size];
+		random.nextBytes(data);
+		return data;
+	}
+
+	static File createTempDir(String prefix) throws IOException {
+		File dir = File.createTempFile(prefix, "");
+		if (!dir.delete() || !dir.mkdir()) {
+			throw new IOException("Cannot create temporary directory " + dir);
+		}
+		return dir;
+	}
+
+	static File createRandomFile(File parent, String name, int size, Random random) throws IOException {
+		File file = new File(parent, name);
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			byte[] buffer = new byte[64 * 1024];
+			int written = 0;
+			while (written < size) {
+				random.nextBytes(buffer);
+				int length = Math.min(buffer.length, size - written);
+				out.write(buffer, 0, length);
+				written += length;
+			}
+		} finally {
+			out.close();
+		}
+		return file;
+	}
+
+	static void delete(File file) {
+		FileUtils.deleteQuietly(file);
+	}
+
+	/**
+	 * Creates a local network of connected nodes. All nodes bootstrap to the first one.
+	 */
+	static List<IH2HNode> createNetwork(int size) {
+		IH2HSerialize serializer = new FSTSerializer();
+		List<IH2HNode> network = new ArrayList<IH2HNode>(size);
+		for (int i = 0; i < size; i++) {
+			IH2HNode node = H2HNode.createNode(FileConfiguration.createDefault(), new H2HDefaultEncryption(
+					serializer), serializer);
+			Peer initial = i == 0 ? null : network.get(0).getPeer().peer();
+			if (!node.connect(createLocalPeer(i, initial))) {
+				throw new IllegalStateException("Node " + i + " could not connect");
+			}
+			network.add(node);
+		}
+		return network;
+	}
+
+	/**
+	 * Creates a local network of connected network managers, for benchmarks that work below the node API. All
+	 * managers bootstrap to the first one.
+	 */
+	static List<NetworkManager> createNetworkManagers(int size) {
+		IH2HSerialize serializer = new FSTSerializer();
+		List<NetworkManager> network = new ArrayList<NetworkManager>(size);
+		for (int i = 0; i < size; i++) {
+			NetworkManager node = new NetworkManager(new H2HDefaultEncryption(serializer), serializer,
+					FileConfiguration.createDefault());
+			Peer initial = i == 0 ? null : network.get(0).getConnection().getPeer().peer();
+			if (!node.connect(createLocalPeer(i, initial))) {
+				throw new IllegalStateException("Node " + i + " could not connect");
+			}
+			network.add(node);
+		}
+		return network;
+	}
+
+	private static INetworkConfiguration createLocalPeer(int index, Peer initial) {
+		if (initial == null) {
+			return NetworkConfiguration.createInitialLocalPeer("node" + index);
+		}
+		return NetworkConfiguration.createLocalPeer("node" + index, initial);
+	}
+
+	/**
+	 * Generates small RSA keys. They only serve as identifiers for the indices, their strength is irrelevant
+	 * here.
+	 */
+	static KeyPair[] generateKeys(int count) {
+		KeyPair[] keys = new KeyPair[count];
+		for (int i = 0; i < count; i++) {
+			keys[i] = EncryptionUtil.generateRSAKeyPair(RSA_KEYLENGTH.BIT_512, securityProvider());
+		}
+		return keys;
+	}
+
+	/**
+	 * Creates a user profile with a balanced folder tree. Every folder has <code>fanOut</code> sub-folders
+	 * (until the given depth is reached) and <code>filesPerFolder</code> files.
+	 * 
+	 * @return the profile. All files are added to the given list (if not null)
+	 */
+	static UserProfile createUserProfile(int depth, int fanOut, int filesPerFolder, List<Index> files) {
+		int folders = 0;
+		int level = 1;
+		for (int i = 0; i < depth; i++) {
+			level *= fanOut;
+			folders += level;
+		}
+		int total = folders * (filesPerFolder + 1) + filesPerFolder;
+		KeyPair[] keys = generateKeys(total + 2);
+		Random random = new Random(SEED);
+
+		UserProfile profile = new UserProfile("benchmark-user", keys[0], keys[1]);
+		List<FolderIndex> current = new ArrayList<FolderIndex>();
+		current.add(profile.getRoot());
+		int keyIndex = 2;
+		for (int d = 0; d <= depth; d++) {
+			List<FolderIndex> next = new ArrayList<FolderIndex>();
+			for (FolderIndex folder : current) {
+				for (int f = 0; f < filesPerFolder; f++) {
+					FileIndex file = new FileIndex(folder, keys[keyIndex++], "file-" + f + ".txt", randomBytes(16,
+							random));
+					if (files != null) {
+						files.add(file);
+					}
+				}
+				if (d < depth) {
+					for (int s = 0; s < fanOut; s++) {
+						next.add(new FolderIndex(folder, keys[keyIndex++], "folder-" + s));
+					}
+				}
+			}
+			current = next;
+		}
+		return profile;
+	}
+}
@@ -0,0 +1,69 @@
+package org.hive2hive.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.hive2hive.core.H2HConstants;
+import org.hive2hive.core.file.FileChunkUtil;
+import org.hive2hive.core.model.Chunk;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reading chunks of a file with {@link FileChunkUtil#getChunk(File, int, int, String)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChunkingBenchmark {
+
+	@Param({ "16777216" })
+	public int fileSize;
+
+	@Param({ "1048576" })
+	public int chunkSize;
+
+	private File directory;
+	private File file;
+	private int numberOfChunks;
+	private int chunkNumber;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		directory = BenchmarkUtil.createTempDir("chunking");
+		file = BenchmarkUtil.createRandomFile(directory, "file.bin", fileSize, new Random(BenchmarkUtil.SEED));
+		numberOfChunks = FileChunkUtil.getNumberOfChunks(file, chunkSize);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		BenchmarkUtil.delete(directory);
+	}
+
+	@Benchmark
+	public Chunk getChunk() throws IOException {
+		chunkNumber = (chunkNumber + 1) % numberOfChunks;
+		return FileChunkUtil.getChunk(file, chunkSize, chunkNumber, "chunk");
+	}
+
+	@Benchmark
+	public Chunk getChunkDefaultSize() throws IOException {
+		return FileChunkUtil.getChunk(file, H2HConstants.DEFAULT_CHUNK_SIZE, 0, "chunk");
+	}
+}
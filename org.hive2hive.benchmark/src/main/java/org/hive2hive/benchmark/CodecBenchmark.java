@@ -0,0 +1,147 @@
+package org.hive2hive.benchmark;
+
+import io.netty.buffer.ByteBuf;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import net.tomp2p.connection.DSASignatureFactory;
+import net.tomp2p.connection.SignatureFactory;
+import net.tomp2p.message.DataMap;
+import net.tomp2p.message.DataMapHandler;
+import net.tomp2p.message.Decoder;
+import net.tomp2p.message.Encoder;
+import net.tomp2p.message.KeyCollection;
+import net.tomp2p.message.Message;
+import net.tomp2p.message.Message.Content;
+import net.tomp2p.message.Message.Type;
+import net.tomp2p.peers.Number160;
+import net.tomp2p.peers.Number640;
+import net.tomp2p.peers.PeerAddress;
+import net.tomp2p.rpc.RPC;
+import net.tomp2p.storage.AlternativeCompositeByteBuf;
+import net.tomp2p.storage.Data;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Round trips of messages through the TomP2P {@link Encoder} and {@link Decoder}, once with a data map
+ * (put / get) and once with a key collection (digest). The data map is also decoded with a
+ * {@link DataMapHandler} that consumes the entries while they are decoded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodecBenchmark {
+
+	/**
+	 * Number of entries in the message
+	 */
+	@Param({ "1", "1000" })
+	public int entries;
+
+	/**
+	 * Size of each data entry
+	 */
+	@Param({ "1024" })
+	public int dataSize;
+
+	private final SignatureFactory signatureFactory = new DSASignatureFactory();
+	private InetSocketAddress senderSocket;
+	private InetSocketAddress recipientSocket;
+	private PeerAddress sender;
+	private PeerAddress recipient;
+	private NavigableMap<Number640, Data> dataMap;
+	private KeyCollection keyCollection;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		Random random = new Random(BenchmarkUtil.SEED);
+		InetAddress address = InetAddress.getByName("127.0.0.1");
+		senderSocket = new InetSocketAddress(address, 4001);
+		recipientSocket = new InetSocketAddress(address, 4002);
+		sender = new PeerAddress(new Number160(random), senderSocket);
+		recipient = new PeerAddress(new Number160(random), recipientSocket);
+
+		dataMap = new TreeMap<Number640, Data>();
+		Number160 location = new Number160(random);
+		for (int i = 0; i < entries; i++) {
+			Number640 key = new Number640(location, Number160.ZERO, new Number160(random), Number160.ZERO);
+			dataMap.put(key, new Data(BenchmarkUtil.randomBytes(dataSize, random)));
+		}
+		keyCollection = new KeyCollection(dataMap.keySet());
+	}
+
+	private Message createMessage(Content content) {
+		Message message = new Message().type(Type.REQUEST_1).command(RPC.Commands.PUT.getNr()).sender(sender)
+				.recipient(recipient).messageId(42);
+		if (content == Content.MAP_KEY640_DATA) {
+			message.setDataMap(new DataMap(dataMap));
+		} else {
+			message.keyCollection(keyCollection);
+		}
+		return message;
+	}
+
+	private static final DataMapHandler CONSUMER = new DataMapHandler() {
+		@Override
+		public boolean dataDecoded(Message message, Number640 key, Data data) {
+			return data.length() >= 0;
+		}
+	};
+
+	private Message roundTrip(Message message, DataMapHandler handler) throws Exception {
+		AlternativeCompositeByteBuf buf = AlternativeCompositeByteBuf.compBuffer();
+		try {
+			new Encoder(signatureFactory).write(buf, message, null);
+			return decode(buf, handler);
+		} finally {
+			buf.release();
+		}
+	}
+
+	private Message decode(ByteBuf buf, DataMapHandler handler) throws Exception {
+		Decoder decoder = new Decoder(signatureFactory).dataMapHandler(handler);
+		int readerBefore = buf.readerIndex();
+		decoder.decodeHeader(buf, recipientSocket, senderSocket);
+		boolean donePayload = decoder.decodePayload(buf);
+		decoder.decodeSignature(buf, readerBefore, donePayload);
+		if (!donePayload) {
+			throw new IllegalStateException("Message could not be decoded completely");
+		}
+		return decoder.message();
+	}
+
+	@Benchmark
+	public Message roundTripDataMap() throws Exception {
+		return roundTrip(createMessage(Content.MAP_KEY640_DATA), null);
+	}
+
+	@Benchmark
+	public Message roundTripDataMapStreaming() throws Exception {
+		return roundTrip(createMessage(Content.MAP_KEY640_DATA), CONSUMER);
+	}
+
+	@Benchmark
+	public Message roundTripKeyCollection() throws Exception {
+		return roundTrip(createMessage(Content.SET_KEY640), null);
+	}
+}
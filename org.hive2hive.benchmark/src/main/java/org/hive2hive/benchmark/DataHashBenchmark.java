@@ -0,0 +1,67 @@
+package org.hive2hive.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.tomp2p.peers.Number160;
+import net.tomp2p.storage.Data;
+import net.tomp2p.storage.DataBuffer;
+import net.tomp2p.storage.DataHasher;
+import net.tomp2p.storage.TreeDataHasher;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Content hashing of {@link Data} with the {@link DataHasher}s, and the hash of a duplicate of stored data, as it
+ * is sent in every response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataHashBenchmark {
+
+	private static final DataHasher TREE = new TreeDataHasher();
+
+	@Param({ "1024", "1048576" })
+	public int size;
+
+	private DataBuffer buffer;
+	private Data stored;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		byte[] content = BenchmarkUtil.randomBytes(size, new Random(BenchmarkUtil.SEED));
+		buffer = new DataBuffer(content);
+		stored = new Data(content);
+		stored.hash();
+	}
+
+	@Benchmark
+	public Number160 sha1() {
+		return DataHasher.SHA_1.hash(buffer);
+	}
+
+	@Benchmark
+	public Number160 tree() {
+		return TREE.hash(buffer);
+	}
+
+	@Benchmark
+	public Number160 duplicate() {
+		return stored.duplicate().hash();
+	}
+}
@@ -0,0 +1,129 @@
+package org.hive2hive.benchmark;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.hive2hive.core.H2HConstants;
+import org.hive2hive.core.model.BaseNetworkContent;
+import org.hive2hive.core.model.Chunk;
+import org.hive2hive.core.model.versioned.EncryptedNetworkContent;
+import org.hive2hive.core.model.versioned.HybridEncryptedContent;
+import org.hive2hive.core.security.BCStrongAESEncryption;
+import org.hive2hive.core.security.EncryptionUtil;
+import org.hive2hive.core.security.H2HDefaultEncryption;
+import org.hive2hive.core.security.IStrongAESEncryption;
+import org.hive2hive.core.serializer.FSTSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Symmetric, asymmetric and hybrid encryption with {@link EncryptionUtil} and {@link H2HDefaultEncryption}
+ * using the key lengths of {@link H2HConstants}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { BenchmarkUtil.IGNORE_UNRECOGNIZED, BenchmarkUtil.OPEN_LANG,
+		BenchmarkUtil.OPEN_MATH, BenchmarkUtil.OPEN_NET, BenchmarkUtil.OPEN_SECURITY, BenchmarkUtil.OPEN_TEXT,
+		BenchmarkUtil.OPEN_UTIL, BenchmarkUtil.OPEN_CONCURRENT })
+public class EncryptionBenchmark {
+
+	@Param({ "1024", "1048576" })
+	public int size;
+
+	private final IStrongAESEncryption strongAES = new BCStrongAESEncryption();
+	private String provider;
+	private H2HDefaultEncryption encryption;
+
+	private byte[] data;
+	private SecretKey aesKey;
+	private byte[] initVector;
+	private byte[] aesEncrypted;
+
+	private KeyPair rsaKeys;
+	private byte[] rsaPlain;
+	private byte[] rsaEncrypted;
+
+	private Chunk chunk;
+	private EncryptedNetworkContent aesEncryptedChunk;
+	private HybridEncryptedContent hybridEncryptedChunk;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException, GeneralSecurityException {
+		provider = BenchmarkUtil.securityProvider();
+		encryption = new H2HDefaultEncryption(new FSTSerializer(), provider, strongAES);
+		Random random = new Random(BenchmarkUtil.SEED);
+
+		data = BenchmarkUtil.randomBytes(size, random);
+		aesKey = EncryptionUtil.generateAESKey(H2HConstants.KEYLENGTH_USER_PROFILE, provider);
+		initVector = EncryptionUtil.generateIV();
+		aesEncrypted = EncryptionUtil.encryptAES(data, aesKey, initVector, provider, strongAES);
+
+		// RSA is only used to encrypt the AES parameters (IV + key)
+		rsaKeys = EncryptionUtil.generateRSAKeyPair(H2HConstants.KEYLENGTH_CHUNK, provider);
+		rsaPlain = BenchmarkUtil.randomBytes(48, random);
+		rsaEncrypted = EncryptionUtil.encryptRSA(rsaPlain, rsaKeys.getPublic(), provider);
+
+		chunk = new Chunk("chunk", data, 0);
+		aesEncryptedChunk = encryption.encryptAES(chunk, aesKey);
+		hybridEncryptedChunk = encryption.encryptHybrid(chunk, rsaKeys.getPublic());
+	}
+
+	@Benchmark
+	public byte[] encryptAES() throws GeneralSecurityException {
+		return EncryptionUtil.encryptAES(data, aesKey, initVector, provider, strongAES);
+	}
+
+	@Benchmark
+	public byte[] decryptAES() throws GeneralSecurityException {
+		return EncryptionUtil.decryptAES(aesEncrypted, aesKey, initVector, provider, strongAES);
+	}
+
+	@Benchmark
+	public byte[] encryptRSA() throws GeneralSecurityException {
+		return EncryptionUtil.encryptRSA(rsaPlain, rsaKeys.getPublic(), provider);
+	}
+
+	@Benchmark
+	public byte[] decryptRSA() throws GeneralSecurityException {
+		return EncryptionUtil.decryptRSA(rsaEncrypted, rsaKeys.getPrivate(), provider);
+	}
+
+	@Benchmark
+	public EncryptedNetworkContent encryptChunkAES() throws IOException, GeneralSecurityException {
+		return encryption.encryptAES(chunk, aesKey);
+	}
+
+	@Benchmark
+	public BaseNetworkContent decryptChunkAES() throws ClassNotFoundException, IOException, GeneralSecurityException {
+		return encryption.decryptAES(aesEncryptedChunk, aesKey);
+	}
+
+	@Benchmark
+	public HybridEncryptedContent encryptChunkHybrid() throws IOException, GeneralSecurityException {
+		return encryption.encryptHybrid(chunk, rsaKeys.getPublic());
+	}
+
+	@Benchmark
+	public BaseNetworkContent decryptChunkHybrid() throws ClassNotFoundException, IOException,
+			GeneralSecurityException {
+		return encryption.decryptHybrid(hybridEncryptedChunk, rsaKeys.getPrivate());
+	}
+}
@@ -0,0 +1,202 @@
+package org.hive2hive.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.hive2hive.core.api.interfaces.IH2HNode;
+import org.hive2hive.core.file.IFileAgent;
+import org.hive2hive.core.security.UserCredentials;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Upload and download of a file through a small local network of Hive2Hive nodes. The same user is logged
+ * in at two nodes: one uploads, the other one downloads. Content that only exists as a stream is either
+ * uploaded from the stream or first copied into the Hive2Hive folder. A download either stores the file on the
+ * disk or streams it to the reader.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { BenchmarkUtil.IGNORE_UNRECOGNIZED, BenchmarkUtil.OPEN_LANG,
+		BenchmarkUtil.OPEN_MATH, BenchmarkUtil.OPEN_NET, BenchmarkUtil.OPEN_SECURITY, BenchmarkUtil.OPEN_TEXT,
+		BenchmarkUtil.OPEN_UTIL, BenchmarkUtil.OPEN_CONCURRENT })
+public class EndToEndBenchmark {
+
+	private static final int NETWORK_SIZE = 5;
+
+	@Param({ "1048576" })
+	public int fileSize;
+
+	private final Random random = new Random(BenchmarkUtil.SEED);
+	private final List<IH2HNode> network = new ArrayList<IH2HNode>(NETWORK_SIZE);
+	private TempFileAgent uploaderAgent;
+	private TempFileAgent downloaderAgent;
+	private IH2HNode uploader;
+	private IH2HNode downloader;
+
+	private byte[] content;
+	private File downloadFile;
+	private int fileCounter;
+
+	/**
+	 * A new random file for every upload, otherwise it would be rejected. Only the benchmark which uploads an
+	 * existing file needs it.
+	 */
+	@State(Scope.Thread)
+	public static class UploadFile {
+		private File file;
+
+		@Setup(Level.Invocation)
+		public void create(EndToEndBenchmark benchmark) throws IOException {
+			file = BenchmarkUtil.createRandomFile(benchmark.uploaderAgent.getRoot(), "upload-"
+					+ benchmark.fileCounter++, benchmark.fileSize, benchmark.random);
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		network.addAll(BenchmarkUtil.createNetwork(NETWORK_SIZE));
+
+		UserCredentials credentials = new UserCredentials("benchmark-user", "password", "pin");
+		network.get(0).getUserManager().createRegisterProcess(credentials).execute();
+
+		uploader = network.get(1);
+		uploaderAgent = new TempFileAgent("uploader");
+		uploader.getUserManager().createLoginProcess(credentials, uploaderAgent).execute();
+
+		downloader = network.get(2);
+		downloaderAgent = new TempFileAgent("downloader");
+		downloader.getUserManager().createLoginProcess(credentials, downloaderAgent).execute();
+
+		// the file that is downloaded over and over again
+		File source = BenchmarkUtil.createRandomFile(uploaderAgent.getRoot(), "download", fileSize, random);
+		uploader.getFileManager().createAddProcess(source).execute();
+		downloadFile = new File(downloaderAgent.getRoot(), source.getName());
+
+		// the content of the stream uploads
+		content = BenchmarkUtil.randomBytes(fileSize, random);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		for (IH2HNode node : network) {
+			node.disconnect();
+		}
+		network.clear();
+		if (uploaderAgent != null) {
+			BenchmarkUtil.delete(uploaderAgent.getRoot());
+		}
+		if (downloaderAgent != null) {
+			BenchmarkUtil.delete(downloaderAgent.getRoot());
+		}
+	}
+
+	@Setup(Level.Invocation)
+	public void prepareInvocation() {
+		// the download does not overwrite existing files
+		BenchmarkUtil.delete(downloadFile);
+	}
+
+	@Benchmark
+	public void upload(UploadFile uploadFile) throws Exception {
+		uploader.getFileManager().createAddProcess(uploadFile.file).execute();
+	}
+
+	@Benchmark
+	public void uploadFromStream() throws Exception {
+		File file = new File(uploaderAgent.getRoot(), "stream-" + fileCounter++);
+		uploader.getFileManager().createAddProcess(file, new ByteArrayInputStream(content), content.length).execute();
+	}
+
+	@Benchmark
+	public void uploadCopiedStream() throws Exception {
+		File file = new File(uploaderAgent.getRoot(), "copy-" + fileCounter++);
+		FileUtils.copyInputStreamToFile(new ByteArrayInputStream(content), file);
+		uploader.getFileManager().createAddProcess(file).execute();
+	}
+
+	@Benchmark
+	public void download() throws Exception {
+		downloader.getFileManager().createDownloadProcess(downloadFile).execute();
+	}
+
+	@Benchmark
+	public long downloadStream() throws Exception {
+		InputStream stream = downloader.getFileManager().createDownloadStreamProcess(downloadFile).execute();
+		try {
+			byte[] buffer = new byte[8192];
+			long read = 0;
+			int length;
+			while ((length = stream.read(buffer)) != -1) {
+				read += length;
+			}
+			return read;
+		} finally {
+			stream.close();
+		}
+	}
+
+	/**
+	 * Time until a viewer could show the first bytes of the file
+	 */
+	@Benchmark
+	public int downloadStreamFirstByte() throws Exception {
+		InputStream stream = downloader.getFileManager().createDownloadStreamProcess(downloadFile).execute();
+		try {
+			return stream.read();
+		} finally {
+			stream.close();
+		}
+	}
+
+	/**
+	 * File agent with a fresh temporary root. The cache is kept in memory.
+	 */
+	static class TempFileAgent implements IFileAgent {
+
+		private final File root;
+		private final Map<String, byte[]> cache = new ConcurrentHashMap<String, byte[]>();
+
+		public TempFileAgent(String name) throws IOException {
+			this.root = BenchmarkUtil.createTempDir(name);
+		}
+
+		@Override
+		public File getRoot() {
+			return root;
+		}
+
+		@Override
+		public void writeCache(String key, byte[] data) {
+			cache.put(key, data);
+		}
+
+		@Override
+		public byte[] readCache(String key) {
+			return cache.get(key);
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package org.hive2hive.benchmark;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.hive2hive.core.model.versioned.UserProfile;
+import org.hive2hive.core.processes.files.list.FileListCache;
+import org.hive2hive.core.processes.files.list.FileNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Builds the {@link FileNode} tree of a user profile, as done on every refresh of the file list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileListBenchmark {
+
+	/**
+	 * Depth of the folder tree with a fan-out of 4 and 5 files per folder.
+	 */
+	@Param({ "4" })
+	public int depth;
+
+	private final File root = new File("/h2h");
+	private final FileListCache cache = new FileListCache();
+	private UserProfile profile;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		profile = BenchmarkUtil.createUserProfile(depth, 4, 5, null);
+		profile.generateVersionKey();
+	}
+
+	@Benchmark
+	public FileNode createFileList() {
+		return FileListCache.createFileList(profile.getRoot(), root);
+	}
+
+	@Benchmark
+	public FileNode getCachedFileList() {
+		return cache.getFileList(profile, root);
+	}
+}
@@ -0,0 +1,90 @@
+package org.hive2hive.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.hive2hive.core.model.FolderIndex;
+import org.hive2hive.core.model.Index;
+import org.hive2hive.core.model.UserPermission;
+import org.hive2hive.core.model.versioned.UserProfile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lookups in the {@link FolderIndex} tree of a {@link UserProfile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FolderIndexBenchmark {
+
+	/**
+	 * Depth of the folder tree with a fan-out of 4 and 5 files per folder.
+	 */
+	@Param({ "4" })
+	public int depth;
+
+	private final File root = new File("/h2h");
+	private UserProfile profile;
+	private Index[] files;
+	private File[] paths;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		List<Index> fileList = new ArrayList<Index>();
+		profile = BenchmarkUtil.createUserProfile(depth, 4, 5, fileList);
+		files = fileList.toArray(new Index[fileList.size()]);
+		paths = new File[files.length];
+		for (int i = 0; i < files.length; i++) {
+			paths[i] = new File(root, files[i].getFullPath());
+		}
+	}
+
+	private int nextIndex() {
+		next = (next + 1) % files.length;
+		return next;
+	}
+
+	@Benchmark
+	public Index getFileById() {
+		return profile.getFileById(files[nextIndex()].getFilePublicKey());
+	}
+
+	@Benchmark
+	public Index getFileByPath() {
+		return profile.getFileByPath(paths[nextIndex()], root);
+	}
+
+	@Benchmark
+	public Index getChildByName() {
+		Index file = files[nextIndex()];
+		return file.getParent().getChildByName(file.getName());
+	}
+
+	@Benchmark
+	public String getFullPath() {
+		return files[nextIndex()].getFullPath();
+	}
+
+	@Benchmark
+	public Set<UserPermission> getCalculatedUserPermissions() {
+		return files[nextIndex()].getParent().getCalculatedUserPermissions();
+	}
+}
@@ -0,0 +1,96 @@
+package org.hive2hive.benchmark;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import net.tomp2p.futures.BaseFutureAdapter;
+import net.tomp2p.futures.BaseFutureImpl;
+import net.tomp2p.futures.FutureDone;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Future churn of TomP2P: creating, listening to, completing and awaiting {@link BaseFutureImpl}s. A single
+ * DHT operation creates dozens of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FutureBenchmark {
+
+	private static final BaseFutureAdapter<FutureDone<Integer>> LISTENER = new BaseFutureAdapter<FutureDone<Integer>>() {
+		@Override
+		public void operationComplete(FutureDone<Integer> future) throws Exception {
+			future.object();
+		}
+	};
+
+	private ExecutorService completer;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		completer = Executors.newSingleThreadExecutor();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		completer.shutdownNow();
+	}
+
+	/**
+	 * The common case: a listener is added before the future completes
+	 */
+	@Benchmark
+	public FutureDone<Integer> listenAndComplete() {
+		FutureDone<Integer> future = new FutureDone<Integer>();
+		future.addListener(LISTENER);
+		return future.done(1);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public FutureDone<Integer> listenAndCompleteConcurrently() {
+		return listenAndComplete();
+	}
+
+	/**
+	 * Awaiting a future that already completed, which must not block
+	 */
+	@Benchmark
+	public boolean completeAndAwait() {
+		FutureDone<Integer> future = new FutureDone<Integer>();
+		future.done(1);
+		return future.awaitUninterruptibly().isSuccess();
+	}
+
+	/**
+	 * Awaiting a future that is completed by another thread
+	 */
+	@Benchmark
+	public boolean awaitHandOff() {
+		final FutureDone<Integer> future = new FutureDone<Integer>();
+		completer.execute(new Runnable() {
+			@Override
+			public void run() {
+				future.done(1);
+			}
+		});
+		return future.awaitUninterruptibly().isSuccess();
+	}
+}
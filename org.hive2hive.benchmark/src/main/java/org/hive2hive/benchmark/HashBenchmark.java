@@ -0,0 +1,63 @@
+package org.hive2hive.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.hive2hive.core.security.HashUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * MD5 hashing of arrays and files with {@link HashUtil}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HashBenchmark {
+
+	@Param({ "1024", "1048576", "16777216" })
+	public int size;
+
+	private byte[] data;
+	private File directory;
+	private File file;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		Random random = new Random(BenchmarkUtil.SEED);
+		data = BenchmarkUtil.randomBytes(size, random);
+		directory = BenchmarkUtil.createTempDir("hash");
+		file = BenchmarkUtil.createRandomFile(directory, "file.bin", size, random);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		BenchmarkUtil.delete(directory);
+	}
+
+	@Benchmark
+	public byte[] hashArray() {
+		return HashUtil.hash(data);
+	}
+
+	@Benchmark
+	public byte[] hashFile() throws IOException {
+		return HashUtil.hash(file);
+	}
+}
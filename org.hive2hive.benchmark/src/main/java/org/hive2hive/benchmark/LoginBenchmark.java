@@ -0,0 +1,81 @@
+package org.hive2hive.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hive2hive.core.api.interfaces.IH2HNode;
+import org.hive2hive.core.security.UserCredentials;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Login of a user who is already logged in at another client of a small local network. After every login,
+ * the user logs out again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { BenchmarkUtil.IGNORE_UNRECOGNIZED, BenchmarkUtil.OPEN_IO, BenchmarkUtil.OPEN_LANG,
+		BenchmarkUtil.OPEN_MATH, BenchmarkUtil.OPEN_NET, BenchmarkUtil.OPEN_SECURITY, BenchmarkUtil.OPEN_TEXT,
+		BenchmarkUtil.OPEN_UTIL, BenchmarkUtil.OPEN_CONCURRENT })
+public class LoginBenchmark {
+
+	private static final int NETWORK_SIZE = 5;
+
+	private final List<IH2HNode> network = new ArrayList<IH2HNode>(NETWORK_SIZE);
+	private final UserCredentials credentials = new UserCredentials("benchmark-user", "password", "pin");
+	private EndToEndBenchmark.TempFileAgent otherAgent;
+	private EndToEndBenchmark.TempFileAgent loginAgent;
+	private IH2HNode client;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		network.addAll(BenchmarkUtil.createNetwork(NETWORK_SIZE));
+
+		network.get(0).getUserManager().createRegisterProcess(credentials).execute();
+
+		// this client is contacted at every login
+		otherAgent = new EndToEndBenchmark.TempFileAgent("other");
+		network.get(1).getUserManager().createLoginProcess(credentials, otherAgent).execute();
+
+		client = network.get(2);
+		loginAgent = new EndToEndBenchmark.TempFileAgent("login");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		for (IH2HNode node : network) {
+			node.disconnect();
+		}
+		network.clear();
+		if (otherAgent != null) {
+			BenchmarkUtil.delete(otherAgent.getRoot());
+		}
+		if (loginAgent != null) {
+			BenchmarkUtil.delete(loginAgent.getRoot());
+		}
+	}
+
+	@TearDown(Level.Invocation)
+	public void logout() throws Exception {
+		client.getUserManager().createLogoutProcess().execute();
+	}
+
+	@Benchmark
+	public void login() throws Exception {
+		client.getUserManager().createLoginProcess(credentials, loginAgent).execute();
+	}
+}
@@ -0,0 +1,86 @@
+package org.hive2hive.benchmark;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.hive2hive.core.H2HConstants;
+import org.hive2hive.core.model.PermissionType;
+import org.hive2hive.core.model.UserPermission;
+import org.hive2hive.core.model.versioned.HybridEncryptedContent;
+import org.hive2hive.core.model.versioned.UserProfile;
+import org.hive2hive.core.processes.share.ShareFolderUserProfileTask;
+import org.hive2hive.core.security.BCStrongAESEncryption;
+import org.hive2hive.core.security.EncryptionUtil;
+import org.hive2hive.core.security.H2HDefaultEncryption;
+import org.hive2hive.core.serializer.FSTSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encrypts the user profile task of a shared folder for all users of the folder, once per user and once for
+ * all users together.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { BenchmarkUtil.IGNORE_UNRECOGNIZED, BenchmarkUtil.OPEN_LANG,
+		BenchmarkUtil.OPEN_MATH, BenchmarkUtil.OPEN_NET, BenchmarkUtil.OPEN_SECURITY, BenchmarkUtil.OPEN_TEXT,
+		BenchmarkUtil.OPEN_UTIL, BenchmarkUtil.OPEN_CONCURRENT })
+public class MultiRecipientEncryptionBenchmark {
+
+	@Param({ "50" })
+	public int recipients;
+
+	private H2HDefaultEncryption encryption;
+	private ShareFolderUserProfileTask task;
+	private Map<String, PublicKey> publicKeys;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		String provider = BenchmarkUtil.securityProvider();
+		encryption = new H2HDefaultEncryption(new FSTSerializer(), provider, new BCStrongAESEncryption());
+
+		// a folder with 4 levels of 3 sub-folders and 10 files each
+		UserProfile profile = BenchmarkUtil.createUserProfile(4, 3, 10, null);
+		KeyPair protectionKeys = EncryptionUtil.generateRSAKeyPair(H2HConstants.KEYLENGTH_PROTECTION, provider);
+		task = new ShareFolderUserProfileTask("sharer", protectionKeys, profile.getRoot(), new UserPermission("user-0",
+				PermissionType.WRITE));
+
+		publicKeys = new LinkedHashMap<String, PublicKey>(recipients);
+		for (int i = 0; i < recipients; i++) {
+			publicKeys.put("user-" + i,
+					EncryptionUtil.generateRSAKeyPair(H2HConstants.KEYLENGTH_USER_KEYS, provider).getPublic());
+		}
+	}
+
+	@Benchmark
+	public Map<String, HybridEncryptedContent> encryptPerRecipient() throws IOException, GeneralSecurityException {
+		Map<String, HybridEncryptedContent> encrypted = new LinkedHashMap<String, HybridEncryptedContent>(recipients);
+		for (Map.Entry<String, PublicKey> entry : publicKeys.entrySet()) {
+			encrypted.put(entry.getKey(), encryption.encryptHybrid(task, entry.getValue()));
+		}
+		return encrypted;
+	}
+
+	@Benchmark
+	public Map<String, HybridEncryptedContent> encryptOnce() throws IOException, GeneralSecurityException {
+		return encryption.encryptHybrid(task, publicKeys);
+	}
+}
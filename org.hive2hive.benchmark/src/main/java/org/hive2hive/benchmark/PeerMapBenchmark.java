@@ -0,0 +1,77 @@
+package org.hive2hive.benchmark;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.tomp2p.peers.Number160;
+import net.tomp2p.peers.PeerAddress;
+import net.tomp2p.peers.PeerMap;
+import net.tomp2p.peers.PeerMapConfiguration;
+import net.tomp2p.peers.PeerStatistic;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Finding the closest peers in a filled {@link PeerMap}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PeerMapBenchmark {
+
+	@Param({ "1000", "10000" })
+	public int peers;
+
+	@Param({ "20" })
+	public int atLeast;
+
+	private PeerMap peerMap;
+	private Number160[] targets;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setup() throws UnknownHostException {
+		Random random = new Random(BenchmarkUtil.SEED);
+		InetAddress address = InetAddress.getByName("127.0.0.1");
+		peerMap = new PeerMap(new PeerMapConfiguration(new Number160(random)).setFixedVerifiedBagSizes(100)
+				.setFixedOverflowBagSizes(100));
+		for (int i = 0; i < peers; i++) {
+			PeerAddress peerAddress = new PeerAddress(new Number160(random), address, 4000 + (i % 1000),
+					4000 + (i % 1000));
+			peerMap.peerFound(peerAddress, null, null, null);
+		}
+
+		targets = new Number160[1024];
+		for (int i = 0; i < targets.length; i++) {
+			targets[i] = new Number160(random);
+		}
+	}
+
+	@Benchmark
+	public NavigableSet<PeerStatistic> closePeers() {
+		next = (next + 1) % targets.length;
+		return peerMap.closePeers(targets[next], atLeast);
+	}
+
+	@Benchmark
+	public NavigableSet<PeerStatistic> closePeersSelf() {
+		return peerMap.closePeers(atLeast);
+	}
+}
@@ -0,0 +1,137 @@
+package org.hive2hive.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import net.tomp2p.peers.Number160;
+import net.tomp2p.peers.Number640;
+import net.tomp2p.storage.Data;
+
+import org.hive2hive.core.H2HConstants;
+import org.hive2hive.core.api.interfaces.IH2HNode;
+import org.hive2hive.core.model.PermissionType;
+import org.hive2hive.core.security.H2HDefaultEncryption;
+import org.hive2hive.core.security.UserCredentials;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A user shares a folder with many files for the first time. The protection keys of the meta file and the
+ * chunks of every file are changed before the share completes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = { BenchmarkUtil.IGNORE_UNRECOGNIZED, BenchmarkUtil.OPEN_IO, BenchmarkUtil.OPEN_LANG,
+		BenchmarkUtil.OPEN_MATH, BenchmarkUtil.OPEN_NET, BenchmarkUtil.OPEN_SECURITY, BenchmarkUtil.OPEN_TEXT,
+		BenchmarkUtil.OPEN_UTIL, BenchmarkUtil.OPEN_CONCURRENT })
+public class ProtectionKeyMigrationBenchmark {
+
+	private static final int NETWORK_SIZE = 5;
+	private static final int FILE_SIZE = 1024;
+
+	@Param({ "100" })
+	public int files;
+
+	private final Random random = new Random(BenchmarkUtil.SEED);
+	private final List<IH2HNode> network = new ArrayList<IH2HNode>(NETWORK_SIZE);
+	private final UserCredentials sharerCredentials = new UserCredentials("sharer", "password", "pin");
+	private final UserCredentials receiverCredentials = new UserCredentials("receiver", "password", "pin");
+	private EndToEndBenchmark.TempFileAgent sharerAgent;
+	private IH2HNode sharer;
+	private File folder;
+	private int shared;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		network.addAll(BenchmarkUtil.createNetwork(NETWORK_SIZE));
+
+		network.get(0).getUserManager().createRegisterProcess(sharerCredentials).execute();
+		network.get(0).getUserManager().createRegisterProcess(receiverCredentials).execute();
+
+		sharer = network.get(1);
+		sharerAgent = new EndToEndBenchmark.TempFileAgent("sharer");
+		sharer.getUserManager().createLoginProcess(sharerCredentials, sharerAgent).execute();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		for (IH2HNode node : network) {
+			node.disconnect();
+		}
+		network.clear();
+		if (sharerAgent != null) {
+			BenchmarkUtil.delete(sharerAgent.getRoot());
+		}
+	}
+
+	@Setup(Level.Iteration)
+	public void addFolder() throws Exception {
+		// a new private folder for every share
+		folder = new File(sharerAgent.getRoot(), "folder-" + shared);
+		if (!folder.mkdir()) {
+			throw new IllegalStateException("Cannot create " + folder);
+		}
+		sharer.getFileManager().createAddProcess(folder).execute();
+		for (int i = 0; i < files; i++) {
+			File file = BenchmarkUtil.createRandomFile(folder, "file-" + i, FILE_SIZE, random);
+			sharer.getFileManager().createAddProcess(file).execute();
+		}
+	}
+
+	@TearDown(Level.Iteration)
+	public void verify() {
+		shared++;
+		// every shared folder has its own protection keys. All files are in shared folders, thus no meta file
+		// or chunk may be protected by the default protection keys anymore and all replicas agree.
+		Set<Number160> contentKeys = new HashSet<Number160>();
+		contentKeys.add(Number160.createHash(H2HConstants.META_FILE));
+		contentKeys.add(Number160.createHash(H2HConstants.FILE_CHUNK));
+		// compare the encoded keys, the key objects may come from different providers
+		Map<Number640, String> protectionKeys = new HashMap<Number640, String>();
+		Set<String> distinct = new HashSet<String>();
+		for (IH2HNode node : network) {
+			for (Map.Entry<Number640, Data> entry : node.getPeer().storageLayer().get().entrySet()) {
+				if (!contentKeys.contains(entry.getKey().contentKey())) {
+					continue;
+				}
+				String publicKey = H2HDefaultEncryption.key2String(entry.getValue().publicKey());
+				String other = protectionKeys.put(entry.getKey(), publicKey);
+				if (other != null && !other.equals(publicKey)) {
+					throw new IllegalStateException("Replicas of " + entry.getKey() + " have different protection keys");
+				}
+				distinct.add(publicKey);
+			}
+		}
+		if (distinct.size() != shared) {
+			throw new IllegalStateException("Found " + distinct.size() + " protection keys for " + shared
+					+ " shared folders");
+		}
+	}
+
+	@Benchmark
+	public void share() throws Exception {
+		sharer.getFileManager().createShareProcess(folder, receiverCredentials.getUserId(), PermissionType.WRITE)
+				.execute();
+	}
+}
@@ -0,0 +1,142 @@
+package org.hive2hive.benchmark;
+
+import java.net.InetAddress;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.tomp2p.connection.PeerException;
+import net.tomp2p.connection.PeerException.AbortCause;
+import net.tomp2p.dht.PeerBuilderDHT;
+import net.tomp2p.dht.PeerDHT;
+import net.tomp2p.futures.FutureDone;
+import net.tomp2p.p2p.PeerBuilder;
+import net.tomp2p.peers.Number160;
+import net.tomp2p.peers.PeerAddress;
+import net.tomp2p.peers.PeerMap;
+import net.tomp2p.peers.PeerMapConfiguration;
+import net.tomp2p.replication.Replication;
+import net.tomp2p.replication.ReplicationFilter;
+import net.tomp2p.replication.ResponsibilityListener;
+
+import org.hive2hive.core.network.NetworkUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Peer churn seen by the {@link Replication} of a peer that is responsible for many locations. Every operation
+ * lets one peer of the peer map fail and come back, which removes and inserts it again. The locations are the ones
+ * the peer is closest to, so a joining or leaving peer changes the replica set of the locations only if it is
+ * close to the peer itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { BenchmarkUtil.IGNORE_UNRECOGNIZED, BenchmarkUtil.OPEN_LANG,
+		BenchmarkUtil.OPEN_MATH, BenchmarkUtil.OPEN_NET, BenchmarkUtil.OPEN_SECURITY, BenchmarkUtil.OPEN_TEXT,
+		BenchmarkUtil.OPEN_UTIL, BenchmarkUtil.OPEN_CONCURRENT })
+public class ReplicationChurnBenchmark {
+
+	private static final int REPLICATION_FACTOR = 5;
+
+	@Param({ "10000" })
+	public int locations;
+
+	@Param({ "200" })
+	public int peers;
+
+	private PeerDHT peer;
+	private PeerMap peerMap;
+	private PeerAddress[] others;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		Random random = new Random(BenchmarkUtil.SEED);
+		Number160 self = new Number160(random);
+		// all peers fit into the verified map and are not pinged by the maintenance
+		peerMap = new PeerMap(new PeerMapConfiguration(self).setFixedVerifiedBagSizes(peers));
+		int port = NetworkUtils.searchFreePort();
+		peer = new PeerBuilderDHT(new PeerBuilder(self).ports(port).peerMap(peerMap).enableMaintenance(false)
+				.start()).start();
+
+		Replication replication = new Replication(peer, REPLICATION_FACTOR, true, true,
+				Collections.<ReplicationFilter> emptyList());
+
+		InetAddress address = InetAddress.getByName("127.0.0.1");
+		others = new PeerAddress[peers];
+		int closest = Number160.BITS;
+		for (int i = 0; i < peers; i++) {
+			others[i] = new PeerAddress(new Number160(random), address, 4000 + i, 4000 + i);
+			peerMap.peerFound(others[i], null, null, null);
+			closest = Math.min(closest, others[i].peerId().xor(self).bitLength());
+		}
+
+		// locations that share a longer prefix with this peer than any other peer
+		for (int i = 0; i < locations; i++) {
+			Number160 locationKey = self.xor(randomBits(random, closest - 1));
+			peer.storageLayer().updateResponsibilities(locationKey, self);
+		}
+		replication.addResponsibilityListener(new NoReplication());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		int responsible = peer.storageLayer().findContentForResponsiblePeerID(peer.peerID()).size();
+		peer.shutdown().awaitUninterruptibly();
+		if (responsible != locations) {
+			throw new IllegalStateException("Responsible for " + responsible + " instead of " + locations
+					+ " locations");
+		}
+	}
+
+	private static Number160 randomBits(Random random, int bits) {
+		int[] val = new int[Number160.INT_ARRAY_SIZE];
+		for (int i = val.length - 1, remaining = bits; i >= 0 && remaining > 0; i--, remaining -= Integer.SIZE) {
+			int value = random.nextInt();
+			val[i] = remaining >= Integer.SIZE ? value : value & ((1 << remaining) - 1);
+		}
+		return new Number160(val);
+	}
+
+	@Benchmark
+	public boolean failAndReturn() {
+		next = (next + 1) % others.length;
+		peerMap.peerFailed(others[next], new PeerException(AbortCause.PROBABLY_OFFLINE, "churn"));
+		return peerMap.peerFound(others[next], null, null, null);
+	}
+
+	/**
+	 * Completes every notification right away, such that only the responsibility checks are measured.
+	 */
+	private static class NoReplication implements ResponsibilityListener {
+
+		@Override
+		public FutureDone<?> meResponsible(Number160 locationKey) {
+			return new FutureDone<Void>().done();
+		}
+
+		@Override
+		public FutureDone<?> meResponsible(Number160 locationKey, PeerAddress newPeer) {
+			return new FutureDone<Void>().done();
+		}
+
+		@Override
+		public FutureDone<?> otherResponsible(Number160 locationKey, PeerAddress other) {
+			return new FutureDone<Void>().done();
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package org.hive2hive.benchmark;
+
+import io.netty.channel.nio.NioEventLoopGroup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import net.tomp2p.connection.Reservation;
+import net.tomp2p.futures.BaseFutureAdapter;
+import net.tomp2p.futures.FutureChannelCreator;
+import net.tomp2p.p2p.PeerBuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Request setup rate of the connection {@link Reservation}. Every invocation issues a burst of reservations
+ * (like the chunk puts of a large file) that exceeds the number of permits. The channel creators are shut
+ * down as soon as they are reserved, which releases the permits for the queued reservations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReservationBenchmark {
+
+	private static final int BURST = 2000;
+
+	private NioEventLoopGroup workerGroup;
+	private ScheduledExecutorService timer;
+	private Reservation reservation;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		workerGroup = new NioEventLoopGroup(1);
+		timer = Executors.newScheduledThreadPool(1);
+		reservation = new Reservation(workerGroup, PeerBuilder.createDefaultChannelClientConfiguration(), timer);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		reservation.shutdown().awaitUninterruptibly();
+		workerGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+		timer.shutdown();
+	}
+
+	private void burst() throws InterruptedException {
+		final CountDownLatch latch = new CountDownLatch(BURST);
+		for (int i = 0; i < BURST; i++) {
+			reservation.create(0, 1).addListener(new BaseFutureAdapter<FutureChannelCreator>() {
+				@Override
+				public void operationComplete(FutureChannelCreator future) throws Exception {
+					if (future.isSuccess()) {
+						future.channelCreator().shutdown();
+					}
+					latch.countDown();
+				}
+			});
+		}
+		latch.await();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BURST)
+	public void reserve() throws InterruptedException {
+		burst();
+	}
+
+	@Benchmark
+	@Threads(8)
+	@OperationsPerInvocation(BURST)
+	public void reserveConcurrently() throws InterruptedException {
+		burst();
+	}
+}
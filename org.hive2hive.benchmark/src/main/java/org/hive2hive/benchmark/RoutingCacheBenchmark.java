@@ -0,0 +1,263 @@
+package org.hive2hive.benchmark;
+
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.util.concurrent.EventExecutorGroup;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.tomp2p.connection.ChannelClientConfiguration;
+import net.tomp2p.connection.ChannelServerConfiguration;
+import net.tomp2p.connection.PipelineFilter;
+import net.tomp2p.connection.Ports;
+import net.tomp2p.dht.PeerBuilderDHT;
+import net.tomp2p.dht.PeerDHT;
+import net.tomp2p.dht.StorageMemory;
+import net.tomp2p.futures.FutureBootstrap;
+import net.tomp2p.message.Message;
+import net.tomp2p.p2p.Peer;
+import net.tomp2p.p2p.PeerBuilder;
+import net.tomp2p.p2p.RoutingCache;
+import net.tomp2p.peers.DefaultMaintenance;
+import net.tomp2p.peers.Number160;
+import net.tomp2p.peers.PeerMap;
+import net.tomp2p.peers.PeerMapConfiguration;
+import net.tomp2p.rpc.RPC;
+import net.tomp2p.utils.Pair;
+
+import org.hive2hive.core.H2HConstants;
+import org.hive2hive.core.api.H2HNode;
+import org.hive2hive.core.api.configs.FileConfiguration;
+import org.hive2hive.core.api.interfaces.IH2HNode;
+import org.hive2hive.core.network.H2HStorageMemory;
+import org.hive2hive.core.network.NetworkUtils;
+import org.hive2hive.core.security.H2HDefaultEncryption;
+import org.hive2hive.core.security.H2HSignatureFactory;
+import org.hive2hive.core.security.UserCredentials;
+import org.hive2hive.core.serializer.FSTSerializer;
+import org.hive2hive.core.serializer.IH2HSerialize;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Adds many small files through a local network of Hive2Hive nodes, with and without a {@link RoutingCache} on
+ * the nodes. Besides the time of the whole sync, the requests received by all nodes are counted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = { BenchmarkUtil.IGNORE_UNRECOGNIZED, BenchmarkUtil.OPEN_LANG,
+		BenchmarkUtil.OPEN_MATH, BenchmarkUtil.OPEN_NET, BenchmarkUtil.OPEN_SECURITY, BenchmarkUtil.OPEN_TEXT,
+		BenchmarkUtil.OPEN_UTIL, BenchmarkUtil.OPEN_CONCURRENT })
+public class RoutingCacheBenchmark {
+
+	private static final int NETWORK_SIZE = 10;
+
+	private static final AtomicLong NEIGHBOR_REQUESTS = new AtomicLong();
+	private static final AtomicLong REQUESTS = new AtomicLong();
+
+	@Param({ "true", "false" })
+	public boolean routingCache;
+
+	@Param({ "1000" })
+	public int files;
+
+	@Param({ "1024" })
+	public int fileSize;
+
+	private final Random random = new Random(BenchmarkUtil.SEED);
+	private final List<PeerDHT> peers = new ArrayList<PeerDHT>(NETWORK_SIZE);
+	private final List<IH2HNode> network = new ArrayList<IH2HNode>(NETWORK_SIZE);
+	private EndToEndBenchmark.TempFileAgent agent;
+	private IH2HNode uploader;
+
+	private final List<File> toSync = new ArrayList<File>();
+	private int iteration;
+
+	/**
+	 * The requests of the last sync
+	 */
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	@State(Scope.Thread)
+	public static class Requests {
+		public long neighborRequests;
+		public long requests;
+		public long cachedRoutings;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			neighborRequests = 0;
+			requests = 0;
+			cachedRoutings = 0;
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		IH2HSerialize serializer = new FSTSerializer();
+		for (int i = 0; i < NETWORK_SIZE; i++) {
+			PeerDHT peer = createPeer("node" + i, i == 0 ? null : peers.get(0).peer());
+			peers.add(peer);
+			IH2HNode node = H2HNode.createNode(FileConfiguration.createDefault(), new H2HDefaultEncryption(
+					serializer), serializer);
+			if (!node.connect(peer, false)) {
+				throw new IllegalStateException("Node " + i + " could not connect");
+			}
+			network.add(node);
+		}
+
+		UserCredentials credentials = new UserCredentials("benchmark-user", "password", "pin");
+		network.get(0).getUserManager().createRegisterProcess(credentials).execute();
+
+		uploader = network.get(1);
+		agent = new EndToEndBenchmark.TempFileAgent("uploader");
+		uploader.getUserManager().createLoginProcess(credentials, agent).execute();
+	}
+
+	/**
+	 * Like a local peer of the connection, but with the counting filter and the optional routing cache
+	 */
+	private PeerDHT createPeer(String nodeId, Peer masterPeer) throws Exception {
+		PeerMapConfiguration peerMapConfiguration = new PeerMapConfiguration(Number160.createHash(nodeId));
+		peerMapConfiguration.peerVerification(false);
+		peerMapConfiguration.maintenance(new DefaultMaintenance(4, new int[] { 1 }));
+		peerMapConfiguration.offlineCount(1);
+		peerMapConfiguration.shutdownTimeout(1);
+
+		int port = NetworkUtils.searchFreePort();
+		ChannelClientConfiguration clientConfig = PeerBuilder.createDefaultChannelClientConfiguration();
+		clientConfig.signatureFactory(new H2HSignatureFactory());
+		ChannelServerConfiguration serverConfig = PeerBuilder.createDefaultChannelServerConfiguration();
+		serverConfig.signatureFactory(new H2HSignatureFactory());
+		serverConfig.ports(new Ports(port, port));
+		serverConfig.pipelineFilter(new CountingPipelineFilter(serverConfig.pipelineFilter()));
+
+		Peer peer = new PeerBuilder(Number160.createHash(nodeId)).ports(port).masterPeer(masterPeer)
+				.peerMap(new PeerMap(peerMapConfiguration)).channelClientConfiguration(clientConfig)
+				.channelServerConfiguration(serverConfig).routingCache(routingCache ? new RoutingCache() : null)
+				.start();
+		PeerDHT peerDHT = new PeerBuilderDHT(peer)
+				.storage(new StorageMemory(H2HConstants.TTL_PERIOD, H2HConstants.MAX_VERSIONS_HISTORY))
+				.storageLayer(new H2HStorageMemory()).start();
+		if (masterPeer != null) {
+			FutureBootstrap futureBootstrap = peer.bootstrap().peerAddress(masterPeer.peerAddress()).start();
+			futureBootstrap.awaitUninterruptibly();
+			if (!futureBootstrap.isSuccess()) {
+				throw new IllegalStateException("Bootstrapping failed: " + futureBootstrap.failedReason());
+			}
+		}
+		return peerDHT;
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		for (IH2HNode node : network) {
+			node.disconnect();
+		}
+		network.clear();
+		peers.clear();
+		if (agent != null) {
+			BenchmarkUtil.delete(agent.getRoot());
+		}
+	}
+
+	@Setup(Level.Iteration)
+	public void prepareSync() throws Exception {
+		toSync.clear();
+		for (int i = 0; i < files; i++) {
+			toSync.add(BenchmarkUtil.createRandomFile(agent.getRoot(), "sync-" + iteration + "-" + i, fileSize,
+					random));
+		}
+		iteration++;
+		NEIGHBOR_REQUESTS.set(0);
+		REQUESTS.set(0);
+	}
+
+	@Benchmark
+	public void sync(Requests requests) throws Exception {
+		long cachedBefore = cachedRoutings();
+		for (File file : toSync) {
+			uploader.getFileManager().createAddProcess(file).execute();
+		}
+		requests.neighborRequests = NEIGHBOR_REQUESTS.get();
+		requests.requests = REQUESTS.get();
+		requests.cachedRoutings = cachedRoutings() - cachedBefore;
+	}
+
+	private long cachedRoutings() {
+		long hits = 0;
+		for (PeerDHT peer : peers) {
+			RoutingCache cache = peer.peer().distributedRouting().routingCache();
+			if (cache != null) {
+				hits += cache.hits();
+			}
+		}
+		return hits;
+	}
+
+	/**
+	 * Counts the requests a node receives, right before they are dispatched.
+	 */
+	private static class CountingPipelineFilter implements PipelineFilter {
+
+		private static final ChannelHandler COUNTER = new RequestCounter();
+
+		private final PipelineFilter delegate;
+
+		public CountingPipelineFilter(PipelineFilter delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public Map<String, Pair<EventExecutorGroup, ChannelHandler>> filter(
+				Map<String, Pair<EventExecutorGroup, ChannelHandler>> channelHandlers, boolean tcp, boolean client) {
+			Map<String, Pair<EventExecutorGroup, ChannelHandler>> filtered = new LinkedHashMap<String, Pair<EventExecutorGroup, ChannelHandler>>();
+			for (Map.Entry<String, Pair<EventExecutorGroup, ChannelHandler>> entry : delegate.filter(
+					channelHandlers, tcp, client).entrySet()) {
+				if (entry.getKey().equals("dispatcher")) {
+					filtered.put("counter", new Pair<EventExecutorGroup, ChannelHandler>(null, COUNTER));
+				}
+				filtered.put(entry.getKey(), entry.getValue());
+			}
+			return filtered;
+		}
+	}
+
+	@Sharable
+	private static class RequestCounter extends ChannelInboundHandlerAdapter {
+
+		@Override
+		public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+			if (msg instanceof Message && ((Message) msg).isRequest()) {
+				REQUESTS.incrementAndGet();
+				if (((Message) msg).command() == RPC.Commands.NEIGHBOR.getNr()) {
+					NEIGHBOR_REQUESTS.incrementAndGet();
+				}
+			}
+			ctx.fireChannelRead(msg);
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package org.hive2hive.benchmark;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.hive2hive.core.model.versioned.UserProfile;
+import org.hive2hive.core.serializer.FSTSerializer;
+import org.hive2hive.core.serializer.IH2HSerialize;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * FST serialization of large {@link UserProfile} trees, into arrays and into (pooled) buffers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { BenchmarkUtil.IGNORE_UNRECOGNIZED, BenchmarkUtil.OPEN_LANG,
+		BenchmarkUtil.OPEN_MATH, BenchmarkUtil.OPEN_NET, BenchmarkUtil.OPEN_SECURITY, BenchmarkUtil.OPEN_TEXT,
+		BenchmarkUtil.OPEN_UTIL, BenchmarkUtil.OPEN_CONCURRENT })
+public class SerializationBenchmark {
+
+	/**
+	 * Depth of the folder tree with a fan-out of 4 and 5 files per folder. Depth 4 results in 340 folders
+	 * and 1705 files.
+	 */
+	@Param({ "2", "4" })
+	public int depth;
+
+	private IH2HSerialize serializer;
+	private UserProfile profile;
+	private byte[] serialized;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		serializer = new FSTSerializer();
+		profile = BenchmarkUtil.createUserProfile(depth, 4, 5, null);
+		serialized = serializer.serialize(profile);
+	}
+
+	@Benchmark
+	public byte[] serialize() throws IOException {
+		return serializer.serialize(profile);
+	}
+
+	@Benchmark
+	public int serializeToPooledBuffer() throws IOException {
+		ByteBuf buffer = PooledByteBufAllocator.DEFAULT.heapBuffer();
+		try {
+			serializer.serialize(profile, buffer);
+			return buffer.readableBytes();
+		} finally {
+			buffer.release();
+		}
+	}
+
+	@Benchmark
+	public Object deserialize() throws ClassNotFoundException, IOException {
+		return serializer.deserialize(serialized);
+	}
+
+	@Benchmark
+	public Object deserializeFromBuffer() throws ClassNotFoundException, IOException {
+		// a composite buffer, as received from the network
+		ByteBuf buffer = Unpooled.wrappedBuffer(Unpooled.wrappedBuffer(serialized, 0, serialized.length / 2),
+				Unpooled.wrappedBuffer(serialized, serialized.length / 2, serialized.length - serialized.length / 2));
+		return serializer.deserialize(buffer);
+	}
+}
@@ -0,0 +1,123 @@
+package org.hive2hive.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.tomp2p.dht.StorageLayer;
+import net.tomp2p.dht.StorageMemory;
+import net.tomp2p.peers.Number160;
+import net.tomp2p.peers.Number640;
+import net.tomp2p.storage.Data;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Expiration of entries by {@link StorageLayer#checkTimeout()}. Every invocation fills a fresh
+ * {@link StorageMemory} where a part of the entries has expired, and verifies afterwards that exactly the
+ * expired entries and their responsibilities have been removed, and that the expiration stayed within the
+ * time budget.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StorageExpiryBenchmark {
+
+	/**
+	 * Maximum time to expire the entries of one invocation, far above the time of a linear expiry
+	 */
+	private static final long TIME_BUDGET_MS = 5000;
+
+	/**
+	 * Number of expired entries
+	 */
+	@Param({ "100000" })
+	public int expired;
+
+	/**
+	 * Number of entries that do not expire
+	 */
+	@Param({ "0", "100000" })
+	public int remaining;
+
+	/**
+	 * Number of entries per location key
+	 */
+	@Param({ "10" })
+	public int entriesPerLocation;
+
+	private StorageMemory storage;
+	private StorageLayer storageLayer;
+	private Number160 self;
+	private long elapsedMillis;
+
+	@Setup(Level.Trial)
+	public void setupPeer() {
+		self = new Number160(new Random(BenchmarkUtil.SEED));
+	}
+
+	@Setup(Level.Invocation)
+	public void setup() {
+		Random random = new Random(BenchmarkUtil.SEED);
+		storage = new StorageMemory();
+		storageLayer = new StorageLayer(storage);
+
+		byte[] content = BenchmarkUtil.randomBytes(128, random);
+		Data expiredData = new Data(content).ttlSeconds(1).validFromMillis(System.currentTimeMillis() - 2000);
+		Data remainingData = new Data(content).ttlSeconds((int) TimeUnit.HOURS.toSeconds(1));
+		fill(expired, expiredData, random);
+		fill(remaining, remainingData, random);
+	}
+
+	private void fill(int entries, Data data, Random random) {
+		for (int i = 0; i < entries; i += entriesPerLocation) {
+			Number160 location = new Number160(random);
+			storage.updateResponsibilities(location, self);
+			for (int j = 0; j < entriesPerLocation && i + j < entries; j++) {
+				Number640 key = new Number640(location, Number160.ZERO, new Number160(random), Number160.ZERO);
+				storage.put(key, data);
+				storage.addTimeout(key, data.expirationMillis());
+			}
+		}
+	}
+
+	@TearDown(Level.Invocation)
+	public void verify() {
+		if (elapsedMillis > TIME_BUDGET_MS) {
+			throw new IllegalStateException("Expiring " + expired + " entries took " + elapsedMillis
+					+ " ms, the budget is " + TIME_BUDGET_MS + " ms");
+		}
+		int stored = storage.map().size();
+		if (stored != remaining) {
+			throw new IllegalStateException("Expected " + remaining + " entries after expiration, found " + stored);
+		}
+		int responsible = storage.findContentForResponsiblePeerID(self) == null ? 0 : storage
+				.findContentForResponsiblePeerID(self).size();
+		int expectedLocations = (remaining + entriesPerLocation - 1) / entriesPerLocation;
+		if (responsible != expectedLocations) {
+			throw new IllegalStateException("Expected " + expectedLocations + " responsibilities, found " + responsible);
+		}
+		storage.close();
+	}
+
+	@Benchmark
+	public void checkTimeout() {
+		long start = System.nanoTime();
+		storageLayer.checkTimeout();
+		elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+	}
+}
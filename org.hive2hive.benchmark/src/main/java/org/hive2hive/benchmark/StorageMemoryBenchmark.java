@@ -0,0 +1,105 @@
+package org.hive2hive.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.tomp2p.dht.StorageLayer;
+import net.tomp2p.dht.StorageMemory;
+import net.tomp2p.peers.Number160;
+import net.tomp2p.peers.Number640;
+import net.tomp2p.rpc.DigestInfo;
+import net.tomp2p.storage.Data;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Put, get and digest on a {@link StorageMemory}. The digest goes through the {@link StorageLayer} as it
+ * does on a peer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageMemoryBenchmark {
+
+	/**
+	 * Number of stored entries
+	 */
+	@Param({ "10000", "100000" })
+	public int entries;
+
+	/**
+	 * Number of entries per location key
+	 */
+	@Param({ "10" })
+	public int entriesPerLocation;
+
+	private StorageMemory storage;
+	private StorageLayer storageLayer;
+	private Number640[] keys;
+	private Number160[] locations;
+	private Data data;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Random random = new Random(BenchmarkUtil.SEED);
+		data = new Data(BenchmarkUtil.randomBytes(1024, random));
+		storage = new StorageMemory();
+		storageLayer = new StorageLayer(storage);
+
+		locations = new Number160[entries / entriesPerLocation];
+		keys = new Number640[entries];
+		for (int i = 0; i < locations.length; i++) {
+			locations[i] = new Number160(random);
+			for (int j = 0; j < entriesPerLocation; j++) {
+				Number640 key = new Number640(locations[i], Number160.ZERO, new Number160(random), Number160.ZERO);
+				keys[i * entriesPerLocation + j] = key;
+				storage.put(key, data);
+			}
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		storage.close();
+	}
+
+	private int nextIndex(int length) {
+		next = (next + 1) % length;
+		return next;
+	}
+
+	@Benchmark
+	public Data put() {
+		// overwrites an existing entry, such that the size of the storage remains stable
+		return storage.put(keys[nextIndex(keys.length)], data);
+	}
+
+	@Benchmark
+	public Data get() {
+		return storage.get(keys[nextIndex(keys.length)]);
+	}
+
+	@Benchmark
+	public DigestInfo digestLocation() {
+		Number160 location = locations[nextIndex(locations.length)];
+		Number640 from = new Number640(location, Number160.ZERO, Number160.ZERO, Number160.ZERO);
+		Number640 to = new Number640(location, Number160.MAX_VALUE, Number160.MAX_VALUE, Number160.MAX_VALUE);
+		return storageLayer.digest(from, to, -1, true);
+	}
+}
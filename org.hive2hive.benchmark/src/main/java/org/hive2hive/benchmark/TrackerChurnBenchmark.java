@@ -0,0 +1,121 @@
+package org.hive2hive.benchmark;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.tomp2p.peers.Number160;
+import net.tomp2p.peers.Number320;
+import net.tomp2p.peers.PeerAddress;
+import net.tomp2p.peers.PeerMap;
+import net.tomp2p.peers.PeerMapConfiguration;
+import net.tomp2p.tracker.TrackerStorage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Peer churn on a {@link TrackerStorage} holding many tracker keys. Every operation lets one peer fail and
+ * come back: the peer is removed from all its keys, announces itself again (unverified) and is verified once
+ * it is found firsthand.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TrackerChurnBenchmark {
+
+	private static final int TTL_SECONDS = 3600;
+	private static final int REPLICATION_FACTOR = 20;
+
+	@Param({ "100000" })
+	public int keys;
+
+	/**
+	 * Number of keys every peer is stored under
+	 */
+	@Param({ "10" })
+	public int keysPerPeer;
+
+	/**
+	 * Number of peers stored under every key
+	 */
+	@Param({ "2" })
+	public int peersPerKey;
+
+	private TrackerStorage trackerStorage;
+	private PeerAddress[] peers;
+	private Number320[][] peerKeys;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setup() throws UnknownHostException {
+		Random random = new Random(BenchmarkUtil.SEED);
+		InetAddress address = InetAddress.getByName("127.0.0.1");
+		PeerAddress self = new PeerAddress(new Number160(random), address, 4000, 4000);
+		PeerMap peerMap = new PeerMap(new PeerMapConfiguration(self.peerId()));
+		// twice the capacity, such that no key is evicted from an unevenly filled segment
+		trackerStorage = new TrackerStorage(TTL_SECONDS, new int[] { 2, 4, 8, 16, 32, 64 }, REPLICATION_FACTOR,
+				peerMap, self, true, keys * 2);
+
+		Number320[] trackerKeys = new Number320[keys];
+		for (int i = 0; i < keys; i++) {
+			trackerKeys[i] = new Number320(new Number160(random), Number160.ZERO);
+		}
+
+		peers = new PeerAddress[keys * peersPerKey / keysPerPeer];
+		peerKeys = new Number320[peers.length][keysPerPeer];
+		for (int i = 0; i < peers.length; i++) {
+			peers[i] = new PeerAddress(new Number160(random), address, 4000 + (i % 1000), 4000 + (i % 1000));
+			for (int j = 0; j < keysPerPeer; j++) {
+				peerKeys[i][j] = trackerKeys[random.nextInt(keys)];
+			}
+			announce(i);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void verify() {
+		if (trackerStorage.sizeUnverified() != 0) {
+			throw new IllegalStateException(trackerStorage.sizeUnverified() + " keys remain unverified");
+		}
+		for (int i = 0; i < peers.length; i++) {
+			for (Number320 key : peerKeys[i]) {
+				if (!trackerStorage.peers(key).containsKey(peers[i])) {
+					throw new IllegalStateException("Peer " + i + " is missing under key " + key);
+				}
+			}
+		}
+	}
+
+	private void announce(int peer) {
+		for (Number320 key : peerKeys[peer]) {
+			trackerStorage.put(key, peers[peer], null, null);
+		}
+		trackerStorage.peerFound(peers[peer], null, null, null);
+	}
+
+	@Benchmark
+	public boolean failAndReturn() {
+		next = (next + 1) % peers.length;
+		boolean removed = trackerStorage.peerFailed(peers[next], null);
+		// clears the offline flag, such that the peer can announce itself again
+		trackerStorage.peerFound(peers[next], null, null, null);
+		announce(next);
+		return removed;
+	}
+}
@@ -0,0 +1,135 @@
+package org.hive2hive.benchmark;
+
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.hive2hive.core.H2HConstants;
+import org.hive2hive.core.model.versioned.EncryptedNetworkContent;
+import org.hive2hive.core.model.versioned.UserProfile;
+import org.hive2hive.core.network.NetworkManager;
+import org.hive2hive.core.network.data.DataManager;
+import org.hive2hive.core.network.data.vdht.AESEncryptedVersionManager;
+import org.hive2hive.core.security.EncryptionUtil;
+import org.hive2hive.core.security.PasswordUtil;
+import org.hive2hive.core.security.UserCredentials;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reads and writes the encrypted user profile in a small local network. The reads at login use a new version
+ * manager, either empty or with the snapshot persisted by an earlier session. The other reads and the writes
+ * use the key of the session or derive the key from the credentials for every access.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { BenchmarkUtil.IGNORE_UNRECOGNIZED, BenchmarkUtil.OPEN_IO, BenchmarkUtil.OPEN_LANG,
+		BenchmarkUtil.OPEN_MATH, BenchmarkUtil.OPEN_NET, BenchmarkUtil.OPEN_SECURITY, BenchmarkUtil.OPEN_TEXT,
+		BenchmarkUtil.OPEN_UTIL, BenchmarkUtil.OPEN_CONCURRENT })
+public class UserProfileBenchmark {
+
+	private static final int NETWORK_SIZE = 5;
+
+	/**
+	 * Depth of the folder tree in the profile with a fan-out of 4 and 5 files per folder.
+	 */
+	@Param({ "3" })
+	public int depth;
+
+	private final List<NetworkManager> network = new ArrayList<NetworkManager>(NETWORK_SIZE);
+	private final UserCredentials credentials = new UserCredentials("benchmark-user", "password", "pin");
+	private DataManager dataManager;
+	private SecretKey encryptionKey;
+	private EncryptedNetworkContent snapshot;
+	private UserProfile profile;
+	private KeyPair protectionKeys;
+	private AESEncryptedVersionManager<UserProfile> sessionVersionManager;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		network.addAll(BenchmarkUtil.createNetworkManagers(NETWORK_SIZE));
+
+		profile = BenchmarkUtil.createUserProfile(depth, 4, 5, null);
+		encryptionKey = deriveKey();
+		// the keys of the generated profile are too small to protect the content in the network
+		protectionKeys = EncryptionUtil.generateRSAKeyPair(H2HConstants.KEYLENGTH_PROTECTION,
+				BenchmarkUtil.securityProvider());
+		AESEncryptedVersionManager<UserProfile> versionManager = createVersionManager(network.get(0)
+				.getDataManager(), encryptionKey);
+		versionManager.put(profile, protectionKeys);
+		snapshot = versionManager.getLatestEncrypted();
+
+		dataManager = network.get(2).getDataManager();
+		sessionVersionManager = createVersionManager(dataManager, encryptionKey);
+		sessionVersionManager.get();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		for (NetworkManager node : network) {
+			node.disconnect(false);
+		}
+		network.clear();
+	}
+
+	private SecretKey deriveKey() {
+		return PasswordUtil.generateAESKeyFromPassword(credentials.getPassword(), credentials.getPin(),
+				H2HConstants.KEYLENGTH_USER_PROFILE);
+	}
+
+	private AESEncryptedVersionManager<UserProfile> createVersionManager(DataManager dataManager,
+			SecretKey encryptionKey) {
+		return new AESEncryptedVersionManager<UserProfile>(dataManager, encryptionKey,
+				credentials.getProfileLocationKey(), H2HConstants.USER_PROFILE);
+	}
+
+	@Benchmark
+	public UserProfile get() throws Exception {
+		return createVersionManager(dataManager, encryptionKey).get();
+	}
+
+	@Benchmark
+	public UserProfile getWithSnapshot() throws Exception {
+		AESEncryptedVersionManager<UserProfile> versionManager = createVersionManager(dataManager, encryptionKey);
+		versionManager.restoreEncrypted(snapshot);
+		return versionManager.get();
+	}
+
+	@Benchmark
+	public UserProfile getWithSessionKey() throws Exception {
+		return sessionVersionManager.get();
+	}
+
+	@Benchmark
+	public UserProfile getDerivingKey() throws Exception {
+		return createVersionManager(dataManager, deriveKey()).get();
+	}
+
+	@Benchmark
+	public void putWithSessionKey() throws Exception {
+		sessionVersionManager.put(profile, protectionKeys);
+	}
+
+	@Benchmark
+	public void putDerivingKey() throws Exception {
+		AESEncryptedVersionManager<UserProfile> versionManager = createVersionManager(dataManager, deriveKey());
+		versionManager.put(profile, protectionKeys);
+	}
+}
@@ -0,0 +1,121 @@
+package org.hive2hive.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.hive2hive.core.api.interfaces.IH2HNode;
+import org.hive2hive.core.model.PermissionType;
+import org.hive2hive.core.processes.files.list.FileNode;
+import org.hive2hive.core.security.UserCredentials;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A user logs in after another user has added many files to a folder they share. Every added file queued a
+ * user profile task, the login handles the whole queue before it completes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = { BenchmarkUtil.IGNORE_UNRECOGNIZED, BenchmarkUtil.OPEN_LANG,
+		BenchmarkUtil.OPEN_MATH, BenchmarkUtil.OPEN_NET, BenchmarkUtil.OPEN_SECURITY, BenchmarkUtil.OPEN_TEXT,
+		BenchmarkUtil.OPEN_UTIL, BenchmarkUtil.OPEN_CONCURRENT })
+public class UserProfileTaskQueueBenchmark {
+
+	private static final int NETWORK_SIZE = 5;
+	private static final int FILE_SIZE = 64;
+
+	@Param({ "100" })
+	public int tasks;
+
+	private final Random random = new Random(BenchmarkUtil.SEED);
+	private final List<IH2HNode> network = new ArrayList<IH2HNode>(NETWORK_SIZE);
+	private final UserCredentials sharerCredentials = new UserCredentials("sharer", "password", "pin");
+	private final UserCredentials receiverCredentials = new UserCredentials("receiver", "password", "pin");
+	private EndToEndBenchmark.TempFileAgent sharerAgent;
+	private EndToEndBenchmark.TempFileAgent receiverAgent;
+	private IH2HNode sharer;
+	private IH2HNode receiver;
+	private File sharedFolder;
+	private int added;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		network.addAll(BenchmarkUtil.createNetwork(NETWORK_SIZE));
+
+		network.get(0).getUserManager().createRegisterProcess(sharerCredentials).execute();
+		network.get(0).getUserManager().createRegisterProcess(receiverCredentials).execute();
+
+		sharer = network.get(1);
+		sharerAgent = new EndToEndBenchmark.TempFileAgent("sharer");
+		sharer.getUserManager().createLoginProcess(sharerCredentials, sharerAgent).execute();
+
+		sharedFolder = new File(sharerAgent.getRoot(), "shared");
+		if (!sharedFolder.mkdir()) {
+			throw new IllegalStateException("Cannot create " + sharedFolder);
+		}
+		sharer.getFileManager().createAddProcess(sharedFolder).execute();
+		sharer.getFileManager().createShareProcess(sharedFolder, receiverCredentials.getUserId(), PermissionType.WRITE)
+				.execute();
+
+		// the first login handles the share, then the receiver goes offline
+		receiver = network.get(2);
+		receiverAgent = new EndToEndBenchmark.TempFileAgent("receiver");
+		receiver.getUserManager().createLoginProcess(receiverCredentials, receiverAgent).execute();
+		receiver.getUserManager().createLogoutProcess().execute();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		for (IH2HNode node : network) {
+			node.disconnect();
+		}
+		network.clear();
+		if (sharerAgent != null) {
+			BenchmarkUtil.delete(sharerAgent.getRoot());
+		}
+		if (receiverAgent != null) {
+			BenchmarkUtil.delete(receiverAgent.getRoot());
+		}
+	}
+
+	@Setup(Level.Iteration)
+	public void queueTasks() throws Exception {
+		// every added file queues a user profile task for the offline receiver
+		for (int i = 0; i < tasks; i++) {
+			File file = BenchmarkUtil.createRandomFile(sharedFolder, "file-" + added++, FILE_SIZE, random);
+			sharer.getFileManager().createAddProcess(file).execute();
+		}
+	}
+
+	@TearDown(Level.Iteration)
+	public void verifyAndLogout() throws Exception {
+		FileNode root = receiver.getFileManager().createFileListProcess().execute();
+		int files = FileNode.getNodeList(root, true, false).size();
+		receiver.getUserManager().createLogoutProcess().execute();
+		if (files != added) {
+			throw new IllegalStateException("Received " + files + " instead of " + added + " files");
+		}
+	}
+
+	@Benchmark
+	public void login() throws Exception {
+		receiver.getUserManager().createLoginProcess(receiverCredentials, receiverAgent).execute();
+	}
+}
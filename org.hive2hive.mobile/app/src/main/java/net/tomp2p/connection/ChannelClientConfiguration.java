@@ -16,6 +16,9 @@
 
 package net.tomp2p.connection;
 
+import net.tomp2p.message.DataMapHandler;
+import net.tomp2p.message.SignatureVerifier;
+
 import java.net.InetAddress;
 
 /**
@@ -32,6 +35,8 @@ public class ChannelClientConfiguration {
 
     private PipelineFilter pipelineFilter;
     private SignatureFactory signatureFactory;
+    private SignatureVerifier signatureVerifier;
+    private DataMapHandler dataMapHandler;
     private Bindings bindings;
     
     private InetAddress senderUDP;
@@ -122,6 +127,44 @@ public class ChannelClientConfiguration {
         return this;
     }
 
+    /**
+     * @return The verifier that checks the signatures of received messages outside of the I/O threads or null
+     *         if they are checked while decoding
+     */
+    public SignatureVerifier signatureVerifier() {
+        return signatureVerifier;
+    }
+
+    /**
+     * @param signatureVerifier
+     *            The verifier that checks the signatures of received messages outside of the I/O threads or
+     *            null to check them while decoding
+     * @return This class
+     */
+    public ChannelClientConfiguration signatureVerifier(final SignatureVerifier signatureVerifier) {
+        this.signatureVerifier = signatureVerifier;
+        return this;
+    }
+
+    /**
+     * @return The handler that receives the data map entries of unsigned messages while they are decoded or null
+     *         to materialize all entries
+     */
+    public DataMapHandler dataMapHandler() {
+        return dataMapHandler;
+    }
+
+    /**
+     * @param dataMapHandler
+     *            The handler that receives the data map entries of unsigned messages while they are decoded or
+     *            null to materialize all entries
+     * @return This class
+     */
+    public ChannelClientConfiguration dataMapHandler(final DataMapHandler dataMapHandler) {
+        this.dataMapHandler = dataMapHandler;
+        return this;
+    }
+
     /**
      * @return The bindings
      */
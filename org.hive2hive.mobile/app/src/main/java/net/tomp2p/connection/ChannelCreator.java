@@ -52,7 +52,7 @@ import io.netty.util.concurrent.GlobalEventExecutor;
 
 /**
  * Creates the channels. This class is created by
- * {@link net.tomp2p.connection.Reservation.WaitReservationPermanent} and should
+ * {@link net.tomp2p.connection.Reservation} and should
  * never be called directly. With this class one can create TCP or UDP channels
  * up to a certain extend. Thus it must be know beforehand how many connections
  * will be created.
@@ -92,7 +92,7 @@ public class ChannelCreator {
 
 	/**
 	 * Package private constructor, since this is created by
-	 * {@link net.tomp2p.connection.Reservation.WaitReservationPermanent} and
+	 * {@link net.tomp2p.connection.Reservation} and
 	 * should never be called directly.
 	 * 
 	 * @param workerGroup
@@ -17,6 +17,7 @@
 package net.tomp2p.connection;
 
 import net.tomp2p.futures.FutureDone;
+import net.tomp2p.message.SignatureVerifier;
 import net.tomp2p.message.TomP2PCumulationTCP;
 import net.tomp2p.message.TomP2POutbound;
 import net.tomp2p.message.TomP2PSinglePacketUDP;
@@ -114,7 +115,8 @@ public final class ChannelServer implements DiscoverNetworkListener{
 		
 		this.tcpDropConnectionInboundHandler = new DropConnectionInboundHandler(channelServerConfiguration.maxTCPIncomingConnections());
 		this.udpDropConnectionInboundHandler = new DropConnectionInboundHandler(channelServerConfiguration.maxUDPIncomingConnections());
-		this.udpDecoderHandler = new TomP2PSinglePacketUDP(channelServerConfiguration.signatureFactory());
+		this.udpDecoderHandler = new TomP2PSinglePacketUDP(channelServerConfiguration.signatureFactory(),
+		        channelServerConfiguration.signatureVerifier(), channelServerConfiguration.dataMapHandler());
 		
 		discoverNetworks.addDiscoverNetworkListener(this);
 		if(timer!=null) {
@@ -341,24 +343,30 @@ public final class ChannelServer implements DiscoverNetworkListener{
 		        peerStatusListeners, "Server");
 		final Map<String, Pair<EventExecutorGroup, ChannelHandler>> handlers;
 		if (tcp) {
-			final int nrTCPHandlers = 8; // 6 / 0.75 = 7;
+			final int nrTCPHandlers = 10; // 7 / 0.75 = 9.3;
 			handlers = new LinkedHashMap<String, Pair<EventExecutorGroup, ChannelHandler>>(nrTCPHandlers);
 			handlers.put("dropconnection", new Pair<EventExecutorGroup, ChannelHandler>(null, tcpDropConnectionInboundHandler));
 			handlers.put("timeout0",
 			        new Pair<EventExecutorGroup, ChannelHandler>(null, timeoutFactory.idleStateHandlerTomP2P()));
 			handlers.put("timeout1", new Pair<EventExecutorGroup, ChannelHandler>(null, timeoutFactory.timeHandler()));
 			handlers.put("decoder", new Pair<EventExecutorGroup, ChannelHandler>(null, new TomP2PCumulationTCP(
-			        channelServerConfiguration.signatureFactory())));
+			        channelServerConfiguration.signatureFactory(), channelServerConfiguration.signatureVerifier(),
+			        channelServerConfiguration.dataMapHandler())));
 		} else {
 			// we don't need here a timeout since we receive a packet or
 			// nothing. It is different than with TCP where we
 			// may get a stream and in the middle of it, the other peer goes
 			// offline. This cannot happen with UDP
-			final int nrUDPHandlers = 6; // 4 = 0.75 = 4 
+			final int nrUDPHandlers = 7; // 5 / 0.75 = 6.7
 			handlers = new LinkedHashMap<String, Pair<EventExecutorGroup, ChannelHandler>>(nrUDPHandlers);
 			handlers.put("dropconnection", new Pair<EventExecutorGroup, ChannelHandler>(null, udpDropConnectionInboundHandler));
 			handlers.put("decoder", new Pair<EventExecutorGroup, ChannelHandler>(null, udpDecoderHandler));
 		}
+		final SignatureVerifier signatureVerifier = channelServerConfiguration.signatureVerifier();
+		if (signatureVerifier != null) {
+			handlers.put("verifier", new Pair<EventExecutorGroup, ChannelHandler>(signatureVerifier.executor(),
+			        signatureVerifier.handler(channelServerConfiguration.signatureFactory())));
+		}
 		handlers.put("encoder", new Pair<EventExecutorGroup, ChannelHandler>(null, new TomP2POutbound(false,
 		        channelServerConfiguration.signatureFactory())));
 		handlers.put("dispatcher", new Pair<EventExecutorGroup, ChannelHandler>(null, dispatcher));
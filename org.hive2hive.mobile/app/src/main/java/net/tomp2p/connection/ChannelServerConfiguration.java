@@ -16,6 +16,8 @@
 
 package net.tomp2p.connection;
 
+import net.tomp2p.message.DataMapHandler;
+import net.tomp2p.message.SignatureVerifier;
 
 /**
  * The the configuration for the server.
@@ -39,6 +41,8 @@ public class ChannelServerConfiguration implements ConnectionConfiguration {
     private Bindings bindings = null;
 
     private SignatureFactory signatureFactory = null;
+    private SignatureVerifier signatureVerifier;
+    private DataMapHandler dataMapHandler;
 
     private boolean forceTCP;
     private boolean forceUDP;
@@ -173,6 +177,44 @@ public class ChannelServerConfiguration implements ConnectionConfiguration {
         return this;
     }
 
+    /**
+     * @return The verifier that checks the signatures of received messages outside of the I/O threads or null
+     *         if they are checked while decoding
+     */
+    public SignatureVerifier signatureVerifier() {
+        return signatureVerifier;
+    }
+
+    /**
+     * @param signatureVerifier
+     *            The verifier that checks the signatures of received messages outside of the I/O threads or
+     *            null to check them while decoding
+     * @return This class
+     */
+    public ChannelServerConfiguration signatureVerifier(final SignatureVerifier signatureVerifier) {
+        this.signatureVerifier = signatureVerifier;
+        return this;
+    }
+
+    /**
+     * @return The handler that receives the data map entries of unsigned messages while they are decoded or null
+     *         to materialize all entries
+     */
+    public DataMapHandler dataMapHandler() {
+        return dataMapHandler;
+    }
+
+    /**
+     * @param dataMapHandler
+     *            The handler that receives the data map entries of unsigned messages while they are decoded or
+     *            null to materialize all entries
+     * @return This class
+     */
+    public ChannelServerConfiguration dataMapHandler(final DataMapHandler dataMapHandler) {
+        this.dataMapHandler = dataMapHandler;
+        return this;
+    }
+
     @Override
     public int connectionTimeoutTCPMillis() {
         return connectionTimeoutTCPMillis;
@@ -32,14 +32,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandler.Sharable;
@@ -47,6 +45,8 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.DefaultChannelPromise;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.channel.socket.DatagramChannel;
+import io.netty.util.collection.IntObjectHashMap;
+import io.netty.util.collection.IntObjectMap;
 import io.netty.util.concurrent.GenericFutureListener;
 
 /**
@@ -68,18 +68,22 @@ public class Dispatcher extends SimpleChannelInboundHandler<Message> {
     private final PeerBean peerBeanMaster;
     private final int heartBeatMillis;
 
-    //use locks instead copy on write as testcases became really slow
-    final private ReentrantReadWriteLock reentrantReadWriteLock = new ReentrantReadWriteLock();
-    final private Lock readLock = reentrantReadWriteLock.readLock();
-    final private Lock writeLock = reentrantReadWriteLock.writeLock();
-    final private Map<Number320, Map<Integer, DispatchHandler>> ioHandlers = new HashMap<Number320, Map<Integer, DispatchHandler>>();
+    private static final int NR_COMMANDS = 256;
+
+    /**
+     * The registered handlers: peerId -> onBehalfOf -> handlers indexed by the command byte. The maps and arrays are
+     * never modified once published, registrations copy them (copy on write). Thus, the lookup of a handler for an
+     * incoming message neither locks nor allocates.
+     */
+    private volatile Map<Number160, Map<Number160, DispatchHandler[]>> ioHandlers = Collections.emptyMap();
+    final private Object writeLock = new Object();
     
 	/**
 	 * Map that stores requests that are not answered yet. Normally, the {@link RequestHandler} handles
 	 * responses, however, in case the asked peer has {@link PeerAddress#isSlow()} set to true, the answer
-	 * might arrive later. The key of the map is the expected message id.
+	 * might arrive later. The key of the map is the expected message id. Guarded by itself.
 	 */
-    final private Map<Integer, FutureResponse> pendingRequests = new ConcurrentHashMap<Integer, FutureResponse>();
+    final private IntObjectMap<FutureResponse> pendingRequests = new IntObjectHashMap<FutureResponse>();
 
     
     /**
@@ -118,20 +122,19 @@ public class Dispatcher extends SimpleChannelInboundHandler<Message> {
      *            will receive these messages!
      */
     public void registerIoHandler(final Number160 peerId, final Number160 onBehalfOf, final DispatchHandler ioHandler, final int... names) {
-    	writeLock.lock();
-    	try {
-    		Map<Integer, DispatchHandler> types = ioHandlers.get(new Number320(peerId, onBehalfOf));
-    		if (types == null) {
-    			types = new HashMap<Integer, DispatchHandler>();
-    			ioHandlers.put(new Number320(peerId, onBehalfOf), types);
+    	synchronized (writeLock) {
+    		final Map<Number160, Map<Number160, DispatchHandler[]>> copy = new HashMap<Number160, Map<Number160, DispatchHandler[]>>(ioHandlers);
+    		final Map<Number160, DispatchHandler[]> onBehalfOfs = copy.get(peerId) == null ? 
+    				new HashMap<Number160, DispatchHandler[]>() : new HashMap<Number160, DispatchHandler[]>(copy.get(peerId));
+    		final DispatchHandler[] types = onBehalfOfs.get(onBehalfOf) == null ? 
+    				new DispatchHandler[NR_COMMANDS] : onBehalfOfs.get(onBehalfOf).clone();
+    		for (int name : names) {
+    			types[name & 0xff] = ioHandler;
     		}
-    		for (Integer name : names) {
-    			types.put(name, ioHandler);
-    		}
-    	} finally {
-    		writeLock.unlock();
+    		onBehalfOfs.put(onBehalfOf, types);
+    		copy.put(peerId, onBehalfOfs);
+    		ioHandlers = copy;
     	}
-        
     }
 
     /**
@@ -143,11 +146,20 @@ public class Dispatcher extends SimpleChannelInboundHandler<Message> {
      * 			  The ioHandler can be registered for the own use of in behalf of another peer (e.g. in case of relay node).
      */
     public void removeIoHandler(final Number160 peerId, final Number160 onBehalfOf) {
-        writeLock.lock();
-    	try {
-    		ioHandlers.remove(new Number320(peerId, onBehalfOf));
-    	}  finally {
-    		writeLock.unlock();
+    	synchronized (writeLock) {
+    		final Map<Number160, DispatchHandler[]> onBehalfOfs = ioHandlers.get(peerId);
+    		if (onBehalfOfs == null || !onBehalfOfs.containsKey(onBehalfOf)) {
+    			return;
+    		}
+    		final Map<Number160, Map<Number160, DispatchHandler[]>> copy = new HashMap<Number160, Map<Number160, DispatchHandler[]>>(ioHandlers);
+    		if (onBehalfOfs.size() == 1) {
+    			copy.remove(peerId);
+    		} else {
+    			final Map<Number160, DispatchHandler[]> onBehalfOfsCopy = new HashMap<Number160, DispatchHandler[]>(onBehalfOfs);
+    			onBehalfOfsCopy.remove(onBehalfOf);
+    			copy.put(peerId, onBehalfOfsCopy);
+    		}
+    		ioHandlers = copy;
     	}
     }
 
@@ -194,14 +206,14 @@ public class Dispatcher extends SimpleChannelInboundHandler<Message> {
      */
     private void printWarnMessage(Message message) {
     	final Collection<Integer> knownCommands = new HashSet<Integer>();
-    	
-    	readLock.lock();
-    	try {
-    		for(final Map.Entry<Number320, Map<Integer, DispatchHandler>> entry:ioHandlers.entrySet()) {
-    			knownCommands.addAll(entry.getValue().keySet());
+    	for (final Map<Number160, DispatchHandler[]> onBehalfOfs : ioHandlers.values()) {
+    		for (final DispatchHandler[] types : onBehalfOfs.values()) {
+    			for (int i = 0; i < types.length; i++) {
+    				if (types[i] != null) {
+    					knownCommands.add(Integer.valueOf((byte) i));
+    				}
+    			}
     		}
-    	} finally {
-    		readLock.unlock();
     	}
     	
     	if(!knownCommands.contains(Integer.valueOf(message.command()))) {
@@ -322,10 +334,10 @@ public class Dispatcher extends SimpleChannelInboundHandler<Message> {
 			// if we could not find a handler that we are responsible for, we
 			// are most likely a relay. Since we have no id of the relay, we
 			// just take the first one.
-			Map<Number320, DispatchHandler> map = searchHandler(Integer.valueOf(message.command()));
-			for (Map.Entry<Number320, DispatchHandler> entry : map.entrySet()) {
-				if (entry.getKey().domainKey().equals(recipient.peerId())) {
-					return entry.getValue();
+			for (final Map<Number160, DispatchHandler[]> onBehalfOfs : ioHandlers.values()) {
+				final DispatchHandler[] types = onBehalfOfs.get(recipient.peerId());
+				if (types != null && types[message.command() & 0xff] != null) {
+					return types[message.command() & 0xff];
 				}
 			}
 			return null;
@@ -344,22 +356,14 @@ public class Dispatcher extends SimpleChannelInboundHandler<Message> {
      * @return the handler for the given message or null if none has been found
      */
     public DispatchHandler searchHandler(final Number160 recipientID, final Number160 onBehalfOf, final int cmd) {
-		final Integer command = Integer.valueOf(cmd);
-		readLock.lock();
-		try {
-			final Map<Integer, DispatchHandler> types = search(recipientID, onBehalfOf);
-			if (types != null && types.containsKey(command)) {
-				return types.get(command);
-			} else {
-				// not registered
-				LOG.debug(
-						"Handler not found for type {} we are looking for the server with ID {} on behalf of {}",
-						command, recipientID, onBehalfOf);
-				return null;
-			}
-		} finally {
-			readLock.unlock();
+		final DispatchHandler[] types = search(recipientID, onBehalfOf);
+		final DispatchHandler handler = types == null ? null : types[cmd & 0xff];
+		if (handler == null) {
+			// not registered
+			LOG.debug("Handler not found for type {} we are looking for the server with ID {} on behalf of {}", cmd,
+			        recipientID, onBehalfOf);
 		}
+		return handler;
     }
     
     /**
@@ -368,46 +372,43 @@ public class Dispatcher extends SimpleChannelInboundHandler<Message> {
      * @return
      */
     public Map<Number320, DispatchHandler> searchHandler(final Integer command) {
-		readLock.lock();
-		try {
-			Map<Number320, DispatchHandler> result = new HashMap<Number320, DispatchHandler>();
-			for (Map.Entry<Number320, Map<Integer, DispatchHandler>> entry : ioHandlers.entrySet()) {
-				for (Map.Entry<Integer, DispatchHandler> entry2 : entry.getValue().entrySet()) {
-					DispatchHandler handler = entry.getValue().get(command);
-					if (handler != null && entry2.getKey().equals(command)) {
-						result.put(entry.getKey(), handler);
-					}
+		final Map<Number320, DispatchHandler> result = new HashMap<Number320, DispatchHandler>();
+		for (final Map.Entry<Number160, Map<Number160, DispatchHandler[]>> entry : ioHandlers.entrySet()) {
+			for (final Map.Entry<Number160, DispatchHandler[]> entry2 : entry.getValue().entrySet()) {
+				final DispatchHandler handler = entry2.getValue()[command.intValue() & 0xff];
+				if (handler != null) {
+					result.put(new Number320(entry.getKey(), entry2.getKey()), handler);
 				}
 			}
-			return result;
-		} finally {
-			readLock.unlock();
 		}
+		return result;
     }
     
 	@SuppressWarnings("unchecked")
 	public <T> T searchHandler(Class<T> clazz, Number160 peerID, Number160 peerId2) {
-		readLock.lock();
-		try {
-			final Map<Integer, DispatchHandler> ioHandlers = search(peerID, peerId2);
-			for (DispatchHandler handler : ioHandlers.values()) {
-				if (clazz.isInstance(handler)) {
-					return (T) handler;
-				}
-			}
+		final DispatchHandler[] types = search(peerID, peerId2);
+		if (types == null) {
 			return null;
-		} finally {
-			readLock.unlock();
 		}
+		for (DispatchHandler handler : types) {
+			if (clazz.isInstance(handler)) {
+				return (T) handler;
+			}
+		}
+		return null;
 	}
 	
 	public Map<Integer, DispatchHandler> searchHandler(Number160 peerId, Number160 onBehalfOf) {
-		readLock.lock();
-		try {
-			return new HashMap<Integer, DispatchHandler>(ioHandlers.get(new Number320(peerId, onBehalfOf)));
-		} finally {
-			readLock.unlock();
+		final Map<Integer, DispatchHandler> result = new HashMap<Integer, DispatchHandler>();
+		final DispatchHandler[] types = search(peerId, onBehalfOf);
+		if (types != null) {
+			for (int i = 0; i < types.length; i++) {
+				if (types[i] != null) {
+					result.put(Integer.valueOf((byte) i), types[i]);
+				}
+			}
 		}
+		return result;
 	}
 
     /**
@@ -416,10 +417,11 @@ public class Dispatcher extends SimpleChannelInboundHandler<Message> {
      * 			  The id of the peer the get the dispatcher map
      * @param onBehalfOf
      * 			  The ioHandler can be registered for the own use of in behalf of another peer (e.g. in case of relay node).
-     * @return the map containing all dispatchers for each {@link Commands} type
+     * @return the handlers indexed by the {@link Commands} byte, or null if none are registered
      */
-	private Map<Integer, DispatchHandler> search(Number160 peerId, Number160 onBehalfOf) {
-		return ioHandlers.get(new Number320(peerId, onBehalfOf));
+	private DispatchHandler[] search(Number160 peerId, Number160 onBehalfOf) {
+		final Map<Number160, DispatchHandler[]> onBehalfOfs = ioHandlers.get(peerId);
+		return onBehalfOfs == null ? null : onBehalfOfs.get(onBehalfOf);
 	}
 	
 	/**
@@ -432,13 +434,15 @@ public class Dispatcher extends SimpleChannelInboundHandler<Message> {
 	 * @param timeout the timeout in seconds
 	 */
 	public void addPendingRequest(final int messageId, final FutureResponse futureResponse, final int timeout, final ScheduledExecutorService scheduler) {
-		pendingRequests.put(messageId, futureResponse);
+		synchronized (pendingRequests) {
+			pendingRequests.put(messageId, futureResponse);
+		}
 		
 		// schedule the timeout of pending request
     	scheduler.schedule(new Runnable() {
 			@Override
 			public void run() {
-				FutureResponse response = pendingRequests.remove(messageId);
+				FutureResponse response = removePendingRequest(messageId);
 				if(response != null) {
 					LOG.warn("A slow response did not arrive within {}s. Answer as failed: {}", timeout, response.request());
 					response.failed("Slow peer did not answer within " + timeout + "s.");
@@ -448,9 +452,14 @@ public class Dispatcher extends SimpleChannelInboundHandler<Message> {
 	}
 
 	/**
-	 * @return all pending requests
+	 * Removes a pending request, e.g. because the slow peer answered.
+	 * 
+	 * @param messageId the message id of the request
+	 * @return the future of the pending request or null if there is no such request (anymore)
 	 */
-	public Map<Integer, FutureResponse> getPendingRequests() {
-		return pendingRequests;
+	public FutureResponse removePendingRequest(final int messageId) {
+		synchronized (pendingRequests) {
+			return pendingRequests.remove(messageId);
+		}
 	}
 }
@@ -18,6 +18,7 @@ package net.tomp2p.connection;
 
 import net.tomp2p.futures.BaseFutureAdapter;
 import net.tomp2p.futures.FutureDone;
+import net.tomp2p.message.SignatureVerifier;
 import net.tomp2p.peers.Number160;
 import net.tomp2p.peers.PeerAddress;
 import net.tomp2p.peers.PeerSocketAddress;
@@ -104,7 +105,7 @@ public class PeerCreator {
 		
 		//connection bean
 		Sender sender = new Sender(peerId, peerBean.peerStatusListeners(), channelClientConfiguration, dispatcher, sendBehavior, peerBean);
-		Reservation reservation = new Reservation(workerGroup, channelClientConfiguration);
+		Reservation reservation = new Reservation(workerGroup, channelClientConfiguration, timer);
 		connectionBean = new ConnectionBean(p2pId, dispatcher, sender, channelServer, reservation,
 		        channelClientConfiguration, timer);
 		this.master = true;
@@ -174,8 +175,43 @@ public class PeerCreator {
 		return futureServerDone;
 	}
 	
+	/**
+	 * Stops the signature verifiers before the event loops. The pipelines of closed channels are torn down on both,
+	 * the verifiers and the event loops, so the verifiers stop once they have been idle for a moment.
+	 */
+	private void shutdownNetty() {
+		final SignatureVerifier serverVerifier = connectionBean.channelServer().channelServerConfiguration()
+		        .signatureVerifier();
+		final SignatureVerifier clientVerifier = connectionBean.resourceConfiguration().signatureVerifier();
+		shutdownVerifier(serverVerifier, new Runnable() {
+			@Override
+			public void run() {
+				shutdownVerifier(clientVerifier, new Runnable() {
+					@Override
+					public void run() {
+						shutdownEventLoops();
+					}
+				});
+			}
+		});
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static void shutdownVerifier(final SignatureVerifier signatureVerifier, final Runnable next) {
+		if (signatureVerifier == null) {
+			next.run();
+			return;
+		}
+		signatureVerifier.shutdown().addListener(new GenericFutureListener() {
+			@Override
+			public void operationComplete(final Future future) throws Exception {
+				next.run();
+			}
+		});
+	}
+
 	@SuppressWarnings({ "unchecked", "rawtypes" })
-    private void shutdownNetty() {
+    private void shutdownEventLoops() {
 		workerGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS).addListener(new GenericFutureListener() {
 			@Override
 			public void operationComplete(final Future future) throws Exception {
@@ -28,21 +28,26 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.Semaphore;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
+import java.util.Queue;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
 
 /**
- * Reserves a block of connections.
+ * Reserves a block of connections. Reservations are served in FIFO order
+ * without a dedicated thread: the permits are kept in atomic counters and
+ * pending reservations are queued. Whoever adds a reservation or releases
+ * permits drains the queue, but only one thread at a time does so. The
+ * futures are completed after draining, such that a blocking listener does
+ * not hold up the queue. Permits are mostly released by Netty I/O threads,
+ * which must not block, thus the futures are then completed on the timer of
+ * the peer.
  * 
  * @author Thomas Bocek
  * 
@@ -55,23 +60,27 @@ public class Reservation {
 	private final int maxPermitsTCP;
 	private final int maxPermitsPermanentTCP;
 
-	private final Semaphore semaphoreUPD;
-	private final Semaphore semaphoreTCP;
-	private final Semaphore semaphorePermanentTCP;
+	private final AtomicInteger permitsUDP;
+	private final AtomicInteger permitsTCP;
+	private final AtomicInteger permitsPermanentTCP;
 
 	private final ChannelClientConfiguration channelClientConfiguration;
 
-	private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<Runnable>();
-	// single thread
-	private final ExecutorService executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, queue);
+	// we should be fair, otherwise we see connection timeouts due to unfairness
+	// if busy. Thus, the head of the queue blocks all others until it can be
+	// served.
+	private final Queue<WaitReservation> queue = new ConcurrentLinkedQueue<WaitReservation>();
+	private final AtomicInteger pendingCounter = new AtomicInteger(0);
+	// number of drain requests, only the thread that increments from 0 drains
+	private final AtomicInteger drainCounter = new AtomicInteger(0);
 	private final EventLoopGroup workerGroup;
+	// completes the futures if the permits are released by an I/O thread
+	private final Executor timer;
+	// the notifications the current thread is running. Listeners that release
+	// permits append to them instead of nesting the notifications.
+	private final ThreadLocal<List<Runnable>> completing = new ThreadLocal<List<Runnable>>();
 
-	// we should be fair, otherwise we see connection timeouts due to unfairness
-	// if busy
-	private final ReadWriteLock readWriteLock = new ReentrantReadWriteLock(true);
-	private final Lock read = readWriteLock.readLock();
-	private final Lock write = readWriteLock.writeLock();
-	private boolean shutdown = false;
+	private final AtomicBoolean shutdown = new AtomicBoolean(false);
 	private final Collection<ChannelCreator> channelCreators = Collections
 	        .synchronizedList(new ArrayList<ChannelCreator>());
 
@@ -88,15 +97,20 @@ public class Reservation {
 	 *            connections, maxPermitsTCP: the number of maximum short-lived
 	 *            TCP connections, maxPermitsPermanentTCP: the number of maximum
 	 *            permanent TCP connections
+	 * @param timer
+	 *            The timer of the peer, completes the futures instead of the
+	 *            I/O threads
 	 */
-	public Reservation(final EventLoopGroup workerGroup, final ChannelClientConfiguration channelClientConfiguration) {
+	public Reservation(final EventLoopGroup workerGroup, final ChannelClientConfiguration channelClientConfiguration,
+	        final Executor timer) {
 		this.workerGroup = workerGroup;
+		this.timer = timer;
 		this.maxPermitsUDP = channelClientConfiguration.maxPermitsUDP();
 		this.maxPermitsTCP = channelClientConfiguration.maxPermitsTCP();
 		this.maxPermitsPermanentTCP = channelClientConfiguration.maxPermitsPermanentTCP();
-		this.semaphoreUPD = new Semaphore(maxPermitsUDP);
-		this.semaphoreTCP = new Semaphore(maxPermitsTCP);
-		this.semaphorePermanentTCP = new Semaphore(maxPermitsPermanentTCP);
+		this.permitsUDP = new AtomicInteger(maxPermitsUDP);
+		this.permitsTCP = new AtomicInteger(maxPermitsTCP);
+		this.permitsPermanentTCP = new AtomicInteger(maxPermitsPermanentTCP);
 		this.channelClientConfiguration = channelClientConfiguration;
 	}
 
@@ -105,7 +119,7 @@ public class Reservation {
 	 *         executed yet.
 	 */
 	public int pendingRequests() {
-		return queue.size();
+		return pendingCounter.get();
 	}
 
 	/**
@@ -169,28 +183,11 @@ public class Reservation {
 			        + maxPermitsTCP);
 		}
 		final FutureChannelCreator futureChannelCreator = new FutureChannelCreator();
-		read.lock();
-		try {
-			if (shutdown) {
-				return futureChannelCreator.failed("shutting down");
-			}
-
-			FutureDone<Void> futureChannelCreationDone = new FutureDone<Void>();
-			futureChannelCreationDone.addListener(new BaseFutureAdapter<FutureDone<Void>>() {
-				@Override
-				public void operationComplete(final FutureDone<Void> future) throws Exception {
-					// release the permits in all cases, otherwise we may see inconsistencies
-					semaphoreUPD.release(permitsUDP);
-					semaphoreTCP.release(permitsTCP);
-				}
-			});
-			executor.execute(new WaitReservation(futureChannelCreator, futureChannelCreationDone, permitsUDP,
-			        permitsTCP));
-			return futureChannelCreator;
-
-		} finally {
-			read.unlock();
+		if (shutdown.get()) {
+			return futureChannelCreator.failed("shutting down");
 		}
+		enqueue(new WaitReservation(futureChannelCreator, permitsUDP, permitsTCP, 0));
+		return futureChannelCreator;
 	}
 
 	/**
@@ -206,26 +203,11 @@ public class Reservation {
 			        + ") than maximum " + maxPermitsPermanentTCP);
 		}
 		final FutureChannelCreator futureChannelCreator = new FutureChannelCreator();
-		read.lock();
-		try {
-			if (shutdown) {
-				return futureChannelCreator.failed("shutting down");
-			}
-			FutureDone<Void> futureChannelCreationDone = new FutureDone<Void>();
-			futureChannelCreationDone.addListener(new BaseFutureAdapter<FutureDone<Void>>() {
-				@Override
-				public void operationComplete(final FutureDone<Void> future) throws Exception {
-					// release the permits in all cases, otherwise we may see
-					// inconsitencies
-					semaphorePermanentTCP.release(permitsPermanentTCP);
-				}
-			});
-			executor.execute(new WaitReservationPermanent(futureChannelCreator, futureChannelCreationDone,
-			        permitsPermanentTCP));
-			return futureChannelCreator;
-		} finally {
-			read.unlock();
+		if (shutdown.get()) {
+			return futureChannelCreator.failed("shutting down");
 		}
+		enqueue(new WaitReservation(futureChannelCreator, 0, 0, permitsPermanentTCP));
+		return futureChannelCreator;
 	}
 
 	/**
@@ -234,67 +216,164 @@ public class Reservation {
 	 * @return The future when the shutdown is complete
 	 */
 	public FutureDone<Void> shutdown() {
-		write.lock();
-		try {
-			if (shutdown) {
-				return futureReservationDone.failed("already shutting down");
-			}
-			shutdown = true;
-		} finally {
-			write.unlock();
+		if (!shutdown.compareAndSet(false, true)) {
+			return futureReservationDone.failed("already shutting down");
 		}
 
-		// fast shutdown for those that are in the queue is not required. We
-		// could let the executor finish since the
-		// shutdown flag is set and the future will be set as well to
-		// "shutting down":
+		// fail all reservations that are still in the queue. The drainer sees
+		// the shutdown flag and does not hand out any permits anymore.
+		drain();
 
-		for (Runnable r : executor.shutdownNow()) {
-			if (r instanceof WaitReservation) {
-				WaitReservation wr = (WaitReservation) r;
-				wr.futureChannelCreator().failed("shutting down");
-			} else {
-				WaitReservationPermanent wr = (WaitReservationPermanent) r;
-				wr.futureChannelCreator().failed("shutting down");
-			}
-		}
-		
 		final Collection<ChannelCreator> copyChannelCreators;
 		synchronized (channelCreators) {
 			copyChannelCreators = new ArrayList<ChannelCreator>(channelCreators);
 		}
-		
-
-		// the channelCreator does not change anymore from here on
-		final int size = copyChannelCreators.size();
-		if (size == 0) {
-			futureReservationDone.done();
-		} else {
-			final AtomicInteger completeCounter = new AtomicInteger(0);
-			for (final ChannelCreator channelCreator : copyChannelCreators) {
-				// this is very important that we set first the listener and
-				// then call shutdown. Otherwise, the order of
-				// the listener calls is not guaranteed and we may call this
-				// listener before the semphore.release,
-				// causing an exception.
-				channelCreator.shutdownFuture().addListener(new BaseFutureAdapter<FutureDone<Void>>() {
+
+		// the channel creators release their permits once they are shut down.
+		// As soon as all permits are back, the reservation is done. A channel
+		// creator that is added concurrently sees the shutdown flag and shuts
+		// itself down, see WaitReservation#reserve.
+		for (final ChannelCreator channelCreator : copyChannelCreators) {
+			channelCreator.shutdown();
+		}
+		// wait for completion
+		return futureReservationDone;
+	}
+
+	/**
+	 * Queues the reservation and tries to serve it right away.
+	 * 
+	 * @param waitReservation
+	 *            The reservation to queue
+	 */
+	private void enqueue(final WaitReservation waitReservation) {
+		pendingCounter.incrementAndGet();
+		queue.add(waitReservation);
+		drain();
+	}
+
+	/**
+	 * Serves the queued reservations in FIFO order as long as there are enough
+	 * permits. After a shutdown, it fails the queued reservations and completes
+	 * the shutdown future once all permits are back. Only one thread drains at
+	 * a time, other threads that call this method in the meantime make the
+	 * draining thread loop once more. Since only the draining thread takes
+	 * permits, checking and decrementing the counters does not need a CAS
+	 * loop. The futures are completed once the thread stopped draining.
+	 */
+	private void drain() {
+		if (drainCounter.getAndIncrement() != 0) {
+			return;
+		}
+		final List<Runnable> notifications = new ArrayList<Runnable>(1);
+		int missed = 1;
+		do {
+			WaitReservation waitReservation;
+			while ((waitReservation = queue.peek()) != null) {
+				if (shutdown.get()) {
+					queue.poll();
+					pendingCounter.decrementAndGet();
+					notifications.add(waitReservation.fail());
+					continue;
+				}
+				if (!tryAcquire(waitReservation)) {
+					// wait until permits are released
+					break;
+				}
+				queue.poll();
+				pendingCounter.decrementAndGet();
+				notifications.add(waitReservation.reserve());
+			}
+			if (shutdown.get() && isShutdownDone()) {
+				notifications.add(new Runnable() {
 					@Override
-					public void operationComplete(final FutureDone<Void> future) throws Exception {
-						if (completeCounter.incrementAndGet() == size) {
-							// we can block here as we block in
-							// GlobalEventExecutor.INSTANCE
-							semaphoreUPD.acquireUninterruptibly(maxPermitsUDP);
-							semaphoreTCP.acquireUninterruptibly(maxPermitsTCP);
-							semaphorePermanentTCP.acquireUninterruptibly(maxPermitsPermanentTCP);
-							futureReservationDone.done();
-						}
+					public void run() {
+						futureReservationDone.done();
 					}
 				});
-				channelCreator.shutdown();
 			}
+			missed = drainCounter.addAndGet(-missed);
+		} while (missed != 0);
+		if (!notifications.isEmpty()) {
+			complete(notifications);
 		}
-		// wait for completion
-		return futureReservationDone;
+	}
+
+	private boolean tryAcquire(final WaitReservation waitReservation) {
+		if (permitsUDP.get() < waitReservation.permitsUDP || permitsTCP.get() < waitReservation.permitsTCP
+		        || permitsPermanentTCP.get() < waitReservation.permitsPermanentTCP) {
+			return false;
+		}
+		permitsUDP.addAndGet(-waitReservation.permitsUDP);
+		permitsTCP.addAndGet(-waitReservation.permitsTCP);
+		permitsPermanentTCP.addAndGet(-waitReservation.permitsPermanentTCP);
+		return true;
+	}
+
+	private void release(final int releaseUDP, final int releaseTCP, final int releasePermanentTCP) {
+		permitsUDP.addAndGet(releaseUDP);
+		permitsTCP.addAndGet(releaseTCP);
+		permitsPermanentTCP.addAndGet(releasePermanentTCP);
+		drain();
+	}
+
+	/**
+	 * The shutdown is done once all permits have been returned. This is the
+	 * case when all channel creators are shut down. This is only called by the
+	 * draining thread, thus no permits can be taken concurrently.
+	 */
+	private boolean isShutdownDone() {
+		return permitsUDP.get() == maxPermitsUDP && permitsTCP.get() == maxPermitsTCP
+		        && permitsPermanentTCP.get() == maxPermitsPermanentTCP;
+	}
+
+	/**
+	 * Runs the notifications in order. An I/O thread hands them to the timer,
+	 * unless the timer is already shut down.
+	 * 
+	 * @param notifications
+	 *            Complete the futures
+	 */
+	private void complete(final List<Runnable> notifications) {
+		if (inEventLoop()) {
+			try {
+				timer.execute(new Runnable() {
+					@Override
+					public void run() {
+						completeInline(notifications);
+					}
+				});
+				return;
+			} catch (RejectedExecutionException e) {
+				LOG.debug("The timer is shut down, completing the reservations on the I/O thread.");
+			}
+		}
+		completeInline(notifications);
+	}
+
+	private void completeInline(final List<Runnable> notifications) {
+		final List<Runnable> running = completing.get();
+		if (running != null) {
+			running.addAll(notifications);
+			return;
+		}
+		completing.set(notifications);
+		try {
+			for (int i = 0; i < notifications.size(); i++) {
+				notifications.get(i).run();
+			}
+		} finally {
+			completing.remove();
+		}
+	}
+
+	private boolean inEventLoop() {
+		for (EventExecutor eventLoop : workerGroup) {
+			if (eventLoop.inEventLoop()) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	/**
@@ -315,143 +394,84 @@ public class Reservation {
 	}
 
 	/**
-	 * Tries to reserve a channel creator. If too many channel already created,
-	 * wait until channels are closed. This waiter is for the short-lived
-	 * connections.
+	 * A queued reservation that returns a {@link ChannelCreator} in a future
+	 * once the permits are available. This is used for short-lived and for
+	 * long-lived connections.
 	 * 
 	 * @author Thomas Bocek
 	 * 
 	 */
-	private class WaitReservation implements Runnable {
+	private final class WaitReservation {
 		private final FutureChannelCreator futureChannelCreator;
-		private final FutureDone<Void> futureChannelCreationShutdown;
 		private final int permitsUDP;
 		private final int permitsTCP;
+		private final int permitsPermanentTCP;
 
 		/**
 		 * Creates a reservation that returns a {@link ChannelCreator} in a
-		 * future once we have the semaphore.
+		 * future once we have the permits.
 		 * 
 		 * @param futureChannelCreator
 		 *            The status of the creating
-		 * @param futureChannelCreationShutdown
-		 *            The {@link ChannelCreator} shutdown feature needs to be
-		 *            passed since we need it for {@link Reservation#shutdown()}
-		 *            .
 		 * @param permitsUDP
 		 *            The number of permits for UDP
 		 * @param permitsTCP
 		 *            The number of permits for TCP
+		 * @param permitsPermanentTCP
+		 *            The number of permits for permanent TCP
 		 */
-		public WaitReservation(final FutureChannelCreator futureChannelCreator,
-		        final FutureDone<Void> futureChannelCreationShutdown, final int permitsUDP, final int permitsTCP) {
+		private WaitReservation(final FutureChannelCreator futureChannelCreator, final int permitsUDP,
+		        final int permitsTCP, final int permitsPermanentTCP) {
 			this.futureChannelCreator = futureChannelCreator;
-			this.futureChannelCreationShutdown = futureChannelCreationShutdown;
 			this.permitsUDP = permitsUDP;
 			this.permitsTCP = permitsTCP;
+			this.permitsPermanentTCP = permitsPermanentTCP;
 		}
 
-		@Override
-		public void run() {
-			final ChannelCreator channelCreator;
-			read.lock();
-			try {
-				if (shutdown) {
-					futureChannelCreator.failed("shutting down");
-					return;
-				}
-
-				try {
-					semaphoreUPD.acquire(permitsUDP);
-				} catch (InterruptedException e) {
-					futureChannelCreator.failed(e);
-					return;
-				}
-				try {
-					semaphoreTCP.acquire(permitsTCP);
-				} catch (InterruptedException e) {
-					semaphoreUPD.release(permitsUDP);
-					futureChannelCreator.failed(e);
-					return;
-				}
-
-				channelCreator = new ChannelCreator(workerGroup, futureChannelCreationShutdown, permitsUDP, permitsTCP,
-				        channelClientConfiguration);
-				addToSet(channelCreator);
-			} finally {
-				read.unlock();
-			}
-			futureChannelCreator.reserved(channelCreator);
-		}
-
-		private FutureChannelCreator futureChannelCreator() {
-			return futureChannelCreator;
-		}
-
-	}
-
-	/**
-	 * Tries to reserve a channel creator. If too many channel already created,
-	 * wait until channels are closed. This waiter is for the long-lived
-	 * connections.
-	 * 
-	 * @author Thomas Bocek
-	 * 
-	 */
-	private final class WaitReservationPermanent implements Runnable {
-		private final FutureChannelCreator futureChannelCreator;
-		private final FutureDone<Void> futureChannelCreationShutdown;
-		private final int permitsPermanentTCP;
-
 		/**
-		 * Creates a reservation that returns a {@link ChannelCreator} in a
-		 * future once we have the semaphore.
+		 * Called by the draining thread once the permits have been taken.
 		 * 
-		 * @param futureChannelCreator
-		 *            The status of the creating
-		 * @param futureChannelCreationShutdown
-		 *            The {@link ChannelCreator} shutdown feature needs to be
-		 *            passed since we need it for {@link Reservation#shutdown()}
-		 *            .
-		 * @param permitsPermanentTCP
-		 *            The number of permits
+		 * @return The notification that completes the future
 		 */
-		private WaitReservationPermanent(final FutureChannelCreator futureChannelCreator,
-		        final FutureDone<Void> futureChannelCreationShutdown, final int permitsPermanentTCP) {
-			this.futureChannelCreator = futureChannelCreator;
-			this.futureChannelCreationShutdown = futureChannelCreationShutdown;
-			this.permitsPermanentTCP = permitsPermanentTCP;
-		}
-
-		@Override
-		public void run() {
-			ChannelCreator channelCreator;
-			read.lock();
-			try {
-				if (shutdown) {
-					futureChannelCreator.failed("shutting down");
-					return;
-				}
-
-				try {
-					semaphorePermanentTCP.acquire(permitsPermanentTCP);
-				} catch (InterruptedException e) {
-					futureChannelCreator.failed(e);
-					return;
+		private Runnable reserve() {
+			final FutureDone<Void> futureChannelCreationShutdown = new FutureDone<Void>();
+			futureChannelCreationShutdown.addListener(new BaseFutureAdapter<FutureDone<Void>>() {
+				@Override
+				public void operationComplete(final FutureDone<Void> future) throws Exception {
+					// release the permits in all cases, otherwise we may see inconsistencies
+					release(permitsUDP, permitsTCP, permitsPermanentTCP);
 				}
-
-				channelCreator = new ChannelCreator(workerGroup, futureChannelCreationShutdown, 0, permitsPermanentTCP,
-				        channelClientConfiguration);
-				addToSet(channelCreator);
-			} finally {
-				read.unlock();
+			});
+			final ChannelCreator channelCreator;
+			if (permitsPermanentTCP > 0) {
+				channelCreator = new ChannelCreator(workerGroup, futureChannelCreationShutdown, 0,
+				        permitsPermanentTCP, channelClientConfiguration);
+			} else {
+				channelCreator = new ChannelCreator(workerGroup, futureChannelCreationShutdown, permitsUDP,
+				        permitsTCP, channelClientConfiguration);
 			}
-			futureChannelCreator.reserved(channelCreator);
+			addToSet(channelCreator);
+			// shutdown may have taken its copy of the channel creators before
+			// we added ours
+			if (shutdown.get()) {
+				channelCreator.shutdown();
+				return fail();
+			}
+			return new Runnable() {
+				@Override
+				public void run() {
+					futureChannelCreator.reserved(channelCreator);
+				}
+			};
 		}
 
-		private FutureChannelCreator futureChannelCreator() {
-			return futureChannelCreator;
+		private Runnable fail() {
+			return new Runnable() {
+				@Override
+				public void run() {
+					futureChannelCreator.failed("shutting down");
+				}
+			};
 		}
 	}
-
 }
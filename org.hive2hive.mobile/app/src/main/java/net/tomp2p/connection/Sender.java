@@ -26,6 +26,7 @@ import net.tomp2p.message.DataFilter;
 import net.tomp2p.message.DataFilterTTL;
 import net.tomp2p.message.Message;
 import net.tomp2p.message.Message.Type;
+import net.tomp2p.message.SignatureVerifier;
 import net.tomp2p.message.TomP2PCumulationTCP;
 import net.tomp2p.message.TomP2POutbound;
 import net.tomp2p.message.TomP2PSinglePacketUDP;
@@ -461,7 +462,9 @@ public class Sender {
 		}
 
 		handlers.put("decoder",
-				new Pair<EventExecutorGroup, ChannelHandler>(null, new TomP2PCumulationTCP(channelClientConfiguration.signatureFactory())));
+				new Pair<EventExecutorGroup, ChannelHandler>(null, new TomP2PCumulationTCP(channelClientConfiguration.signatureFactory(),
+						channelClientConfiguration.signatureVerifier(), channelClientConfiguration.dataMapHandler())));
+		addVerifier(handlers);
 		handlers.put(
 				"encoder",
 				new Pair<EventExecutorGroup, ChannelHandler>(null, new TomP2POutbound(false, channelClientConfiguration.signatureFactory())));
@@ -677,10 +680,10 @@ public class Sender {
 			final FutureResponse futureResponse, final int idleUDPSeconds, boolean isFireAndForget) {
 		final Map<String, Pair<EventExecutorGroup, ChannelHandler>> handlers;
 		if (isFireAndForget) {
-			final int nrTCPHandlers = 3; // 2 / 0.75
+			final int nrTCPHandlers = 4; // 3 / 0.75
 			handlers = new LinkedHashMap<String, Pair<EventExecutorGroup, ChannelHandler>>(nrTCPHandlers);
 		} else {
-			final int nrTCPHandlers = 7; // 5 / 0.75
+			final int nrTCPHandlers = 8; // 6 / 0.75
 			handlers = new LinkedHashMap<String, Pair<EventExecutorGroup, ChannelHandler>>(nrTCPHandlers);
 			final TimeoutFactory timeoutHandler = createTimeoutHandler(futureResponse, idleUDPSeconds, isFireAndForget);
 			handlers.put("timeout0", new Pair<EventExecutorGroup, ChannelHandler>(null, timeoutHandler.idleStateHandlerTomP2P()));
@@ -689,7 +692,9 @@ public class Sender {
 
 		handlers.put(
 				"decoder",
-				new Pair<EventExecutorGroup, ChannelHandler>(null, new TomP2PSinglePacketUDP(channelClientConfiguration.signatureFactory())));
+				new Pair<EventExecutorGroup, ChannelHandler>(null, new TomP2PSinglePacketUDP(channelClientConfiguration.signatureFactory(),
+						channelClientConfiguration.signatureVerifier(), channelClientConfiguration.dataMapHandler())));
+		addVerifier(handlers);
 		handlers.put(
 				"encoder",
 				new Pair<EventExecutorGroup, ChannelHandler>(null, new TomP2POutbound(false, channelClientConfiguration.signatureFactory())));
@@ -699,6 +704,18 @@ public class Sender {
 		return handlers;
 	}
 
+	/**
+	 * Adds the handler that verifies the signatures after the decoder, if the signatures are not verified while
+	 * decoding.
+	 */
+	private void addVerifier(final Map<String, Pair<EventExecutorGroup, ChannelHandler>> handlers) {
+		final SignatureVerifier signatureVerifier = channelClientConfiguration.signatureVerifier();
+		if (signatureVerifier != null) {
+			handlers.put("verifier", new Pair<EventExecutorGroup, ChannelHandler>(signatureVerifier.executor(),
+					signatureVerifier.handler(channelClientConfiguration.signatureFactory())));
+		}
+	}
+
 	/**
 	 * Create a timeout handler or null if its a fire and forget. In this case
 	 * we don't expect a reply and we don't need a timeout.
@@ -65,6 +65,7 @@ public abstract class DHTBuilder<K extends DHTBuilder<K>> extends DefaultConnect
     // private boolean signMessage = false;
     private KeyPair keyPair = null;
     private boolean streaming = false;
+    private boolean routingCache = true;
     // private boolean forceUDP = false;
     // private boolean forceTCP = false;
     
@@ -266,6 +267,28 @@ public abstract class DHTBuilder<K extends DHTBuilder<K>> extends DefaultConnect
         return self;
     }
     
+    /**
+     * @return True if the closest peers of a recent routing to the same location key may be used instead of routing
+     *         again
+     */
+    public boolean isRoutingCache() {
+        return routingCache;
+    }
+
+    /**
+     * Set whether the routing cache of the peer may be used. The cached closest peers are up to a minute old, set
+     * this to false if the operation has to reach peers that just joined. Peers without a routing cache always
+     * route.
+     * 
+     * @param routingCache
+     *            True if the closest peers of a recent routing may be used
+     * @return This class
+     */
+    public K routingCache(final boolean routingCache) {
+        this.routingCache = routingCache;
+        return self;
+    }
+
     public K addPeerMapFilter(PeerMapFilter peerMapFilter) {
     	if(peerMapFilters == null) {
     		//most likely we have 1-2 filters
@@ -323,6 +346,7 @@ public abstract class DHTBuilder<K extends DHTBuilder<K>> extends DefaultConnect
         routingBuilder.maxDirectHits(routingConfiguration.maxDirectHits());
         routingBuilder.maxFailures(routingConfiguration.maxFailures());
         routingBuilder.maxSuccess(routingConfiguration.maxSuccess());
+        routingBuilder.routingCache(routingCache);
         return routingBuilder;
     }
 
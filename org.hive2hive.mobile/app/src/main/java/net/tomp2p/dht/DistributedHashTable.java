@@ -47,10 +47,16 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.NavigableSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 
@@ -303,6 +309,161 @@ public class DistributedHashTable {
         return futureDHT;
     }
 
+    /**
+     * Changes the meta data of all entries in the data map of the builder. The entries may have different location
+     * keys. Every location key is routed on its own, but the entries are then grouped by the peers responsible for
+     * them and every peer receives a single PUT_META message with all its entries. At most
+     * {@link RequestP2PConfiguration#parallel()} messages are in flight at the same time.
+     * 
+     * @param putBuilder
+     *            The put builder with the data map and the key pair to sign the requests
+     * @return The future with the keys whose meta data has been changed on at least the minimum number of peers
+     */
+    public FutureDone<Set<Number640>> putMetaGrouped(final PutBuilder putBuilder) {
+        final FutureDone<Set<Number640>> futureDone = new FutureDone<Set<Number640>>();
+        putBuilder.futureChannelCreator().addListener(new BaseFutureAdapter<FutureChannelCreator>() {
+            @Override
+            public void operationComplete(final FutureChannelCreator future) throws Exception {
+                if (future.isSuccess()) {
+                    final NavigableSet<Number160> locationKeys = new TreeSet<Number160>();
+                    for (Number640 key : putBuilder.dataMap().keySet()) {
+                        locationKeys.add(key.locationKey());
+                    }
+                    routeGrouped(putBuilder, locationKeys.iterator(), new MetaGroups(), future.channelCreator(),
+                            futureDone);
+                    Utils.addReleaseListener(future.channelCreator(), futureDone);
+                } else {
+                    futureDone.failed(future);
+                }
+            }
+        });
+        return futureDone;
+    }
+
+    /**
+     * Routes the location keys one after the other. A routing that is answered from the routing cache completes
+     * immediately, so the loop continues without a listener to not grow the stack for every key.
+     */
+    private void routeGrouped(final PutBuilder putBuilder, final Iterator<Number160> locationKeys,
+            final MetaGroups groups, final ChannelCreator channelCreator, final FutureDone<Set<Number640>> futureDone) {
+        while (locationKeys.hasNext()) {
+            final Number160 locationKey = locationKeys.next();
+            final RoutingBuilder routingBuilder = createBuilder(putBuilder);
+            routingBuilder.locationKey(locationKey);
+            final FutureRouting futureRouting = routing.route(routingBuilder, Type.REQUEST_1, channelCreator);
+            if (!futureRouting.isCompleted()) {
+                futureRouting.addListener(new BaseFutureAdapter<FutureRouting>() {
+                    @Override
+                    public void operationComplete(final FutureRouting future) throws Exception {
+                        groups.add(putBuilder, locationKey, future);
+                        routeGrouped(putBuilder, locationKeys, groups, channelCreator, futureDone);
+                    }
+                });
+                return;
+            }
+            groups.add(putBuilder, locationKey, futureRouting);
+        }
+
+        if (groups.peers.isEmpty()) {
+            futureDone.done(groups.confirmedKeys());
+            return;
+        }
+        final Queue<Map.Entry<PeerAddress, NavigableMap<Number640, Data>>> queue = new ConcurrentLinkedQueue<Map.Entry<PeerAddress, NavigableMap<Number640, Data>>>(
+                groups.peers.entrySet());
+        final AtomicInteger remaining = new AtomicInteger(queue.size());
+        final int parallel = Math.min(putBuilder.requestP2PConfiguration().parallel(), queue.size());
+        for (int i = 0; i < parallel; i++) {
+            sendGrouped(putBuilder, queue, remaining, groups, channelCreator, futureDone);
+        }
+    }
+
+    private void sendGrouped(final PutBuilder putBuilder,
+            final Queue<Map.Entry<PeerAddress, NavigableMap<Number640, Data>>> queue, final AtomicInteger remaining,
+            final MetaGroups groups, final ChannelCreator channelCreator, final FutureDone<Set<Number640>> futureDone) {
+        final Map.Entry<PeerAddress, NavigableMap<Number640, Data>> next = queue.poll();
+        if (next == null) {
+            return;
+        }
+        FutureResponse futureResponse = storeRCP.putMeta(next.getKey(), next.getValue(), putBuilder, channelCreator);
+        futureResponse.addListener(new BaseFutureAdapter<FutureResponse>() {
+            @Override
+            public void operationComplete(final FutureResponse future) throws Exception {
+                if (future.isSuccess() && future.responseMessage().isOk()) {
+                    groups.confirm(future.responseMessage().keyMapByte(0).keysMap());
+                } else {
+                    logger.debug("grouped meta update of {} entries on {} failed: {}", next.getValue().size(),
+                            next.getKey(), future.failedReason());
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    futureDone.done(groups.confirmedKeys());
+                } else {
+                    sendGrouped(putBuilder, queue, remaining, groups, channelCreator, futureDone);
+                }
+            }
+        });
+    }
+
+    /**
+     * The entries of a grouped meta update, grouped by the peers they are sent to.
+     */
+    private static class MetaGroups {
+        private final Map<PeerAddress, NavigableMap<Number640, Data>> peers = new HashMap<PeerAddress, NavigableMap<Number640, Data>>();
+        private final Map<Number640, Integer> expected = new HashMap<Number640, Integer>();
+        private final Map<Number640, Integer> confirmed = new HashMap<Number640, Integer>();
+
+        private synchronized void add(final PutBuilder putBuilder, final Number160 locationKey,
+                final FutureRouting futureRouting) {
+            if (!futureRouting.isSuccess()) {
+                logger.debug("routing of lkey={} failed: {}", locationKey, futureRouting.failedReason());
+                return;
+            }
+            final NavigableMap<Number640, Data> entries = putBuilder.dataMap().subMap(
+                    new Number640(locationKey, Number160.ZERO, Number160.ZERO, Number160.ZERO), true,
+                    new Number640(locationKey, Number160.MAX_VALUE, Number160.MAX_VALUE, Number160.MAX_VALUE), true);
+            // like a put, send to the closest min + parallelDiff peers. The potential hits are sorted by their
+            // distance to the location key.
+            final RequestP2PConfiguration p2pConfiguration = putBuilder.requestP2PConfiguration();
+            int replicas = 0;
+            for (PeerAddress peerAddress : futureRouting.potentialHits()) {
+                if (replicas == p2pConfiguration.parallel()) {
+                    break;
+                }
+                NavigableMap<Number640, Data> group = peers.get(peerAddress);
+                if (group == null) {
+                    group = new TreeMap<Number640, Data>();
+                    peers.put(peerAddress, group);
+                }
+                group.putAll(entries);
+                replicas++;
+            }
+            // and expect the minimum number of results
+            final int minimum = Math.min(replicas, p2pConfiguration.minimumResults());
+            for (Number640 key : entries.keySet()) {
+                expected.put(key, minimum);
+            }
+        }
+
+        private synchronized void confirm(final Map<Number640, Byte> result) {
+            for (Map.Entry<Number640, Byte> entry : result.entrySet()) {
+                if (entry.getValue().intValue() == PutStatus.OK.ordinal()) {
+                    Integer count = confirmed.get(entry.getKey());
+                    confirmed.put(entry.getKey(), count == null ? 1 : count + 1);
+                }
+            }
+        }
+
+        private synchronized Set<Number640> confirmedKeys() {
+            final Set<Number640> keys = new HashSet<Number640>();
+            for (Map.Entry<Number640, Integer> entry : expected.entrySet()) {
+                final Integer count = confirmed.get(entry.getKey());
+                if (entry.getValue() > 0 && count != null && count >= entry.getValue()) {
+                    keys.add(entry.getKey());
+                }
+            }
+            return keys;
+        }
+    }
+
     public FutureGet get(final GetBuilder builder) {
 
         final FutureGet futureDHT = new FutureGet(builder, builder.requestP2PConfiguration()
@@ -16,6 +16,7 @@
 
 package net.tomp2p.dht;
 
+import net.tomp2p.futures.FutureDone;
 import net.tomp2p.peers.Number160;
 import net.tomp2p.peers.Number640;
 import net.tomp2p.storage.Data;
@@ -24,6 +25,7 @@ import java.io.IOException;
 import java.security.PublicKey;
 import java.util.Map.Entry;
 import java.util.NavigableMap;
+import java.util.Set;
 import java.util.TreeMap;
 
 public class PutBuilder extends DHTBuilder<PutBuilder> {
@@ -221,4 +223,23 @@ public class PutBuilder extends DHTBuilder<PutBuilder> {
 
         return peer.distributedHashTable().put(this);
     }
+
+    /**
+     * Changes the meta data (e.g., the protection key) of all entries in the data map, which may have different
+     * location keys. The entries are grouped by their responsible peers, see
+     * {@link DistributedHashTable#putMetaGrouped(PutBuilder)}.
+     * 
+     * @return The future with the keys whose meta data has been changed
+     */
+    public FutureDone<Set<Number640>> startGrouped() {
+        if (peer.peer().isShutdown()) {
+            return new FutureDone<Set<Number640>>().failed("put builder - peer is shutting down");
+        }
+        if (dataMap == null || dataMap.isEmpty()) {
+            throw new IllegalArgumentException("You must set the entries via dataMap().");
+        }
+        putMeta = true;
+        preBuild("put-builder");
+        return peer.distributedHashTable().putMetaGrouped(this);
+    }
 }
@@ -53,6 +53,14 @@ public interface Storage {
 
     public abstract NavigableMap<Number640, Data> remove(Number640 from, Number640 to, boolean returnData);
 
+    /**
+     * @param locationKey
+     *            The location key
+     * @return The number of entries stored under this location key. This needs to be fast, as it is used during the
+     *         expiration of entries.
+     */
+    public abstract int locationSize(Number160 locationKey);
+
     public abstract NavigableMap<Number640, Data> subMap(Number640 from, Number640 to, int limit, boolean ascending);
 
     public abstract NavigableMap<Number640, Data> map();
@@ -65,6 +73,15 @@ public interface Storage {
     public abstract void removeTimeout(Number640 key);
 
     public abstract Collection<Number640> subMapTimeout(long to);
+
+    /**
+     * Removes and returns the timeouts that expire before the given time. The data is not removed.
+     * 
+     * @param to
+     *            The time in milliseconds (exclusive)
+     * @return The keys of the expired entries
+     */
+    public abstract Collection<Number640> pollTimeout(long to);
     
     public int storageCheckIntervalMillis();
 
@@ -82,6 +99,13 @@ public interface Storage {
 
     public abstract Collection<Number160> findContentForResponsiblePeerID(Number160 peerID);
 
+    /**
+     * @return The location keys between from and to (both inclusive) the peer is responsible for, or null if the
+     *         peer is not responsible for any location key
+     */
+    public abstract Collection<Number160> findContentForResponsiblePeerID(Number160 peerID,
+            Number160 fromLocationKey, Number160 toLocationKey);
+
     public boolean updateResponsibilities(Number160 locationKey, Number160 peerId);
 
     public void removeResponsibility(Number160 locationKey);
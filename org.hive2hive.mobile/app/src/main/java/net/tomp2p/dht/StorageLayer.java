@@ -560,34 +560,54 @@ public class StorageLayer implements DigestStorage {
 
 	public void checkTimeout() {
 		long time = System.currentTimeMillis();
-		Collection<Number640> toRemove = backend.subMapTimeout(time);
+		Collection<Number640> toRemove = backend.pollTimeout(time);
+		if (toRemove.isEmpty()) {
+			return;
+		}
+		// group by location key, such that each location is locked and checked only once
+		Map<Number160, List<Number640>> byLocation = new HashMap<Number160, List<Number640>>();
 		for (Number640 key : toRemove) {
-			RangeLock<Number640>.Range lock = lock(key);
+			List<Number640> keys = byLocation.get(key.locationKey());
+			if (keys == null) {
+				keys = new ArrayList<Number640>();
+				byLocation.put(key.locationKey(), keys);
+			}
+			keys.add(key);
+		}
+		for (Map.Entry<Number160, List<Number640>> entry : byLocation.entrySet()) {
+			removeExpired(entry.getKey(), entry.getValue(), time);
+		}
+		LOG.debug("Expired {} entries in {} locations.", toRemove.size(), byLocation.size());
+	}
+
+	private void removeExpired(Number160 locationKey, List<Number640> keys, long time) {
+		// same lock order as in removeResponsibility
+		RangeLock<Number640>.Range lockResp = lockResponsibility(locationKey);
+		try {
+			RangeLock<Number640>.Range lock = lock(locationKey);
 			try {
-				backend.remove(key, false);
-				backend.removeTimeout(key);
-				// remove responsibility if we don't have any data stored under
-				// locationkey
-				Number160 locationKey = key.locationKey();
-				RangeLock<Number640>.Range lockResp= lockResponsibility(locationKey);
-				try {
-					if (isEmpty(locationKey)) {
-						backend.removeResponsibility(locationKey);
+				for (Number640 key : keys) {
+					Data data = backend.get(key);
+					if (data != null && data.expirationMillis() >= time) {
+						// refreshed after the timeout has been polled
+						continue;
 					}
-				} finally {
-					lockResp.unlock();
+					backend.remove(key, false);
+				}
+				// remove responsibility if we don't have any data stored under locationkey
+				if (isEmpty(locationKey)) {
+					backend.removeResponsibility(locationKey);
 				}
 			} finally {
 				lock.unlock();
 			}
+		} finally {
+			lockResp.unlock();
 		}
 	}
 
 	private boolean isEmpty(Number160 locationKey) {
-		Number640 from = new Number640(locationKey, Number160.ZERO, Number160.ZERO, Number160.ZERO);
-		Number640 to = new Number640(locationKey, Number160.MAX_VALUE, Number160.MAX_VALUE, Number160.MAX_VALUE);
-		Map<Number640, Data> tmp = backend.subMap(from, to, 1, false);
-		return tmp.size() == 0;
+		return backend.locationSize(locationKey) == 0;
 	}
 
 	/* (non-Javadoc)
@@ -792,6 +812,34 @@ public class StorageLayer implements DigestStorage {
         }
 	}
 	
+	/**
+	 * Returns the location keys in a range the peer is responsible for. Since the location keys are sorted, the
+	 * locations that share a prefix with a peer ID are found without going over all responsibilities.
+	 * 
+	 * @param peerID
+	 *            The responsible peer
+	 * @param fromLocationKey
+	 *            The smallest location key (inclusive)
+	 * @param toLocationKey
+	 *            The largest location key (inclusive)
+	 * @return A copy of the location keys
+	 */
+	public Collection<Number160> findContentForResponsiblePeerID(Number160 peerID, Number160 fromLocationKey,
+			Number160 toLocationKey) {
+		RangeLock<Number640>.Range lockResp = lockResponsibility(peerID);
+		try {
+			Collection<Number160> contentIDs = backend.findContentForResponsiblePeerID(peerID, fromLocationKey,
+					toLocationKey);
+			if (contentIDs == null) {
+				return Collections.<Number160> emptyList();
+			} else {
+				return new ArrayList<Number160>(contentIDs);
+			}
+		} finally {
+			lockResp.unlock();
+		}
+	}
+
 	public Number160 findPeerIDsForResponsibleContent(Number160 locationKey) {
 		RangeLock<Number640>.Range lockResp = lockResponsibility(locationKey);
 		try {
@@ -857,37 +905,82 @@ public class StorageLayer implements DigestStorage {
 	public Enum<?> updateMeta(PublicKey publicKey, Number640 key, Data newData) {
 		RangeLock<Number640>.Range lock = lock(key);
 		try {
-			if (!securityEntryCheck(key.locationAndDomainAndContentKey(), publicKey, newData.publicKey(),
-			        newData.isProtectedEntry())) {
-				return PutStatus.FAILED_SECURITY;
-			}
+			return updateMetaInternal(publicKey, key, newData);
+		} finally {
+			lock.unlock();
+		}
+	}
 
-			final Data data = backend.get(key);
-			boolean changed = false;
-			if (data!=null && newData.publicKey() != null) {
-				data.publicKey(newData.publicKey());
-				changed = true;
-			}
-			if (data!=null && newData.isSigned()) {
-				data.signature(newData.signature());
-				changed = true;
-			}
-			if (data!=null) {
-				data.validFromMillis(newData.validFromMillis());
-				data.ttlSeconds(newData.ttlSeconds());
-				changed = true;
-			}
-			if (changed) {
-				long expiration = data.expirationMillis();
-				// handle timeout
-				backend.addTimeout(key, expiration);
-				backend.put(key, data);
-				return PutStatus.OK;
-			} else {
-				return PutStatus.NOT_FOUND;
+	/**
+	 * Updates the meta data of many entries at once. The entries may have different location keys, e.g., if they
+	 * have been grouped by a peer that is responsible for all of them. The entries of a location key are locked
+	 * once instead of once per entry. The location keys are locked one after the other, since the range between
+	 * unrelated location keys would block other requests.
+	 * 
+	 * @param publicKey
+	 *            The public key of the signer of the request
+	 * @param dataMap
+	 *            The new meta data, the data itself is not changed
+	 * @return The status for every entry
+	 */
+	public Map<Number640, Enum<?>> updateMeta(PublicKey publicKey, NavigableMap<Number640, Data> dataMap) {
+		if (dataMap.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		final Map<Number640, Enum<?>> retVal = new HashMap<Number640, Enum<?>>(dataMap.size());
+		// the map is sorted, thus the entries of a location key are adjacent
+		RangeLock<Number640>.Range lock = null;
+		Number160 lockedLocationKey = null;
+		try {
+			for (Map.Entry<Number640, Data> entry : dataMap.entrySet()) {
+				final Number160 locationKey = entry.getKey().locationKey();
+				if (!locationKey.equals(lockedLocationKey)) {
+					if (lock != null) {
+						lock.unlock();
+						lock = null;
+					}
+					lock = lock(locationKey);
+					lockedLocationKey = locationKey;
+				}
+				retVal.put(entry.getKey(), updateMetaInternal(publicKey, entry.getKey(), entry.getValue()));
 			}
+			return retVal;
 		} finally {
-			lock.unlock();
+			if (lock != null) {
+				lock.unlock();
+			}
+		}
+	}
+
+	private Enum<?> updateMetaInternal(PublicKey publicKey, Number640 key, Data newData) {
+		if (!securityEntryCheck(key.locationAndDomainAndContentKey(), publicKey, newData.publicKey(),
+		        newData.isProtectedEntry())) {
+			return PutStatus.FAILED_SECURITY;
+		}
+
+		final Data data = backend.get(key);
+		boolean changed = false;
+		if (data!=null && newData.publicKey() != null) {
+			data.publicKey(newData.publicKey());
+			changed = true;
+		}
+		if (data!=null && newData.isSigned()) {
+			data.signature(newData.signature());
+			changed = true;
+		}
+		if (data!=null) {
+			data.validFromMillis(newData.validFromMillis());
+			data.ttlSeconds(newData.ttlSeconds());
+			changed = true;
+		}
+		if (changed) {
+			long expiration = data.expirationMillis();
+			// handle timeout
+			backend.addTimeout(key, expiration);
+			backend.put(key, data);
+			return PutStatus.OK;
+		} else {
+			return PutStatus.NOT_FOUND;
 		}
 	}
 
@@ -26,18 +26,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.security.PublicKey;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.NavigableMap;
-import java.util.Set;
-import java.util.SortedMap;
+import java.util.NavigableSet;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class StorageMemory implements Storage {
 
@@ -49,10 +47,11 @@ public class StorageMemory implements Storage {
 
     // Core
     final private NavigableMap<Number640, Data> dataMap = new ConcurrentSkipListMap<Number640, Data>();
+    // number of entries per location key, a counter of -1 has been removed from the map
+    final private ConcurrentHashMap<Number160, AtomicInteger> locationSizes = new ConcurrentHashMap<Number160, AtomicInteger>();
 
     // Maintenance
-    final private Map<Number640, Long> timeoutMap = new ConcurrentHashMap<Number640, Long>();
-    final private ConcurrentSkipListMap<Long, Set<Number640>> timeoutMapRev = new ConcurrentSkipListMap<Long, Set<Number640>>();
+    final private TimeoutWheel timeoutWheel;
 
     // Protection
     final private Map<Number320, PublicKey> protectedMap = new ConcurrentHashMap<Number320, PublicKey>();
@@ -60,7 +59,7 @@ public class StorageMemory implements Storage {
 
     // Responsibility
     final private Map<Number160, Number160> responsibilityMap = new ConcurrentHashMap<Number160, Number160>();
-    final private Map<Number160, Set<Number160>> responsibilityMapRev = new ConcurrentHashMap<Number160, Set<Number160>>();
+    final private Map<Number160, NavigableSet<Number160>> responsibilityMapRev = new ConcurrentHashMap<Number160, NavigableSet<Number160>>();
     
     final int storageCheckIntervalMillis;
     final int maxVersions;
@@ -76,12 +75,20 @@ public class StorageMemory implements Storage {
     public StorageMemory(int storageCheckIntervalMillis, int maxVersions) {
     	this.storageCheckIntervalMillis = storageCheckIntervalMillis;
 		this.maxVersions = maxVersions;
+		// a few ticks per check interval, such that a check only visits a few buckets of the wheel
+		this.timeoutWheel = new TimeoutWheel(Math.max(1, storageCheckIntervalMillis / 4),
+		        TimeoutWheel.DEFAULT_WHEEL_SIZE);
 	}
 
 	// Core
     @Override
     public Data put(Number640 key, Data value) {
+        // hash once while storing, digests and replication use the stored hash
+        value.hash();
         final Data oldData = dataMap.put(key, value);
+        if (oldData == null) {
+        	incrementLocationSize(key.locationKey());
+        }
         if (maxVersions > 0) {
         	NavigableMap<Number640, Data> versions = dataMap.subMap(
 				new Number640(key.locationKey(), key.domainKey(), key.contentKey(), Number160.ZERO), true,
@@ -91,7 +98,7 @@ public class StorageMemory implements Storage {
 			        && versions.firstKey().versionKey().timestamp() + maxVersions <= versions.lastKey().versionKey()
 			                .timestamp()) {
 				Map.Entry<Number640, Data> entry = versions.pollFirstEntry();
-				remove(entry.getKey(), false);
+				decrementLocationSize(entry.getKey().locationKey());
 				removeTimeout(entry.getKey());
 			}
         }
@@ -116,7 +123,11 @@ public class StorageMemory implements Storage {
 
     @Override
     public Data remove(Number640 key, boolean returnData) {
-    	return dataMap.remove(key);
+    	final Data removed = dataMap.remove(key);
+    	if (removed != null) {
+    		decrementLocationSize(key.locationKey());
+    	}
+    	return removed;
     }
 
     @Override
@@ -145,10 +156,64 @@ public class StorageMemory implements Storage {
         // then you will call next() that returns null and an exception is thrown.
         
         final NavigableMap<Number640, Data> retVal = new ConcurrentSkipListMap<Number640, Data>(tmp);
-        tmp.clear();
+        // remove one by one to keep the location sizes in sync
+        for (Iterator<Number640> iterator = retVal.keySet().iterator(); iterator.hasNext();) {
+        	final Number640 key = iterator.next();
+        	if (dataMap.remove(key) != null) {
+        		decrementLocationSize(key.locationKey());
+        	} else {
+        		iterator.remove();
+        	}
+        }
         return retVal;
     }
 
+    @Override
+    public int locationSize(Number160 locationKey) {
+    	final AtomicInteger size = locationSizes.get(locationKey);
+    	return size == null ? 0 : Math.max(0, size.get());
+    }
+
+    private void incrementLocationSize(Number160 locationKey) {
+    	while (true) {
+    		AtomicInteger size = locationSizes.get(locationKey);
+    		if (size == null) {
+    			final AtomicInteger newSize = new AtomicInteger(1);
+    			size = locationSizes.putIfAbsent(locationKey, newSize);
+    			if (size == null) {
+    				return;
+    			}
+    		}
+    		final int current = size.get();
+    		if (current < 0) {
+    			// removed concurrently, help to remove and retry with a new counter
+    			locationSizes.remove(locationKey, size);
+    		} else if (size.compareAndSet(current, current + 1)) {
+    			return;
+    		}
+    	}
+    }
+
+    private void decrementLocationSize(Number160 locationKey) {
+    	final AtomicInteger size = locationSizes.get(locationKey);
+    	if (size == null) {
+    		return;
+    	}
+    	while (true) {
+    		final int current = size.get();
+    		if (current <= 0) {
+    			return;
+    		} else if (current == 1) {
+    			if (size.compareAndSet(1, -1)) {
+    				locationSizes.remove(locationKey, size);
+    				return;
+    			}
+    		} else if (size.compareAndSet(current, current - 1)) {
+    			return;
+    		}
+    	}
+    }
+
     @Override
     public NavigableMap<Number640, Data> subMap(Number640 fromKey, Number640 toKey, int limit,
             boolean ascending) {
@@ -227,43 +292,22 @@ public class StorageMemory implements Storage {
     // Maintenance
     @Override
     public void addTimeout(Number640 key, long expiration) {
-        Long oldExpiration = timeoutMap.put(key, expiration);
-        Set<Number640> tmp = putIfAbsent2(expiration,
-                Collections.newSetFromMap(new ConcurrentHashMap<Number640, Boolean>()));
-        tmp.add(key);
-        if (oldExpiration == null) {
-            return;
-        }
-        removeRevTimeout(key, oldExpiration);
+    	timeoutWheel.add(key, expiration);
     }
 
     @Override
     public void removeTimeout(Number640 key) {
-        Long expiration = timeoutMap.remove(key);
-        if (expiration == null) {
-            return;
-        }
-        removeRevTimeout(key, expiration);
+    	timeoutWheel.remove(key);
     }
 
-    private void removeRevTimeout(Number640 key, Long expiration) {
-        Set<Number640> tmp = timeoutMapRev.get(expiration);
-        if (tmp != null) {
-            tmp.remove(key);
-            if (tmp.isEmpty()) {
-                timeoutMapRev.remove(expiration);
-            }
-        }
+    @Override
+    public Collection<Number640> subMapTimeout(long to) {
+    	return timeoutWheel.expired(to);
     }
 
     @Override
-    public Collection<Number640> subMapTimeout(long to) {
-        SortedMap<Long, Set<Number640>> tmp = timeoutMapRev.subMap(0L, to);
-        Collection<Number640> toRemove = new ArrayList<Number640>();
-        for (Set<Number640> set : tmp.values()) {
-            toRemove.addAll(set);
-        }
-        return toRemove;
+    public Collection<Number640> pollTimeout(long to) {
+    	return timeoutWheel.poll(to);
     }
 
     // Protection
@@ -285,11 +329,6 @@ public class StorageMemory implements Storage {
         return retVal;
     }
 
-    private Set<Number640> putIfAbsent2(long expiration, Set<Number640> hashSet) {
-        Set<Number640> timeouts = timeoutMapRev.putIfAbsent(expiration, hashSet);
-        return timeouts == null ? hashSet : timeouts;
-    }
-
 	@Override
 	public Number160 findPeerIDsForResponsibleContent(Number160 locationKey) {
 		return responsibilityMap.get(locationKey);
@@ -300,6 +339,16 @@ public class StorageMemory implements Storage {
 		return responsibilityMapRev.get(peerID);
     }
 
+    @Override
+    public Collection<Number160> findContentForResponsiblePeerID(Number160 peerID, Number160 fromLocationKey,
+            Number160 toLocationKey) {
+        NavigableSet<Number160> contentIDs = responsibilityMapRev.get(peerID);
+        if (contentIDs == null) {
+            return null;
+        }
+        return contentIDs.subSet(fromLocationKey, true, toLocationKey, true);
+    }
+
 	@Override
 	public boolean updateResponsibilities(Number160 locationKey, Number160 peerId) {
 		final Number160 oldPeerID =  responsibilityMap.put(locationKey, peerId);
@@ -314,9 +363,10 @@ public class StorageMemory implements Storage {
 		} else {
 			hasChanged = true;
 		}
-		Set<Number160> contentIDs = responsibilityMapRev.get(peerId);
+		NavigableSet<Number160> contentIDs = responsibilityMapRev.get(peerId);
 		if(contentIDs == null) {
-			contentIDs = new HashSet<Number160>();
+			// sorted, such that the locations close to a peer are found without going over all of them
+			contentIDs = new ConcurrentSkipListSet<Number160>();
 			responsibilityMapRev.put(peerId, contentIDs);
 		}
 		contentIDs.add(locationKey);
@@ -334,7 +384,7 @@ public class StorageMemory implements Storage {
     }
     
     private void removeRevResponsibility(Number160 peerId, Number160 locationKey) {
-        Set<Number160> contentIDs = responsibilityMapRev.get(peerId);
+        NavigableSet<Number160> contentIDs = responsibilityMapRev.get(peerId);
         if (contentIDs != null) {
             contentIDs.remove(locationKey);
             if (contentIDs.isEmpty()) {
@@ -347,9 +397,9 @@ public class StorageMemory implements Storage {
     @Override
     public void close() {
         dataMap.clear();
+        locationSizes.clear();
         protectedMap.clear();
-        timeoutMap.clear();
-        timeoutMapRev.clear();
+        timeoutWheel.clear();
     }
 
 	@Override
@@ -244,6 +244,42 @@ public class StorageRPC extends DispatchHandler {
 
     }
     
+    /**
+     * Changes the meta data of the given entries on a single peer. In contrast to
+     * {@link #putMeta(PeerAddress, PutBuilder, ChannelCreator)}, the entries are not taken from the builder and may
+     * have different location keys. This is used to send all entries a peer is responsible for in one message.
+     * 
+     * @param remotePeer
+     *            The remote peer to send this request
+     * @param dataMap
+     *            The new meta data of the entries
+     * @param putBuilder
+     *            The builder with the key pair to sign the request and the connection configuration
+     * @param channelCreator
+     *            The channel creator that creates connections
+     * @return The future response to keep track of future events
+     */
+    public FutureResponse putMeta(final PeerAddress remotePeer, final NavigableMap<Number640, Data> dataMap,
+            final PutBuilder putBuilder, final ChannelCreator channelCreator) {
+        Utils.nullCheck(remotePeer);
+
+        final Message message = createMessage(remotePeer, RPC.Commands.PUT_META.getNr(), Type.REQUEST_1);
+        if (putBuilder.isSign()) {
+            message.publicKeyAndSign(putBuilder.keyPair());
+        }
+        message.setDataMap(new DataMap(dataMap));
+
+        final FutureResponse futureResponse = new FutureResponse(message);
+        final RequestHandler<FutureResponse> request = new RequestHandler<FutureResponse>(futureResponse,
+                peerBean(), connectionBean(), putBuilder);
+
+        if (!putBuilder.isForceUDP()) {
+            return request.sendTCP(channelCreator);
+        } else {
+            return request.sendUDP(channelCreator);
+        }
+    }
+
     public FutureResponse putMeta(final PeerAddress remotePeer, final PutBuilder putBuilder, 
             final ChannelCreator channelCreator) {
 
@@ -708,10 +744,13 @@ public class StorageRPC extends DispatchHandler {
         	dataSize = toStore.size();
             result = new HashMap<Number640, Byte>(dataSize);
         	LOG.debug("received meta request to change entry");
-        	for (Map.Entry<Number640, Data> entry : toStore.dataMap().entrySet()) {
-        		entry.getValue().meta();
-        		Enum<?> status = storageLayer.updateMeta(publicKey, entry.getKey(), entry.getValue());
-        		result.put(entry.getKey(), (byte) status.ordinal());
+        	for (Data data : toStore.dataMap().values()) {
+        		data.meta();
+        	}
+        	// the entries may belong to different location keys if the sender grouped them by peer
+        	Map<Number640, Enum<?>> status = storageLayer.updateMeta(publicKey, toStore.dataMap());
+        	for (Map.Entry<Number640, Enum<?>> entry : status.entrySet()) {
+        		result.put(entry.getKey(), (byte) entry.getValue().ordinal());
         	}
         }
         responseMessage.type(result.size() == dataSize ? Type.OK : Type.PARTIALLY_OK);
@@ -0,0 +1,162 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.tomp2p.dht;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import net.tomp2p.peers.Number640;
+
+/**
+ * A hashed timer wheel for the expiration of stored entries. Every key is put into the bucket of the tick its
+ * expiration falls into. Polling only visits the buckets of the ticks that passed since the last poll, thus the cost of
+ * a poll depends on the number of expired keys and not on the number of stored keys. Keys that expire later than one
+ * rotation of the wheel stay in their bucket and are checked again after each rotation.
+ * <p>
+ * Keys without expiration ({@link Long#MAX_VALUE}) are not tracked at all.
+ */
+final class TimeoutWheel {
+
+	public static final int DEFAULT_WHEEL_SIZE = 1024;
+
+	private final long tickMillis;
+	private final int mask;
+	private final Set<Number640>[] buckets;
+	private final Map<Number640, Timeout> timeouts = new HashMap<Number640, Timeout>();
+
+	// all ticks up to and including this one have been polled completely
+	private long polledTick;
+
+	/**
+	 * @param tickMillis
+	 *            The resolution of the wheel. Polling more often than once per tick does not find new keys.
+	 * @param wheelSize
+	 *            The number of buckets, rounded up to a power of two
+	 */
+	public TimeoutWheel(long tickMillis, int wheelSize) {
+		if (tickMillis <= 0 || wheelSize <= 0) {
+			throw new IllegalArgumentException("tick and wheel size need to be positive");
+		}
+		int size = Integer.highestOneBit(wheelSize);
+		if (size < wheelSize) {
+			size <<= 1;
+		}
+		this.tickMillis = tickMillis;
+		this.mask = size - 1;
+		this.buckets = newBuckets(size);
+		for (int i = 0; i < size; i++) {
+			buckets[i] = new HashSet<Number640>();
+		}
+		this.polledTick = (System.currentTimeMillis() / tickMillis) - 1;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Set<Number640>[] newBuckets(int size) {
+		return (Set<Number640>[]) new Set<?>[size];
+	}
+
+	public synchronized void add(Number640 key, long expiration) {
+		remove(key);
+		if (expiration == Long.MAX_VALUE) {
+			return;
+		}
+		// keys that expire in an already polled tick are found by the next poll
+		final long tick = Math.max(expiration / tickMillis, polledTick + 1);
+		final int bucket = (int) (tick & mask);
+		timeouts.put(key, new Timeout(expiration, bucket));
+		buckets[bucket].add(key);
+	}
+
+	public synchronized void remove(Number640 key) {
+		final Timeout timeout = timeouts.remove(key);
+		if (timeout != null) {
+			buckets[timeout.bucket].remove(key);
+		}
+	}
+
+	/**
+	 * Removes and returns all keys that expire before the given time.
+	 *
+	 * @param to
+	 *            The time in milliseconds (exclusive)
+	 * @return The expired keys, in no particular order
+	 */
+	public synchronized Collection<Number640> poll(long to) {
+		final long toTick = to / tickMillis;
+		final Collection<Number640> expired = new ArrayList<Number640>();
+		if (toTick <= polledTick || timeouts.isEmpty()) {
+			polledTick = Math.max(polledTick, toTick - 1);
+			return expired;
+		}
+		// the tick of "to" is only polled partially, it is visited again next time
+		final long ticks = Math.min(toTick - polledTick, buckets.length);
+		for (long i = 1; i <= ticks; i++) {
+			final Set<Number640> bucket = buckets[(int) ((polledTick + i) & mask)];
+			for (Iterator<Number640> iterator = bucket.iterator(); iterator.hasNext();) {
+				final Number640 key = iterator.next();
+				if (timeouts.get(key).expiration < to) {
+					timeouts.remove(key);
+					iterator.remove();
+					expired.add(key);
+				}
+			}
+		}
+		polledTick = toTick - 1;
+		return expired;
+	}
+
+	/**
+	 * Returns all keys that expire before the given time without removing them. This needs to check every key.
+	 *
+	 * @param to
+	 *            The time in milliseconds (exclusive)
+	 * @return The expired keys, in no particular order
+	 */
+	public synchronized Collection<Number640> expired(long to) {
+		final Collection<Number640> expired = new ArrayList<Number640>();
+		for (Map.Entry<Number640, Timeout> entry : timeouts.entrySet()) {
+			if (entry.getValue().expiration < to) {
+				expired.add(entry.getKey());
+			}
+		}
+		return expired;
+	}
+
+	public synchronized int size() {
+		return timeouts.size();
+	}
+
+	public synchronized void clear() {
+		timeouts.clear();
+		for (Set<Number640> bucket : buckets) {
+			bucket.clear();
+		}
+	}
+
+	private static final class Timeout {
+		private final long expiration;
+		private final int bucket;
+
+		private Timeout(long expiration, int bucket) {
+			this.expiration = expiration;
+			this.bucket = bucket;
+		}
+	}
+}
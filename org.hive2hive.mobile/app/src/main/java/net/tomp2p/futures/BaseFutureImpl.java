@@ -22,13 +22,18 @@ import org.slf4j.LoggerFactory;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * The base for all BaseFuture implementations. Be aware of possible deadlocks. Never await from a listener. This class
  * is heavily inspired by MINA and Netty.
+ * <p>
+ * The completion is published with a single atomic state word that holds a stack of listeners and waiting threads
+ * until the future completes. Waiting threads are parked only if the future is not completed yet. Subclasses set their
+ * results while holding {@link #lock} and claim the completion with {@link #completedAndNotify()}. The completion
+ * becomes visible to others with {@link #notifyListeners()}, which has to be called afterwards, outside of the lock.
  * 
  * @param <K>
  *            The class that extends BaseFuture and is used to return back the type for method calls. E.g, if K is
@@ -38,19 +43,39 @@ import java.util.concurrent.CountDownLatch;
 public abstract class BaseFutureImpl<K extends BaseFuture> implements BaseFuture {
     private static final Logger LOG = LoggerFactory.getLogger(BaseFutureImpl.class);
 
-    // Listeners that gets notified if the future finished
-    private final List<BaseFutureListener<? extends BaseFuture>> listeners = 
-            new ArrayList<BaseFutureListener<? extends BaseFuture>>(1);
+    // sentinels of the state words
+    private static final Object COMPLETED = new Object();
+    private static final Object LISTENERS_DONE = new Object();
+    private static final Object CANCELED = new Object();
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<BaseFutureImpl, Object> STATE = AtomicReferenceFieldUpdater
+            .newUpdater(BaseFutureImpl.class, Object.class, "state");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<BaseFutureImpl, Object> LISTENER_STATE = AtomicReferenceFieldUpdater
+            .newUpdater(BaseFutureImpl.class, Object.class, "listenerState");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<BaseFutureImpl, Object> CANCEL_STATE = AtomicReferenceFieldUpdater
+            .newUpdater(BaseFutureImpl.class, Object.class, "cancelState");
+
+    // Listeners that gets notified if the future finished and threads waiting for it: null or a Node while running,
+    // COMPLETED once the completion has been published
+    private volatile Object state;
+
+    // Threads waiting for the listeners to finish: null or a Node while running, LISTENERS_DONE once all listeners
+    // have been called
+    private volatile Object listenerState;
 
     // While a future is running, the process may add cancellations for faster
-    // cancel operations, e.g. cancel connection attempt
-    private final List<Cancel> cancels = new ArrayList<Cancel>(0);
-
-    private final CountDownLatch listenersFinished = new CountDownLatch(1);
+    // cancel operations, e.g. cancel connection attempt. Null or a Node while not canceled, CANCELED afterwards
+    private volatile Object cancelState;
 
+    /**
+     * Guards the results of subclasses. The completion itself is not guarded by this lock.
+     */
     protected final Object lock;
 
-    // set the ready flag if operation completed
+    // set the ready flag if operation completed, guarded by lock
     protected boolean completed = false;
 
     // by default false, change in case of success. An unfinished operation is
@@ -61,8 +86,6 @@ public abstract class BaseFutureImpl<K extends BaseFuture> implements BaseFuture
 
     private K self;
 
-    private boolean cancel = false;
-
     /**
      * Default constructor that sets the lock object, which is used for synchronization to this instance.
      */
@@ -88,28 +111,20 @@ public abstract class BaseFutureImpl<K extends BaseFuture> implements BaseFuture
 
     @Override
     public K await() throws InterruptedException {
-        synchronized (lock) {
-            checkDeadlock();
-            while (!completed) {
-                lock.wait();
-            }
-            return self;
-        }
+        checkDeadlock();
+        park(STATE, COMPLETED, true, 0);
+        return self;
     }
 
     @Override
     public K awaitUninterruptibly() {
-        synchronized (lock) {
-            checkDeadlock();
-            while (!completed) {
-                try {
-                    lock.wait();
-                } catch (final InterruptedException e) {
-                   LOG.debug("interrupted, but ignoring", e);
-                }
-            }
-            return self;
+        checkDeadlock();
+        try {
+            park(STATE, COMPLETED, false, 0);
+        } catch (final InterruptedException e) {
+            throw new RuntimeException("This should never ever happen.");
         }
+        return self;
     }
 
     @Override
@@ -138,55 +153,87 @@ public abstract class BaseFutureImpl<K extends BaseFuture> implements BaseFuture
      *             If the flag interrupt is true and this thread has been interrupted.
      */
     private boolean await0(final long timeoutMillis, final boolean interrupt) throws InterruptedException {
-        final long startTime = (timeoutMillis <= 0) ? 0 : System.currentTimeMillis();
-        long waitTime = timeoutMillis;
-        synchronized (lock) {
-            if (completed) {
-                return completed;
-            } else if (waitTime <= 0) {
-                return completed;
-            }
-            checkDeadlock();
+        if (state == COMPLETED) {
+            return true;
+        } else if (timeoutMillis <= 0) {
+            return false;
+        }
+        checkDeadlock();
+        return park(STATE, COMPLETED, interrupt, timeoutMillis);
+    }
+
+    /**
+     * Parks the current thread until the state word reaches the given sentinel. The thread pushes itself onto the
+     * stack of the state word, such that it gets unparked once the sentinel is set.
+     * 
+     * @param updater
+     *            The state word to wait for
+     * @param done
+     *            The sentinel that ends waiting
+     * @param interrupt
+     *            Flag to indicate if the method can throw an InterruptedException
+     * @param timeoutMillis
+     *            The time to wait, or 0 to wait forever
+     * @return True if the sentinel has been reached, false if the timeout elapsed
+     * @throws InterruptedException
+     *             If the flag interrupt is true and this thread has been interrupted.
+     */
+    @SuppressWarnings("rawtypes")
+    private boolean park(final AtomicReferenceFieldUpdater<BaseFutureImpl, Object> updater, final Object done,
+            final boolean interrupt, final long timeoutMillis) throws InterruptedException {
+        if (updater.get(this) == done) {
+            return true;
+        }
+        final long deadline = timeoutMillis > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : 0;
+        final Node node = new Node(Thread.currentThread(), true);
+        try {
+            boolean pushed = false;
             while (true) {
-                try {
-                    lock.wait(waitTime);
-                } catch (final InterruptedException e) {
-                    if (interrupt) {
-                        throw e;
-                    }
-                }
-                if (completed) {
+                final Object current = updater.get(this);
+                if (current == done) {
                     return true;
+                }
+                if (!pushed) {
+                    node.next = skipRemoved((Node) current);
+                    pushed = updater.compareAndSet(this, current, node);
+                    continue;
+                }
+                if (timeoutMillis > 0) {
+                    final long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    LockSupport.parkNanos(this, remaining);
                 } else {
-                    waitTime = timeoutMillis - (System.currentTimeMillis() - startTime);
-                    if (waitTime <= 0) {
-                        return completed;
+                    LockSupport.park(this);
+                }
+                if (Thread.interrupted()) {
+                    if (interrupt) {
+                        throw new InterruptedException();
                     }
+                    LOG.debug("interrupted, but ignoring");
                 }
             }
+        } finally {
+            // the node is skipped by the next push or dropped on completion
+            node.item = null;
         }
     }
 
     @Override
     public boolean isCompleted() {
-        synchronized (lock) {
-            return completed;
-        }
+        return state == COMPLETED;
     }
 
     @Override
     public boolean isSuccess() {
-        synchronized (lock) {
-            return completed && (type == FutureType.OK);
-        }
+        return state == COMPLETED && (type == FutureType.OK);
     }
 
     @Override
     public boolean isFailed() {
-        synchronized (lock) {
-            // failed means failed or canceled
-            return completed && (type != FutureType.OK);
-        }
+        // failed means failed or canceled
+        return state == COMPLETED && (type != FutureType.OK);
     }
 
     @Override
@@ -235,31 +282,27 @@ public abstract class BaseFutureImpl<K extends BaseFuture> implements BaseFuture
 
     @Override
     public String failedReason() {
-        final StringBuffer sb = new StringBuffer("Future (compl/canc):");
-        synchronized (lock) {
-            sb.append(completed).append("/")
-            	.append(cancel).append(", ").append(type.name())
-            	.append(", ").append(reason);
-            return sb.toString();
-        }
+        final StringBuilder sb = new StringBuilder("Future (compl/canc):");
+        sb.append(isCompleted()).append("/")
+        	.append(cancelState == CANCELED).append(", ").append(type.name())
+        	.append(", ").append(reason);
+        return sb.toString();
     }
 
     @Override
     public FutureType type() {
-        synchronized (lock) {
-            return type;
-        }
+        return type;
     }
 
     /**
-     * Make sure that the calling method has synchronized (lock).
+     * Make sure that the calling method has synchronized (lock). Claims the completion of this future, which is
+     * published by a subsequent call to {@link #notifyListeners()}.
      * 
      * @return True if notified. It will notify if completed is not set yet.
      */
     protected boolean completedAndNotify() {
         if (!completed) {
             completed = true;
-            lock.notifyAll();
             return true;
         } else {
             return false;
@@ -268,52 +311,55 @@ public abstract class BaseFutureImpl<K extends BaseFuture> implements BaseFuture
 
     @Override
     public K awaitListeners() throws InterruptedException {
-    	boolean wait = false;
-    	synchronized (lock) {
-    		if(listeners.size() > 0) {
-    			wait = true;
-    		}
-    	}
-    	if(wait) {
-    		listenersFinished.await();
-    	}
+        if (listenersPending()) {
+            park(LISTENER_STATE, LISTENERS_DONE, true, 0);
+        }
         return self;
     }
     
     @Override
     public K awaitListenersUninterruptibly() {
-    	boolean wait = false;
-    	synchronized (lock) {
-    		if(listeners.size() > 0) {
-    			wait = true;
-    		}
-    	}
-    	while(wait) {
-    		try {
-    			listenersFinished.await();
-    			wait = false;
-    		} catch (InterruptedException e) {
-                LOG.debug("interrupted, but ignoring", e);
+        if (listenersPending()) {
+            try {
+                park(LISTENER_STATE, LISTENERS_DONE, false, 0);
+            } catch (final InterruptedException e) {
+                throw new RuntimeException("This should never ever happen.");
             }
-    	}
+        }
         return self;
     }
+
+    /**
+     * @return True if listeners have been added that have not been called yet or are being called right now
+     */
+    private boolean listenersPending() {
+        final Object current = state;
+        if (current == COMPLETED) {
+            return listenerState != LISTENERS_DONE;
+        }
+        for (Node node = (Node) current; node != null; node = node.next) {
+            if (!node.waiter && node.item != null) {
+                return true;
+            }
+        }
+        return false;
+    }
     
     @Override
     public K addListener(final BaseFutureListener<? extends BaseFuture> listener) {
-        boolean notifyNow = false;
-        synchronized (lock) {
-            if (completed) {
-                notifyNow = true;
-            } else {
-                listeners.add(listener);
+        final Node node = new Node(listener, false);
+        while (true) {
+            final Object current = state;
+            if (current == COMPLETED) {
+                // called only once
+                callOperationComplete(listener);
+                return self;
+            }
+            node.next = skipRemoved((Node) current);
+            if (STATE.compareAndSet(this, current, node)) {
+                return self;
             }
         }
-        // called only once
-        if (notifyNow) {
-            callOperationComplete(listener);
-        }
-        return self;
     }
 
     /**
@@ -350,70 +396,145 @@ public abstract class BaseFutureImpl<K extends BaseFuture> implements BaseFuture
     }
 
     /**
-     * Always call this from outside synchronized(lock)!
+     * Always call this from outside synchronized(lock)! Publishes the completion, wakes up the waiting threads and
+     * calls the listeners in the order they have been added.
      */
+    @SuppressWarnings("rawtypes")
     protected void notifyListeners() {
-        // if this is synchronized, it will deadlock, so do not lock this!
-        // There won't be any visibility problem or concurrent modification
-        // because 'ready' flag will be checked against both addListener and
-        // removeListener calls.
-        for (final BaseFutureListener<? extends BaseFuture> listener : listeners) {
-            callOperationComplete(listener);
-        }
-        listenersFinished.countDown();
-        listeners.clear();
         // all events are one time events. It cannot happen that you get
         // notified twice
+        final Object current = STATE.getAndSet(this, COMPLETED);
+        if (current == COMPLETED) {
+            return;
+        }
+        int size = 0;
+        for (Node node = (Node) current; node != null; node = node.next) {
+            if (node.waiter) {
+                unpark(node);
+            } else {
+                size++;
+            }
+        }
+        if (size > 0) {
+            // the stack has the last added listener on top
+            final BaseFutureListener[] listeners = new BaseFutureListener[size];
+            for (Node node = (Node) current; node != null; node = node.next) {
+                if (!node.waiter) {
+                    listeners[--size] = (BaseFutureListener) node.item;
+                }
+            }
+            for (final BaseFutureListener listener : listeners) {
+                // removed listeners are null
+                if (listener != null) {
+                    callOperationComplete(listener);
+                }
+            }
+        }
+        final Object waiting = LISTENER_STATE.getAndSet(this, LISTENERS_DONE);
+        if (waiting != LISTENERS_DONE) {
+            for (Node node = (Node) waiting; node != null; node = node.next) {
+                unpark(node);
+            }
+        }
     }
 
     @Override
     public K removeListener(final BaseFutureListener<? extends BaseFuture> listener) {
-        synchronized (lock) {
-            if (!completed) {
-                listeners.remove(listener);
-            }
+        final Object current = state;
+        if (current != COMPLETED) {
+            remove((Node) current, listener);
         }
         return self;
     }
 
     @Override
     public K addCancel(final Cancel cancelListener) {
-        synchronized (cancels) {
-            if (cancel) {
+        final Node node = new Node(cancelListener, false);
+        while (true) {
+            final Object current = cancelState;
+            if (current == CANCELED) {
                 cancelListener.cancel();
+                return self;
             }
-            else {
-                cancels.add(cancelListener);
+            node.next = skipRemoved((Node) current);
+            if (CANCEL_STATE.compareAndSet(this, current, node)) {
+                return self;
             }
         }
-        return self;
     }
     
     @Override
     public K removeCancel(final Cancel cancelListener) {
-        synchronized (cancels) {
-            if (!cancel) {
-                cancels.remove(cancelListener);
-            }
+        final Object current = cancelState;
+        if (current != CANCELED) {
+            remove((Node) current, cancelListener);
         }
         return self;
     }
 
     @Override
     public void cancel() {
-        boolean notifyCancel = false;
-        synchronized (cancels) {
-            if (!cancel) {
-                cancel = true;
-                notifyCancel = true;
-            } else {
-                return;
-            }
+        final Object current = CANCEL_STATE.getAndSet(this, CANCELED);
+        if (current == CANCELED) {
+            return;
+        }
+        int size = 0;
+        for (Node node = (Node) current; node != null; node = node.next) {
+            size++;
+        }
+        // cancel in the order the cancels have been added
+        final Cancel[] cancels = new Cancel[size];
+        for (Node node = (Node) current; node != null; node = node.next) {
+            cancels[--size] = (Cancel) node.item;
         }
-        if (notifyCancel) {
-            for (final Cancel cancellable : cancels) {
+        for (final Cancel cancellable : cancels) {
+            if (cancellable != null) {
                 cancellable.cancel();
             }
         }
     }
+
+    private static void unpark(final Node node) {
+        final Object thread = node.item;
+        if (thread != null) {
+            LockSupport.unpark((Thread) thread);
+        }
+    }
+
+    /**
+     * Removes the first occurrence of the item from the stack. The node stays in the stack with no item.
+     */
+    private static void remove(final Node head, final Object item) {
+        for (Node node = head; node != null; node = node.next) {
+            if (!node.waiter && item.equals(node.item)) {
+                node.item = null;
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return The first node with an item, such that removed nodes on top of the stack are dropped with the next push
+     */
+    private static Node skipRemoved(Node head) {
+        while (head != null && head.item == null) {
+            head = head.next;
+        }
+        return head;
+    }
+
+    /**
+     * An entry of a lock-free stack. It holds a listener, a cancel, or a waiting thread. The next node is only set
+     * before the node is pushed.
+     */
+    private static final class Node {
+        private volatile Object item;
+        private final boolean waiter;
+        private Node next;
+
+        private Node(final Object item, final boolean waiter) {
+            this.item = item;
+            this.waiter = waiter;
+        }
+    }
 }
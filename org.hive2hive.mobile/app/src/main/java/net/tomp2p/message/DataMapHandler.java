@@ -0,0 +1,26 @@
+package net.tomp2p.message;
+
+import net.tomp2p.peers.Number640;
+import net.tomp2p.storage.Data;
+
+/**
+ * Receives the entries of a {@link DataMap} while it is decoded, see {@link Decoder#dataMapHandler(DataMapHandler)}.
+ * This allows to process large maps entry by entry instead of materializing the whole map first. The entries of
+ * signed messages are never handed out, since the signature can only be verified once the message is complete.
+ */
+public interface DataMapHandler {
+
+	/**
+	 * Called for every entry of an unsigned message as soon as it has been decoded completely.
+	 * 
+	 * @param message
+	 *            The message that is being decoded. Its payload is not complete yet.
+	 * @param key
+	 *            The key of the entry
+	 * @param data
+	 *            The decoded data of the entry
+	 * @return True if the entry has been consumed and should not be added to the {@link DataMap} of the message,
+	 *         false to add it as usual
+	 */
+	boolean dataDecoded(Message message, Number640 key, Data data);
+}
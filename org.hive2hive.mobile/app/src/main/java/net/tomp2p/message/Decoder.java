@@ -37,6 +37,7 @@ import java.util.Set;
 import java.util.TreeMap;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.socket.DatagramChannel;
 import io.netty.util.Attribute;
@@ -67,7 +68,9 @@ public class Decoder {
 	private KeyCollection keyCollection = null;
 
 	private int mapSize = -1;
+	private int mapDecoded = 0;
 	private DataMap dataMap = null;
+	private DataMapHandler dataMapHandler = null;
 	private Data data = null;
 	private Number640 key = null;
 
@@ -87,9 +90,45 @@ public class Decoder {
 	private Content lastContent = null;
 
 	private final SignatureFactory signatureFactory;
+	private final SignatureVerifier signatureVerifier;
+	// the copied bytes that are verified by the signature verifier
+	private ByteBuf signedPayload = null;
+
+	// keys that repeat from one entry to the next (e.g., location and domain) are shared
+	private final Number160Reader locationKeyReader = new Number160Reader();
+	private final Number160Reader domainKeyReader = new Number160Reader();
+	private final Number160Reader contentKeyReader = new Number160Reader();
+	private final Number160Reader versionKeyReader = new Number160Reader();
+	private final Number160Reader basedOnKeyReader = new Number160Reader();
 
 	public Decoder(SignatureFactory signatureFactory) {
+		this(signatureFactory, null);
+	}
+
+	/**
+	 * Creates a decoder that leaves the verification of signatures to the handler of the signature verifier.
+	 * 
+	 * @param signatureFactory
+	 *            The signature factory
+	 * @param signatureVerifier
+	 *            The verifier whose handler follows this decoder or null to verify signatures while decoding
+	 */
+	public Decoder(SignatureFactory signatureFactory, SignatureVerifier signatureVerifier) {
 		this.signatureFactory = signatureFactory;
+		this.signatureVerifier = signatureVerifier;
+	}
+
+	/**
+	 * Sets a handler that receives the entries of {@link DataMap}s of unsigned messages while they are decoded.
+	 * Entries consumed by the handler are not added to the {@link DataMap} of the message.
+	 * 
+	 * @param dataMapHandler
+	 *            The handler or null to materialize all entries
+	 * @return This class
+	 */
+	public Decoder dataMapHandler(DataMapHandler dataMapHandler) {
+		this.dataMapHandler = dataMapHandler;
+		return this;
 	}
 
 	public boolean decode(ChannelHandlerContext ctx, final ByteBuf buf, InetSocketAddress recipient,
@@ -157,6 +196,18 @@ public class Decoder {
 		// if we read the complete data, we also read the signature
 		// for the verification, we should not use this for the signature
 		final int length = donePayload ? len - signatureFactory.signatureSize() : len; 
+		if (signatureVerifier != null) {
+			// only copy the bytes on the I/O thread, the signature verifier checks them
+			if (signedPayload == null) {
+				signedPayload = Unpooled.buffer(length);
+			}
+			signedPayload.writeBytes(buf, readerBefore, length);
+			if (donePayload) {
+				message.signedPayload(signedPayload);
+				signedPayload = null;
+			}
+			return;
+		}
 		ByteBuffer[] byteBuffers = buf.nioBuffers(readerBefore, length);
 		if(signature == null) {
 			signature = signatureFactory.update(message.publicKey(0), byteBuffers);
@@ -237,9 +288,7 @@ public class Decoder {
 				if (buf.readableBytes() < Number160.BYTE_ARRAY_SIZE) {
 					return false;
 				}
-				byte[] me = new byte[Number160.BYTE_ARRAY_SIZE];
-				buf.readBytes(me);
-				message.key(new Number160(me));
+				message.key(contentKeyReader.read(buf));
 				lastContent = contentTypes.poll();
 				break;
 			case BLOOM_FILTER:
@@ -324,16 +373,7 @@ public class Decoder {
 							+ Number160.BYTE_ARRAY_SIZE + Number160.BYTE_ARRAY_SIZE) {
 						return false;
 					}
-					byte[] me2 = new byte[Number160.BYTE_ARRAY_SIZE];
-					buf.readBytes(me2);
-					Number160 locationKey = new Number160(me2);
-					buf.readBytes(me2);
-					Number160 domainKey = new Number160(me2);
-					buf.readBytes(me2);
-					Number160 contentKey = new Number160(me2);
-					buf.readBytes(me2);
-					Number160 versionKey = new Number160(me2);
-					keyCollection.add(new Number640(locationKey, domainKey, contentKey, versionKey));
+					keyCollection.add(readNumber640(buf));
 				}
 				message.keyCollection(keyCollection);
 				lastContent = contentTypes.poll();
@@ -357,31 +397,21 @@ public class Decoder {
 					if (!data.decodeDone(buf, message.publicKey(0), signatureFactory)) {
 						return false;
 					}
-					data = null;
-					key = null;
+					dataDecoded();
 				}
-				for (int i = dataMap.size(); i < mapSize; i++) {
+				// entries handed to the dataMapHandler are not in the map, thus count them separately
+				for (int i = mapDecoded; i < mapSize; i++) {
 					if (key == null) {
 						if (buf.readableBytes() < Number160.BYTE_ARRAY_SIZE + Number160.BYTE_ARRAY_SIZE
 								+ Number160.BYTE_ARRAY_SIZE + Number160.BYTE_ARRAY_SIZE) {
 							return false;
 						}
-						byte[] me3 = new byte[Number160.BYTE_ARRAY_SIZE];
-						buf.readBytes(me3);
-						Number160 locationKey = new Number160(me3);
-						buf.readBytes(me3);
-						Number160 domainKey = new Number160(me3);
-						buf.readBytes(me3);
-						Number160 contentKey = new Number160(me3);
-						buf.readBytes(me3);
-						Number160 versionKey = new Number160(me3);
-						key = new Number640(locationKey, domainKey, contentKey, versionKey);
+						key = readNumber640(buf);
 					}
 					data = Data.decodeHeader(buf, signatureFactory);
 					if (data == null) {
 						return false;
 					}
-					dataMap.dataMap().put(key, data);
 
 					if (!data.decodeBuffer(buf)) {
 						return false;
@@ -389,15 +419,13 @@ public class Decoder {
 					if (!data.decodeDone(buf, message.publicKey(0), signatureFactory)) {
 						return false;
 					}
-					// if we have signed the message, set the public key anyway, but only if we indicated so
-					inheritPublicKey(message, data);
-					data = null;
-					key = null;
+					dataDecoded();
 				}
 
 				message.setDataMap(dataMap);
 				lastContent = contentTypes.poll();
 				mapSize = -1;
+				mapDecoded = 0;
 				dataMap = null;
 				break;
 			case MAP_KEY640_KEYS:
@@ -423,25 +451,15 @@ public class Decoder {
 					if (buf.readableBytes() < meta + Utils.BYTE_BYTE_SIZE + (size * Number160.BYTE_ARRAY_SIZE )) {
 						return false;
 					}
-					byte[] me3 = new byte[Number160.BYTE_ARRAY_SIZE];
-					buf.readBytes(me3);
-					Number160 locationKey = new Number160(me3);
-					buf.readBytes(me3);
-					Number160 domainKey = new Number160(me3);
-					buf.readBytes(me3);
-					Number160 contentKey = new Number160(me3);
-					buf.readBytes(me3);
-					Number160 versionKey = new Number160(me3);
+					final Number640 key640 = readNumber640(buf);
 
 					int numBasedOn = buf.readByte();
-					Set<Number160> value = new HashSet<Number160>(numBasedOn);
+					Set<Number160> value = new HashSet<Number160>(Utils.capacity(numBasedOn));
 					for (int j = 0; j < numBasedOn; j++) {
-						buf.readBytes(me3);
-						Number160 basedOnKey = new Number160(me3);
-						value.add(basedOnKey);
+						value.add(basedOnKeyReader.read(buf));
 					}
 
-					keyMap640Keys.put(new Number640(locationKey, domainKey, contentKey, versionKey), value);
+					keyMap640Keys.put(key640, value);
 				}
 
 				message.keyMap640Keys(keyMap640Keys);
@@ -457,7 +475,7 @@ public class Decoder {
 					keyMapByteSize = buf.readInt();
 				}
 				if (keyMapByte == null) {
-					keyMapByte = new KeyMapByte(new HashMap<Number640, Byte>(2 * keyMapByteSize));
+					keyMapByte = new KeyMapByte(new HashMap<Number640, Byte>(Utils.capacity(keyMapByteSize)));
 				}
 
 				for (int i = keyMapByte.size(); i < keyMapByteSize; i++) {
@@ -465,17 +483,9 @@ public class Decoder {
 							+ Number160.BYTE_ARRAY_SIZE + Number160.BYTE_ARRAY_SIZE + 1) {
 						return false;
 					}
-					byte[] me3 = new byte[Number160.BYTE_ARRAY_SIZE];
-					buf.readBytes(me3);
-					Number160 locationKey = new Number160(me3);
-					buf.readBytes(me3);
-					Number160 domainKey = new Number160(me3);
-					buf.readBytes(me3);
-					Number160 contentKey = new Number160(me3);
-					buf.readBytes(me3);
-					Number160 versionKey = new Number160(me3);
+					final Number640 key640 = readNumber640(buf);
 					byte value = buf.readByte();
-					keyMapByte.put(new Number640(locationKey, domainKey, contentKey, versionKey), value);
+					keyMapByte.put(key640, value);
 				}
 
 				message.keyMapByte(keyMapByte);
@@ -519,7 +529,7 @@ public class Decoder {
 					trackerDataSize = buf.readUnsignedByte();
 				}
 				if (trackerData == null) {
-					trackerData = new TrackerData(new HashMap<PeerAddress, Data>(2 * trackerDataSize));
+					trackerData = new TrackerData(new HashMap<PeerAddress, Data>(Utils.capacity(trackerDataSize)));
 				}
 				if (currentTrackerData != null) {
 					if (!currentTrackerData.decodeBuffer(buf)) {
@@ -609,16 +619,45 @@ public class Decoder {
 		keyCollectionSize = -1;
 		keyCollection = null;
 		mapSize = -1;
+		mapDecoded = 0;
 		dataMap = null;
 		data = null;
+		key = null;
 		keyMap640KeysSize = -1;
 		keyMap640Keys = null;
 		bufferSize = -1;
 		buffer = null;
 		signature = null;
+		signedPayload = null;
 		return ret;
 	}
 
+	/**
+	 * Called once the current entry of a {@link DataMap} has been decoded completely. Signed messages are
+	 * materialized completely, their entries must not be used before the signature is verified.
+	 */
+	private void dataDecoded() {
+		// if we have signed the message, set the public key anyway, but only if we indicated so
+		inheritPublicKey(message, data);
+		mapDecoded++;
+		if (dataMapHandler == null || message.isSign() || !dataMapHandler.dataDecoded(message, key, data)) {
+			dataMap.dataMap().put(key, data);
+		}
+		data = null;
+		key = null;
+	}
+
+	/**
+	 * Reads a {@link Number640} without intermediate byte arrays. Make sure 80 bytes are readable.
+	 */
+	private Number640 readNumber640(final ByteBuf buf) {
+		final Number160 locationKey = locationKeyReader.read(buf);
+		final Number160 domainKey = domainKeyReader.read(buf);
+		final Number160 contentKey = contentKeyReader.read(buf);
+		final Number160 versionKey = versionKeyReader.read(buf);
+		return new Number640(locationKey, domainKey, contentKey, versionKey);
+	}
+
 	public Message message() {
 		return message;
 	}
@@ -633,4 +672,27 @@ public class Decoder {
 	    	data.publicKey(message.publicKey(0));
 	    }
     }
+
+	/**
+	 * Reads {@link Number160}s from a buffer as ints instead of copying them into a byte array first. If a number is
+	 * equal to the previous one, the previous instance is returned.
+	 */
+	private static final class Number160Reader {
+		private final int[] current = new int[Number160.INT_ARRAY_SIZE];
+		private final int[] previous = new int[Number160.INT_ARRAY_SIZE];
+		private Number160 previousNumber = Number160.ZERO;
+
+		private Number160 read(final ByteBuf buf) {
+			boolean same = true;
+			for (int i = 0; i < Number160.INT_ARRAY_SIZE; i++) {
+				current[i] = buf.readInt();
+				same = same && current[i] == previous[i];
+			}
+			if (!same) {
+				System.arraycopy(current, 0, previous, 0, Number160.INT_ARRAY_SIZE);
+				previousNumber = new Number160(current);
+			}
+			return previousNumber;
+		}
+	}
 }
@@ -41,6 +41,8 @@ import java.util.Queue;
 import java.util.Random;
 import java.util.TreeMap;
 
+import io.netty.buffer.ByteBuf;
+
 /**
  * The message is in binary format in TomP2P. It has several header and payload fields. Since
  * we do the serialization/encoding manually, we do not need a serialization field.
@@ -202,6 +204,7 @@ public class Message {
     private transient boolean sign = false;
     private transient boolean content = false;
     private transient boolean verified = false;
+    private transient ByteBuf signedPayload = null;
     private transient boolean sendSelf = false;
 
     /**
@@ -954,6 +957,23 @@ public class Message {
     public SignatureCodec receivedSignature() {
         return signatureEncode;
     }
+
+    /**
+     * @param signedPayload
+     *            The received bytes the signature has been created for, if the signature is verified after decoding
+     * @return This class
+     */
+    public Message signedPayload(final ByteBuf signedPayload) {
+        this.signedPayload = signedPayload;
+        return this;
+    }
+
+    /**
+     * @return The received bytes whose signature has not been verified yet or null
+     */
+    public ByteBuf signedPayload() {
+        return signedPayload;
+    }
     
     //*************************************** End of content payload ********************
 
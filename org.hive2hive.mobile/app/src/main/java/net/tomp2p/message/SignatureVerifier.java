@@ -0,0 +1,218 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.tomp2p.message;
+
+import net.tomp2p.connection.ConnectionBean;
+import net.tomp2p.connection.SignatureFactory;
+import net.tomp2p.peers.Number160;
+import net.tomp2p.utils.ConcurrentCacheMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.SignatureException;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.util.concurrent.DefaultEventExecutorGroup;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.EventExecutorGroup;
+import io.netty.util.concurrent.Future;
+
+/**
+ * Verifies the signatures of received messages outside of the I/O threads. A {@link Decoder} that is created
+ * with a verifier only copies the signed bytes of a message, the handler of this verifier checks the signature
+ * on a bounded {@link EventExecutorGroup}. Netty runs the handler always on the same executor for a channel, so
+ * the messages of a channel reach the dispatcher in the order they have been received.
+ * <p>
+ * Verified pairs of public key and digest of the signed bytes are cached, such that retransmitted messages
+ * with an already verified signature skip the verification. The cache is bounded and evicts the oldest pairs
+ * first.
+ */
+public class SignatureVerifier {
+
+	private static final Logger LOG = LoggerFactory.getLogger(SignatureVerifier.class);
+
+	public static final int DEFAULT_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+	public static final int DEFAULT_CACHE_SIZE = 1024;
+	public static final int QUIET_PERIOD_MILLIS = 100;
+	private static final int CACHE_TIMEOUT_SECONDS = 60 * 60;
+	private static final int SHUTDOWN_TIMEOUT_MILLIS = 2000;
+
+	private final EventExecutorGroup executor;
+	private final ConcurrentCacheMap<VerifiedPayload, Boolean> verified;
+
+	/**
+	 * Creates a verifier with {@link #DEFAULT_THREADS} threads and a cache of {@link #DEFAULT_CACHE_SIZE}
+	 * verified signatures.
+	 */
+	public SignatureVerifier() {
+		this(DEFAULT_THREADS, DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * @param threads
+	 *            The maximum number of threads that verify signatures. They are started on demand.
+	 * @param cacheSize
+	 *            The number of verified signatures to remember
+	 */
+	public SignatureVerifier(final int threads, final int cacheSize) {
+		this.executor = new DefaultEventExecutorGroup(threads, new DefaultThreadFactory(ConnectionBean.THREAD_NAME
+		        + "verifier - "));
+		this.verified = new ConcurrentCacheMap<VerifiedPayload, Boolean>(CACHE_TIMEOUT_SECONDS, cacheSize, true);
+	}
+
+	/**
+	 * @return The executors the handler of this verifier has to be added with to a pipeline
+	 */
+	public EventExecutorGroup executor() {
+		return executor;
+	}
+
+	/**
+	 * Creates the handler that verifies the messages of a {@link Decoder} created with this verifier. It has to
+	 * be added after the decoder with {@link #executor()}.
+	 *
+	 * @param signatureFactory
+	 *            The signature factory of the decoder
+	 * @return The handler for the pipeline
+	 */
+	public ChannelHandler handler(final SignatureFactory signatureFactory) {
+		return new VerifierHandler(signatureFactory);
+	}
+
+	/**
+	 * Verifies the signature of the signed bytes.
+	 *
+	 * @return True if the signature is correct or the bytes have already been verified for this key
+	 */
+	public boolean verify(final SignatureFactory signatureFactory, final PublicKey publicKey,
+	        final ByteBuffer[] signed, final SignatureCodec signature) throws InvalidKeyException, SignatureException {
+		if (publicKey == null || signature == null) {
+			return false;
+		}
+		final VerifiedPayload key = new VerifiedPayload(publicKey, digest(signed));
+		if (verified.get(key) != null) {
+			return true;
+		}
+		if (!signatureFactory.verify(publicKey, signed, signature)) {
+			return false;
+		}
+		verified.put(key, Boolean.TRUE);
+		return true;
+	}
+
+	/**
+	 * @return The number of cached signatures
+	 */
+	public int cached() {
+		return verified.size();
+	}
+
+	/**
+	 * Stops the verification threads once they have been idle for {@link #QUIET_PERIOD_MILLIS}. Stop the verifier
+	 * after the channels are closed but before the event loops, since the pipelines of closed channels are torn
+	 * down on both.
+	 *
+	 * @return The future that completes once the threads are stopped
+	 */
+	public Future<?> shutdown() {
+		return executor.shutdownGracefully(QUIET_PERIOD_MILLIS, SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	private static Number160 digest(final ByteBuffer[] signed) {
+		try {
+			final MessageDigest md = MessageDigest.getInstance("SHA-1");
+			for (ByteBuffer buffer : signed) {
+				// the buffers are read again for the verification
+				md.update(buffer.duplicate());
+			}
+			return new Number160(md.digest());
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Sharable
+	private class VerifierHandler extends ChannelInboundHandlerAdapter {
+
+		private final SignatureFactory signatureFactory;
+
+		private VerifierHandler(final SignatureFactory signatureFactory) {
+			this.signatureFactory = signatureFactory;
+		}
+
+		@Override
+		public void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
+			if (msg instanceof Message) {
+				final Message message = (Message) msg;
+				final ByteBuf signed = message.signedPayload();
+				if (signed != null) {
+					message.signedPayload(null);
+					try {
+						if (verify(signatureFactory, message.publicKey(0), signed.nioBuffers(),
+						        message.receivedSignature())) {
+							// set public key only if signature is correct
+							message.setVerified();
+							LOG.debug("Signature check OK.");
+						} else {
+							LOG.warn("Signature check NOT OK. Message: {}.", message);
+						}
+					} catch (GeneralSecurityException e) {
+						ctx.fireExceptionCaught(e);
+					}
+				}
+			}
+			ctx.fireChannelRead(msg);
+		}
+	}
+
+	private static final class VerifiedPayload {
+
+		private final PublicKey publicKey;
+		private final Number160 digest;
+
+		private VerifiedPayload(final PublicKey publicKey, final Number160 digest) {
+			this.publicKey = publicKey;
+			this.digest = digest;
+		}
+
+		@Override
+		public int hashCode() {
+			return digest.hashCode() ^ publicKey.hashCode();
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (obj == this) {
+				return true;
+			}
+			if (!(obj instanceof VerifiedPayload)) {
+				return false;
+			}
+			final VerifiedPayload other = (VerifiedPayload) obj;
+			return digest.equals(other.digest) && publicKey.equals(other.publicKey);
+		}
+	}
+}
@@ -23,7 +23,31 @@ public class TomP2PCumulationTCP extends ChannelInboundHandlerAdapter {
 	private int lastId = 0;
 
 	public TomP2PCumulationTCP(final SignatureFactory signatureFactory) {
-		decoder = new Decoder(signatureFactory);
+		this(signatureFactory, null);
+	}
+
+	/**
+	 * @param signatureFactory
+	 *            The signature factory
+	 * @param signatureVerifier
+	 *            The verifier whose handler follows this decoder or null to verify signatures while decoding
+	 */
+	public TomP2PCumulationTCP(final SignatureFactory signatureFactory, final SignatureVerifier signatureVerifier) {
+		this(signatureFactory, signatureVerifier, null);
+	}
+
+	/**
+	 * @param signatureFactory
+	 *            The signature factory
+	 * @param signatureVerifier
+	 *            The verifier whose handler follows this decoder or null to verify signatures while decoding
+	 * @param dataMapHandler
+	 *            The handler that receives the data map entries of unsigned messages while they are decoded or
+	 *            null
+	 */
+	public TomP2PCumulationTCP(final SignatureFactory signatureFactory, final SignatureVerifier signatureVerifier,
+			final DataMapHandler dataMapHandler) {
+		decoder = new Decoder(signatureFactory, signatureVerifier).dataMapHandler(dataMapHandler);
 	}
 
 	@Override
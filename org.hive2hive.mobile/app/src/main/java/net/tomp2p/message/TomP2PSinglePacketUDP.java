@@ -19,9 +19,37 @@ public class TomP2PSinglePacketUDP extends ChannelInboundHandlerAdapter {
     private static final Logger LOG = LoggerFactory.getLogger(TomP2PSinglePacketUDP.class);
 
     private final SignatureFactory signatureFactory;
+    private final SignatureVerifier signatureVerifier;
+    private final DataMapHandler dataMapHandler;
     
     public TomP2PSinglePacketUDP(final SignatureFactory signatureFactory) {
+        this(signatureFactory, null);
+    }
+
+    /**
+     * @param signatureFactory
+     *            The signature factory
+     * @param signatureVerifier
+     *            The verifier whose handler follows this decoder or null to verify signatures while decoding
+     */
+    public TomP2PSinglePacketUDP(final SignatureFactory signatureFactory, final SignatureVerifier signatureVerifier) {
+        this(signatureFactory, signatureVerifier, null);
+    }
+
+    /**
+     * @param signatureFactory
+     *            The signature factory
+     * @param signatureVerifier
+     *            The verifier whose handler follows this decoder or null to verify signatures while decoding
+     * @param dataMapHandler
+     *            The handler that receives the data map entries of unsigned messages while they are decoded or
+     *            null
+     */
+    public TomP2PSinglePacketUDP(final SignatureFactory signatureFactory, final SignatureVerifier signatureVerifier,
+            final DataMapHandler dataMapHandler) {
         this.signatureFactory = signatureFactory;
+        this.signatureVerifier = signatureVerifier;
+        this.dataMapHandler = dataMapHandler;
     }
 
     @Override
@@ -39,7 +67,7 @@ public class TomP2PSinglePacketUDP extends ChannelInboundHandlerAdapter {
         final InetSocketAddress recipient = d.recipient();
 
         try {
-            Decoder decoder = new Decoder(signatureFactory);
+            Decoder decoder = new Decoder(signatureFactory, signatureVerifier).dataMapHandler(dataMapHandler);
             boolean finished = decoder.decode(ctx, buf, recipient, sender);
             if (finished) {
                 ctx.fireChannelRead(decoder.prepareFinish());
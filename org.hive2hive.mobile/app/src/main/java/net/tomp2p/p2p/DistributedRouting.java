@@ -63,6 +63,8 @@ public class DistributedRouting {
 
     private final Random rnd;
 
+    private final RoutingCache routingCache;
+
     /**
      * The routing process involves multiple RPCs, mostly UDP based.
      * 
@@ -72,12 +74,38 @@ public class DistributedRouting {
      *            The neighbor RPC that will be issues
      */
     public DistributedRouting(final PeerBean peerBean, final NeighborRPC neighbors) {
+        this(peerBean, neighbors, null);
+    }
+
+    /**
+     * The routing process involves multiple RPCs, mostly UDP based.
+     * 
+     * @param peerBean
+     *            The peer bean
+     * @param neighbors
+     *            The neighbor RPC that will be issues
+     * @param routingCache
+     *            The cache for the closest peers of recently routed location keys, or null to always route. The cache
+     *            is registered on the peer map.
+     */
+    public DistributedRouting(final PeerBean peerBean, final NeighborRPC neighbors, final RoutingCache routingCache) {
         this.neighbors = neighbors;
         this.peerBean = peerBean;
+        this.routingCache = routingCache;
+        if (routingCache != null) {
+            peerBean.peerMap().addPeerMapChangeListener(routingCache);
+        }
         // stable random number. No need to be truly random
         rnd = new Random(peerBean.serverPeerAddress().peerId().hashCode());
     }
 
+    /**
+     * @return The cache for the closest peers of recently routed location keys, or null if every routing is performed
+     */
+    public RoutingCache routingCache() {
+        return routingCache;
+    }
+
     /**
      * Bootstraps to the given peerAddresses, i.e. looking for near nodes
      * 
@@ -98,7 +126,7 @@ public class DistributedRouting {
         // first we find close peers to us
         routingBuilder.bootstrap(true);
 
-        final FutureRouting futureRouting0 = routing(peerMap().getPeerStatistics(peerAddresses), routingBuilder, Type.REQUEST_1, cc);
+        final FutureRouting futureRouting0 = routing(peerMap().getPeerStatistics(peerAddresses), routingBuilder, Type.REQUEST_1, cc, null);
         // to not become a Fachidiot (expert idiot), we need to know other peers
         // as well. This is important if this peer is passive and only replies on requests from other peers
         futureRouting0.addListener(new BaseFutureAdapter<FutureRouting>() {
@@ -107,7 +135,7 @@ public class DistributedRouting {
                 // setting this to null causes to search for a random number
             	if(future.isSuccess()) {
             		routingBuilder.locationKey(null);
-            		final FutureRouting futureRouting1 = routing(peerMap().getPeerStatistics(peerAddresses), routingBuilder, Type.REQUEST_1, cc);
+            		final FutureRouting futureRouting1 = routing(peerMap().getPeerStatistics(peerAddresses), routingBuilder, Type.REQUEST_1, cc, null);
             		futureRouting1.addListener(new BaseFutureAdapter<FutureRouting>() {
             			@Override
             			public void operationComplete(FutureRouting future) throws Exception {
@@ -126,7 +154,7 @@ public class DistributedRouting {
     public FutureRouting quit(final RoutingBuilder routingBuilder, final ChannelCreator cc) {
     	Collection<PeerStatistic> startPeers = peerBean.peerMap().closePeers(routingBuilder.locationKey(),
                 routingBuilder.parallel() * 2);
-        return routing(startPeers, routingBuilder, Type.REQUEST_4, cc);
+        return routing(startPeers, routingBuilder, Type.REQUEST_4, cc, null);
     }
 
     /**
@@ -142,10 +170,26 @@ public class DistributedRouting {
      * @return a FutureRouting object, is set to complete if the route has been found
      */
     public FutureRouting route(final RoutingBuilder routingBuilder, final Type type, final ChannelCreator cc) {
+        final boolean cacheable = routingCache != null && routingBuilder.isRoutingCache()
+                && routingBuilder.locationKey() != null && !routingBuilder.isBootstrap()
+                && (type == Type.REQUEST_1 || type == Type.REQUEST_2);
+        if (cacheable) {
+            final NavigableSet<PeerAddress> potentialHits = routingCache.get(routingBuilder);
+            if (potentialHits != null) {
+                LOG.debug("closest peers for {} from cache: {}", routingBuilder.locationKey(), potentialHits);
+                // without direct hits, a get asks the closest peers
+                final FutureRouting futureRouting = new FutureRouting();
+                futureRouting.neighbors(new TreeMap<PeerAddress, DigestInfo>(potentialHits.comparator()),
+                        potentialHits, new TreeSet<PeerAddress>(potentialHits.comparator()), false, true);
+                return futureRouting;
+            }
+        }
         // for bad distribution, use large NO_NEW_INFORMATION
         Collection<PeerStatistic> startPeers = peerBean.peerMap().closePeers(routingBuilder.locationKey(),
                 routingBuilder.parallel() * 2);
-        return routing(startPeers, routingBuilder, type, cc);
+        // the potential hits of a REQUEST_2 routing stop early at the peers with the data
+        return routing(startPeers, routingBuilder, type, cc, cacheable && type == Type.REQUEST_1 ? routingCache
+                : null);
     }
 
     /**
@@ -155,10 +199,11 @@ public class DistributedRouting {
      * @param routingBuilder
      * @param type
      * @param cc
+     * @param cacheTo The cache for the potential hits, or null
      * @return a FutureRouting object, is set to complete if the route has been found
      */
     private FutureRouting routing(final Collection<PeerStatistic> peerAddresses,
-            final RoutingBuilder routingBuilder, final Type type, final ChannelCreator cc) {
+            final RoutingBuilder routingBuilder, final Type type, final ChannelCreator cc, final RoutingCache cacheTo) {
         if (peerAddresses == null) {
             throw new IllegalArgumentException("you need to specify some nodes");
         }
@@ -228,6 +273,7 @@ public class DistributedRouting {
         routingMechanism.potentialHits(potentialHits);
         routingMechanism.directHits(directHits);
         routingMechanism.alreadyAsked(alreadyAsked);
+        routingMechanism.routingCache(cacheTo);
         
         if (peerAddresses.isEmpty()) {
         	routingBuilder.routingOnlyToSelf(false);
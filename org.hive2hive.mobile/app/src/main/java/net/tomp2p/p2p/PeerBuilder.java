@@ -28,6 +28,7 @@ import net.tomp2p.connection.PingBuilderFactory;
 import net.tomp2p.connection.PipelineFilter;
 import net.tomp2p.connection.Ports;
 import net.tomp2p.connection.SendBehavior;
+import net.tomp2p.message.SignatureVerifier;
 import net.tomp2p.p2p.builder.PingBuilder;
 import net.tomp2p.peers.LocalMap;
 import net.tomp2p.peers.Number160;
@@ -120,6 +121,7 @@ public class PeerBuilder {
 	private BloomfilterFactory bloomfilterFactory;
 	private ScheduledExecutorService scheduledExecutorService = null;
 	private MaintenanceTask maintenanceTask = null;
+	private RoutingCache routingCache = null;
 	private Random random = null;
 	private List<PeerInit> toInitialize = new ArrayList<PeerInit>(1);
 	private SendBehavior sendBehavior;
@@ -293,7 +295,7 @@ public class PeerBuilder {
 		}
 		
 		if (isEnableRouting() && isEnableNeighborRPC()) {
-			DistributedRouting routing = new DistributedRouting(peerBean, peer.neighborRPC());
+			DistributedRouting routing = new DistributedRouting(peerBean, peer.neighborRPC(), routingCache);
 			peer.distributedRouting(routing);
 		}
 
@@ -333,6 +335,7 @@ public class PeerBuilder {
 		channelServerConfiguration.behindFirewall(false);
 		channelServerConfiguration.pipelineFilter(new DefaultPipelineFilter());
 		channelServerConfiguration.signatureFactory(new DSASignatureFactory());
+		channelServerConfiguration.signatureVerifier(new SignatureVerifier());
 		return channelServerConfiguration;
 	}
 
@@ -344,6 +347,7 @@ public class PeerBuilder {
 		channelClientConfiguration.maxPermitsUDP(MAX_PERMITS_UDP);
 		channelClientConfiguration.pipelineFilter(new DefaultPipelineFilter());
 		channelClientConfiguration.signatureFactory(new DSASignatureFactory());
+		channelClientConfiguration.signatureVerifier(new SignatureVerifier());
 		channelClientConfiguration.senderTCP(new InetSocketAddress(0).getAddress());
 		channelClientConfiguration.senderUDP(new InetSocketAddress(0).getAddress());
 		return channelClientConfiguration;
@@ -491,6 +495,21 @@ public class PeerBuilder {
 		return this;
 	}
 
+	public RoutingCache routingCache() {
+		return routingCache;
+	}
+
+	/**
+	 * @param routingCache
+	 *            The cache for the closest peers of recently routed location keys, or null (default) to route on
+	 *            every DHT operation
+	 * @return This class
+	 */
+	public PeerBuilder routingCache(RoutingCache routingCache) {
+		this.routingCache = routingCache;
+		return this;
+	}
+
 	public Random random() {
 		return random;
 	}
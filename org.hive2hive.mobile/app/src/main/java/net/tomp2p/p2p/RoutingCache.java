@@ -0,0 +1,242 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.tomp2p.p2p;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.tomp2p.p2p.builder.RoutingBuilder;
+import net.tomp2p.peers.Number160;
+import net.tomp2p.peers.PeerAddress;
+import net.tomp2p.peers.PeerMapChangeListener;
+import net.tomp2p.peers.PeerStatistic;
+import net.tomp2p.utils.ConcurrentCacheMap;
+
+/**
+ * Remembers the closest peers of recently routed location keys, such that repeated DHT operations on the same key
+ * skip the routing. An entry is dropped when it expires, when one of its peers is removed from the peer map or when
+ * a verified peer is inserted that is closer to the location key than the cached peers.
+ * <p>
+ * The peer map and post-routing filters shape the routing result, so an entry is only reused by a routing with the
+ * same filter instances. The post-routing filters are applied again on every hit. A cache belongs to exactly one
+ * peer, it is registered as listener on its peer map by {@link DistributedRouting}.
+ */
+public class RoutingCache implements PeerMapChangeListener {
+
+	public static final int DEFAULT_TIMEOUT_SECONDS = 60;
+	public static final int DEFAULT_MAX_ENTRIES = 1024;
+	public static final int DEFAULT_PEERS_PER_KEY = 16;
+
+	private final ConcurrentCacheMap<Key, NavigableSet<PeerAddress>> cache;
+	private final int peersPerKey;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Creates a cache that remembers the {@link #DEFAULT_PEERS_PER_KEY} closest peers of at most
+	 * {@link #DEFAULT_MAX_ENTRIES} location keys for {@link #DEFAULT_TIMEOUT_SECONDS}.
+	 */
+	public RoutingCache() {
+		this(DEFAULT_TIMEOUT_SECONDS, DEFAULT_MAX_ENTRIES, DEFAULT_PEERS_PER_KEY);
+	}
+
+	/**
+	 * @param timeoutSeconds
+	 *            The time after which a routing result is not used anymore
+	 * @param maxEntries
+	 *            The number of location keys to remember, the oldest are evicted first
+	 * @param peersPerKey
+	 *            The number of closest peers to remember per location key. This has to be at least the number of
+	 *            peers a DHT operation contacts, including the fallbacks for failed peers.
+	 */
+	public RoutingCache(final int timeoutSeconds, final int maxEntries, final int peersPerKey) {
+		this.cache = new ConcurrentCacheMap<Key, NavigableSet<PeerAddress>>(timeoutSeconds, maxEntries, false);
+		this.peersPerKey = peersPerKey;
+	}
+
+	/**
+	 * @param routingBuilder
+	 *            The routing to look up
+	 * @return A copy of the cached closest peers that passed the post-routing filters, ordered by their distance to
+	 *         the location key, or null if the location key is not cached or the filters rejected all of them
+	 */
+	public NavigableSet<PeerAddress> get(final RoutingBuilder routingBuilder) {
+		final NavigableSet<PeerAddress> closest = cache.get(new Key(routingBuilder));
+		if (closest == null) {
+			misses.incrementAndGet();
+			return null;
+		}
+		final NavigableSet<PeerAddress> potentialHits = new TreeSet<PeerAddress>(closest);
+		// a peer may have become slow or otherwise rejected since the routing
+		if (routingBuilder.postRoutingFilters() != null) {
+			for (PostRoutingFilter filter : routingBuilder.postRoutingFilters()) {
+				final Iterator<PeerAddress> iterator = potentialHits.iterator();
+				while (iterator.hasNext()) {
+					if (filter.rejectPotentialHit(iterator.next())) {
+						iterator.remove();
+					}
+				}
+			}
+		}
+		// an empty result would end the routing without asking anyone
+		if (potentialHits.isEmpty()) {
+			misses.incrementAndGet();
+			return null;
+		}
+		hits.incrementAndGet();
+		return potentialHits;
+	}
+
+	/**
+	 * Remembers the closest potential hits of a routing.
+	 *
+	 * @param routingBuilder
+	 *            The routing that has been performed
+	 * @param potentialHits
+	 *            The potential hits of the routing, ordered by their distance to the location key. They are copied.
+	 */
+	public void put(final RoutingBuilder routingBuilder, final NavigableSet<PeerAddress> potentialHits) {
+		final NavigableSet<PeerAddress> closest = new TreeSet<PeerAddress>(potentialHits.comparator());
+		for (PeerAddress peerAddress : potentialHits) {
+			if (closest.size() >= peersPerKey) {
+				break;
+			}
+			closest.add(peerAddress);
+		}
+		cache.put(new Key(routingBuilder), closest);
+	}
+
+	/**
+	 * @return The number of routings that have been answered from the cache
+	 */
+	public long hits() {
+		return hits.get();
+	}
+
+	/**
+	 * @return The number of routings that have not been found in the cache
+	 */
+	public long misses() {
+		return misses.get();
+	}
+
+	/**
+	 * @return The number of cached location keys
+	 */
+	public int size() {
+		return cache.size();
+	}
+
+	public void clear() {
+		cache.clear();
+	}
+
+	@Override
+	public void peerInserted(final PeerAddress peerAddress, final boolean verified) {
+		if (!verified) {
+			return;
+		}
+		for (Map.Entry<Key, NavigableSet<PeerAddress>> entry : cache.entrySet()) {
+			final NavigableSet<PeerAddress> closest = entry.getValue();
+			if (closest.contains(peerAddress)) {
+				continue;
+			}
+			// the new peer could be one of the closest
+			if (closest.size() < peersPerKey || closest.comparator().compare(peerAddress, closest.last()) < 0) {
+				cache.remove(entry.getKey(), closest);
+			}
+		}
+	}
+
+	@Override
+	public void peerRemoved(final PeerAddress peerAddress, final PeerStatistic storedPeerAddress) {
+		for (Map.Entry<Key, NavigableSet<PeerAddress>> entry : cache.entrySet()) {
+			if (entry.getValue().contains(peerAddress)) {
+				cache.remove(entry.getKey(), entry.getValue());
+			}
+		}
+	}
+
+	@Override
+	public void peerUpdated(final PeerAddress peerAddress, final PeerStatistic storedPeerAddress) {
+		// the distance of a known peer does not change
+	}
+
+	/**
+	 * The location key and the filters of a routing. The filters are compared by identity.
+	 */
+	private static final class Key {
+
+		private final Number160 locationKey;
+		private final List<Object> filters;
+
+		private Key(final RoutingBuilder routingBuilder) {
+			this.locationKey = routingBuilder.locationKey();
+			this.filters = filters(routingBuilder.peerMapFilters(), routingBuilder.postRoutingFilters());
+		}
+
+		private static List<Object> filters(final Collection<?> peerMapFilters, final Collection<?> postRoutingFilters) {
+			if (peerMapFilters == null && postRoutingFilters == null) {
+				return Collections.emptyList();
+			}
+			final List<Object> filters = new ArrayList<Object>();
+			if (peerMapFilters != null) {
+				filters.addAll(peerMapFilters);
+			}
+			// separates a peer map filter from a post-routing filter implemented by the same instance
+			filters.add(null);
+			if (postRoutingFilters != null) {
+				filters.addAll(postRoutingFilters);
+			}
+			return filters;
+		}
+
+		@Override
+		public int hashCode() {
+			int hashCode = locationKey.hashCode();
+			for (Object filter : filters) {
+				hashCode = hashCode * 31 + System.identityHashCode(filter);
+			}
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (obj == this) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			final Key other = (Key) obj;
+			if (!locationKey.equals(other.locationKey) || filters.size() != other.filters.size()) {
+				return false;
+			}
+			for (int i = 0; i < filters.size(); i++) {
+				if (filters.get(i) != other.filters.get(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
@@ -47,6 +47,7 @@ public class RoutingMechanism {
     private SortedSet<PeerAddress> alreadyAsked;
     private SortedMap<PeerAddress, DigestInfo> directHits;
     private NavigableSet<PeerAddress> potentialHits;
+    private RoutingCache routingCache;
 
     private int nrNoNewInfo = 0;
     private int nrFailures = 0;
@@ -140,6 +141,16 @@ public class RoutingMechanism {
         return this;
     }
 
+    /**
+     * @param routingCache
+     *            The cache the potential hits are stored in once the routing is done, or null
+     * @return This class
+     */
+    public RoutingMechanism routingCache(final RoutingCache routingCache) {
+        this.routingCache = routingCache;
+        return this;
+    }
+
     /**
      * @return The peer we have already queried, we need to store them to not ask the same peers again
      */
@@ -246,6 +257,10 @@ public class RoutingMechanism {
     public void neighbors(RoutingBuilder builder) {
         synchronized (this) {
         	applyPostRouting(builder, directHits, potentialHits);
+        	if (routingCache != null) {
+        		// before the listeners of the future take peers out of the potential hits
+        		routingCache.put(builder, potentialHits);
+        	}
             futureRoutingResponse.neighbors(directHits, potentialHits, alreadyAsked,
                     builder.isBootstrap(), builder.isRoutingToOthers());
         }
@@ -37,6 +37,7 @@ public class RoutingBuilder extends DefaultConnectionConfiguration {
     private boolean isBootstrap;
     private boolean isForceRoutingOnlyToSelf;
     private boolean isRoutingToOthers;
+    private boolean isRoutingCache;
 
     public Number160 locationKey() {
         return locationKey;
@@ -159,6 +160,18 @@ public class RoutingBuilder extends DefaultConnectionConfiguration {
         return isRoutingToOthers;
     }
 
+    /**
+     * @return True if the closest peers may be taken from the {@link net.tomp2p.p2p.RoutingCache} of the peer
+     */
+    public boolean isRoutingCache() {
+        return isRoutingCache;
+    }
+
+    public RoutingBuilder routingCache(boolean isRoutingCache) {
+        this.isRoutingCache = isRoutingCache;
+        return this;
+    }
+
     public Number160 contentKey() {
         return contentKey;
     }
@@ -386,8 +386,7 @@ public class RelayRPC extends DispatchHandler implements OfflineListener {
 
 		LOG.debug("Received late response from slow peer: {}", realMessage);
 		// only the case when a unreachable peer makes a request to another slow, unreachable peer
-		Map<Integer, FutureResponse> pendingRequests = dispatcher().getPendingRequests();
-		FutureResponse pendingRequest = pendingRequests.remove(realMessage.messageId());
+		FutureResponse pendingRequest = dispatcher().removePendingRequest(realMessage.messageId());
 		if (pendingRequest != null) {
 			// we waited for this response, answer it
 			pendingRequest.response(realMessage);
@@ -15,6 +15,7 @@ import net.tomp2p.relay.BaseRelayClient;
 import net.tomp2p.relay.RelayClientConfig;
 import net.tomp2p.relay.RelayType;
 import net.tomp2p.relay.RelayUtils;
+import net.tomp2p.relay.buffer.MessageBufferCompression;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -85,9 +86,11 @@ public class AndroidRelayClientConfig extends RelayClientConfig {
 
 	@Override
 	public void prepareSetupMessage(Message message) {
-		// add the registration ID, the GCM authentication key and the map update interval
+		// add the registration ID, the GCM authentication key, the map update interval and the supported
+		// compression of the buffer
 		message.buffer(RelayUtils.encodeString(registrationId));
 		message.intValue(peerMapUpdateInterval());
+		message.intValue(MessageBufferCompression.supported());
 		
 		if(gcmServers != null && !gcmServers.isEmpty()) {
 			// provide gcm servers at startup, later they will be updated using the map update task
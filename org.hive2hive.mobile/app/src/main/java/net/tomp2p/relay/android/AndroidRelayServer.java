@@ -10,6 +10,7 @@ import net.tomp2p.relay.android.gcm.FutureGCM;
 import net.tomp2p.relay.android.gcm.IGCMSender;
 import net.tomp2p.relay.android.gcm.RemoteGCMSender;
 import net.tomp2p.relay.buffer.BufferedRelayServer;
+import net.tomp2p.relay.buffer.MessageBufferCompression;
 import net.tomp2p.relay.buffer.MessageBufferConfiguration;
 
 import org.slf4j.Logger;
@@ -33,7 +34,13 @@ public class AndroidRelayServer extends BufferedRelayServer {
 
 	public AndroidRelayServer(Peer peer, PeerAddress unreachablePeer, MessageBufferConfiguration bufferConfig,
 			String registrationId, IGCMSender sender, int mapUpdateIntervalS) {
-		super(peer, unreachablePeer, RelayType.ANDROID, bufferConfig);
+		this(peer, unreachablePeer, bufferConfig, registrationId, sender, mapUpdateIntervalS,
+				MessageBufferCompression.NONE);
+	}
+
+	public AndroidRelayServer(Peer peer, PeerAddress unreachablePeer, MessageBufferConfiguration bufferConfig,
+			String registrationId, IGCMSender sender, int mapUpdateIntervalS, MessageBufferCompression compression) {
+		super(peer, unreachablePeer, RelayType.ANDROID, bufferConfig, compression);
 		this.registrationId = registrationId;
 		this.sender = sender;
 
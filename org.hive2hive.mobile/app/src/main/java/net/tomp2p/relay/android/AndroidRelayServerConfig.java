@@ -14,6 +14,7 @@ import net.tomp2p.relay.RelayUtils;
 import net.tomp2p.relay.android.gcm.GCMSenderRPC;
 import net.tomp2p.relay.android.gcm.IGCMSender;
 import net.tomp2p.relay.android.gcm.RemoteGCMSender;
+import net.tomp2p.relay.buffer.MessageBufferCompression;
 import net.tomp2p.relay.buffer.MessageBufferConfiguration;
 
 import org.slf4j.Logger;
@@ -27,6 +28,7 @@ public class AndroidRelayServerConfig extends RelayServerConfig {
 	private final String gcmAuthenticationKey;
 	private final int gcmRetries;
 	protected IGCMSender gcmSender;
+	private MessageBufferCompression compression = MessageBufferCompression.DEFLATE;
 
 	/**
 	 * Creates an Android relay server configuration that is able to send GCM messages itself
@@ -54,6 +56,26 @@ public class AndroidRelayServerConfig extends RelayServerConfig {
 		this(null, 0, bufferConfig);
 	}
 
+	/**
+	 * @return the codec to compress the buffered messages with, if the device supports it
+	 */
+	public MessageBufferCompression compression() {
+		return compression;
+	}
+
+	/**
+	 * Configures the compression of the buffered messages when they are delivered to the Android device. The
+	 * codec is only used if the device announces that it supports it, else the messages are delivered
+	 * uncompressed. The default is {@link MessageBufferCompression#DEFLATE}.
+	 * 
+	 * @param compression the preferred codec
+	 * @return this instance
+	 */
+	public AndroidRelayServerConfig compression(MessageBufferCompression compression) {
+		this.compression = compression == null ? MessageBufferCompression.NONE : compression;
+		return this;
+	}
+
 	@Override
 	public void start(Peer peer) {
 		if (gcmAuthenticationKey != null) {
@@ -102,9 +124,13 @@ public class AndroidRelayServerConfig extends RelayServerConfig {
 			sender = new RemoteGCMSender(peer, gcmServers);
 		}
 
-		LOG.debug("Hello Android device! You'll be relayed over GCM. {}", message);
+		/** Compression of the buffer, older devices do not announce any codec and get the plain buffer */
+		MessageBufferCompression negotiated = compression.negotiate(message.intAt(2));
+
+		LOG.debug("Hello Android device! You'll be relayed over GCM with {} compression. {}",
+				negotiated == null ? "legacy" : negotiated, message);
 		AndroidRelayServer androidServer = new AndroidRelayServer(peer, peerConnection.remotePeer(), bufferConfig,
-				registrationId, sender, mapUpdateInterval);
+				registrationId, sender, mapUpdateInterval, negotiated);
 		responder.response(createResponse(message, Type.OK, peer.peerBean().serverPeerAddress()));
 		return androidServer;
 	}
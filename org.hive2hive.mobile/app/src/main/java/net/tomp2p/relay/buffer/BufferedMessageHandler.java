@@ -15,8 +15,11 @@ import net.tomp2p.rpc.RPC.Commands;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.List;
 
+import io.netty.buffer.ByteBuf;
+
 public class BufferedMessageHandler {
 
 	private static final Logger LOG = LoggerFactory.getLogger(BufferedMessageHandler.class);
@@ -36,8 +39,17 @@ public class BufferedMessageHandler {
 	public void handleBufferResponse(Message bufferResponse, FutureDone<Void> futureDone) {
 		Buffer buffer = bufferResponse.buffer(0);
 		if (buffer != null) {
+			ByteBuf composed;
+			try {
+				composed = MessageBufferCompression.decode(buffer.buffer());
+			} catch (IOException e) {
+				LOG.error("Cannot decompress the buffered messages", e);
+				futureDone.failed("Cannot decompress the buffered messages");
+				return;
+			}
+
 			// decompose the large buffer into a buffer for each message
-			List<Message> bufferedMessages = RelayUtils.decomposeCompositeBuffer(buffer.buffer(), bufferResponse.recipientSocket(),
+			List<Message> bufferedMessages = RelayUtils.decomposeCompositeBuffer(composed, bufferResponse.recipientSocket(),
 					bufferResponse.senderSocket(), peer.connectionBean().channelServer().channelServerConfiguration().signatureFactory());
 			LOG.debug("Received {} buffered messages", bufferedMessages.size());
 
@@ -13,29 +13,46 @@ import net.tomp2p.relay.RelayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 
-public abstract class BufferedRelayServer extends BaseRelayServer implements MessageBufferListener<Message> {
+/**
+ * Buffers the messages for an unreachable peer until it collects them. The messages are encoded once when
+ * they arrive and delivered in a single, compressed buffer.
+ */
+public abstract class BufferedRelayServer extends BaseRelayServer implements MessageBufferListener<Buffer> {
 
 	private static final Logger LOG = LoggerFactory.getLogger(BufferedRelayServer.class);
 
-	private final MessageBuffer<Message> buffer;
+	private final MessageBuffer<Buffer> buffer;
 	private final MessageBufferConfiguration bufferConfig;
+	private final MessageBufferCompression compression;
 
-	// holds the messages that have already been released from the buffer (because any limit has been
+	// holds the encoded messages that have already been released from the buffer (because any limit has been
 	// triggered or the buffer has been flushed)
-	private final List<Message> bufferedMessages;
+	private final Queue<Buffer> bufferedMessages;
 
 	protected BufferedRelayServer(Peer peer, PeerAddress unreachablePeer, RelayType relayType,
 			MessageBufferConfiguration bufferConfig) {
+		this(peer, unreachablePeer, relayType, bufferConfig, MessageBufferCompression.NONE);
+	}
+
+	/**
+	 * @param compression the codec to compress the buffered messages with when they are delivered. It must be
+	 *            supported by the unreachable peer. <code>null</code> if the unreachable peer does not decode
+	 *            the buffer, the messages are then delivered without the id of the codec.
+	 */
+	protected BufferedRelayServer(Peer peer, PeerAddress unreachablePeer, RelayType relayType,
+			MessageBufferConfiguration bufferConfig, MessageBufferCompression compression) {
 		super(peer, unreachablePeer, relayType);
 		this.bufferConfig = bufferConfig;
-		this.buffer = new MessageBuffer<Message>(bufferConfig);
-		this.bufferedMessages = Collections.synchronizedList(new ArrayList<Message>());
+		this.compression = compression;
+		this.buffer = new MessageBuffer<Buffer>(bufferConfig);
+		this.bufferedMessages = new ConcurrentLinkedQueue<Buffer>();
 
 		buffer.addListener(this);
 	}
@@ -49,9 +66,11 @@ public abstract class BufferedRelayServer extends BaseRelayServer implements Mes
 		response.sender(unreachablePeerAddress());
 
 		try {
-			int messageSize = RelayUtils.getMessageSize(message, connectionBean().channelServer().channelServerConfiguration()
-					.signatureFactory());
-			buffer.addMessage(message, messageSize);
+			// the key is taken before encoding, the encoder consumes the buffers of the message
+			Object coalescingKey = bufferConfig.coalescer().coalescingKey(message);
+			Buffer encoded = RelayUtils.encodeMessage(message, connectionBean().channelServer()
+					.channelServerConfiguration().signatureFactory());
+			buffer.addMessage(encoded, encoded.length(), coalescingKey);
 		} catch (Exception e) {
 			LOG.error("Cannot encode the message", e);
 			return futureDone.done(createResponseMessage(message, Type.EXCEPTION));
@@ -62,11 +81,8 @@ public abstract class BufferedRelayServer extends BaseRelayServer implements Mes
 	}
 	
 	@Override
-	public void bufferFull(List<Message> messages) {
-		synchronized (bufferedMessages) {
-			bufferedMessages.addAll(messages);
-		}
-
+	public void bufferFull(List<Buffer> messages) {
+		bufferedMessages.addAll(messages);
 		onBufferFull();
 	}
 
@@ -77,10 +93,8 @@ public abstract class BufferedRelayServer extends BaseRelayServer implements Mes
 	public abstract void onBufferFull();
 
 	@Override
-	public void bufferFlushed(List<Message> messages) {
-		synchronized (bufferedMessages) {
-			bufferedMessages.addAll(messages);
-		}
+	public void bufferFlushed(List<Buffer> messages) {
+		bufferedMessages.addAll(messages);
 	}
 
 	/**
@@ -94,17 +108,24 @@ public abstract class BufferedRelayServer extends BaseRelayServer implements Mes
 		// flush the current buffer to get all messages
 		buffer.flushNow();
 
-		Buffer buffer = null;;
-		synchronized (bufferedMessages) {
-			if (bufferedMessages.isEmpty()) {
-				LOG.trace("Currently there are no buffered messages");
-			} else {
-				ByteBuf byteBuffer = RelayUtils.composeMessageBuffer(bufferedMessages, connectionBean().channelServer()
-						.channelServerConfiguration().signatureFactory());
-				LOG.debug("Buffer of {} messages collected", bufferedMessages.size());
-				bufferedMessages.clear();
-				buffer = new Buffer(byteBuffer);
-			}
+		Buffer buffer = null;
+		ByteBuf composed = Unpooled.buffer();
+		int count = 0;
+		Buffer encoded;
+		while ((encoded = bufferedMessages.poll()) != null) {
+			ByteBuf message = encoded.buffer();
+			composed.writeInt(encoded.length());
+			composed.writeBytes(message, message.readerIndex(), encoded.length());
+			count++;
+		}
+
+		if (count == 0) {
+			LOG.trace("Currently there are no buffered messages");
+		} else {
+			ByteBuf delivered = compression == null ? composed : compression.encode(composed);
+			LOG.debug("Buffer of {} messages collected, {} bytes composed, {} bytes delivered", count,
+					composed.readableBytes(), delivered.readableBytes());
+			buffer = new Buffer(delivered);
 		}
 
 		onBufferCollected();
@@ -131,4 +152,12 @@ public abstract class BufferedRelayServer extends BaseRelayServer implements Mes
 	public MessageBufferConfiguration bufferConfiguration() {
 		return bufferConfig;
 	}
+
+	/**
+	 * Get the codec the buffered messages are compressed with when they are delivered. <code>null</code> if
+	 * the unreachable peer does not decode the buffer.
+	 */
+	public MessageBufferCompression compression() {
+		return compression;
+	}
 }
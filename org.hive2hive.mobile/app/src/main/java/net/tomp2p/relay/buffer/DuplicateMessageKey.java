@@ -0,0 +1,56 @@
+package net.tomp2p.relay.buffer;
+
+import java.util.Arrays;
+
+import net.tomp2p.message.Buffer;
+import net.tomp2p.message.Message;
+import net.tomp2p.message.Message.Type;
+import net.tomp2p.peers.Number160;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Identifies a message by its sender, command, type and the content of its buffers. Used by
+ * {@link MessageCoalescer#DUPLICATES}.
+ */
+final class DuplicateMessageKey {
+
+	private final Number160 sender;
+	private final byte command;
+	private final Type type;
+	private final byte[][] buffers;
+	private final int hashCode;
+
+	DuplicateMessageKey(Message message) {
+		this.sender = message.sender().peerId();
+		this.command = message.command();
+		this.type = message.type();
+		this.buffers = new byte[message.bufferList().size()][];
+		int i = 0;
+		for (Buffer buffer : message.bufferList()) {
+			ByteBuf buf = buffer.buffer();
+			buffers[i] = new byte[buf.readableBytes()];
+			buf.getBytes(buf.readerIndex(), buffers[i]);
+			i++;
+		}
+		this.hashCode = (sender.hashCode() * 31 + command) * 31 + Arrays.deepHashCode(buffers);
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) {
+			return true;
+		}
+		if (!(obj instanceof DuplicateMessageKey)) {
+			return false;
+		}
+		DuplicateMessageKey other = (DuplicateMessageKey) obj;
+		return hashCode == other.hashCode && command == other.command && type == other.type
+				&& sender.equals(other.sender) && Arrays.deepEquals(buffers, other.buffers);
+	}
+}
@@ -3,23 +3,29 @@ package net.tomp2p.relay.buffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
-import java.security.InvalidKeyException;
-import java.security.SignatureException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * Buffers messages for the unreachable peers. This class is thread-safe.
+ * Buffers messages for the unreachable peers. This class is thread-safe and adding a message does not block.
  * If the buffer is full, the {@link MessageBufferListener}s are triggered. In the mean time, another list
  * holds the previously buffered messages, until the buffer is collected.
- * 
+ * <p>
+ * A message can be added with a coalescing key (see {@link MessageCoalescer}). It then replaces the
+ * message with the same key that is still in the buffer. Replaced messages do not count towards the limits.
+ *
  * @author Nico Rutishauser
  *
  */
@@ -32,16 +38,19 @@ public class MessageBuffer<T> {
 	private final long bufferSizeLimit;
 	private final long bufferAgeLimitMS;
 
+	private final AtomicInteger bufferCount;
 	private final AtomicLong bufferSize;
 	private final List<MessageBufferListener<T>> listeners;
 
-	private final List<T> buffer;
+	private final Queue<Entry<T>> buffer;
+	// the latest entry of every coalescing key
+	private final ConcurrentMap<Object, Entry<T>> coalescing;
 
-	private BufferAgeRunnable task;
+	private final AtomicReference<BufferAgeRunnable> task;
 
 	/**
 	 * Create a new buffer using the configuration
-	 * 
+	 *
 	 * @param config the buffer limit configuration
 	 */
 	public MessageBuffer(MessageBufferConfiguration config) {
@@ -50,7 +59,7 @@ public class MessageBuffer<T> {
 
 	/**
 	 * Create a new buffer with given limits
-	 * 
+	 *
 	 * @param bufferCountLimit the number of messages
 	 * @param bufferSizeLimit the size of all messages (in bytes)
 	 * @param bufferAgeLimitMS the maximum age of the oldest message
@@ -59,9 +68,12 @@ public class MessageBuffer<T> {
 		this.messageCountLimit = bufferCountLimit;
 		this.bufferSizeLimit = bufferSizeLimit;
 		this.bufferAgeLimitMS = bufferAgeLimitMS;
-		this.listeners = new ArrayList<MessageBufferListener<T>>();
-		this.buffer = Collections.synchronizedList(new ArrayList<T>());
+		this.listeners = new CopyOnWriteArrayList<MessageBufferListener<T>>();
+		this.buffer = new ConcurrentLinkedQueue<Entry<T>>();
+		this.coalescing = new ConcurrentHashMap<Object, Entry<T>>();
+		this.bufferCount = new AtomicInteger();
 		this.bufferSize = new AtomicLong();
+		this.task = new AtomicReference<BufferAgeRunnable>();
 	}
 
 	public void addListener(MessageBufferListener<T> listener) {
@@ -70,28 +82,60 @@ public class MessageBuffer<T> {
 
 	/**
 	 * Add an encoded message to the buffer
-	 * 
-	 * @throws IOException
-	 * @throws SignatureException
-	 * @throws InvalidKeyException
+	 *
+	 * @param message the message
+	 * @param messageSize the size of the message in bytes
 	 */
 	public void addMessage(T message, long messageSize) {
-		synchronized (buffer) {
-			if (buffer.isEmpty()) {
-				task = new BufferAgeRunnable();
-				// schedule the task
-				worker.schedule(task, bufferAgeLimitMS, TimeUnit.MILLISECONDS);
-			}
+		addMessage(message, messageSize, null);
+	}
 
-			buffer.add(message);
+	/**
+	 * Add an encoded message to the buffer. It replaces a buffered message with the same coalescing key.
+	 *
+	 * @param message the message
+	 * @param messageSize the size of the message in bytes
+	 * @param coalescingKey the key of the message, <code>null</code> if it does not replace any message
+	 */
+	public void addMessage(T message, long messageSize, Object coalescingKey) {
+		final Entry<T> entry = new Entry<T>(message, messageSize, coalescingKey);
+		// count before the entry is visible, such that a concurrent flush never counts below zero
+		final int count = bufferCount.incrementAndGet();
+		bufferSize.addAndGet(messageSize);
+		buffer.add(entry);
+
+		if (coalescingKey != null) {
+			final Entry<T> replaced = coalescing.put(coalescingKey, entry);
+			if (replaced != null && replaced.transition(Entry.REPLACED)) {
+				bufferCount.decrementAndGet();
+				bufferSize.addAndGet(-replaced.size);
+				LOG.debug("Replaced the buffered message {} by {}", replaced.message, message);
+				replaced.message = null;
+			}
 		}
 
-		bufferSize.addAndGet(messageSize);
+		if (count == 1) {
+			scheduleAgeTask();
+		}
 
 		LOG.debug("Added to the buffer: {}", message);
 		checkFull();
 	}
 
+	private void scheduleAgeTask() {
+		final BufferAgeRunnable ageTask = new BufferAgeRunnable();
+		if (task.compareAndSet(null, ageTask)) {
+			worker.schedule(ageTask, bufferAgeLimitMS, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Cancel the age task such that it does not notify the listener twice
+	 */
+	private void cancelAgeTask() {
+		task.set(null);
+	}
+
 	private void checkFull() {
 		boolean notify = false;
 		if (bufferSize.get() >= bufferSizeLimit) {
@@ -99,18 +143,13 @@ public class MessageBuffer<T> {
 			notify = true;
 		}
 
-		synchronized (buffer) {
-			if (buffer.size() >= messageCountLimit) {
-				LOG.debug("The number of messages exceeds the maximum message count of {}", messageCountLimit);
-				notify = true;
-			}
+		if (bufferCount.get() >= messageCountLimit) {
+			LOG.debug("The number of messages exceeds the maximum message count of {}", messageCountLimit);
+			notify = true;
 		}
 
 		if (notify) {
-			if (task != null) {
-				// cancel such that it does not notify the listener twice
-				task.cancel();
-			}
+			cancelAgeTask();
 			notifyAndClear(true);
 		}
 	}
@@ -120,17 +159,12 @@ public class MessageBuffer<T> {
 	 */
 	public void flushNow() {
 		// no need to flush the buffer because it's empty
-		synchronized (buffer) {
-			if(buffer.isEmpty()) {
-				return;
-			}
+		if (buffer.isEmpty()) {
+			return;
 		}
-		
+
 		LOG.trace("Flushing buffer...");
-		if (task != null) {
-			// cancel such that it does not notify the listener twice
-			task.cancel();
-		}
+		cancelAgeTask();
 		notifyAndClear(false);
 	}
 
@@ -138,51 +172,84 @@ public class MessageBuffer<T> {
 	 * Called when the buffer exceeds either the message count limit. the maximally
 	 * allowed buffer size or the maximally allowed age of the first buffer entry. Otherwise
 	 * <code>false</code>.
-	 * 
+	 *
 	 * @param wasFull <code>true</code> if this method was triggered because of buffer overflow.
 	 *            <code>False</code> if this method was triggered manually (because messages need to be ready now.
 	 */
 	private void notifyAndClear(boolean wasFull) {
-		List<T> copy;
-		synchronized (buffer) {
-			if (buffer.isEmpty()) {
-				LOG.warn("Buffer is empty. Listener won't be notified.");
-				return;
+		final List<T> messages = new ArrayList<T>(Math.max(bufferCount.get(), 0));
+		Entry<T> entry;
+		while ((entry = buffer.poll()) != null) {
+			if (!entry.transition(Entry.DELIVERED)) {
+				// replaced by a newer message
+				continue;
 			}
+			bufferCount.decrementAndGet();
+			bufferSize.addAndGet(-entry.size);
+			if (entry.coalescingKey != null) {
+				coalescing.remove(entry.coalescingKey, entry);
+			}
+			messages.add(entry.message);
+		}
 
-			copy = new ArrayList<T>(buffer);
-			buffer.clear();
-			bufferSize.set(0);
+		if (bufferCount.get() > 0) {
+			// messages that have been added while draining need to age as well
+			scheduleAgeTask();
 		}
 
-		// notify the listeners with a copy of the buffer and the segmentation indices
+		if (messages.isEmpty()) {
+			LOG.debug("Buffer is empty. Listener won't be notified.");
+			return;
+		}
+
+		// notify the listeners with the buffered messages
 		for (MessageBufferListener<T> listener : listeners) {
 			if(wasFull) {
-				listener.bufferFull(copy);
+				listener.bufferFull(messages);
 			} else {
-				listener.bufferFlushed(copy);
+				listener.bufferFlushed(messages);
 			}
 		}
 	}
 
 	private class BufferAgeRunnable implements Runnable {
 
-		private final AtomicBoolean cancelled;
-
-		public BufferAgeRunnable() {
-			this.cancelled = new AtomicBoolean(false);
-		}
-
 		@Override
 		public void run() {
-			if (!cancelled.get()) {
+			// only notify if this task has not been cancelled
+			if (task.compareAndSet(this, null)) {
 				LOG.debug("Buffer age exceeds the limit of {}ms", bufferAgeLimitMS);
 				notifyAndClear(true);
 			}
 		}
+	}
+
+	/**
+	 * A buffered message. It is either delivered or replaced by a newer message, but never both.
+	 */
+	private static final class Entry<T> {
+
+		static final int BUFFERED = 0;
+		static final int DELIVERED = 1;
+		static final int REPLACED = 2;
+
+		@SuppressWarnings("rawtypes")
+		private static final AtomicIntegerFieldUpdater<Entry> STATE = AtomicIntegerFieldUpdater.newUpdater(
+				Entry.class, "state");
+
+		private volatile T message;
+		private final long size;
+		private final Object coalescingKey;
+		private volatile int state = BUFFERED;
+
+		private Entry(T message, long size, Object coalescingKey) {
+			this.message = message;
+			this.size = size;
+			this.coalescingKey = coalescingKey;
+		}
 
-		public void cancel() {
-			cancelled.set(true);
+		private boolean transition(int to) {
+			return STATE.compareAndSet(this, BUFFERED, to);
 		}
 	}
 }
@@ -0,0 +1,183 @@
+package net.tomp2p.relay.buffer;
+
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * The compression of the buffered messages when they are delivered to the unreachable peer. The unreachable
+ * peer announces the codecs it supports when setting up the relay, the relay peer then uses its configured
+ * codec only if it is supported by the unreachable peer, otherwise the messages are delivered uncompressed.
+ * <p>
+ * A delivered buffer starts with the id of the codec that has been applied, such that it can be decoded
+ * without further state. Peers that do not announce any codec do not expect this id, they get the messages
+ * as they are.
+ */
+public enum MessageBufferCompression {
+
+	/**
+	 * The messages are delivered as they are
+	 */
+	NONE {
+		@Override
+		protected ByteBuf compress(ByteBuf raw) {
+			return raw;
+		}
+
+		@Override
+		protected ByteBuf decompress(ByteBuf compressed) {
+			return compressed;
+		}
+	},
+
+	/**
+	 * The messages are compressed with {@link Deflater}, the size of the uncompressed messages is prepended.
+	 */
+	DEFLATE {
+		@Override
+		protected ByteBuf compress(ByteBuf raw) {
+			final int length = raw.readableBytes();
+			final byte[] input = new byte[length];
+			raw.getBytes(raw.readerIndex(), input);
+
+			final Deflater deflater = new Deflater();
+			try {
+				deflater.setInput(input);
+				deflater.finish();
+				final ByteBuf compressed = Unpooled.buffer(length / 2 + 64);
+				compressed.writeInt(length);
+				final byte[] chunk = new byte[CHUNK_SIZE];
+				while (!deflater.finished()) {
+					int written = deflater.deflate(chunk);
+					compressed.writeBytes(chunk, 0, written);
+				}
+				return compressed;
+			} finally {
+				deflater.end();
+			}
+		}
+
+		@Override
+		protected ByteBuf decompress(ByteBuf compressed) throws IOException {
+			final int length = compressed.readInt();
+			if (length < 0 || length > MAX_DECODED_SIZE) {
+				throw new IOException("Invalid size of the compressed buffer: " + length);
+			}
+			final byte[] input = new byte[compressed.readableBytes()];
+			compressed.readBytes(input);
+
+			final Inflater inflater = new Inflater();
+			try {
+				inflater.setInput(input);
+				final byte[] output = new byte[length];
+				int read = 0;
+				while (read < length && !inflater.finished()) {
+					int inflated = inflater.inflate(output, read, length - read);
+					if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+						break;
+					}
+					read += inflated;
+				}
+				if (read != length || !inflater.finished()) {
+					throw new IOException("Compressed buffer is corrupt, inflated " + read + " of " + length + " bytes");
+				}
+				return Unpooled.wrappedBuffer(output);
+			} catch (DataFormatException e) {
+				throw new IOException("Compressed buffer is corrupt", e);
+			} finally {
+				inflater.end();
+			}
+		}
+	};
+
+	private static final int CHUNK_SIZE = 8192;
+
+	/**
+	 * The maximum size of the composed messages in a delivered buffer. The size of compressed messages is
+	 * read from the wire, larger sizes are rejected instead of allocating them. Larger buffers are delivered
+	 * uncompressed.
+	 */
+	public static final int MAX_DECODED_SIZE = 16 * 1024 * 1024;
+
+	/**
+	 * Compresses the readable bytes of the buffer without changing its reader index
+	 */
+	protected abstract ByteBuf compress(ByteBuf raw);
+
+	/**
+	 * Decompresses the readable bytes of the buffer
+	 */
+	protected abstract ByteBuf decompress(ByteBuf compressed) throws IOException;
+
+	/**
+	 * @return the codecs this peer is able to decode, as bitmask of the ordinals
+	 */
+	public static int supported() {
+		int supported = 0;
+		for (MessageBufferCompression compression : values()) {
+			supported |= 1 << compression.ordinal();
+		}
+		return supported;
+	}
+
+	/**
+	 * Returns this codec if the other peer supports it, else {@link #NONE}.
+	 *
+	 * @param supported the codecs announced by the other peer (see {@link #supported()}), <code>null</code>
+	 *            if the other peer did not announce any
+	 * @return the codec to encode the buffer with or <code>null</code> if the other peer did not announce
+	 *         any codec. Such a peer does not decode the buffer, thus it must be delivered without the id of
+	 *         the codec.
+	 */
+	public MessageBufferCompression negotiate(Integer supported) {
+		if (supported == null) {
+			return null;
+		} else if ((supported & (1 << ordinal())) == 0) {
+			return NONE;
+		}
+		return this;
+	}
+
+	/**
+	 * Compresses the composed messages using this codec and prepends the id of the codec. If the compressed
+	 * messages are not smaller or exceed {@link #MAX_DECODED_SIZE}, they are delivered uncompressed.
+	 *
+	 * @param raw the composed messages
+	 * @return the buffer to deliver
+	 */
+	public ByteBuf encode(ByteBuf raw) {
+		if (raw.readableBytes() > MAX_DECODED_SIZE) {
+			return Unpooled.wrappedBuffer(Unpooled.buffer(1).writeByte(NONE.ordinal()), raw);
+		}
+
+		MessageBufferCompression applied = this;
+		ByteBuf payload = compress(raw);
+		if (payload != raw && payload.readableBytes() >= raw.readableBytes()) {
+			applied = NONE;
+			payload = raw;
+		}
+		final ByteBuf header = Unpooled.buffer(1).writeByte(applied.ordinal());
+		return Unpooled.wrappedBuffer(header, payload);
+	}
+
+	/**
+	 * Reads the codec id and decompresses the composed messages encoded by {@link #encode(ByteBuf)}.
+	 *
+	 * @param encoded the delivered buffer
+	 * @return the composed messages
+	 * @throws IOException if the codec is unknown, the buffer is corrupt or the composed messages exceed
+	 *             {@link #MAX_DECODED_SIZE}
+	 */
+	public static ByteBuf decode(ByteBuf encoded) throws IOException {
+		final int id = encoded.readUnsignedByte();
+		final MessageBufferCompression[] values = values();
+		if (id >= values.length) {
+			throw new IOException("Unknown compression of the buffered messages: " + id);
+		}
+		return values[id].decompress(encoded);
+	}
+}
@@ -13,6 +13,7 @@ public class MessageBufferConfiguration {
 	private long bufferSizeLimit = Long.MAX_VALUE;
 	private long bufferAgeLimit = 5 * 60 * 1000; // 5 minutes
 	private int gcmSendRetries = 5;
+	private MessageCoalescer coalescer = MessageCoalescer.DUPLICATES;
 
 	/**
 	 * The maximum number of messages in the buffer.
@@ -89,6 +90,25 @@ public class MessageBufferConfiguration {
 		return this;
 	}
 	
+	/**
+	 * The coalescer deciding which buffered messages are replaced by newer ones.
+	 * @return
+	 */
+	public MessageCoalescer coalescer() {
+		return coalescer;
+	}
+
+	/**
+	 * Configures which buffered messages are replaced by newer ones before they are delivered to the device.
+	 * By default, duplicates of fire-and-forget messages are dropped.
+	 * 
+	 * @param coalescer the coalescer, {@link MessageCoalescer#NONE} to deliver every message
+	 */
+	public MessageBufferConfiguration coalescer(MessageCoalescer coalescer) {
+		this.coalescer = coalescer == null ? MessageCoalescer.NONE : coalescer;
+		return this;
+	}
+	
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder("MessageBuffer");
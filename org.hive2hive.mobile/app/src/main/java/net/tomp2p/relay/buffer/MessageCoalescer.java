@@ -0,0 +1,50 @@
+package net.tomp2p.relay.buffer;
+
+import net.tomp2p.message.Message;
+import net.tomp2p.message.Message.Content;
+
+/**
+ * Decides which buffered messages supersede each other. A message added to the {@link MessageBuffer} replaces
+ * a message that is still buffered for the same unreachable peer if both have the same (non-null) key. The
+ * replaced message is dropped and never delivered.
+ * <p>
+ * Note that the requester of a dropped message does not receive a late response. Only return a key for
+ * messages whose requester does not await a response or which are answered by the superseding message.
+ */
+public interface MessageCoalescer {
+
+	/**
+	 * @param message the message to buffer
+	 * @return the key of the message, or <code>null</code> if the message never supersedes another one
+	 */
+	Object coalescingKey(Message message);
+
+	/**
+	 * Never coalesces messages
+	 */
+	MessageCoalescer NONE = new MessageCoalescer() {
+		@Override
+		public Object coalescingKey(Message message) {
+			return null;
+		}
+	};
+
+	/**
+	 * Coalesces duplicates of fire-and-forget messages, that are messages of the same sender, command and type
+	 * carrying the same buffers. Messages with any other content are never coalesced.
+	 */
+	MessageCoalescer DUPLICATES = new MessageCoalescer() {
+		@Override
+		public Object coalescingKey(Message message) {
+			if (!message.isFireAndForget()) {
+				return null;
+			}
+			for (Content content : message.contentTypes()) {
+				if (content != null && content != Content.EMPTY && content != Content.BYTE_BUFFER) {
+					return null;
+				}
+			}
+			return new DuplicateMessageKey(message);
+		}
+	};
+}
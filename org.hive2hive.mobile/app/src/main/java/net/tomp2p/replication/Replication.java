@@ -325,9 +325,8 @@ public class Replication implements PeerMapChangeListener, ReplicationListener {
             return;
         }
         LOG.debug("The peer {} was inserted in my map. I'm {}", peerAddress, selfAddress);
-        // check if we should change responsibility.
-        Collection<Number160> myResponsibleLocations = backend.findContentForResponsiblePeerID(selfAddress
-                .peerId());
+        // check if we should change responsibility, only the locations in whose replica set the peer is matter
+        Collection<Number160> myResponsibleLocations = affectedLocations(peerAddress);
         LOG.debug("I {} have to check replication responsibilities for {}.", selfAddress, myResponsibleLocations);
         
         for (final Number160 myResponsibleLocation : myResponsibleLocations) {
@@ -474,9 +473,9 @@ public class Replication implements PeerMapChangeListener, ReplicationListener {
         Collection<Number160> otherResponsibleLocations = backend
                 .findContentForResponsiblePeerID(peerAddress.peerId());
         LOG.debug("I {} know that {} has to replicate {}.", selfAddress, peerAddress, otherResponsibleLocations);
-        Collection<Number160> myResponsibleLocations = backend.findContentForResponsiblePeerID(selfAddress
-                .peerId());
-        LOG.debug("I {} have to replicate {}.", selfAddress, myResponsibleLocations);
+        // of my locations, only those in whose replica set the peer was are affected
+        Collection<Number160> myResponsibleLocations = affectedLocations(peerAddress);
+        LOG.debug("I {} have to check replication of {}.", selfAddress, myResponsibleLocations);
 		if (!nRootReplication) {
 			// check if we are now responsible for content where the other peer
 			// was responsible
@@ -549,6 +548,63 @@ public class Replication implements PeerMapChangeListener, ReplicationListener {
         // do nothing
     }
 
+    /**
+     * Returns the locations I am responsible for that may have the given peer in their replica set, which are the
+     * only ones whose replica set changes if the peer joins or leaves. A peer is in the replica set of a location if
+     * fewer than replication factor peers are closer to the location. Every known peer that shares exactly n bits
+     * with the peer is closer to all locations that share exactly n bits with the peer as well. Thus, only the
+     * locations that share a prefix of a length with fewer such peers are affected, which are ranges of the sorted
+     * location keys. Usually this is a single range around the peer.
+     * 
+     * @param peerAddress
+     *            The peer that joined or left
+     * @return A superset of my locations whose replica set changes with the peer
+     */
+    private Collection<Number160> affectedLocations(final PeerAddress peerAddress) {
+        final Number160 peerId = peerAddress.peerId();
+        // the number of known peers (including myself) by the bit length of their distance to the peer
+        final int[] peers = new int[Number160.BITS + 1];
+        peers[selfAddress.peerId().xor(peerId).bitLength()]++;
+        for (PeerAddress known : peerMap.all()) {
+            if (!known.peerId().equals(peerId)) {
+                peers[known.peerId().xor(peerId).bitLength()]++;
+            }
+        }
+        // the locations up to a distance of this bit length are all affected
+        int bits = 0;
+        while (bits < Number160.BITS && peers[bits + 1] < replicationFactor) {
+            bits++;
+        }
+        final Collection<Number160> locations = backend.findContentForResponsiblePeerID(selfAddress.peerId(),
+                setLowBits(peerId, bits, false), setLowBits(peerId, bits, true));
+        // in small networks, also the locations in some farther subtrees
+        for (int i = bits + 2; i <= Number160.BITS; i++) {
+            if (peers[i] < replicationFactor) {
+                final Number160 subtree = peerId.xor(bit(i - 1));
+                locations.addAll(backend.findContentForResponsiblePeerID(selfAddress.peerId(),
+                        setLowBits(subtree, i - 1, false), setLowBits(subtree, i - 1, true)));
+            }
+        }
+        return locations;
+    }
+
+    private static Number160 bit(final int index) {
+        final int[] val = new int[Number160.INT_ARRAY_SIZE];
+        val[Number160.INT_ARRAY_SIZE - 1 - (index / Integer.SIZE)] = 1 << (index % Integer.SIZE);
+        return new Number160(val);
+    }
+
+    private static Number160 setLowBits(final Number160 number, final int bits, final boolean set) {
+        final int[] val = number.toIntArray();
+        int remaining = bits;
+        for (int i = Number160.INT_ARRAY_SIZE - 1; i >= 0 && remaining > 0; i--) {
+            final int mask = remaining >= Integer.SIZE ? -1 : (1 << remaining) - 1;
+            val[i] = set ? val[i] | mask : val[i] & ~mask;
+            remaining -= Integer.SIZE;
+        }
+        return new Number160(val);
+    }
+
     /**
      * Returns the closest peer to a number (including myself).
      * 
@@ -47,6 +47,8 @@ public class Data {
 
 	private static final int MAX_BYTE_SIZE = 256;
 
+	private static volatile DataHasher hasher = DataHasher.SHA_1;
+
 	/**
 	 * small means 8 bit, medium is 32bit.
 	 * 
@@ -258,7 +260,6 @@ public class Data {
 		final int numBasedOn;
 		final int indexPublicKeySize;
 		final int indexBasedOn;
-		final Set<Number160> basedOn = new HashSet<Number160>();
 		if (hasBasedOn(header)) {
 			// get # of based on keys
 			indexBasedOn = indexBasedOnNr + Utils.BYTE_BYTE_SIZE;
@@ -270,7 +271,16 @@ public class Data {
 			if (buf.readableBytes() < indexPublicKeySize) {
 				return null;
 			}
-			//get basedon
+		} else {
+			// no based on keys
+			indexPublicKeySize = indexBasedOnNr;
+			numBasedOn = 0;
+		}
+		
+		//get basedon, before the reader index moves
+		final Set<Number160> basedOn;
+		if (numBasedOn > 0) {
+			basedOn = new HashSet<Number160>(Utils.capacity(numBasedOn));
 			int index = buf.readerIndex() + indexBasedOnNr + Utils.BYTE_BYTE_SIZE;
 			final byte[] me = new byte[Number160.BYTE_ARRAY_SIZE];
 			for (int i = 0; i < numBasedOn; i++) {
@@ -278,11 +288,8 @@ public class Data {
 				index += Number160.BYTE_ARRAY_SIZE;
 				basedOn.add(new Number160(me));
 			}
-			
 		} else {
-			// no based on keys
-			indexPublicKeySize = indexBasedOnNr;
-			numBasedOn = 0;
+			basedOn = null;
 		}
 		
 		//public key and size
@@ -313,7 +320,10 @@ public class Data {
 		//now we have read the header and the length
 		final Data data = new Data(header, length);
 		data.ttlSeconds = ttl;
-		data.basedOnSet = basedOn;
+		if (basedOn != null) {
+			// otherwise keep the empty set of the constructor
+			data.basedOnSet = basedOn;
+		}
 		data.publicKey = publicKey;
 		return data;
 	}
@@ -770,6 +780,8 @@ public class Data {
 		data.privateKey = privateKey;
 		data.validFromMillis = validFromMillis;
 		data.prepareFlag = prepareFlag;
+		// same content, same hash
+		data.hash = hash;
 		return data;
 	}
 	
@@ -906,17 +918,48 @@ public class Data {
 		if (d.type != type || d.length != length) {
 			return false;
 		}
+		// if both hashes are known, different content can be detected without comparing the buffers
+		final Number160 hash1 = hash;
+		final Number160 hash2 = d.hash;
+		if (hash1 != null && hash2 != null && !hash1.equals(hash2)) {
+			return false;
+		}
 		//ignore ttl -> it's still the same data even if ttl is different
 		return Utils.equals(basedOnSet, d.basedOnSet) && Utils.equals(signature, d.signature)
 				&& d.buffer.equals(buffer); // This is a slow operation, use
 											// with care!
 	}
 
+	/**
+	 * @return The hash of the content. It is calculated once with the configured {@link DataHasher} and shared with
+	 *         the duplicates of this object.
+	 */
 	public Number160 hash() {
 		if (hash == null) {
-			hash = Utils.makeSHAHash(buffer);
+			hash = hasher.hash(buffer);
 		}
 		return hash;
 	}
 
+	/**
+	 * @return The hasher to calculate the content hash with
+	 */
+	public static DataHasher hasher() {
+		return hasher;
+	}
+
+	/**
+	 * Sets the hasher to calculate the content hash with. Other peers compare the hashes of their data with the hashes
+	 * of this peer, thus all peers of a network need to use the same hasher. Set it before any data is created.
+	 * 
+	 * @param hasher
+	 *            The hasher, {@link DataHasher#SHA_1} by default
+	 */
+	public static void hasher(final DataHasher hasher) {
+		if (hasher == null) {
+			throw new IllegalArgumentException("hasher cannot be null");
+		}
+		Data.hasher = hasher;
+	}
+
 }
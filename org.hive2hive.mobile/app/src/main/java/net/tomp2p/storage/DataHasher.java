@@ -0,0 +1,44 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.tomp2p.storage;
+
+import net.tomp2p.peers.Number160;
+import net.tomp2p.utils.Utils;
+
+/**
+ * Calculates the content hash of a {@link Data} object. The hash is used by other peers to compare versions, thus
+ * all peers of a network need to use the same hasher (see {@link Data#hasher(DataHasher)}).
+ * 
+ */
+public interface DataHasher {
+
+	/**
+	 * @param buffer
+	 *            The content to hash. The reader and writer indices must not be changed, make a shallow copy if
+	 *            needed.
+	 * @return The hash of the content
+	 */
+	Number160 hash(DataBuffer buffer);
+
+	/**
+	 * The SHA-1 hash of the whole content, this is the default.
+	 */
+	DataHasher SHA_1 = new DataHasher() {
+		@Override
+		public Number160 hash(final DataBuffer buffer) {
+			return Utils.makeSHAHash(buffer);
+		}
+	};
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package net.tomp2p.storage;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import net.tomp2p.peers.Number160;
+
+/**
+ * A tree hash over fixed size segments. Every segment is hashed with SHA-1, the hash of the content is the SHA-1
+ * hash over the concatenated segment hashes. Content that fits into a single segment has the same hash as with
+ * {@link DataHasher#SHA_1}.
+ * <p>
+ * The hash of a segment does not depend on the other segments, thus a corrupt segment can be identified and
+ * re-fetched on its own, and the segments can be hashed as soon as they are received.
+ * 
+ */
+public class TreeDataHasher implements DataHasher {
+
+	public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024;
+
+	private final int segmentSize;
+
+	public TreeDataHasher() {
+		this(DEFAULT_SEGMENT_SIZE);
+	}
+
+	/**
+	 * @param segmentSize
+	 *            The size of the segments in bytes
+	 */
+	public TreeDataHasher(final int segmentSize) {
+		if (segmentSize <= 0) {
+			throw new IllegalArgumentException("segment size needs to be positive");
+		}
+		this.segmentSize = segmentSize;
+	}
+
+	public int segmentSize() {
+		return segmentSize;
+	}
+
+	@Override
+	public Number160 hash(final DataBuffer buffer) {
+		final MessageDigest segment;
+		final MessageDigest root;
+		try {
+			segment = MessageDigest.getInstance("SHA-1");
+			root = MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException e) {
+			e.printStackTrace();
+			return new Number160();
+		}
+
+		int segments = 0;
+		int segmentFill = 0;
+		for (final ByteBuffer byteBuffer : buffer.bufferList()) {
+			while (byteBuffer.hasRemaining()) {
+				if (segmentFill == segmentSize) {
+					root.update(segment.digest());
+					segments++;
+					segmentFill = 0;
+				}
+				final int length = Math.min(byteBuffer.remaining(), segmentSize - segmentFill);
+				final int limit = byteBuffer.limit();
+				byteBuffer.limit(byteBuffer.position() + length);
+				segment.update(byteBuffer);
+				byteBuffer.limit(limit);
+				segmentFill += length;
+			}
+		}
+
+		if (segments == 0) {
+			// a single segment
+			return new Number160(segment.digest());
+		}
+		root.update(segment.digest());
+		return new Number160(root.digest());
+	}
+}
@@ -32,6 +32,7 @@ public class PeerBuilderTracker {
 	private int replicationFactor = -1;
 	private int[] maintenanceInterval = null;
 	private Boolean verifyPeersOnTracker;
+	private int trackerCacheSize = -1;
 
 	public PeerBuilderTracker(Peer peer) {
 		this.peer = peer;
@@ -57,10 +58,13 @@ public class PeerBuilderTracker {
 		if(verifyPeersOnTracker == null) {
 			verifyPeersOnTracker = Boolean.TRUE;
 		}
+		if (trackerCacheSize == -1) {
+			trackerCacheSize = TrackerStorage.TRACKER_CACHE_SIZE;
+		}
 		
 		final TrackerStorage trackerStorage;
 		if (peerExchangeHandler == null) {
-			trackerStorage = new TrackerStorage(ttl, maintenanceInterval, replicationFactor, peer.peerBean().peerMap(), peer.peerAddress(), verifyPeersOnTracker.booleanValue());
+			trackerStorage = new TrackerStorage(ttl, maintenanceInterval, replicationFactor, peer.peerBean().peerMap(), peer.peerAddress(), verifyPeersOnTracker.booleanValue(), trackerCacheSize);
 			peerExchangeHandler = new DefaultPeerExchangeHandler(trackerStorage, peer.peerAddress(), rnd);
 		} else {
 			trackerStorage = peerExchangeHandler.trackerStorage();
@@ -123,6 +127,20 @@ public class PeerBuilderTracker {
 		return this;
 	}
 	
+	public int trackerCacheSize() {
+		return trackerCacheSize;
+	}
+
+	/**
+	 * @param trackerCacheSize
+	 *            The maximum number of tracker keys the tracker stores
+	 * @return This class
+	 */
+	public PeerBuilderTracker trackerCacheSize(int trackerCacheSize) {
+		this.trackerCacheSize = trackerCacheSize;
+		return this;
+	}
+
 	public ConnectionConfiguration connectionConfiguration() {
 		return connectionConfiguration;
 	}
@@ -28,7 +28,9 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.NavigableSet;
+import java.util.Set;
 import java.util.SortedSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class TrackerStorage implements Maintainable, PeerMapChangeListener, PeerStatusListener, DigestTracker {
     
@@ -38,6 +40,10 @@ public class TrackerStorage implements Maintainable, PeerMapChangeListener, Peer
 	final private Map<Number320, Map<PeerAddress, Pair<PeerStatistic, Data>>> dataMapUnverified;
 	final private Map<Number320, Map<PeerAddress, Pair<PeerStatistic, Data>>> dataMap;
 	private final ConcurrentCacheMap<Number160, Boolean> peerOffline;
+	// peer ID -> keys the peer has been added under, in either data map. An entry expires like the tracker
+	// data of the peer. Keys the peer is removed from or that are evicted are dropped, keys that expired are
+	// dropped once the peer is found again.
+	private final ConcurrentCacheMap<Number160, Set<Number320>> peerKeys;
 	
 	final private boolean verifyPeersOnTracker;
 	private final int[] intervalSeconds;
@@ -50,10 +56,20 @@ public class TrackerStorage implements Maintainable, PeerMapChangeListener, Peer
 
 	public TrackerStorage(int trackerTimoutSeconds, final int[] intervalSeconds,
 	        int replicationFactor, PeerMap peerMap, PeerAddress self, boolean verifyPeersOnTracker) {
-		dataMapUnverified = new ConcurrentCacheMap<Number320, Map<PeerAddress, Pair<PeerStatistic, Data>>>(trackerTimoutSeconds, TRACKER_CACHE_SIZE,
-		        true);
-		dataMap = new ConcurrentCacheMap<Number320, Map<PeerAddress, Pair<PeerStatistic, Data>>>(trackerTimoutSeconds, TRACKER_CACHE_SIZE, true);
+		this(trackerTimoutSeconds, intervalSeconds, replicationFactor, peerMap, self, verifyPeersOnTracker,
+		        TRACKER_CACHE_SIZE);
+	}
+
+	/**
+	 * @param trackerCacheSize
+	 *            The maximum number of tracker keys, in each of the verified and unverified map
+	 */
+	public TrackerStorage(int trackerTimoutSeconds, final int[] intervalSeconds,
+	        int replicationFactor, PeerMap peerMap, PeerAddress self, boolean verifyPeersOnTracker, int trackerCacheSize) {
+		dataMapUnverified = new TrackerDataMap(trackerTimoutSeconds, trackerCacheSize);
+		dataMap = new TrackerDataMap(trackerTimoutSeconds, trackerCacheSize);
 		peerOffline = new ConcurrentCacheMap<Number160, Boolean>(trackerTimoutSeconds * 5, TRACKER_CACHE_SIZE, false);
+		peerKeys = new ConcurrentCacheMap<Number160, Set<Number320>>(trackerTimoutSeconds, trackerCacheSize, true);
 		this.trackerTimoutSeconds = trackerTimoutSeconds;
 		this.intervalSeconds = intervalSeconds;
 		this.self = self;
@@ -148,10 +164,11 @@ public class TrackerStorage implements Maintainable, PeerMapChangeListener, Peer
 	public void peerInserted(PeerAddress remotePeer, boolean verified) {
 		if (verified) {
 			for (Map.Entry<Number320, Map<PeerAddress, Pair<PeerStatistic, Data>>> entry : dataMap.entrySet()) {
+				final SortedSet<PeerStatistic> replicationRange = closePeers(entry.getKey().locationKey(), replicationFactor);
 				//if I have conetnt and I see a peer as a new responsible, push it.
-				if(isInReplicationRange(entry.getKey().locationKey(), remotePeer, replicationFactor)) {
+				if(isInReplicationRange(replicationRange, remotePeer, replicationFactor)) {
 					//limit the pushing peer to those that are responsible
-					if(isInReplicationRange(entry.getKey().locationKey(), self, replicationFactor)) {
+					if(isInReplicationRange(replicationRange, self, replicationFactor)) {
 						TrackerData trackerData = new TrackerData(entry.getValue().values());
 						LOG.debug("other peer is closer, send data {} to peer {}", trackerData, remotePeer);
 						peerExchange.peerExchange(remotePeer, entry.getKey(), trackerData);
@@ -166,10 +183,11 @@ public class TrackerStorage implements Maintainable, PeerMapChangeListener, Peer
 		// if a responsible peer is removed, and I see myself as a responsible, 
 		// I should push my content to a random responsible
 		for (Map.Entry<Number320, Map<PeerAddress, Pair<PeerStatistic, Data>>> entry : dataMap.entrySet()) {
+			final SortedSet<PeerStatistic> replicationRange = closePeers(entry.getKey().locationKey(), replicationFactor);
 			//if I have conetnt and I see the removed peer as a responsible, push it.
-			if(isInReplicationRange(entry.getKey().locationKey(), remotePeer, replicationFactor)) {
+			if(isInReplicationRange(replicationRange, remotePeer, replicationFactor)) {
 				//limit the pushing peer to those that are responsible
-				if(isInReplicationRange(entry.getKey().locationKey(), self, replicationFactor)) {
+				if(isInReplicationRange(replicationRange, self, replicationFactor)) {
 					NavigableSet<PeerStatistic> closePeers = peerMap.closePeers(entry.getKey().locationKey(), replicationFactor);
 					PeerAddress newResponsible = closePeers.headSet(new PeerStatistic(remotePeer)).last().peerAddress();
 					TrackerData trackerData = new TrackerData(entry.getValue().values());
@@ -185,11 +203,19 @@ public class TrackerStorage implements Maintainable, PeerMapChangeListener, Peer
 		// nothing to do
 	}
 
-	private boolean isInReplicationRange(final Number160 locationKey, final PeerAddress peerAddress,
-	        final int replicationFactor) {
+	/**
+	 * The close peers of a location key including myself, such that both the other peer and myself can be
+	 * checked against the same set.
+	 */
+	private SortedSet<PeerStatistic> closePeers(final Number160 locationKey, final int replicationFactor) {
 		SortedSet<PeerStatistic> tmp = peerMap.closePeers(locationKey, replicationFactor);
 		tmp.add(new PeerStatistic(self));
-		return tmp.headSet(new PeerStatistic(peerAddress)).size() < replicationFactor;
+		return tmp;
+	}
+
+	private static boolean isInReplicationRange(final SortedSet<PeerStatistic> closePeers,
+	        final PeerAddress peerAddress, final int replicationFactor) {
+		return closePeers.headSet(new PeerStatistic(peerAddress)).size() < replicationFactor;
 	}
 
 	private boolean add(Number320 key, PeerAddress peerAddress, Map<Number320, Map<PeerAddress, Pair<PeerStatistic, Data>>> map, Data attachement) {
@@ -210,10 +236,28 @@ public class TrackerStorage implements Maintainable, PeerMapChangeListener, Peer
 			map.put(key, map2);
 		}
 		map2.put(peerAddress, trackerData);
+		index(key, peerAddress.peerId());
 		
 		return true;
 	}
 
+	private void index(Number320 key, Number160 peerId) {
+		Set<Number320> keys = peerKeys.get(peerId);
+		if (keys == null) {
+			keys = Collections.newSetFromMap(new ConcurrentHashMap<Number320, Boolean>());
+		}
+		// refreshes the timeout of an existing entry
+		Set<Number320> existing = peerKeys.putIfAbsent(peerId, keys);
+		(existing == null ? keys : existing).add(key);
+	}
+
+	private void unindex(Number320 key, Number160 peerId) {
+		Set<Number320> keys = peerKeys.get(peerId);
+		if (keys != null) {
+			keys.remove(key);
+		}
+	}
+
 	public Collection<Number320> keys() {
 		return dataMap.keySet();
 	}
@@ -221,29 +265,50 @@ public class TrackerStorage implements Maintainable, PeerMapChangeListener, Peer
 	@Override
 	public boolean peerFailed(PeerAddress remotePeer, PeerException reason) {
 		peerOffline.put(remotePeer.peerId(), Boolean.TRUE);
+		final Set<Number320> keys = peerKeys.remove(remotePeer.peerId());
+		if (keys == null) {
+			return false;
+		}
 		boolean removed = false;
-		removed = !removeFromMap(remotePeer, dataMapUnverified).isEmpty();
-		removed = (!removeFromMap(remotePeer, dataMap).isEmpty()) || removed;
+		removed = !removeFromMap(remotePeer, keys, dataMapUnverified).isEmpty();
+		removed = (!removeFromMap(remotePeer, keys, dataMap).isEmpty()) || removed;
 		return removed;
 	}
 
-	private Map<Number320, Map<PeerAddress, Pair<PeerStatistic, Data>>> removeFromMap(PeerAddress remotePeer, Map<Number320, Map<PeerAddress, Pair<PeerStatistic, Data>>> map) {
-		Map<Number320, Map<PeerAddress, Pair<PeerStatistic, Data>>> removed = new HashMap<Number320, Map<PeerAddress,Pair<PeerStatistic,Data>>>();
-	    for (Map.Entry<Number320, Map<PeerAddress, Pair<PeerStatistic, Data>>> entry : map.entrySet()) {
-	    	Pair<PeerStatistic, Data> oldPair = entry.getValue().remove(remotePeer);
-	    	if(oldPair != null) {
-	    		Map<PeerAddress, Pair<PeerStatistic, Data>> map2 = new ConcurrentCacheMap<PeerAddress, Pair<PeerStatistic, Data>>(trackerTimoutSeconds, TRACKER_CACHE_SIZE, true); 
-	    		map2.put(remotePeer, oldPair);
-	    		removed.put(entry.getKey(), map2);
-	    	}
-	    	
-			if(entry.getValue().isEmpty()) {
-				map.remove(entry.getKey());
+	/**
+	 * Removes the peer from the given keys of the map. Only the keys of the peer are visited, not the whole
+	 * map.
+	 * 
+	 * @return The removed entries of the peer
+	 */
+	private Map<Number320, Pair<PeerStatistic, Data>> removeFromMap(PeerAddress remotePeer, Set<Number320> keys,
+	        Map<Number320, Map<PeerAddress, Pair<PeerStatistic, Data>>> map) {
+		Map<Number320, Pair<PeerStatistic, Data>> removed = null;
+		for (Number320 key : keys) {
+			Map<PeerAddress, Pair<PeerStatistic, Data>> map2 = map.get(key);
+			if (map2 == null) {
+				continue;
+			}
+			Pair<PeerStatistic, Data> oldPair = map2.remove(remotePeer);
+			if (oldPair != null) {
+				// a peer is stored in only one of the maps per key
+				keys.remove(key);
+				if (removed == null) {
+					removed = new HashMap<Number320, Pair<PeerStatistic, Data>>();
+				}
+				removed.put(key, oldPair);
+			}
+
+			if (map2.isEmpty()) {
+				map.remove(key);
 				//someone added data in the meantime, but we don't care
 			}
 		}
-	    return removed;
-    }
+		if (removed == null) {
+			return Collections.emptyMap();
+		}
+		return removed;
+	}
 
 	@Override
 	public boolean peerFound(PeerAddress remotePeer, PeerAddress referrer, PeerConnection peerConnection, RTT roundTripTime) {
@@ -251,10 +316,19 @@ public class TrackerStorage implements Maintainable, PeerMapChangeListener, Peer
 		if (firsthand) {
 			peerOffline.remove(remotePeer.peerId());
 			
-			Map<Number320, Map<PeerAddress, Pair<PeerStatistic, Data>>> removed = removeFromMap(remotePeer, dataMapUnverified);
-			for (Map.Entry<Number320, Map<PeerAddress, Pair<PeerStatistic, Data>>> entry:removed.entrySet()) {
-				for(Pair<PeerStatistic, Data> pair:entry.getValue().values()) {
-					add(entry.getKey(), pair.element0().peerAddress(), dataMap, pair.element1());
+			final Set<Number320> keys = peerKeys.get(remotePeer.peerId());
+			if (keys == null) {
+				return true;
+			}
+			Map<Number320, Pair<PeerStatistic, Data>> removed = removeFromMap(remotePeer, keys, dataMapUnverified);
+			for (Map.Entry<Number320, Pair<PeerStatistic, Data>> entry:removed.entrySet()) {
+				Pair<PeerStatistic, Data> pair = entry.getValue();
+				add(entry.getKey(), pair.element0().peerAddress(), dataMap, pair.element1());
+			}
+			// forget the keys where the peer expired
+			for (Number320 key : keys) {
+				if (findOld(key, remotePeer, dataMap) == null && findOld(key, remotePeer, dataMapUnverified) == null) {
+					keys.remove(key);
 				}
 			}
 		}
@@ -303,4 +377,22 @@ public class TrackerStorage implements Maintainable, PeerMapChangeListener, Peer
 	public TrackerData trackerData(Number320 number320) {
 		return new TrackerData(peers(number320).values());
 	}
+
+	/**
+	 * A data map that drops an evicted key from the index of its peers.
+	 */
+	private class TrackerDataMap extends ConcurrentCacheMap<Number320, Map<PeerAddress, Pair<PeerStatistic, Data>>> {
+
+		private TrackerDataMap(int timeToLiveSeconds, int maxEntries) {
+			super(timeToLiveSeconds, maxEntries, true);
+		}
+
+		@Override
+		protected void evicted(Number320 key, Map<PeerAddress, Pair<PeerStatistic, Data>> peers) {
+			// only the index is touched, the data maps are locked
+			for (PeerAddress peerAddress : peers.keySet()) {
+				unindex(key, peerAddress.peerId());
+			}
+		}
+	}
 }
@@ -106,12 +106,36 @@ public class ConcurrentCacheMap<K, V> implements ConcurrentMap<K, V> {
         final int maxEntriesPerSegment = maxEntries / SEGMENT_NR;
         for (int i = 0; i < SEGMENT_NR; i++) {
             // set the cachemap to true, since it should behave as a regular map
-            segments[i] = new CacheMap<K, ExpiringObject>(maxEntriesPerSegment, true);
+            segments[i] = new CacheMap<K, ExpiringObject>(maxEntriesPerSegment, true) {
+                private static final long serialVersionUID = -4376426373622938371L;
+
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<K, ExpiringObject> eldest) {
+                    if (!super.removeEldestEntry(eldest)) {
+                        return false;
+                    }
+                    evicted(eldest.getKey(), eldest.getValue().getValue());
+                    return true;
+                }
+            };
         }
         this.timeToLiveSeconds = timeToLiveSeconds;
         this.refreshTimeout = refreshTimeout;
     }
 
+    /**
+     * Called when an entry is evicted because its segment is full. The segment is locked during the call, thus this
+     * map must not be accessed. Does nothing by default.
+     * 
+     * @param key
+     *            The key of the evicted entry
+     * @param value
+     *            The value of the evicted entry, it may already be expired
+     */
+    protected void evicted(final K key, final V value) {
+        // nothing to do
+    }
+
     /**
      * Returns the segment based on the key.
      * 
@@ -418,6 +418,21 @@ public class Utils {
         }
     }
 
+    /**
+     * Returns the initial capacity of a {@link java.util.HashMap} or {@link java.util.HashSet} that holds the expected
+     * number of entries without resizing.
+     * 
+     * @param expectedSize
+     *            The number of entries to store
+     * @return The capacity to use
+     */
+    public static int capacity(final int expectedSize) {
+        if (expectedSize < 3) {
+            return expectedSize + 1;
+        }
+        return (int) (expectedSize / 0.75f) + 1;
+    }
+
     public static final byte[] intToByteArray(int value) {
         return new byte[] { (byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value };
     }
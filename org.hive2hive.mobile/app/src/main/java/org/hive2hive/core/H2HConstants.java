@@ -57,6 +57,10 @@ public interface H2HConstants {
 
 	// number of allowed tries to retry a put
 	public static final int PUT_RETRIES = 3;
+	// number of chunks of a streamed upload that are put at the same time (limits the chunks held in memory)
+	public static final int STREAM_UPLOAD_CONCURRENCY = 4;
+	// number of chunks of a streamed download that are fetched ahead of the reader (limits the chunks held in memory)
+	public static final int STREAM_DOWNLOAD_READ_AHEAD = 4;
 	// number of allowed tries to retry a confirm
 	public static final int CONFIRM_RETRIES = 3;
 	// number of allowed tries to retry a remove
@@ -123,6 +127,16 @@ public interface H2HConstants {
 	// period in milliseconds between successive ttl refreshment task executions
 	public static final int TTL_REFRESHMENT_PERIOD = 1000;
 
+	/**
+	 * Protection Key Migration
+	 */
+	// the file in the root directory where unfinished protection key migrations are kept to resume them
+	public static final String PK_MIGRATION_FILE_NAME = "h2h.migrations";
+	// the number of entries whose protection keys are changed with one grouped request
+	public static final int PK_MIGRATION_BATCH_SIZE = 128;
+	// the number of grouped requests (or meta file gets) of a migration in flight at the same time
+	public static final int PK_MIGRATION_CONCURRENCY = 4;
+
 	/**
 	 * Download Manager
 	 */
@@ -1,16 +1,20 @@
 package org.hive2hive.core;
 
+import org.hive2hive.core.file.FileHashCache;
 import org.hive2hive.core.file.IFileAgent;
 import org.hive2hive.core.network.data.PublicKeyManager;
 import org.hive2hive.core.network.data.UserProfileManager;
 import org.hive2hive.core.network.data.download.DownloadManager;
 import org.hive2hive.core.network.data.vdht.LocationsManager;
+import org.hive2hive.core.processes.files.list.FileListCache;
 import org.hive2hive.core.processes.login.SessionParameters;
 import org.hive2hive.core.security.UserCredentials;
 
 import java.io.File;
 import java.security.KeyPair;
 
+import javax.crypto.SecretKey;
+
 public class H2HSession {
 
 	private final UserProfileManager profileManager;
@@ -18,6 +22,9 @@ public class H2HSession {
 	private final PublicKeyManager keyManager;
 	private final DownloadManager downloadManager;
 	private final IFileAgent fileAgent;
+	private final FileHashCache fileHashCache;
+	private final FileListCache fileListCache;
+	private final SecretKey profileEncryptionKey;
 
 	public H2HSession(SessionParameters params) {
 		this.profileManager = params.getProfileManager();
@@ -25,6 +32,9 @@ public class H2HSession {
 		this.keyManager = params.getKeyManager();
 		this.downloadManager = params.getDownloadManager();
 		this.fileAgent = params.getFileAgent();
+		this.fileHashCache = params.getFileHashCache() == null ? new FileHashCache() : params.getFileHashCache();
+		this.fileListCache = new FileListCache();
+		this.profileEncryptionKey = params.getProfileEncryptionKey();
 	}
 
 	public UserProfileManager getProfileManager() {
@@ -39,6 +49,16 @@ public class H2HSession {
 		return profileManager.getUserCredentials();
 	}
 
+	/**
+	 * Returns the key of the user profile. It is derived from the credentials once at login and destroyed at
+	 * logout.
+	 * 
+	 * @return the user profile key
+	 */
+	public SecretKey getProfileEncryptionKey() {
+		return profileEncryptionKey;
+	}
+
 	/**
 	 * Returns the own encryption key pair
 	 */
@@ -79,4 +99,22 @@ public class H2HSession {
 	public IFileAgent getFileAgent() {
 		return fileAgent;
 	}
+
+	/**
+	 * Returns the cached hashes of the local files. The cache is persisted at logout.
+	 * 
+	 * @return the file hash cache
+	 */
+	public FileHashCache getFileHashCache() {
+		return fileHashCache;
+	}
+
+	/**
+	 * Returns the file tree of the latest user profile version that has been listed
+	 * 
+	 * @return the file list cache
+	 */
+	public FileListCache getFileListCache() {
+		return fileListCache;
+	}
 }
@@ -17,6 +17,7 @@ import org.hive2hive.core.processes.files.recover.IVersionSelector;
 import org.hive2hive.processframework.interfaces.IProcessComponent;
 
 import java.io.File;
+import java.io.InputStream;
 
 /**
  * Default implementation of {@link IFileManager}.
@@ -51,6 +52,29 @@ public class H2HFileManager extends H2HManager implements IFileManager {
 		return ProcessFactory.instance().createAddFileProcess(file, networkManager, fileConfiguration);
 	}
 
+	@Override
+	public IProcessComponent<Void> createAddProcess(File file, InputStream content, long length)
+			throws NoPeerConnectionException, NoSessionException, IllegalArgumentException {
+
+		H2HSession session = networkManager.getSession();
+		if (file == null) {
+			throw new IllegalArgumentException("File cannot be null.");
+		} else if (content == null) {
+			throw new IllegalArgumentException("Content cannot be null.");
+		} else if (length < 0) {
+			throw new IllegalArgumentException("Length cannot be negative.");
+		} else if (file.exists()) {
+			throw new IllegalArgumentException("File already exists, it cannot be added from a stream.");
+		} else if (session.getRootFile().equals(file)) {
+			throw new IllegalArgumentException("Root cannot be added.");
+		} else if (!FileUtil.isInH2HDirectory(session.getFileAgent(), file)) {
+			throw new IllegalArgumentException("File is not within the root file tree.");
+		}
+
+		return ProcessFactory.instance().createAddFileProcess(file, content, length, networkManager,
+				fileConfiguration);
+	}
+
 	@Override
 	public IProcessComponent<Void> createDeleteProcess(File file) throws NoPeerConnectionException, NoSessionException,
 			IllegalArgumentException {
@@ -96,6 +120,19 @@ public class H2HFileManager extends H2HManager implements IFileManager {
 		return ProcessFactory.instance().createDownloadFileProcess(file, networkManager);
 	}
 
+	@Override
+	public IProcessComponent<InputStream> createDownloadStreamProcess(File file) throws NoPeerConnectionException,
+			NoSessionException, IllegalArgumentException {
+
+		if (file == null) {
+			throw new IllegalArgumentException("File cannot be null");
+		} else if (!FileUtil.isInH2HDirectory(networkManager.getSession().getFileAgent(), file)) {
+			throw new IllegalArgumentException("File is not in the Hive2Hive directory");
+		}
+
+		return ProcessFactory.instance().createDownloadStreamProcess(file, networkManager);
+	}
+
 	@Override
 	public IProcessComponent<Void> createMoveProcess(File source, File destination) throws NoSessionException,
 			NoPeerConnectionException, IllegalArgumentException {
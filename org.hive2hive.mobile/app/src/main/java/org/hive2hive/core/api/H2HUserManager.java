@@ -41,6 +41,11 @@ public class H2HUserManager extends H2HManager implements IUserManager {
 		return ProcessFactory.instance().createLogoutProcess(networkManager);
 	}
 
+	@Override
+	public IProcessComponent<Void> createPersistProcess() throws NoPeerConnectionException, NoSessionException {
+		return ProcessFactory.instance().createPersistProcess(networkManager);
+	}
+
 	@Override
 	public boolean isRegistered(String userId) throws NoPeerConnectionException {
 		return networkManager.getDataManager().get(
@@ -9,6 +9,7 @@ import org.hive2hive.core.processes.files.recover.IVersionSelector;
 import org.hive2hive.processframework.interfaces.IProcessComponent;
 
 import java.io.File;
+import java.io.InputStream;
 
 /**
  * Basic interface for all file management operations.
@@ -32,6 +33,22 @@ public interface IFileManager {
 	IProcessComponent<Void> createAddProcess(File file) throws NoPeerConnectionException, NoSessionException,
 			IllegalArgumentException;
 
+	/**
+	 * Add a file whose content is read from a stream (e.g. from another app). The stream is read only once and
+	 * the chunks are uploaded while reading, thus the content does not need to be copied into the Hive2Hive
+	 * folder first. Only large files are written to the given file, because they are served from the disk.
+	 * 
+	 * @param file The file in the predefined Hive2Hive folder. It must not exist yet.
+	 * @param content The content of the file. It is read to the end, but not closed.
+	 * @param length The number of bytes in the stream.
+	 * @return A file add process.
+	 * @throws NoPeerConnectionException If the peer is not connected to the network.
+	 * @throws NoSessionException If no user has logged in.
+	 * @throws IllegalArgumentException If the provided parameters are incorrect.
+	 */
+	IProcessComponent<Void> createAddProcess(File file, InputStream content, long length)
+			throws NoPeerConnectionException, NoSessionException, IllegalArgumentException;
+
 	/**
 	 * Delete a file / folder and all versions of that file from the network. This operation deletes also the
 	 * file on disk. <strong>Note that this operation is irreversible.</strong> If the folder is not empty,
@@ -72,6 +89,21 @@ public interface IFileManager {
 	IProcessComponent<Void> createDownloadProcess(File file) throws NoPeerConnectionException, NoSessionException,
 			IllegalArgumentException;
 
+	/**
+	 * Open the newest version of a file for reading without downloading it to the disk first (e.g. to show a
+	 * video or a document). The chunks are downloaded in read order while the stream is read, thus the first
+	 * bytes are available before the whole file has arrived. Only files up to the maximum file size of the
+	 * configuration can be streamed, larger files need to be downloaded with {@link #createDownloadProcess(File)}.
+	 * 
+	 * @param file The file to be read.
+	 * @return A process which returns the opened stream. The caller needs to close it.
+	 * @throws NoPeerConnectionException If the peer is not connected to the network.
+	 * @throws NoSessionException If no user has logged in.
+	 * @throws IllegalArgumentException If the provided parameters are incorrect.
+	 */
+	IProcessComponent<InputStream> createDownloadStreamProcess(File file) throws NoPeerConnectionException,
+			NoSessionException, IllegalArgumentException;
+
 	/**
 	 * Move a file / folder from a given source to a given destination. This operation can also be used to
 	 * rename a file, or moving and renaming it together. In case of moving a folder, sub-files are moved too.
@@ -48,6 +48,17 @@ public interface IUserManager {
 	 */
 	IProcessComponent<Void> createLogoutProcess() throws NoPeerConnectionException, NoSessionException;
 
+	/**
+	 * Writes the meta data of the session (e.g. the hashes of the local files) to the file agent without
+	 * logging out. The meta data is written at logout anyway, but an app that can be killed at any time (e.g.
+	 * on Android) should call this whenever it goes to the background.
+	 * 
+	 * @return A process writing the meta data.
+	 * @throws NoPeerConnectionException If the peer is not connected to the network.
+	 * @throws NoSessionException If not user has logged in.
+	 */
+	IProcessComponent<Void> createPersistProcess() throws NoPeerConnectionException, NoSessionException;
+
 	/**
 	 * Checks whether a user is registered in the network.
 	 * 
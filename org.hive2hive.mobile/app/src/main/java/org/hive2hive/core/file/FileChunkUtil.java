@@ -7,6 +7,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.RandomAccessFile;
 import java.util.List;
 
@@ -90,6 +91,50 @@ public class FileChunkUtil {
 		}
 	}
 
+	/**
+	 * Reads the next chunk of a stream. Unlike {@link #getChunk(File, int, int, String)}, the chunks can only be
+	 * read in order.
+	 * 
+	 * @param content the stream to chunk, positioned at the start of the chunk
+	 * @param chunkSize the maximum size of a single chunk. If the end of the stream has been reached before,
+	 *            the returned chunk can be smaller.
+	 * @param chunkNumber the index of the chunk, starting at 0
+	 * @param chunkId the id of the chunk which should be returned
+	 * @return the chunk or null if the end of the stream has been reached. An empty stream results in a
+	 *         single empty chunk.
+	 * @throws IOException if the stream cannot be read
+	 */
+	public static Chunk getChunk(InputStream content, int chunkSize, int chunkNumber, String chunkId)
+			throws IOException {
+		if (content == null) {
+			throw new IOException("Stream does not exist");
+		} else if (chunkSize <= 0) {
+			throw new IOException("Chunk size cannot be smaller or equal to 0");
+		} else if (chunkNumber < 0) {
+			throw new IOException("Chunk number cannot be smaller than 0");
+		}
+
+		// a stream may return less than requested, fill the chunk until the end of the stream
+		byte[] data = new byte[chunkSize];
+		int read = 0;
+		while (read < chunkSize) {
+			int numRead = content.read(data, read, chunkSize - read);
+			if (numRead == -1) {
+				break;
+			}
+			read += numRead;
+		}
+
+		if (read > 0) {
+			return new Chunk(chunkId, truncateData(data, read), chunkNumber);
+		} else if (chunkNumber == 0) {
+			// special case: the stream is empty, return an empty chunk
+			return new Chunk(chunkId, new byte[0], 0);
+		} else {
+			return null;
+		}
+	}
+
 	/**
 	 * Truncates a byte array
 	 * 
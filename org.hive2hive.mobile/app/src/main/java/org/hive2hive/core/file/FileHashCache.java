@@ -0,0 +1,184 @@
+package org.hive2hive.core.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.filefilter.TrueFileFilter;
+import org.hive2hive.core.security.HashUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches the hashes of local files together with their size and modification time. A hash is only
+ * recalculated if the size or the modification time of the file changed. The cache is stored with the
+ * {@link PersistentMetaData}, such that it survives a logout.</br>
+ * Entries whose file has been modified shortly before the entry was recorded are not trusted, because the
+ * file could be modified again within the resolution of the modification time (without changing the size).
+ * Such files are hashed again at the next lookup. Only the hashes of files that Hive2Hive has just written
+ * itself (see {@link #putHash(File, byte[])}) are trusted once the resolution has passed, because a later
+ * modification changes the modification time.
+ */
+public class FileHashCache implements Serializable {
+
+	private static final long serialVersionUID = -5323178766187513625L;
+	private static final Logger logger = LoggerFactory.getLogger(FileHashCache.class);
+
+	/**
+	 * The coarsest resolution of file modification times to expect (some file systems only store seconds or
+	 * even two seconds).
+	 */
+	private static final long MODIFICATION_RESOLUTION_MS = 2000;
+
+	// Map<absolute file path, entry>
+	private final Map<String, Entry> entries;
+
+	public FileHashCache() {
+		entries = new ConcurrentHashMap<String, Entry>();
+	}
+
+	/**
+	 * Returns the hash of the file. The hash is only calculated if the file changed since it has been
+	 * cached.
+	 *
+	 * @param file the file to hash
+	 * @return the hash of the file, an empty array for folders and non-existing files
+	 * @throws IOException if hashing fails
+	 */
+	public byte[] getHash(File file) throws IOException {
+		if (file == null || !file.isFile()) {
+			return HashUtil.hash(file);
+		}
+
+		String path = file.getAbsolutePath();
+		long size = file.length();
+		long lastModified = file.lastModified();
+		long recorded = System.currentTimeMillis();
+		Entry entry = entries.get(path);
+		if (entry != null && entry.isValid(size, lastModified, recorded)) {
+			return entry.hash.clone();
+		}
+
+		byte[] hash = HashUtil.hash(file);
+		if (file.length() == size && file.lastModified() == lastModified) {
+			entries.put(path, new Entry(size, lastModified, recorded, hash, false));
+		} else {
+			// modified while hashing
+			entries.remove(path);
+		}
+		return hash;
+	}
+
+	/**
+	 * Stores a known hash of a file that has just been written (e.g. after a download). The current size and
+	 * modification time of the file are recorded with it. The hash is trusted as soon as the resolution of the
+	 * modification time has passed, even if the entry is recorded right after the file has been written.
+	 *
+	 * @param file the file
+	 * @param hash the hash of the current file content
+	 */
+	public void putHash(File file, byte[] hash) {
+		if (hash == null || !file.isFile()) {
+			remove(file);
+			return;
+		}
+		entries.put(file.getAbsolutePath(), new Entry(file.length(), file.lastModified(), System.currentTimeMillis(),
+				hash.clone(), true));
+	}
+
+	/**
+	 * Removes the cached hash of a file.
+	 *
+	 * @param file the file
+	 */
+	public void remove(File file) {
+		entries.remove(file.getAbsolutePath());
+	}
+
+	/**
+	 * Returns the number of cached hashes
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Visit all files recursively and get the hash of the file. Folders are also added to the result. Only
+	 * files that changed since the last visit are hashed. Cached entries of files below the root that do not
+	 * exist anymore are removed.
+	 *
+	 * @param root the root folder
+	 * @return a map where the key is the relative file path to the root and the value is the hash
+	 * @throws IOException if hashing fails
+	 */
+	public Map<String, byte[]> visitFiles(File root) throws IOException {
+		Map<String, byte[]> digest = new HashMap<String, byte[]>();
+		Set<String> visited = new HashSet<String>();
+		int cachedBefore = entries.size();
+
+		Iterator<File> files = FileUtils.iterateFilesAndDirs(root, TrueFileFilter.TRUE, TrueFileFilter.TRUE);
+		while (files.hasNext()) {
+			File file = files.next();
+			if (file.equals(root)) {
+				// skip root folder
+				continue;
+			}
+			String path = FileUtil.relativize(root, file).toString();
+			if (file.isDirectory()) {
+				digest.put(path + FileUtil.getFileSep(), HashUtil.hash(file));
+			} else {
+				visited.add(file.getAbsolutePath());
+				digest.put(path, getHash(file));
+			}
+		}
+
+		// forget the files that have been removed
+		String rootPath = root.getAbsolutePath() + File.separator;
+		for (String path : entries.keySet()) {
+			if (path.startsWith(rootPath) && !visited.contains(path)) {
+				entries.remove(path);
+			}
+		}
+
+		logger.debug("Visited {} files and folders, {} of {} cached hashes remain.", digest.size(), entries.size(),
+				cachedBefore);
+		return digest;
+	}
+
+	private static class Entry implements Serializable {
+
+		private static final long serialVersionUID = 7434569013405961380L;
+
+		private final long size;
+		private final long lastModified;
+		private final long recorded;
+		private final byte[] hash;
+		// the file has been written by Hive2Hive with this content
+		private final boolean written;
+
+		public Entry(long size, long lastModified, long recorded, byte[] hash, boolean written) {
+			this.size = size;
+			this.lastModified = lastModified;
+			this.recorded = recorded;
+			this.hash = hash;
+			this.written = written;
+		}
+
+		public boolean isValid(long size, long lastModified, long now) {
+			if (this.size != size || this.lastModified != lastModified) {
+				return false;
+			} else if (lastModified + MODIFICATION_RESOLUTION_MS <= recorded) {
+				return true;
+			}
+			// re-validate a recently written file once a new modification would be visible
+			return written && lastModified + MODIFICATION_RESOLUTION_MS <= now;
+		}
+	}
+}
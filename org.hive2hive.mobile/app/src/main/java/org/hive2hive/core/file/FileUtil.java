@@ -2,6 +2,7 @@ package org.hive2hive.core.file;
 
 import org.hive2hive.core.H2HConstants;
 import org.hive2hive.core.network.data.PublicKeyManager;
+import org.hive2hive.core.network.data.UserProfileManager;
 import org.hive2hive.core.serializer.IH2HSerialize;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,8 +28,8 @@ public class FileUtil {
 	 * 
 	 * @throws IOException
 	 */
-	public static void writePersistentMetaData(IFileAgent fileAgent, PublicKeyManager keyManager, IH2HSerialize serializer)
-			throws IOException {
+	public static void writePersistentMetaData(IFileAgent fileAgent, PublicKeyManager keyManager,
+			FileHashCache fileHashCache, UserProfileManager profileManager, IH2HSerialize serializer) throws IOException {
 		// generate the new persistent meta data
 		PersistentMetaData metaData = new PersistentMetaData();
 
@@ -37,6 +38,17 @@ public class FileUtil {
 			metaData.setPublicKeyCache(keyManager.getCachedPublicKeys());
 		}
 
+		// add the hashes of the local files
+		if (fileHashCache != null) {
+			metaData.setFileHashCache(fileHashCache);
+		}
+
+		// add the encrypted user profile to skip downloading it at the next login
+		if (profileManager != null) {
+			metaData.setUserProfileSnapshot(profileManager.getUserCredentials().getProfileLocationKey(),
+					profileManager.getSnapshot());
+		}
+
 		byte[] encoded = serializer.serialize(metaData);
 		fileAgent.writeCache(H2HConstants.META_FILE_NAME, encoded);
 	}
@@ -54,7 +66,8 @@ public class FileUtil {
 				return new PersistentMetaData();
 			}
 			return (PersistentMetaData) serializer.deserialize(content);
-		} catch (IOException | ClassNotFoundException e) {
+		} catch (IOException | ClassNotFoundException | RuntimeException e) {
+			// also happens if the meta data has been written by an incompatible version
 			logger.error("Cannot deserialize meta data. Reason: {}", e.getMessage());
 			return new PersistentMetaData();
 		}
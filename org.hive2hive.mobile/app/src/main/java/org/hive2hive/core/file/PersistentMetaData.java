@@ -1,5 +1,7 @@
 package org.hive2hive.core.file;
 
+import org.hive2hive.core.model.versioned.EncryptedNetworkContent;
+
 import java.io.Serializable;
 import java.security.PublicKey;
 import java.util.HashMap;
@@ -17,9 +19,13 @@ public class PersistentMetaData implements Serializable {
 	private static final long serialVersionUID = -1069468683019402537L;
 
 	private Map<String, PublicKey> publicKeyCache;
+	private FileHashCache fileHashCache;
+	private String userProfileLocationKey;
+	private EncryptedNetworkContent userProfileSnapshot;
 
 	public PersistentMetaData() {
 		publicKeyCache = new HashMap<String, PublicKey>(0);
+		fileHashCache = new FileHashCache();
 	}
 
 	public Map<String, PublicKey> getPublicKeyCache() {
@@ -29,4 +35,37 @@ public class PersistentMetaData implements Serializable {
 	public void setPublicKeyCache(Map<String, PublicKey> publicKeyCache) {
 		this.publicKeyCache = publicKeyCache;
 	}
-}
\ No newline at end of file
+
+	public FileHashCache getFileHashCache() {
+		if (fileHashCache == null) {
+			// written by an older version
+			fileHashCache = new FileHashCache();
+		}
+		return fileHashCache;
+	}
+
+	public void setFileHashCache(FileHashCache fileHashCache) {
+		this.fileHashCache = fileHashCache;
+	}
+
+	/**
+	 * @param profileLocationKey the location key of the user profile that is logging in
+	 * @return the encrypted user profile of the last session (including its version key) or <code>null</code> if
+	 *         there is none or it belongs to another user
+	 */
+	public EncryptedNetworkContent getUserProfileSnapshot(String profileLocationKey) {
+		if (userProfileLocationKey == null || !userProfileLocationKey.equals(profileLocationKey)) {
+			return null;
+		}
+		return userProfileSnapshot;
+	}
+
+	/**
+	 * @param profileLocationKey the location key of the user profile, which identifies the owner of the snapshot
+	 * @param userProfileSnapshot the encrypted user profile including its version key
+	 */
+	public void setUserProfileSnapshot(String profileLocationKey, EncryptedNetworkContent userProfileSnapshot) {
+		this.userProfileLocationKey = profileLocationKey;
+		this.userProfileSnapshot = userProfileSnapshot;
+	}
+}
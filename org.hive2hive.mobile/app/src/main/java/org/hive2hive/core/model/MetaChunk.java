@@ -35,8 +35,8 @@ public class MetaChunk implements Serializable {
 	}
 
 	/**
-	 * The hash of the chunk. In a 'small' file, this hash is generated by TomP2P and required here to re-key
-	 * a chunk at sharing. In a 'large' file, this hash is used to verify the data sent from another peer.
+	 * The hash of the plain chunk data. In a 'small' file, this hash is used to verify the chunk read from the
+	 * DHT. In a 'large' file, this hash is used to verify the data sent from another peer.
 	 * 
 	 * @return the hash
 	 */
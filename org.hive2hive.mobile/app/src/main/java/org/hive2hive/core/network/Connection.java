@@ -11,6 +11,7 @@ import net.tomp2p.futures.FutureBootstrap;
 import net.tomp2p.futures.FutureDiscover;
 import net.tomp2p.p2p.Peer;
 import net.tomp2p.p2p.PeerBuilder;
+import net.tomp2p.p2p.RoutingCache;
 import net.tomp2p.peers.DefaultMaintenance;
 import net.tomp2p.peers.Number160;
 import net.tomp2p.peers.PeerMap;
@@ -109,7 +110,8 @@ public class Connection implements IPeerHolder {
 		Bindings bindings = new Bindings().listenAny();
 
 		return new PeerBuilder(Number160.createHash(nodeID)).ports(bindPort).bindings(bindings)
-				.channelClientConfiguration(clientConfig).channelServerConfiguration(serverConfig);
+				.channelClientConfiguration(clientConfig).channelServerConfiguration(serverConfig)
+				.routingCache(new RoutingCache());
 	}
 
 	/**
@@ -5,6 +5,7 @@ import net.tomp2p.dht.FutureGet;
 import net.tomp2p.dht.FuturePut;
 import net.tomp2p.dht.FutureRemove;
 import net.tomp2p.dht.PeerDHT;
+import net.tomp2p.futures.FutureDone;
 import net.tomp2p.peers.Number160;
 import net.tomp2p.peers.Number640;
 import net.tomp2p.storage.Data;
@@ -13,8 +14,10 @@ import org.hive2hive.core.H2HConstants;
 import org.hive2hive.core.model.BaseNetworkContent;
 import org.hive2hive.core.network.IPeerHolder;
 import org.hive2hive.core.network.data.futures.FutureChangeProtectionListener;
+import org.hive2hive.core.network.data.futures.FutureChangeProtectionsListener;
 import org.hive2hive.core.network.data.futures.FutureDigestListener;
 import org.hive2hive.core.network.data.futures.FutureGetListener;
+import org.hive2hive.core.network.data.futures.FutureGetRangeListener;
 import org.hive2hive.core.network.data.futures.FuturePutListener;
 import org.hive2hive.core.network.data.futures.FutureRemoveListener;
 import org.hive2hive.core.network.data.parameters.IParameters;
@@ -26,8 +29,15 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.security.KeyPair;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * @author Seppi
@@ -93,6 +103,50 @@ public class DataManager {
 				.addPostRoutingFilter(slowPeerFilter).keyPair(parameters.getProtectionKeys()).start();
 	}
 
+	/**
+	 * Changes the protection keys of many entries at once. The entries are grouped by the peers responsible for
+	 * them, such that every peer receives a single request.
+	 * 
+	 * @param parameters the entries to change, the protection keys and the new protection keys are taken from the
+	 *            first one and must be the same for all entries
+	 * @return the parameters of the entries whose protection keys have been changed
+	 */
+	public List<IParameters> changeProtectionKeys(List<IParameters> parameters) {
+		if (parameters.isEmpty()) {
+			return new ArrayList<IParameters>(0);
+		}
+
+		IParameters first = parameters.get(0);
+		NavigableMap<Number640, Data> dataMap = new TreeMap<Number640, Data>();
+		Map<Number640, IParameters> keys = new HashMap<Number640, IParameters>(parameters.size());
+		for (IParameters parameter : parameters) {
+			// create dummy object to change the protection key
+			Data data = new Data().protectEntry(first.getNewProtectionKeys());
+			if (parameter.getTTL() != -1) {
+				data.ttlSeconds(parameter.getTTL());
+			}
+			Number640 key = new Number640(parameter.getLKey(), parameter.getDKey(), parameter.getCKey(),
+					parameter.getVersionKey());
+			dataMap.put(key, data.duplicateMeta());
+			keys.put(key, parameter);
+		}
+
+		logger.debug("Change the content protection keys of {} entries.", parameters.size());
+		FutureDone<Set<Number640>> future = getPeer().put(first.getLKey()).dataMap(dataMap)
+				.addPostRoutingFilter(slowPeerFilter).keyPair(first.getProtectionKeys()).startGrouped();
+		FutureChangeProtectionsListener listener = new FutureChangeProtectionsListener();
+		future.addListener(listener);
+
+		List<IParameters> changed = new ArrayList<IParameters>();
+		for (Number640 key : listener.await()) {
+			IParameters parameter = keys.get(key);
+			if (parameter != null) {
+				changed.add(parameter);
+			}
+		}
+		return changed;
+	}
+
 	public H2HPutStatus put(IParameters parameters) {
 		FuturePut putFuture = putUnblocked(parameters);
 		if (putFuture == null) {
@@ -119,6 +173,41 @@ public class DataManager {
 		return listener.await();
 	}
 
+	/**
+	 * Puts the same user profile task into the queues of multiple users. The puts are sent at once and then
+	 * awaited together.
+	 * 
+	 * @param contentKey the content key of the task
+	 * @param contents the (encrypted) task for every user
+	 * @param protectionKey the protection keys of the task
+	 * @return the status of the put for every user
+	 */
+	public Map<String, H2HPutStatus> putUserProfileTasks(Number160 contentKey,
+			Map<String, ? extends BaseNetworkContent> contents, KeyPair protectionKey) {
+		Map<String, FuturePutListener> listeners = new LinkedHashMap<String, FuturePutListener>(contents.size());
+		Map<String, H2HPutStatus> status = new LinkedHashMap<String, H2HPutStatus>(contents.size());
+		for (Map.Entry<String, ? extends BaseNetworkContent> entry : contents.entrySet()) {
+			BaseNetworkContent content = entry.getValue();
+			IParameters parameters = new Parameters().setLocationKey(entry.getKey()).setContentKey(contentKey)
+					.setDomainKey(H2HConstants.USER_PROFILE_TASK_DOMAIN).setNetworkContent(content)
+					.setProtectionKeys(protectionKey).setTTL(content.getTimeToLive());
+			FuturePut putFuture = putUnblocked(parameters);
+			if (putFuture == null) {
+				status.put(entry.getKey(), H2HPutStatus.FAILED);
+				continue;
+			}
+
+			FuturePutListener listener = new FuturePutListener(parameters, this);
+			putFuture.addListener(listener);
+			listeners.put(entry.getKey(), listener);
+		}
+
+		for (Map.Entry<String, FuturePutListener> entry : listeners.entrySet()) {
+			status.put(entry.getKey(), entry.getValue().await());
+		}
+		return status;
+	}
+
 	public FuturePut putUnblocked(IParameters parameters) {
 		logger.debug("Put. {}", parameters.toString());
 		try {
@@ -194,6 +283,34 @@ public class DataManager {
 		return listener.awaitAndGet();
 	}
 
+	/**
+	 * Gets the whole user profile task queue of a user with a single get.
+	 * 
+	 * @param userId the user whose queue is fetched
+	 * @return the (encrypted) tasks ordered by their content keys, or <code>null</code> if the get failed
+	 */
+	public NavigableMap<Number160, BaseNetworkContent> getUserProfileTasks(String userId) {
+		return getUserProfileTasksUnblocked(userId).awaitAndGet();
+	}
+
+	/**
+	 * Starts to get the whole user profile task queue of a user without waiting for the result. The queue
+	 * can be fetched before it is needed, e.g. during the login.
+	 * 
+	 * @param userId the user whose queue is fetched
+	 * @return the listener to wait for the (encrypted) tasks
+	 */
+	public FutureGetRangeListener getUserProfileTasksUnblocked(String userId) {
+		IParameters parameters = new Parameters().setLocationKey(userId).setDomainKey(H2HConstants.USER_PROFILE_TASK_DOMAIN);
+		FutureGet futureGet = getPeer().get(parameters.getLKey())
+				.from(new Number640(parameters.getLKey(), parameters.getDKey(), Number160.ZERO, Number160.ZERO))
+				.to(new Number640(parameters.getLKey(), parameters.getDKey(), Number160.MAX_VALUE, Number160.MAX_VALUE))
+				.ascending().addPostRoutingFilter(slowPeerFilter).start();
+		FutureGetRangeListener listener = new FutureGetRangeListener(parameters, serializer);
+		futureGet.addListener(listener);
+		return listener;
+	}
+
 	public FutureGet getUnblocked(IParameters parameters) {
 		logger.debug("Get. {}", parameters.toString());
 		return getPeer().get(parameters.getLKey())
@@ -237,6 +354,33 @@ public class DataManager {
 		return listener.await();
 	}
 
+	/**
+	 * Removes multiple user profile tasks of a user. Each task is protected with its own key, thus the removes
+	 * are sent at once and then awaited together.
+	 * 
+	 * @param userId the user whose tasks are removed
+	 * @param protectionKeys the content keys of the tasks to remove and their protection keys
+	 * @return true if all tasks have been removed
+	 */
+	public boolean removeUserProfileTasks(String userId, Map<Number160, KeyPair> protectionKeys) {
+		List<FutureRemoveListener> listeners = new ArrayList<FutureRemoveListener>(protectionKeys.size());
+		for (Map.Entry<Number160, KeyPair> entry : protectionKeys.entrySet()) {
+			IParameters parameters = new Parameters().setLocationKey(userId)
+					.setDomainKey(H2HConstants.USER_PROFILE_TASK_DOMAIN).setContentKey(entry.getKey())
+					.setProtectionKeys(entry.getValue());
+			FutureRemove futureRemove = removeUnblocked(parameters);
+			FutureRemoveListener listener = new FutureRemoveListener(parameters, true, this);
+			futureRemove.addListener(listener);
+			listeners.add(listener);
+		}
+
+		boolean success = true;
+		for (FutureRemoveListener listener : listeners) {
+			success &= listener.await();
+		}
+		return success;
+	}
+
 	public FutureRemove removeUnblocked(IParameters parameters) {
 		logger.debug("Remove. {}", parameters.toString());
 		return getPeer().remove(parameters.getLKey())
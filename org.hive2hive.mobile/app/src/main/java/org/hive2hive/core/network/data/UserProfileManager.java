@@ -5,6 +5,7 @@ import org.hive2hive.core.exceptions.AbortModifyException;
 import org.hive2hive.core.exceptions.GetFailedException;
 import org.hive2hive.core.exceptions.PutFailedException;
 import org.hive2hive.core.exceptions.VersionForkAfterPutException;
+import org.hive2hive.core.model.versioned.EncryptedNetworkContent;
 import org.hive2hive.core.model.versioned.UserProfile;
 import org.hive2hive.core.network.data.vdht.AESEncryptedVersionManager;
 import org.hive2hive.core.security.PasswordUtil;
@@ -48,11 +49,18 @@ public class UserProfileManager {
 	private Thread workerThread;
 
 	public UserProfileManager(DataManager dataManager, UserCredentials credentials) {
-		this.credentials = credentials;
+		this(dataManager, credentials, PasswordUtil.generateAESKeyFromPassword(credentials.getPassword(),
+				credentials.getPin(), H2HConstants.KEYLENGTH_USER_PROFILE));
+	}
 
-		SecretKey passwordKey = PasswordUtil.generateAESKeyFromPassword(credentials.getPassword(), credentials.getPin(),
-				H2HConstants.KEYLENGTH_USER_PROFILE);
-		this.versionManager = new AESEncryptedVersionManager<UserProfile>(dataManager, passwordKey,
+	/**
+	 * @param dataManager the data manager
+	 * @param credentials the credentials of the user
+	 * @param encryptionKey the user profile key, already derived from the credentials with {@link PasswordUtil}
+	 */
+	public UserProfileManager(DataManager dataManager, UserCredentials credentials, SecretKey encryptionKey) {
+		this.credentials = credentials;
+		this.versionManager = new AESEncryptedVersionManager<UserProfile>(dataManager, encryptionKey,
 				credentials.getProfileLocationKey(), H2HConstants.USER_PROFILE);
 		startQueueWorker();
 	}
@@ -90,6 +98,24 @@ public class UserProfileManager {
 		return credentials;
 	}
 
+	/**
+	 * Restores the encrypted user profile of an earlier session. As long as nobody modified the profile in the
+	 * meantime, the first read only needs to fetch the digest.
+	 * 
+	 * @param snapshot the encrypted user profile of this user with its version key (can be <code>null</code>)
+	 */
+	public void restoreSnapshot(EncryptedNetworkContent snapshot) {
+		versionManager.restoreEncrypted(snapshot);
+	}
+
+	/**
+	 * @return the latest encrypted user profile, which can be persisted and restored in a later session.
+	 *         <code>null</code> if the profile has not been fetched yet.
+	 */
+	public EncryptedNetworkContent getSnapshot() {
+		return versionManager.getLatestEncrypted();
+	}
+
 	/**
 	 * Gets the user profile (read-only). The call blocks until the most recent profile is here.
 	 * 
@@ -0,0 +1,61 @@
+package org.hive2hive.core.network.data.futures;
+
+import net.tomp2p.futures.BaseFutureAdapter;
+import net.tomp2p.futures.FutureDone;
+import net.tomp2p.peers.Number640;
+
+import org.hive2hive.core.H2HConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simple blocking listener to change the protection keys of many entries at once. Like the
+ * {@link FutureChangeProtectionListener}, this listener does not re-try at failure. It returns the keys of
+ * the entries that have been changed, the caller decides what to do with the others.
+ */
+public class FutureChangeProtectionsListener extends BaseFutureAdapter<FutureDone<Set<Number640>>> {
+
+	private static final Logger logger = LoggerFactory.getLogger(FutureChangeProtectionsListener.class);
+
+	private final CountDownLatch latch;
+
+	private Set<Number640> changed = Collections.emptySet();
+
+	public FutureChangeProtectionsListener() {
+		this.latch = new CountDownLatch(1);
+	}
+
+	/**
+	 * Wait (blocking) until the change of the protection keys is done
+	 * 
+	 * @return the keys of the entries whose protection keys have been changed
+	 */
+	public Set<Number640> await() {
+		try {
+			if (!latch.await(H2HConstants.AWAIT_NETWORK_OPERATION_MS * H2HConstants.PUT_RETRIES, TimeUnit.MILLISECONDS)) {
+				logger.warn("Timeout while changing the protection keys.");
+			}
+		} catch (InterruptedException e) {
+			logger.error("Could not wait until the protection key change has finished. Reason = '{}'.", e.getMessage());
+		}
+
+		return changed;
+	}
+
+	@Override
+	public void operationComplete(FutureDone<Set<Number640>> future) throws Exception {
+		if (future.isFailed()) {
+			logger.warn("Change was not successful. Reason = '{}'.", future.failedReason());
+		} else {
+			logger.trace("Changed the protection keys of {} entries.", future.object().size());
+			changed = future.object();
+		}
+		latch.countDown();
+	}
+
+}
@@ -1,5 +1,6 @@
 package org.hive2hive.core.network.data.futures;
 
+import io.netty.buffer.ByteBuf;
 import net.tomp2p.dht.FutureGet;
 import net.tomp2p.futures.BaseFutureListener;
 
@@ -57,8 +58,9 @@ public class FutureGetListener implements BaseFutureListener<FutureGet> {
 			logger.debug("Got null. '{}'", parameters.toString());
 		} else {
 			// set the result
-			byte[] buffer = future.data().toBytes();
-			if (buffer != null && buffer.length > 0) {
+			// deserialize from the received buffers without copying them first
+			ByteBuf buffer = future.data().buffer();
+			if (buffer.isReadable()) {
 				result = (BaseNetworkContent) serializer.deserialize(buffer);
 				logger.debug("Got result = '{}'. '{}'", result.getClass().getSimpleName(), parameters.toString());
 			} else {
@@ -0,0 +1,92 @@
+package org.hive2hive.core.network.data.futures;
+
+import io.netty.buffer.ByteBuf;
+import net.tomp2p.dht.FutureGet;
+import net.tomp2p.futures.BaseFutureListener;
+import net.tomp2p.peers.Number160;
+import net.tomp2p.peers.Number640;
+import net.tomp2p.storage.Data;
+
+import org.hive2hive.core.H2HConstants;
+import org.hive2hive.core.model.BaseNetworkContent;
+import org.hive2hive.core.network.data.parameters.IParameters;
+import org.hive2hive.core.serializer.IH2HSerialize;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A future listener for a get of a range of content keys. It can be blocked until the result is here. Then, it
+ * returns the contents ordered by their content keys or <code>null</code> if the get fails.
+ */
+public class FutureGetRangeListener implements BaseFutureListener<FutureGet> {
+
+	private static final Logger logger = LoggerFactory.getLogger(FutureGetRangeListener.class);
+
+	private final IParameters parameters;
+	private final IH2HSerialize serializer;
+	private final CountDownLatch latch;
+
+	// the result when it came back
+	private NavigableMap<Number160, BaseNetworkContent> result = null;
+
+	public FutureGetRangeListener(IParameters parameters, IH2HSerialize serializer) {
+		this.parameters = parameters;
+		this.serializer = serializer;
+		this.latch = new CountDownLatch(1);
+	}
+
+	/**
+	 * Waits (blocking) until the operation is done
+	 *
+	 * @return returns the contents from the DHT, mapped by their content keys
+	 */
+	public NavigableMap<Number160, BaseNetworkContent> awaitAndGet() {
+		try {
+			latch.await(H2HConstants.AWAIT_NETWORK_OPERATION_MS, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			logger.error("Latch to wait for the get was interrupted.");
+		}
+		return result;
+	}
+
+	@Override
+	public void operationComplete(FutureGet future) throws Exception {
+		if (future == null || future.isFailed()) {
+			result = null;
+			logger.debug("Got null. '{}'", parameters.toString());
+		} else {
+			NavigableMap<Number160, BaseNetworkContent> contents = new TreeMap<Number160, BaseNetworkContent>();
+			for (Map.Entry<Number640, Data> entry : future.dataMap().entrySet()) {
+				ByteBuf buffer = entry.getValue().buffer();
+				if (!buffer.isReadable()) {
+					continue;
+				}
+				try {
+					contents.put(entry.getKey().contentKey(), (BaseNetworkContent) serializer.deserialize(buffer));
+				} catch (IOException | ClassNotFoundException e) {
+					// skip the broken content, the others can still be used
+					logger.warn("Cannot deserialize content '{}'. '{}'", entry.getKey().contentKey(), parameters.toString(),
+							e);
+				}
+			}
+			result = contents;
+			logger.debug("Got {} results. '{}'", contents.size(), parameters.toString());
+		}
+		// release the lock
+		latch.countDown();
+	}
+
+	@Override
+	public void exceptionCaught(Throwable t) throws Exception {
+		logger.error("Exception caught during get. {} reason = '{}'", parameters.toString(), t.getMessage());
+		operationComplete(null);
+	}
+
+}
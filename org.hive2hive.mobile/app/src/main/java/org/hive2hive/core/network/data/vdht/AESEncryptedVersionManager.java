@@ -38,6 +38,8 @@ public class AESEncryptedVersionManager<T extends BaseVersionedNetworkContent> e
 
 	// additional cache for encrypted data
 	private Cache<EncryptedNetworkContent> encryptedContentCache = new Cache<EncryptedNetworkContent>();
+	// version of an earlier session, only used by the first get if the digest confirms it
+	private volatile EncryptedNetworkContent snapshot;
 
 	public AESEncryptedVersionManager(DataManager dataManager, SecretKey encryptionKey, String locationKey, String contentKey) {
 		this(dataManager, dataManager.getEncryption(), encryptionKey, locationKey, contentKey);
@@ -59,11 +61,27 @@ public class AESEncryptedVersionManager<T extends BaseVersionedNetworkContent> e
 	public T get() throws GetFailedException {
 		// load the current digest list from network
 		NavigableMap<Number640, Collection<Number160>> digest = dataManager.getDigestLatest(parameters);
+		// the snapshot is either confirmed now or outdated
+		final EncryptedNetworkContent restored = snapshot;
+		snapshot = null;
 		// compare the latest version key with the cached one
 		if (!contentCache.isEmpty() && digest != null && digest.lastEntry() != null
 				&& digest.lastEntry().getKey().versionKey().equals(contentCache.lastKey())) {
 			logger.debug("No need for getting from network. Returning cached version. {}", parameters.toString());
 			return contentCache.lastEntry().getValue();
+		} else if (restored != null && digest != null && digest.lastEntry() != null
+				&& digest.lastEntry().getKey().versionKey().equals(restored.getVersionKey())) {
+			logger.debug("No need for getting from network. Decrypting restored version. {}", parameters.toString());
+			try {
+				T decrypted = decrypt(restored);
+				// it is the latest version, as if it had been fetched
+				encryptedContentCache.put(restored.getVersionKey(), restored);
+				return decrypted;
+			} catch (GeneralSecurityException | IOException | ClassNotFoundException e) {
+				logger.warn("Cannot decrypt the restored version. Getting it from the network. reason = '{}'",
+						e.getMessage());
+				return get();
+			}
 		} else {
 			int delayCounter = 0;
 			int delayWaitTime = random.nextInt(1000) + 1000;
@@ -154,16 +172,7 @@ public class AESEncryptedVersionManager<T extends BaseVersionedNetworkContent> e
 						throw new GetFailedException("No version found. Got null.");
 					} else {
 						try {
-							logger.trace("Decrypting with 256-bit AES key.");
-							EncryptedNetworkContent encrypted = encryptedContentCache.lastEntry().getValue();
-							T decrypted = (T) encryption.decryptAES((EncryptedNetworkContent) encrypted, encryptionKey);
-							decrypted.setVersionKey(encrypted.getVersionKey());
-							decrypted.setBasedOnKey(encrypted.getBasedOnKey());
-
-							// cache user profile
-							contentCache.put(encrypted.getVersionKey(), decrypted);
-
-							return decrypted;
+							return decrypt(encryptedContentCache.lastEntry().getValue());
 						} catch (GeneralSecurityException e) {
 							logger.error("Cannot decrypt the version.");
 							throw new GetFailedException("Cannot decrypt the version.");
@@ -178,6 +187,43 @@ public class AESEncryptedVersionManager<T extends BaseVersionedNetworkContent> e
 		}
 	}
 
+	@SuppressWarnings("unchecked")
+	private T decrypt(EncryptedNetworkContent encrypted) throws GeneralSecurityException, IOException,
+			ClassNotFoundException {
+		logger.trace("Decrypting with 256-bit AES key.");
+		T decrypted = (T) encryption.decryptAES(encrypted, encryptionKey);
+		decrypted.setVersionKey(encrypted.getVersionKey());
+		decrypted.setBasedOnKey(encrypted.getBasedOnKey());
+
+		// cache user profile
+		contentCache.put(encrypted.getVersionKey(), decrypted);
+		return decrypted;
+	}
+
+	/**
+	 * @return the latest encrypted version that has been fetched or put, <code>null</code> if there is none
+	 */
+	public EncryptedNetworkContent getLatestEncrypted() {
+		if (encryptedContentCache.isEmpty()) {
+			return null;
+		}
+		return encryptedContentCache.lastEntry().getValue();
+	}
+
+	/**
+	 * Restores a previously fetched encrypted version (e.g. persisted by an earlier session). It is kept apart
+	 * from the caches: if the digest confirms it as the latest version, the next {@link #get()} only decrypts it
+	 * instead of fetching it, otherwise it is dropped.
+	 * 
+	 * @param encrypted the encrypted version including its version key and its based on key
+	 */
+	public void restoreEncrypted(EncryptedNetworkContent encrypted) {
+		if (encrypted == null || Number160.ZERO.equals(encrypted.getVersionKey())) {
+			return;
+		}
+		snapshot = encrypted;
+	}
+
 	/**
 	 * Encrypts the modified user profile and puts it (blocking).
 	 * 
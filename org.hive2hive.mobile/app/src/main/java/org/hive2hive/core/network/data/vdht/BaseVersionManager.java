@@ -1,5 +1,6 @@
 package org.hive2hive.core.network.data.vdht;
 
+import io.netty.buffer.ByteBuf;
 import net.tomp2p.peers.Number160;
 import net.tomp2p.peers.Number640;
 import net.tomp2p.peers.PeerAddress;
@@ -81,8 +82,9 @@ public abstract class BaseVersionManager<T extends BaseVersionedNetworkContent>
 			} else {
 				for (Number640 key : tmp.keySet()) {
 					try {
-						byte[] buffer = tmp.get(key).toBytes();
-						if (buffer != null && buffer.length > 0) {
+						// deserialize from the received buffers without copying them first
+						ByteBuf buffer = tmp.get(key).buffer();
+						if (buffer.isReadable()) {
 							T object = (T) dataManager.getSerializer().deserialize(buffer);
 							dataMap.put(key.versionKey(), object);
 						} else {
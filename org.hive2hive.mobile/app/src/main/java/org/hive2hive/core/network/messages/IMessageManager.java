@@ -1,6 +1,7 @@
 package org.hive2hive.core.network.messages;
 
 import net.tomp2p.futures.FutureDirect;
+import net.tomp2p.futures.FutureDone;
 import net.tomp2p.futures.FutureResponse;
 
 import org.hive2hive.core.network.messages.direct.BaseDirectMessage;
@@ -43,4 +44,18 @@ public interface IMessageManager {
 	 */
 	boolean sendDirect(BaseDirectMessage message, PublicKey targetPublicKey);
 
+	/**
+	 * Send a message directly to a node like {@link #sendDirect(BaseDirectMessage, PublicKey)}, but without
+	 * blocking. Direct re-sends are done in the background with the same encrypted message. The routed fall
+	 * back is not used because it blocks.
+	 * 
+	 * @param message
+	 *            a direct message to send
+	 * @param targetPublicKey
+	 *            the public key of the receivers node to encrypt the message
+	 * @return a future which is done with <code>true</code> if the message has been delivered or with
+	 *         <code>false</code> if it could not be delivered
+	 */
+	FutureDone<Boolean> sendDirectUnblocked(BaseDirectMessage message, PublicKey targetPublicKey);
+
 }
@@ -1,7 +1,9 @@
 package org.hive2hive.core.network.messages;
 
 import net.tomp2p.dht.FutureSend;
+import net.tomp2p.futures.BaseFutureAdapter;
 import net.tomp2p.futures.FutureDirect;
+import net.tomp2p.futures.FutureDone;
 import net.tomp2p.p2p.RequestP2PConfiguration;
 import net.tomp2p.peers.Number160;
 
@@ -122,6 +124,55 @@ public final class MessageManager implements IMessageManager {
 		return success;
 	}
 
+	@Override
+	public FutureDone<Boolean> sendDirectUnblocked(BaseDirectMessage message, PublicKey targetPublicKey) {
+		if (message.getTargetAddress() == null) {
+			throw new IllegalArgumentException("Target address cannot be null.");
+		}
+		if (targetPublicKey == null) {
+			throw new IllegalArgumentException("Target public key cannot be null.");
+		}
+
+		// prepare message
+		prepareMessage(message);
+
+		// encrypt the message with the given public key, it is reused for re-sends
+		FutureDone<Boolean> futureDone = new FutureDone<Boolean>();
+		HybridEncryptedContent encryptedMessage = signAndEncryptMessage(message, targetPublicKey);
+		if (encryptedMessage == null) {
+			return futureDone.done(false);
+		}
+
+		sendDirectUnblocked(message, encryptedMessage, futureDone);
+		return futureDone;
+	}
+
+	private void sendDirectUnblocked(final BaseDirectMessage message, final HybridEncryptedContent encryptedMessage,
+			final FutureDone<Boolean> futureDone) {
+		message.increaseDirectSendingCounter();
+		FutureDirect futureDirect = networkManager.getConnection().getPeer().peer().sendDirect(message.getTargetAddress())
+				.object(encryptedMessage).start();
+		futureDirect.addListener(new BaseFutureAdapter<FutureDirect>() {
+			@Override
+			public void operationComplete(FutureDirect future) throws Exception {
+				AcceptanceReply reply = FutureDirectListener.extractAcceptanceReply(future);
+				if (reply == AcceptanceReply.OK || reply == AcceptanceReply.OK_PROVISIONAL) {
+					logger.debug("Message (direct) sent. Message ID = '{}', Target address = '{}', Sender address = '{}'.",
+							message.getMessageID(), message.getTargetAddress(), message.getSenderAddress());
+					futureDone.done(true);
+				} else if (message.handleSendingFailure(reply)) {
+					// re-send directly the message
+					sendDirectUnblocked(message, encryptedMessage, futureDone);
+				} else {
+					logger.error(
+							"Message (direct) could not be sent. Message ID = '{}', Target address = '{}', Sender address = '{}'.",
+							message.getMessageID(), message.getTargetAddress(), message.getSenderAddress());
+					futureDone.done(false);
+				}
+			}
+		});
+	}
+
 	/**
 	 * Gets and removes a message callback handler
 	 * 
@@ -144,7 +144,7 @@ public class FutureDirectListener extends BaseFutureAdapter<FutureDirect> {
 	 *            a future
 	 * @return a reply showing the result of sending
 	 */
-	private AcceptanceReply extractAcceptanceReply(FutureDirect future) {
+	public static AcceptanceReply extractAcceptanceReply(FutureDirect future) {
 		String errorReason = "";
 		if (future.isSuccess()) {
 			Object responseObject;
@@ -3,14 +3,20 @@ package org.hive2hive.core.network.userprofiletask;
 import net.tomp2p.peers.Number160;
 
 import org.hive2hive.core.H2HConstants;
+import org.hive2hive.core.H2HSession;
 import org.hive2hive.core.TimeToLiveStore;
+import org.hive2hive.core.exceptions.AbortModifyException;
+import org.hive2hive.core.exceptions.Hive2HiveException;
 import org.hive2hive.core.exceptions.NoPeerConnectionException;
 import org.hive2hive.core.exceptions.NoSessionException;
 import org.hive2hive.core.model.BaseNetworkContent;
 import org.hive2hive.core.network.NetworkManager;
 import org.hive2hive.core.network.data.DataManager;
+import org.hive2hive.core.network.data.IUserProfileModification;
+import org.hive2hive.core.network.data.UserProfileManager;
 import org.hive2hive.core.processes.ProcessFactory;
 import org.hive2hive.core.processes.notify.BaseNotificationMessageFactory;
+import org.hive2hive.core.processes.userprofiletask.HandleUserProfileTasksStep;
 import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
 import org.hive2hive.processframework.exceptions.ProcessExecutionException;
 import org.hive2hive.processframework.interfaces.IProcessComponent;
@@ -38,9 +44,9 @@ import java.util.UUID;
  * creating the object). This allows us to build an implicit queue on the proxy node. The tasks are sorted
  * according their content keys respectively time stamps. The method
  * {@link DataManager#getUserProfileTask(String)} allows to get the oldest {@link UserProfileTask} object of
- * an user from the queue. The task can then be handled in a separate
- * thread. After handling please don't forget to remove the handled task (see
- * {@link DataManager#removeUserProfileTask(String, Number160, KeyPair)}).
+ * an user from the queue, {@link DataManager#getUserProfileTasks(String)} gets the whole queue at once. The
+ * task can then be handled in a separate thread. After handling please don't forget to remove the handled task
+ * (see {@link DataManager#removeUserProfileTask(String, Number160, KeyPair)}).
  * 
  * @author Christian, Seppi, Nico
  */
@@ -70,7 +76,48 @@ public abstract class UserProfileTask extends BaseNetworkContent {
 	/**
 	 * Starts the execution of the user profile task
 	 */
-	public abstract void start();
+	public void start() {
+		if (networkManager == null) {
+			logger.error("NetworkManager is not set.");
+			return;
+		}
+
+		H2HSession session;
+		try {
+			session = networkManager.getSession();
+		} catch (NoSessionException e) {
+			logger.error("No user seems to be logged in.", e);
+			return;
+		}
+
+		UserProfileManager profileManager = session.getProfileManager();
+		try {
+			profileManager.modifyUserProfile(getId(), createModification(session));
+		} catch (Hive2HiveException e) {
+			logger.error("Couldn't modify the user profile.", e);
+			return;
+		}
+
+		onModified(session);
+	}
+
+	/**
+	 * Creates the modification of the user profile this task makes. The modification may be applied together
+	 * with the ones of other tasks (see {@link HandleUserProfileTasksStep}), thus it has to throw the
+	 * {@link AbortModifyException} before it changes anything in the user profile.
+	 * 
+	 * @param session the session of the logged in user
+	 * @return the modification
+	 */
+	public abstract IUserProfileModification createModification(H2HSession session);
+
+	/**
+	 * Called after the modification of this task has been put. Notifies the other clients and triggers the
+	 * events.
+	 * 
+	 * @param session the session of the logged in user
+	 */
+	public abstract void onModified(H2HSession session);
 
 	public String getId() {
 		return id;
@@ -7,7 +7,8 @@ import org.hive2hive.core.exceptions.NoSessionException;
 import org.hive2hive.core.model.UserPermission;
 import org.hive2hive.core.network.NetworkManager;
 import org.hive2hive.core.network.data.DataManager;
-import org.hive2hive.core.processes.common.userprofiletask.GetUserProfileTaskStep;
+import org.hive2hive.core.network.data.futures.FutureGetRangeListener;
+import org.hive2hive.core.processes.common.userprofiletask.GetUserProfileTasksStep;
 import org.hive2hive.core.processes.context.AddFileProcessContext;
 import org.hive2hive.core.processes.context.DeleteFileProcessContext;
 import org.hive2hive.core.processes.context.DownloadFileContext;
@@ -31,9 +32,11 @@ import org.hive2hive.core.processes.files.add.AddIndexToUserProfileStep;
 import org.hive2hive.core.processes.files.add.CreateFileKeysStep;
 import org.hive2hive.core.processes.files.add.CreateMetaFileStep;
 import org.hive2hive.core.processes.files.add.PrepareAddNotificationStep;
+import org.hive2hive.core.processes.files.add.PutChunksFromStreamStep;
 import org.hive2hive.core.processes.files.delete.DeleteFromUserProfileStep;
 import org.hive2hive.core.processes.files.delete.PrepareDeleteNotificationStep;
 import org.hive2hive.core.processes.files.download.FindInUserProfileStep;
+import org.hive2hive.core.processes.files.download.OpenDownloadStreamStep;
 import org.hive2hive.core.processes.files.list.FileNode;
 import org.hive2hive.core.processes.files.list.GetFileListStep;
 import org.hive2hive.core.processes.files.move.RelinkUserProfileStep;
@@ -45,9 +48,11 @@ import org.hive2hive.core.processes.files.update.PrepareUpdateNotificationStep;
 import org.hive2hive.core.processes.files.update.UpdateMD5inUserProfileStep;
 import org.hive2hive.core.processes.login.ContactOtherClientsStep;
 import org.hive2hive.core.processes.login.GetLocationsStep;
+import org.hive2hive.core.processes.login.PrefetchLoginDataStep;
 import org.hive2hive.core.processes.login.SessionCreationStep;
 import org.hive2hive.core.processes.login.SessionParameters;
 import org.hive2hive.core.processes.logout.DeleteSessionStep;
+import org.hive2hive.core.processes.logout.DestroyProfileKeyStep;
 import org.hive2hive.core.processes.logout.RemoveOwnLocationsStep;
 import org.hive2hive.core.processes.logout.StopDownloadsStep;
 import org.hive2hive.core.processes.logout.StopUserQueueWorkerStep;
@@ -65,13 +70,14 @@ import org.hive2hive.core.processes.register.UserProfileCreationStep;
 import org.hive2hive.core.processes.share.PrepareNotificationsStep;
 import org.hive2hive.core.processes.share.UpdateUserProfileStep;
 import org.hive2hive.core.processes.share.VerifyFriendIdStep;
-import org.hive2hive.core.processes.userprofiletask.HandleUserProfileTaskStep;
+import org.hive2hive.core.processes.userprofiletask.HandleUserProfileTasksStep;
 import org.hive2hive.core.security.UserCredentials;
+import org.hive2hive.processframework.composites.ParallelProcess;
 import org.hive2hive.processframework.composites.SyncProcess;
-import org.hive2hive.processframework.decorators.AsyncComponent;
 import org.hive2hive.processframework.interfaces.IProcessComponent;
 
 import java.io.File;
+import java.io.InputStream;
 import java.security.PublicKey;
 import java.util.Set;
 
@@ -116,9 +122,13 @@ public final class ProcessFactory {
 
 		process.add(new CheckIsUserRegisteredStep(context, dataManager));
 		process.add(new UserProfileCreationStep(context, networkManager.getEncryption()));
-		process.add(new AsyncComponent<>(new PutUserProfileStep(context, dataManager)));
-		process.add(new AsyncComponent<>(new org.hive2hive.core.processes.register.PutLocationsStep(context, dataManager)));
-		process.add(new AsyncComponent<>(new PutPublicKeyStep(context, dataManager)));
+
+		// the puts are independent of each other
+		ParallelProcess putProcess = new ParallelProcess();
+		putProcess.add(new PutUserProfileStep(context, dataManager));
+		putProcess.add(new org.hive2hive.core.processes.register.PutLocationsStep(context, dataManager));
+		putProcess.add(new PutPublicKeyStep(context, dataManager));
+		process.add(putProcess);
 
 		process.setName("Register Process");
 		return process;
@@ -141,6 +151,8 @@ public final class ProcessFactory {
 		// process composition
 		SyncProcess process = new SyncProcess();
 
+		// the profile, the locations and the task queue only depend on the credentials, get them at once
+		process.add(new PrefetchLoginDataStep(context, networkManager));
 		process.add(new SessionCreationStep(context, networkManager));
 		process.add(new GetLocationsStep(context, networkManager));
 		process.add(new ContactOtherClientsStep(context, networkManager));
@@ -151,19 +163,53 @@ public final class ProcessFactory {
 	}
 
 	public IProcessComponent<Void> createUserProfileTaskProcess(NetworkManager networkManager) {
+		return createUserProfileTaskProcess(networkManager, null);
+	}
+
+	/**
+	 * Creates a process that handles the user profile task queue.
+	 * 
+	 * @param networkManager The network manager / node on which the tasks should be handled.
+	 * @param prefetchedTasks The get of the queue if it has already been started, <code>null</code> to get it
+	 *            within the process.
+	 * @return A user profile task process.
+	 */
+	public IProcessComponent<Void> createUserProfileTaskProcess(NetworkManager networkManager,
+			FutureGetRangeListener prefetchedTasks) {
 		UserProfileTaskContext context = new UserProfileTaskContext();
 
 		// process composition
 		SyncProcess process = new SyncProcess();
 
-		process.add(new GetUserProfileTaskStep(context, networkManager));
+		// the whole queue is fetched and handled at once
+		process.add(new GetUserProfileTasksStep(context, networkManager, prefetchedTasks));
 		// Note: this step will add the next steps since it depends on the get result
-		process.add(new HandleUserProfileTaskStep(context, networkManager));
+		process.add(new HandleUserProfileTasksStep(context, networkManager));
 
 		process.setName("User Profile Task Process");
 		return process;
 	}
 
+	/**
+	 * Creates and returns a process which writes the meta data of the session without logging out.
+	 * 
+	 * @param networkManager The network manager / node of the session.
+	 * @return the process component
+	 * @throws NoPeerConnectionException If the peer is not connected to the network.
+	 * @throws NoSessionException If no user has logged in.
+	 */
+	public IProcessComponent<Void> createPersistProcess(NetworkManager networkManager) throws NoPeerConnectionException,
+			NoSessionException {
+		H2HSession session = networkManager.getSession();
+
+		// only one process step
+		IProcessComponent<Void> step = new WritePersistentStep(session.getFileAgent(), session.getKeyManager(),
+				session.getFileHashCache(), session.getProfileManager(), networkManager.getDataManager().getSerializer());
+
+		step.setName("Persist Process");
+		return step;
+	}
+
 	/**
 	 * Creates and returns a logout process.
 	 * 
@@ -183,14 +229,53 @@ public final class ProcessFactory {
 		process.add(new RemoveOwnLocationsStep(networkManager));
 		process.add(new StopDownloadsStep(session.getDownloadManager()));
 		process.add(new StopUserQueueWorkerStep(session.getProfileManager()));
-		process.add(new WritePersistentStep(session.getFileAgent(), session.getKeyManager(), networkManager.getDataManager()
-				.getSerializer()));
+		process.add(new WritePersistentStep(session.getFileAgent(), session.getKeyManager(), session.getFileHashCache(),
+				session.getProfileManager(), networkManager.getDataManager().getSerializer()));
 		process.add(new DeleteSessionStep(networkManager));
+		process.add(new DestroyProfileKeyStep(session.getProfileEncryptionKey()));
 
 		process.setName("Logout Process");
 		return process;
 	}
 
+	/**
+	 * Process to create a new file whose content is read from a stream. The stream is read once, the chunks
+	 * are put while reading. The file does not need to exist on the disk.
+	 * 
+	 * @param file the file in the Hive2Hive directory
+	 * @param content the content of the file, which is read to the end but not closed
+	 * @param length the number of bytes in the stream
+	 * @param networkManager
+	 * @param fileConfiguration
+	 * @return the process component
+	 * @throws NoPeerConnectionException If the peer is not connected to the network.
+	 * @throws NoSessionException If no user has logged in.
+	 */
+	public IProcessComponent<Void> createAddFileProcess(File file, InputStream content, long length,
+			NetworkManager networkManager, IFileConfiguration fileConfiguration) throws NoPeerConnectionException,
+			NoSessionException {
+		H2HSession session = networkManager.getSession();
+		DataManager dataManager = networkManager.getDataManager();
+		AddFileProcessContext context = new AddFileProcessContext(file, content, length, session, fileConfiguration,
+				networkManager.getEncryption());
+
+		// process composition
+		SyncProcess process = new SyncProcess();
+
+		process.add(new CheckWriteAccessStep(context, session.getProfileManager()));
+		process.add(new CreateFileKeysStep(context));
+		// single pass over the content, the meta file is created at the end of the stream
+		process.add(new PutChunksFromStreamStep(context, dataManager));
+		process.add(new CreateMetaFileStep(context));
+		process.add(new PutMetaFileStep(context, dataManager));
+		process.add(new AddIndexToUserProfileStep(context, session.getProfileManager()));
+		process.add(new PrepareAddNotificationStep(context));
+		process.add(createNotificationProcess(context, networkManager));
+
+		process.setName("New File Process");
+		return process;
+	}
+
 	/**
 	 * Process to create a new file. Note that this is only applicable for a single file, not a whole file
 	 * tree.
@@ -308,6 +393,28 @@ public final class ProcessFactory {
 		return process;
 	}
 
+	/**
+	 * Process which opens a stream over the newest version of a small file. The chunks are downloaded while
+	 * the stream is read.
+	 * 
+	 * @param file the file in the Hive2Hive directory
+	 * @param networkManager The network manager / node on which the download should be executed.
+	 * @return the process component
+	 * @throws NoPeerConnectionException If the peer is not connected to the network.
+	 * @throws NoSessionException If no user has logged in.
+	 */
+	public IProcessComponent<InputStream> createDownloadStreamProcess(File file, NetworkManager networkManager)
+			throws NoPeerConnectionException, NoSessionException {
+		H2HSession session = networkManager.getSession();
+
+		// only one process step
+		IProcessComponent<InputStream> step = new OpenDownloadStreamStep(file, session.getRootFile(),
+				session.getProfileManager(), networkManager.getDataManager());
+
+		step.setName("Download Stream Process");
+		return step;
+	}
+
 	/**
 	 * Deletes the specified file. Note that this is only valid for a single file or an empty folder
 	 * (non-recursive)
@@ -348,7 +455,8 @@ public final class ProcessFactory {
 		SyncProcess process = new SyncProcess();
 
 		process.add(new org.hive2hive.core.processes.files.move.CheckWriteAccessStep(context, session.getProfileManager()));
-		process.add(new RelinkUserProfileStep(context, session.getProfileManager(), networkManager.getDataManager()));
+		process.add(new RelinkUserProfileStep(context, session.getProfileManager(), networkManager.getDataManager(),
+				session.getFileAgent()));
 		process.add(createNotificationProcess(context.getMoveNotificationContext(), networkManager));
 		process.add(createNotificationProcess(context.getDeleteNotificationContext(), networkManager));
 		process.add(createNotificationProcess(context.getAddNotificationContext(), networkManager));
@@ -383,7 +491,8 @@ public final class ProcessFactory {
 
 		process.add(new VerifyFriendIdStep(networkManager.getSession().getKeyManager(), permission.getUserId()));
 		process.add(new UpdateUserProfileStep(context, networkManager.getSession(), networkManager.getEncryption()));
-		process.add(new InitializeMetaUpdateStep(context, networkManager.getDataManager()));
+		process.add(new InitializeMetaUpdateStep(context, networkManager.getDataManager(), networkManager.getSession()
+				.getFileAgent()));
 		process.add(new PrepareNotificationsStep(context, networkManager.getUserId(), networkManager.getEncryption()));
 		process.add(createNotificationProcess(context, networkManager));
 
@@ -413,7 +522,8 @@ public final class ProcessFactory {
 		H2HSession session = networkManager.getSession();
 
 		// only one process step
-		IProcessComponent<FileNode> step = new GetFileListStep(session.getProfileManager(), session.getRootFile());
+		IProcessComponent<FileNode> step = new GetFileListStep(session.getProfileManager(), session.getRootFile(),
+				session.getFileListCache());
 
 		step.setName("File List Process");
 		return step;
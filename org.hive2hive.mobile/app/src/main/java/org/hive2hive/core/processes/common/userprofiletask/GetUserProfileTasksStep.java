@@ -0,0 +1,141 @@
+package org.hive2hive.core.processes.common.userprofiletask;
+
+import net.tomp2p.peers.Number160;
+
+import org.hive2hive.core.exceptions.NoPeerConnectionException;
+import org.hive2hive.core.exceptions.NoSessionException;
+import org.hive2hive.core.model.BaseNetworkContent;
+import org.hive2hive.core.model.versioned.HybridEncryptedContent;
+import org.hive2hive.core.network.NetworkManager;
+import org.hive2hive.core.network.data.DataManager;
+import org.hive2hive.core.network.data.futures.FutureGetRangeListener;
+import org.hive2hive.core.network.userprofiletask.UserProfileTask;
+import org.hive2hive.core.processes.context.interfaces.IUserProfileTaskContext;
+import org.hive2hive.core.security.IH2HEncryption;
+import org.hive2hive.processframework.ProcessExecutor;
+import org.hive2hive.processframework.ProcessStep;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.PrivateKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A process step which gets all queued {@link UserProfileTask} objects of the currently logged in user at
+ * once. The tasks are decrypted in parallel and provided in the order of their content keys.
+ */
+public class GetUserProfileTasksStep extends ProcessStep<Void> {
+
+	private static final Logger logger = LoggerFactory.getLogger(GetUserProfileTasksStep.class);
+
+	private final IUserProfileTaskContext context;
+	private final NetworkManager networkManager;
+	private final FutureGetRangeListener prefetchedTasks;
+
+	public GetUserProfileTasksStep(IUserProfileTaskContext context, NetworkManager networkManager) {
+		this(context, networkManager, null);
+	}
+
+	/**
+	 * @param prefetchedTasks the get of the queue if it has already been started (e.g. during the login), can
+	 *            be <code>null</code>
+	 */
+	public GetUserProfileTasksStep(IUserProfileTaskContext context, NetworkManager networkManager,
+			FutureGetRangeListener prefetchedTasks) {
+		this.setName(getClass().getName());
+		this.networkManager = networkManager;
+		if (context == null) {
+			throw new IllegalArgumentException("Context can't be null.");
+		}
+		this.context = context;
+		this.prefetchedTasks = prefetchedTasks;
+	}
+
+	@Override
+	protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+		String userId = networkManager.getUserId();
+
+		DataManager dataManager;
+		PrivateKey key;
+		try {
+			dataManager = networkManager.getDataManager();
+			key = networkManager.getSession().getKeyPair().getPrivate();
+		} catch (NoPeerConnectionException | NoSessionException ex) {
+			throw new ProcessExecutionException(this, ex);
+		}
+
+		NavigableMap<Number160, BaseNetworkContent> contents = null;
+		if (prefetchedTasks != null) {
+			contents = prefetchedTasks.awaitAndGet();
+		}
+		if (contents == null) {
+			// not prefetched or the prefetch failed
+			logger.debug("Get all user profile tasks of user '{}'.", userId);
+			contents = dataManager.getUserProfileTasks(userId);
+		}
+		if (contents == null || contents.isEmpty()) {
+			logger.debug("Did not get any user profile task. User ID = '{}'.", userId);
+			context.provideUserProfileTasks(new ArrayList<UserProfileTask>(0));
+			return null;
+		}
+
+		logger.debug("Got {} encrypted user profile tasks. User ID = '{}'", contents.size(), userId);
+		context.provideUserProfileTasks(decrypt(contents, key));
+		setRequiresRollback(true);
+		return null;
+	}
+
+	/**
+	 * Decrypts the tasks in parallel on the {@link ProcessExecutor}. Tasks that cannot be decrypted are skipped,
+	 * they stay in the queue.
+	 */
+	private List<UserProfileTask> decrypt(NavigableMap<Number160, BaseNetworkContent> contents, final PrivateKey key)
+			throws ProcessExecutionException {
+		final IH2HEncryption encryption = networkManager.getEncryption();
+		try {
+			List<Future<BaseNetworkContent>> decrypted = new ArrayList<Future<BaseNetworkContent>>(contents.size());
+			for (final BaseNetworkContent content : contents.values()) {
+				decrypted.add(ProcessExecutor.submit(new Callable<BaseNetworkContent>() {
+					@Override
+					public BaseNetworkContent call() throws Exception {
+						return encryption.decryptHybrid((HybridEncryptedContent) content, key);
+					}
+				}));
+			}
+
+			// the futures are in the order of the content keys
+			List<UserProfileTask> tasks = new ArrayList<UserProfileTask>(contents.size());
+			int index = 0;
+			for (Map.Entry<Number160, BaseNetworkContent> entry : contents.entrySet()) {
+				try {
+					tasks.add((UserProfileTask) decrypted.get(index++).get());
+				} catch (ExecutionException ex) {
+					logger.error("Could not decrypt user profile task '{}'.", entry.getKey(), ex.getCause());
+				}
+			}
+			logger.debug("Successfully decrypted {} user profile tasks.", tasks.size());
+			return tasks;
+		} catch (InterruptedException ex) {
+			throw new ProcessExecutionException(this, ex, "Decrypting the user profile tasks was interrupted.");
+		} catch (RejectedExecutionException ex) {
+			throw new ProcessExecutionException(this, ex, "Decrypting the user profile tasks could not be scheduled.");
+		}
+	}
+
+	@Override
+	protected Void doRollback() throws InvalidProcessStateException {
+		context.provideUserProfileTasks(null);
+		setRequiresRollback(false);
+		return null;
+	}
+
+}
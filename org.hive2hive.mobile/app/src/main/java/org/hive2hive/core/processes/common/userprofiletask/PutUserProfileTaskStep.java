@@ -19,6 +19,9 @@ import java.io.IOException;
 import java.security.GeneralSecurityException;
 import java.security.KeyPair;
 import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 /**
  * A process step which puts a {@link UserProfileTask} object.</br>
@@ -32,7 +35,8 @@ public abstract class PutUserProfileTaskStep extends ProcessStep<Void> {
 	private static final Logger logger = LoggerFactory.getLogger(PutUserProfileTaskStep.class);
 
 	protected final NetworkManager networkManager;
-	private String userId;
+	// the users whose queue holds the task
+	private final List<String> userIds = new ArrayList<String>();
 	private Number160 contentKey;
 	private KeyPair protectionKey;
 
@@ -53,8 +57,6 @@ public abstract class PutUserProfileTaskStep extends ProcessStep<Void> {
 			throw new IllegalArgumentException("public key can be not null");
 		}
 
-		this.userId = userId;
-
 		try {
 			logger.debug("Encrypting user profile task in a hybrid manner.");
 			this.contentKey = userProfileTask.getContentKey();
@@ -67,6 +69,7 @@ public abstract class PutUserProfileTaskStep extends ProcessStep<Void> {
 			if (!status.equals(H2HPutStatus.OK)) {
 				throw new PutFailedException();
 			}
+			userIds.add(userId);
 			setRequiresRollback(true);
 
 		} catch (IOException | GeneralSecurityException ex) {
@@ -76,6 +79,52 @@ public abstract class PutUserProfileTaskStep extends ProcessStep<Void> {
 		}
 	}
 
+	/**
+	 * Puts the same {@link UserProfileTask} into the queues of multiple users. The task is serialized and
+	 * encrypted only once, only the symmetric key is encrypted for every user. The puts are sent concurrently.
+	 * 
+	 * @param userProfileTask the task to put
+	 * @param publicKeys the public keys of the users, mapped by their user ids
+	 * @throws PutFailedException if the task could not be put into the queue of at least one user
+	 */
+	protected void putAll(UserProfileTask userProfileTask, Map<String, PublicKey> publicKeys) throws PutFailedException,
+			InvalidProcessStateException {
+		if (userProfileTask == null) {
+			throw new IllegalArgumentException("user profile task can be not null");
+		}
+		if (publicKeys.isEmpty()) {
+			return;
+		}
+
+		try {
+			logger.debug("Encrypting user profile task in a hybrid manner for {} users.", publicKeys.size());
+			this.contentKey = userProfileTask.getContentKey();
+			this.protectionKey = userProfileTask.getProtectionKeys();
+			Map<String, HybridEncryptedContent> encrypted = networkManager.getEncryption().encryptHybrid(
+					userProfileTask, publicKeys);
+
+			DataManager dataManager = networkManager.getDataManager();
+			Map<String, H2HPutStatus> status = dataManager.putUserProfileTasks(contentKey, encrypted, protectionKey);
+			List<String> failed = new ArrayList<String>();
+			for (Map.Entry<String, H2HPutStatus> entry : status.entrySet()) {
+				if (H2HPutStatus.OK.equals(entry.getValue())) {
+					userIds.add(entry.getKey());
+					setRequiresRollback(true);
+				} else {
+					failed.add(entry.getKey());
+				}
+			}
+			if (!failed.isEmpty()) {
+				throw new PutFailedException(String.format("Could not put the user profile task for the users %s.",
+						failed));
+			}
+		} catch (IOException | GeneralSecurityException ex) {
+			throw new PutFailedException(String.format("Meta document could not be encrypted. Reason: %s.", ex.getMessage()));
+		} catch (NoPeerConnectionException ex) {
+			throw new PutFailedException(ex.getMessage());
+		}
+	}
+
 	@Override
 	protected Void doRollback() throws InvalidProcessStateException, ProcessRollbackException {
 
@@ -84,17 +133,26 @@ public abstract class PutUserProfileTaskStep extends ProcessStep<Void> {
 			dataManager = networkManager.getDataManager();
 		} catch (NoPeerConnectionException ex) {
 			throw new ProcessRollbackException(this, ex, String.format(
-					"Rollback of UserProfileTask put failed. No connection. User = '%s', Content Key = '%s'.", userId,
+					"Rollback of UserProfileTask put failed. No connection. Users = '%s', Content Key = '%s'.", userIds,
 					contentKey));
 		}
 
-		boolean success = dataManager.removeUserProfileTask(userId, contentKey, protectionKey);
-		if (success) {
-			logger.debug("Rollback of user profile task put succeeded. User = '{}', Content Key = '{}'.", userId, contentKey);
+		List<String> failed = new ArrayList<String>();
+		for (String userId : userIds) {
+			if (dataManager.removeUserProfileTask(userId, contentKey, protectionKey)) {
+				logger.debug("Rollback of user profile task put succeeded. User = '{}', Content Key = '{}'.", userId,
+						contentKey);
+			} else {
+				failed.add(userId);
+			}
+		}
+		userIds.retainAll(failed);
+
+		if (failed.isEmpty()) {
 			setRequiresRollback(false);
 		} else {
 			throw new ProcessRollbackException(this, String.format(
-					"Rollback of user profile put failed. Remove failed. User = '%s', Content Key = '%s'.", userId,
+					"Rollback of user profile put failed. Remove failed. Users = '%s', Content Key = '%s'.", failed,
 					contentKey));
 		}
 
@@ -0,0 +1,64 @@
+package org.hive2hive.core.processes.common.userprofiletask;
+
+import net.tomp2p.peers.Number160;
+
+import org.hive2hive.core.exceptions.NoPeerConnectionException;
+import org.hive2hive.core.network.NetworkManager;
+import org.hive2hive.core.network.data.DataManager;
+import org.hive2hive.core.network.userprofiletask.UserProfileTask;
+import org.hive2hive.core.processes.context.interfaces.IUserProfileTaskContext;
+import org.hive2hive.processframework.ProcessStep;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.KeyPair;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A process step which removes all handled {@link UserProfileTask} objects from the network at once.
+ */
+public class RemoveUserProfileTasksStep extends ProcessStep<Void> {
+
+	private static final Logger logger = LoggerFactory.getLogger(RemoveUserProfileTasksStep.class);
+
+	private final IUserProfileTaskContext context;
+	private final NetworkManager networkManager;
+
+	public RemoveUserProfileTasksStep(IUserProfileTaskContext context, NetworkManager networkManager) {
+		this.setName(getClass().getName());
+		this.context = context;
+		this.networkManager = networkManager;
+	}
+
+	@Override
+	protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+		String userId = networkManager.getUserId();
+
+		DataManager dataManager;
+		try {
+			dataManager = networkManager.getDataManager();
+		} catch (NoPeerConnectionException ex) {
+			throw new ProcessExecutionException(this, ex);
+		}
+
+		List<UserProfileTask> tasks = context.consumeUserProfileTasks();
+		if (tasks == null) {
+			throw new ProcessExecutionException(this, "User profile tasks in context are null.");
+		}
+
+		Map<Number160, KeyPair> protectionKeys = new TreeMap<Number160, KeyPair>();
+		for (UserProfileTask task : tasks) {
+			protectionKeys.put(task.getContentKey(), task.getProtectionKeys());
+		}
+
+		if (!dataManager.removeUserProfileTasks(userId, protectionKeys)) {
+			throw new ProcessExecutionException(this, "Could not remove the user profile tasks.");
+		}
+		logger.debug("Removed {} user profile tasks. User ID = '{}'.", tasks.size(), userId);
+		return null;
+	}
+}
@@ -2,6 +2,8 @@ package org.hive2hive.core.processes.context;
 
 import org.hive2hive.core.H2HSession;
 import org.hive2hive.core.api.interfaces.IFileConfiguration;
+import org.hive2hive.core.file.FileHashCache;
+import org.hive2hive.core.file.FileUtil;
 import org.hive2hive.core.model.Index;
 import org.hive2hive.core.model.MetaChunk;
 import org.hive2hive.core.model.versioned.BaseMetaFile;
@@ -12,6 +14,7 @@ import org.hive2hive.core.processes.notify.BaseNotificationMessageFactory;
 import org.hive2hive.core.security.IH2HEncryption;
 
 import java.io.File;
+import java.io.InputStream;
 import java.security.KeyPair;
 import java.util.ArrayList;
 import java.util.List;
@@ -29,6 +32,10 @@ public class AddFileProcessContext implements IUploadContext, INotifyContext {
 	private final IFileConfiguration fileConfiguration;
 	private final IH2HEncryption encryption;
 
+	// optional, the content is read from this stream instead of the file
+	private final InputStream content;
+	private final long contentLength;
+
 	private List<MetaChunk> metaChunks = new ArrayList<MetaChunk>();
 
 	private KeyPair chunkEncryptionKeys; // generated
@@ -40,10 +47,25 @@ public class AddFileProcessContext implements IUploadContext, INotifyContext {
 	private Index index;
 	private Set<String> usersToNotify;
 	private AddNotificationMessageFactory messageFactory;
+	private byte[] contentHash;
 
 	public AddFileProcessContext(File file, H2HSession session, IFileConfiguration fileConfiguration,
 			IH2HEncryption encryption) {
+		this(file, null, 0, session, fileConfiguration, encryption);
+	}
+
+	/**
+	 * Creates the context to add a file whose content is read from a stream
+	 * 
+	 * @param file the file in the Hive2Hive directory (does not need to exist)
+	 * @param content the content of the file
+	 * @param contentLength the number of bytes in the stream
+	 */
+	public AddFileProcessContext(File file, InputStream content, long contentLength, H2HSession session,
+			IFileConfiguration fileConfiguration, IH2HEncryption encryption) {
 		this.file = file;
+		this.content = content;
+		this.contentLength = contentLength;
 		this.session = session;
 		this.fileConfiguration = fileConfiguration;
 		this.encryption = encryption;
@@ -54,6 +76,36 @@ public class AddFileProcessContext implements IUploadContext, INotifyContext {
 		return file;
 	}
 
+	/**
+	 * @return the stream to read the content from or <code>null</code> if the file is read
+	 */
+	public InputStream consumeContent() {
+		return content;
+	}
+
+	public long consumeContentLength() {
+		return contentLength;
+	}
+
+	/**
+	 * @return the size of the content, either the length of the stream or the size of the file
+	 */
+	public long consumeFileSize() {
+		return content == null ? FileUtil.getFileSize(file) : contentLength;
+	}
+
+	public void provideContentHash(byte[] contentHash) {
+		this.contentHash = contentHash;
+	}
+
+	/**
+	 * @return the MD5 hash of the content, if it has been calculated while reading the stream. Else
+	 *         <code>null</code>
+	 */
+	public byte[] consumeContentHash() {
+		return contentHash;
+	}
+
 	@Override
 	public void setLargeFile(boolean largeFile) {
 		this.largeFile = largeFile;
@@ -69,6 +121,11 @@ public class AddFileProcessContext implements IUploadContext, INotifyContext {
 		return session.getRootFile();
 	}
 
+	@Override
+	public FileHashCache consumeFileHashCache() {
+		return session.getFileHashCache();
+	}
+
 	@Override
 	public boolean isLargeFile() {
 		return largeFile;
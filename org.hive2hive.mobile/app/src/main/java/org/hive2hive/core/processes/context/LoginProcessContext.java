@@ -1,19 +1,42 @@
 package org.hive2hive.core.processes.context;
 
+import org.hive2hive.core.file.PersistentMetaData;
 import org.hive2hive.core.model.versioned.Locations;
+import org.hive2hive.core.model.versioned.UserProfile;
+import org.hive2hive.core.network.data.UserProfileManager;
+import org.hive2hive.core.network.data.futures.FutureGetRangeListener;
 import org.hive2hive.core.processes.login.SessionParameters;
 import org.hive2hive.core.security.UserCredentials;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+import javax.crypto.SecretKey;
+
 public class LoginProcessContext {
 
 	private final UserCredentials credentials;
 	private final SessionParameters params;
+	private final long startTime;
+	private final Map<String, Long> phaseTimes;
 
 	private Locations locations;
 
+	private PersistentMetaData metaData;
+
+	// fetched concurrently at the beginning of the login
+	private SecretKey profileEncryptionKey;
+	private UserProfileManager profileManager;
+	private Future<UserProfile> userProfile;
+	private Future<Locations> prefetchedLocations;
+	private FutureGetRangeListener userProfileTasks;
+
 	public LoginProcessContext(UserCredentials credentials, SessionParameters params) {
 		this.credentials = credentials;
 		this.params = params;
+		this.startTime = System.currentTimeMillis();
+		this.phaseTimes = new LinkedHashMap<String, Long>();
 	}
 
 	public UserCredentials consumeUserCredentials() {
@@ -36,4 +59,70 @@ public class LoginProcessContext {
 		return locations;
 	}
 
+	public void providePersistentMetaData(PersistentMetaData metaData) {
+		this.metaData = metaData;
+	}
+
+	public PersistentMetaData consumePersistentMetaData() {
+		return metaData;
+	}
+
+	public synchronized void provideUserProfileEncryptionKey(SecretKey profileEncryptionKey) {
+		this.profileEncryptionKey = profileEncryptionKey;
+	}
+
+	public synchronized SecretKey consumeUserProfileEncryptionKey() {
+		return profileEncryptionKey;
+	}
+
+	public synchronized void provideUserProfileManager(UserProfileManager profileManager) {
+		this.profileManager = profileManager;
+	}
+
+	public synchronized UserProfileManager consumeUserProfileManager() {
+		return profileManager;
+	}
+
+	public void provideUserProfile(Future<UserProfile> userProfile) {
+		this.userProfile = userProfile;
+	}
+
+	public Future<UserProfile> consumeUserProfile() {
+		return userProfile;
+	}
+
+	public void providePrefetchedLocations(Future<Locations> prefetchedLocations) {
+		this.prefetchedLocations = prefetchedLocations;
+	}
+
+	public Future<Locations> consumePrefetchedLocations() {
+		return prefetchedLocations;
+	}
+
+	public void provideUserProfileTasks(FutureGetRangeListener userProfileTasks) {
+		this.userProfileTasks = userProfileTasks;
+	}
+
+	public FutureGetRangeListener consumeUserProfileTasks() {
+		return userProfileTasks;
+	}
+
+	/**
+	 * Records that a phase of the login is ready
+	 *
+	 * @param phase the name of the phase
+	 * @return the time since the login started in milliseconds
+	 */
+	public synchronized long reportPhase(String phase) {
+		long elapsed = System.currentTimeMillis() - startTime;
+		phaseTimes.put(phase, elapsed);
+		return elapsed;
+	}
+
+	/**
+	 * @return the time to ready of all phases that are ready so far (in milliseconds since the login started)
+	 */
+	public synchronized Map<String, Long> getPhaseTimes() {
+		return new LinkedHashMap<String, Long>(phaseTimes);
+	}
 }
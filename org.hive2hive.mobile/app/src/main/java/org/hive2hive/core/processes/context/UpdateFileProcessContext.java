@@ -2,6 +2,7 @@ package org.hive2hive.core.processes.context;
 
 import org.hive2hive.core.H2HSession;
 import org.hive2hive.core.api.interfaces.IFileConfiguration;
+import org.hive2hive.core.file.FileHashCache;
 import org.hive2hive.core.model.FileIndex;
 import org.hive2hive.core.model.MetaChunk;
 import org.hive2hive.core.model.versioned.BaseMetaFile;
@@ -59,6 +60,11 @@ public class UpdateFileProcessContext implements IUploadContext, IGetFileKeysCon
 		return session.getRootFile();
 	}
 
+	@Override
+	public FileHashCache consumeFileHashCache() {
+		return session.getFileHashCache();
+	}
+
 	@Override
 	public void provideMetaFileProtectionKeys(KeyPair metaFileProtectionKeys) {
 		this.metaFileProtectionKeys = metaFileProtectionKeys;
@@ -3,18 +3,20 @@ package org.hive2hive.core.processes.context;
 import org.hive2hive.core.network.userprofiletask.UserProfileTask;
 import org.hive2hive.core.processes.context.interfaces.IUserProfileTaskContext;
 
+import java.util.List;
+
 public class UserProfileTaskContext implements IUserProfileTaskContext {
 
-	private UserProfileTask profileTask;
+	private List<UserProfileTask> profileTasks;
 
 	@Override
-	public UserProfileTask consumeUserProfileTask() {
-		return profileTask;
+	public List<UserProfileTask> consumeUserProfileTasks() {
+		return profileTasks;
 	}
 
 	@Override
-	public void provideUserProfileTask(UserProfileTask profileTask) {
-		this.profileTask = profileTask;
+	public void provideUserProfileTasks(List<UserProfileTask> profileTasks) {
+		this.profileTasks = profileTasks;
 	}
 
 }
@@ -1,6 +1,7 @@
 package org.hive2hive.core.processes.context.interfaces;
 
 import org.hive2hive.core.api.interfaces.IFileConfiguration;
+import org.hive2hive.core.file.FileHashCache;
 import org.hive2hive.core.model.Index;
 import org.hive2hive.core.model.MetaChunk;
 import org.hive2hive.core.model.versioned.BaseMetaFile;
@@ -19,6 +20,10 @@ public interface IUploadContext {
 
 	public File consumeRoot();
 
+	// ------ AddIndexToUserProfileStep, UpdateMD5InUserProfileStep ------
+
+	public FileHashCache consumeFileHashCache();
+
 	// ------ PrepareNotifictionStep ------
 
 	public Index consumeIndex();
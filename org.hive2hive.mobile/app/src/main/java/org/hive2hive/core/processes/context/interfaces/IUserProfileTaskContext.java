@@ -2,10 +2,12 @@ package org.hive2hive.core.processes.context.interfaces;
 
 import org.hive2hive.core.network.userprofiletask.UserProfileTask;
 
+import java.util.List;
+
 public interface IUserProfileTaskContext {
 
-	public void provideUserProfileTask(UserProfileTask userProfileTask);
+	public void provideUserProfileTasks(List<UserProfileTask> userProfileTasks);
 
-	public UserProfileTask consumeUserProfileTask();
+	public List<UserProfileTask> consumeUserProfileTasks();
 
-}
+}
\ No newline at end of file
@@ -9,9 +9,9 @@ import org.hive2hive.core.network.data.DataManager;
 import org.hive2hive.core.processes.context.interfaces.IUploadContext;
 import org.hive2hive.core.security.HashUtil;
 import org.hive2hive.processframework.ProcessStep;
+import org.hive2hive.processframework.composites.ParallelProcess;
 import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
 import org.hive2hive.processframework.exceptions.ProcessExecutionException;
-import org.hive2hive.processframework.interfaces.IProcessComponent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -66,15 +66,15 @@ public class InitializeChunksStep extends ProcessStep<Void> {
 		IFileConfiguration config = context.consumeFileConfiguration();
 		int chunks = FileChunkUtil.getNumberOfChunks(file, config.getChunkSize());
 		logger.trace("{} chunks to upload for file '{}'.", chunks, file.getName());
-		IProcessComponent<Void> prev = this;
+		ParallelProcess putChunksProcess = new ParallelProcess();
+		putChunksProcess.setName("Put Chunks Process");
 		for (int i = 0; i < chunks; i++) {
 			String chunkId = UUID.randomUUID().toString();
-			PutSingleChunkStep putChunkStep = new PutSingleChunkStep(context, i, chunkId, dataManager);
-
-			// insert just after this step
-			getParent().insertAfter(putChunkStep, prev);
-			prev = putChunkStep;
+			putChunksProcess.add(new PutSingleChunkStep(context, i, chunkId, dataManager));
 		}
+
+		// the chunks are independent of each other, put them concurrently just after this step
+		getParent().insertAfter(putChunksProcess, this);
 	}
 
 	private void initLargeFile(File file) throws ProcessExecutionException {
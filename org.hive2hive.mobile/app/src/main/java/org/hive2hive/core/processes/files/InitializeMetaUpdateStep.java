@@ -1,29 +1,26 @@
 package org.hive2hive.core.processes.files;
 
-import org.hive2hive.core.exceptions.NoPeerConnectionException;
-import org.hive2hive.core.exceptions.NoSessionException;
+import org.hive2hive.core.file.IFileAgent;
 import org.hive2hive.core.model.FileIndex;
-import org.hive2hive.core.model.FolderIndex;
 import org.hive2hive.core.model.Index;
 import org.hive2hive.core.network.data.DataManager;
-import org.hive2hive.core.processes.context.MetaDocumentPKUpdateContext;
 import org.hive2hive.core.processes.context.interfaces.IInitializeMetaUpdateContext;
-import org.hive2hive.core.processes.share.pkupdate.ChangeProtectionKeysStep;
-import org.hive2hive.core.processes.share.pkupdate.InitializeChunkUpdateStep;
+import org.hive2hive.core.processes.share.pkupdate.ProtectionKeyMigration;
+import org.hive2hive.core.processes.share.pkupdate.ProtectionKeyMigrationStep;
 import org.hive2hive.processframework.ProcessStep;
-import org.hive2hive.processframework.composites.SyncProcess;
-import org.hive2hive.processframework.decorators.AsyncComponent;
 import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
 import org.hive2hive.processframework.exceptions.ProcessExecutionException;
-import org.hive2hive.processframework.interfaces.IProcessComponent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.List;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
- * Takes the shared folder and iteratively changes the protection keys of all meta files. Appends further
- * steps to change the content protection key of all contained chunks.
+ * Takes the shared folder and collects all files below it. Appends a {@link ProtectionKeyMigrationStep} that
+ * changes the protection keys of all their meta files and chunks.
  * 
  * @author Nico, Seppi
  */
@@ -33,11 +30,13 @@ public class InitializeMetaUpdateStep extends ProcessStep<Void> {
 
 	private final IInitializeMetaUpdateContext context;
 	private final DataManager dataManager;
+	private final IFileAgent fileAgent;
 
-	public InitializeMetaUpdateStep(IInitializeMetaUpdateContext context, DataManager dataManager) {
+	public InitializeMetaUpdateStep(IInitializeMetaUpdateContext context, DataManager dataManager, IFileAgent fileAgent) {
 		this.setName(getClass().getName());
 		this.context = context;
 		this.dataManager = dataManager;
+		this.fileAgent = fileAgent;
 	}
 
 	@Override
@@ -47,52 +46,28 @@ public class InitializeMetaUpdateStep extends ProcessStep<Void> {
 			return null;
 		}
 
-		Index index = context.consumeIndex();
-
-		try {
-			if (index.isFolder()) {
-				FolderIndex folderIndex = (FolderIndex) index;
-				initForFolder(folderIndex);
-			} else {
+		// a single file or all files in the folder
+		Map<PublicKey, KeyPair> fileKeys = new HashMap<PublicKey, KeyPair>();
+		for (Index index : Index.getIndexList(context.consumeIndex())) {
+			if (index.isFile()) {
 				FileIndex fileIndex = (FileIndex) index;
-				initForFile(fileIndex);
+				fileKeys.put(fileIndex.getFilePublicKey(), fileIndex.getFileKeys());
 			}
-		} catch (NoSessionException | NoPeerConnectionException ex) {
-			throw new ProcessExecutionException(this, ex);
 		}
-
-		return null;
-	}
-
-	private void initForFolder(FolderIndex folderIndex) throws ProcessExecutionException, NoSessionException,
-			NoPeerConnectionException {
-		List<Index> indexList = Index.getIndexList(folderIndex);
-		for (Index index : indexList) {
-			if (index.isFile()) {
-				initForFile((FileIndex) index);
-			}
+		if (fileKeys.isEmpty()) {
+			logger.debug("No files to update the protection keys of.");
+			return null;
 		}
-	}
-
-	private void initForFile(FileIndex fileIndex) throws NoSessionException, NoPeerConnectionException {
-		logger.debug("Initialize to change the protection keys of meta document of index '{}'.", fileIndex.getName());
-		// create the process and wrap it to make it asynchronous
-		getParent().insertAfter(new AsyncComponent<>(buildProcess(fileIndex)), this);
-	}
 
-	private IProcessComponent<Void> buildProcess(FileIndex index) throws NoSessionException, NoPeerConnectionException {
+		KeyPair oldProtectionKeys = context.consumeOldProtectionKeys();
+		KeyPair newProtectionKeys = context.consumeNewProtectionKeys();
+		ProtectionKeyMigration migration = new ProtectionKeyMigration(oldProtectionKeys.getPublic(),
+				newProtectionKeys.getPublic(), fileKeys.keySet());
+		logger.debug("Initialize to change the protection keys of {} files.", fileKeys.size());
+		getParent().insertAfter(
+				new ProtectionKeyMigrationStep(migration, oldProtectionKeys, newProtectionKeys, fileKeys, dataManager,
+						fileAgent, true), this);
 
-		// create a new sub-process
-		SyncProcess subProcess = new SyncProcess();
-
-		// each meta document gets own context
-		MetaDocumentPKUpdateContext metaContext = new MetaDocumentPKUpdateContext(context.consumeOldProtectionKeys(),
-				context.consumeNewProtectionKeys(), index.getFilePublicKey(), index);
-
-		subProcess.add(new GetMetaFileStep(metaContext, dataManager));
-		subProcess.add(new ChangeProtectionKeysStep(metaContext, dataManager));
-		subProcess.add(new InitializeChunkUpdateStep(metaContext, dataManager));
-
-		return subProcess;
+		return null;
 	}
 }
@@ -11,6 +11,7 @@ import org.hive2hive.core.network.data.DataManager;
 import org.hive2hive.core.network.data.parameters.Parameters;
 import org.hive2hive.core.processes.common.base.BasePutProcessStep;
 import org.hive2hive.core.processes.context.interfaces.IUploadContext;
+import org.hive2hive.core.security.HashUtil;
 import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
 import org.hive2hive.processframework.exceptions.ProcessExecutionException;
 import org.slf4j.Logger;
@@ -19,6 +20,7 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
+import java.util.List;
 
 /**
  * Puts a single chunk without storing it anywhere (thus large files should be no problem).
@@ -70,8 +72,12 @@ public class PutSingleChunkStep extends BasePutProcessStep {
 				// put the encrypted chunk into the network
 				put(parameters);
 
-				// store the hash in the index of the meta file
-				context.getMetaChunks().add(new MetaChunk(chunkId, parameters.getHash(), index));
+				// store the hash of the plain chunk in the index of the meta file, the download verifies it
+				// (chunks are put concurrently)
+				List<MetaChunk> metaChunks = context.getMetaChunks();
+				synchronized (metaChunks) {
+					metaChunks.add(new MetaChunk(chunkId, HashUtil.hash(chunk.getData()), index));
+				}
 			} catch (IOException | IllegalStateException | GeneralSecurityException | PutFailedException ex) {
 				throw new ProcessExecutionException(this, ex, "Could not encrypt and put the chunk.");
 			}
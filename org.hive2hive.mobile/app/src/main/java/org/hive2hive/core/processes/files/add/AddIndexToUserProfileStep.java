@@ -9,7 +9,6 @@ import org.hive2hive.core.model.versioned.UserProfile;
 import org.hive2hive.core.network.data.UserProfileManager;
 import org.hive2hive.core.processes.common.base.BaseModifyUserProfileStep;
 import org.hive2hive.core.processes.context.AddFileProcessContext;
-import org.hive2hive.core.security.HashUtil;
 import org.hive2hive.processframework.exceptions.ProcessExecutionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,9 +38,12 @@ public class AddIndexToUserProfileStep extends BaseModifyUserProfileStep {
 	@Override
 	protected void beforeModify() throws ProcessExecutionException {
 		File file = context.consumeFile();
-		if (file.isFile()) {
+		if (context.consumeContentHash() != null) {
+			// already calculated while reading the content
+			md5 = context.consumeContentHash();
+		} else if (file.isFile()) {
 			try {
-				md5 = HashUtil.hash(file);
+				md5 = context.consumeFileHashCache().getHash(file);
 			} catch (IOException e) {
 				logger.error("Creating MD5 hash of file '{}' was not possible.", file.getName(), e);
 				throw new ProcessExecutionException(this, "Cannot calculate the hash of the file " + file.getName());
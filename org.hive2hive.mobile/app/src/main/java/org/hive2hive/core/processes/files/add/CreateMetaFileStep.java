@@ -1,6 +1,5 @@
 package org.hive2hive.core.processes.files.add;
 
-import org.hive2hive.core.file.FileUtil;
 import org.hive2hive.core.model.FileVersion;
 import org.hive2hive.core.model.versioned.BaseMetaFile;
 import org.hive2hive.core.model.versioned.MetaFileLarge;
@@ -9,7 +8,6 @@ import org.hive2hive.core.processes.context.AddFileProcessContext;
 import org.hive2hive.processframework.ProcessStep;
 import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
 
-import java.io.File;
 import java.security.KeyPair;
 import java.util.ArrayList;
 import java.util.List;
@@ -30,7 +28,6 @@ public class CreateMetaFileStep extends ProcessStep<Void> {
 
 	@Override
 	protected Void doExecute() throws InvalidProcessStateException {
-		File file = context.consumeFile();
 		KeyPair metaKeys = context.consumeMetaFileEncryptionKeys();
 
 		BaseMetaFile metaFile = null;
@@ -38,7 +35,7 @@ public class CreateMetaFileStep extends ProcessStep<Void> {
 			metaFile = new MetaFileLarge(metaKeys.getPublic(), context.getMetaChunks());
 		} else {
 			// create new meta file with new version
-			FileVersion version = new FileVersion(0, FileUtil.getFileSize(file), System.currentTimeMillis(),
+			FileVersion version = new FileVersion(0, context.consumeFileSize(), System.currentTimeMillis(),
 					context.getMetaChunks());
 			List<FileVersion> versions = new ArrayList<FileVersion>(1);
 			versions.add(version);
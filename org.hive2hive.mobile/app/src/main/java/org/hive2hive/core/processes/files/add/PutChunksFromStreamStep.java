@@ -0,0 +1,248 @@
+package org.hive2hive.core.processes.files.add;
+
+import net.tomp2p.dht.FuturePut;
+
+import org.hive2hive.core.H2HConstants;
+import org.hive2hive.core.api.interfaces.IFileConfiguration;
+import org.hive2hive.core.exceptions.PutFailedException;
+import org.hive2hive.core.file.FileChunkUtil;
+import org.hive2hive.core.model.Chunk;
+import org.hive2hive.core.model.MetaChunk;
+import org.hive2hive.core.model.versioned.HybridEncryptedContent;
+import org.hive2hive.core.network.data.DataManager;
+import org.hive2hive.core.network.data.DataManager.H2HPutStatus;
+import org.hive2hive.core.network.data.futures.FuturePutListener;
+import org.hive2hive.core.network.data.parameters.IParameters;
+import org.hive2hive.core.network.data.parameters.Parameters;
+import org.hive2hive.core.processes.context.AddFileProcessContext;
+import org.hive2hive.core.security.HashUtil;
+import org.hive2hive.processframework.ProcessStep;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+
+/**
+ * Reads the content of a new file from a stream in a single pass and calculates the MD5 hash of the whole
+ * file on the way. The chunks of a small file are encrypted and put as soon as they are read, with at most
+ * {@link H2HConstants#STREAM_UPLOAD_CONCURRENCY} puts in flight. A large file is not put into the network but
+ * served by its owner, thus its content is written to the file on the disk while the chunks are hashed.
+ */
+public class PutChunksFromStreamStep extends ProcessStep<Void> {
+
+	private static final Logger logger = LoggerFactory.getLogger(PutChunksFromStreamStep.class);
+
+	private final AddFileProcessContext context;
+	private final DataManager dataManager;
+
+	// the chunks that have been put, they are removed at a rollback
+	private final List<IParameters> putChunks = new ArrayList<IParameters>();
+	private boolean createdFile = false;
+
+	public PutChunksFromStreamStep(AddFileProcessContext context, DataManager dataManager) {
+		this.setName(getClass().getName());
+		this.context = context;
+		this.dataManager = dataManager;
+	}
+
+	@Override
+	protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+		File file = context.consumeFile();
+		long length = context.consumeContentLength();
+		IFileConfiguration config = context.consumeFileConfiguration();
+
+		MessageDigest digest = HashUtil.createDigest();
+		if (digest == null) {
+			throw new ProcessExecutionException(this, "Cannot calculate the hash of the content.");
+		}
+
+		boolean largeFile = BigInteger.valueOf(length).compareTo(config.getMaxFileSize()) == 1;
+		context.setLargeFile(largeFile);
+
+		long read;
+		try {
+			if (largeFile) {
+				logger.debug("File {} is a 'large file'. Writing it to the disk.", file.getName());
+				read = writeLargeFile(file, config.getChunkSize(), digest);
+			} else {
+				logger.debug("File {} is a 'small file'. Putting the chunks while reading.", file.getName());
+				read = putSmallFile(file, config.getChunkSize(), digest);
+			}
+		} catch (IOException ex) {
+			throw new ProcessExecutionException(this, ex, String.format("Cannot read the content of file '%s'.",
+					file.getName()));
+		} catch (GeneralSecurityException | PutFailedException ex) {
+			throw new ProcessExecutionException(this, ex, "Could not encrypt and put the chunk.");
+		}
+
+		if (read != length) {
+			throw new ProcessExecutionException(this, String.format(
+					"The content of file '%s' has %s bytes instead of %s.", file.getName(), read, length));
+		}
+
+		byte[] md5 = digest.digest();
+		context.provideContentHash(md5);
+		if (largeFile) {
+			// the file has just been written, no need to hash it again
+			context.consumeFileHashCache().putHash(file, md5);
+		}
+		return null;
+	}
+
+	private long putSmallFile(File file, int chunkSize, MessageDigest digest) throws IOException,
+			GeneralSecurityException, PutFailedException {
+		if (context.consumeChunkEncryptionKeys() == null) {
+			logger.trace("Create chunk keys for the file '{}'.", file.getName());
+			KeyPair chunkKeys = context.getEncryption().generateRSAKeyPair(H2HConstants.KEYLENGTH_CHUNK);
+			context.provideChunkEncryptionKeys(chunkKeys);
+		}
+		PublicKey chunkKey = context.consumeChunkEncryptionKeys().getPublic();
+
+		InputStream content = context.consumeContent();
+		Queue<PendingPut> pending = new LinkedList<PendingPut>();
+		long read = 0;
+		try {
+			int index = 0;
+			Chunk chunk;
+			while ((chunk = FileChunkUtil.getChunk(content, chunkSize, index, UUID.randomUUID().toString())) != null) {
+				read = consume(chunk, read, digest);
+
+				// encrypt the chunk prior to put such that nobody can read it
+				HybridEncryptedContent encryptedContent = context.getEncryption().encryptHybrid(chunk, chunkKey);
+				logger.debug("Uploading chunk {} of file {}.", chunk.getOrder(), file.getName());
+				Parameters parameters = new Parameters().setLocationKey(chunk.getId())
+						.setContentKey(H2HConstants.FILE_CHUNK).setNetworkContent(encryptedContent)
+						.setProtectionKeys(context.consumeChunkProtectionKeys()).setTTL(chunk.getTimeToLive());
+				parameters.setHashFlag(true);
+
+				FuturePut futurePut = dataManager.putUnblocked(parameters);
+				if (futurePut == null) {
+					throw new PutFailedException(String.format("Cannot put chunk %s.", chunk.getOrder()));
+				}
+				FuturePutListener listener = new FuturePutListener(parameters, dataManager);
+				futurePut.addListener(listener);
+				pending.add(new PendingPut(chunk, parameters, listener));
+
+				// only read further if a put is free, the chunks are not kept in memory
+				if (pending.size() >= H2HConstants.STREAM_UPLOAD_CONCURRENCY && !awaitPut(pending.poll())) {
+					throw new PutFailedException("Cannot put a chunk.");
+				}
+				index++;
+			}
+
+			while (!pending.isEmpty()) {
+				if (!awaitPut(pending.poll())) {
+					throw new PutFailedException("Cannot put a chunk.");
+				}
+			}
+		} finally {
+			// after a failure, wait for the remaining puts such that they can be removed at the rollback
+			for (PendingPut put : pending) {
+				awaitPut(put);
+			}
+		}
+		return read;
+	}
+
+	private boolean awaitPut(PendingPut put) {
+		if (put.listener.await() != H2HPutStatus.OK) {
+			return false;
+		}
+
+		putChunks.add(put.parameters);
+		setRequiresRollback(true);
+		context.getMetaChunks().add(new MetaChunk(put.chunkId, put.chunkHash, put.index));
+		return true;
+	}
+
+	private long writeLargeFile(File file, int chunkSize, MessageDigest digest) throws IOException {
+		// never overwrite a file, the add would fail after truncating it
+		if (!file.createNewFile()) {
+			throw new IOException(String.format("'%s' already exists.", file.getName()));
+		}
+		createdFile = true;
+		setRequiresRollback(true);
+
+		InputStream content = context.consumeContent();
+		OutputStream out = new FileOutputStream(file);
+		long read = 0;
+		try {
+			int index = 0;
+			Chunk chunk;
+			while ((chunk = FileChunkUtil.getChunk(content, chunkSize, index, UUID.randomUUID().toString())) != null) {
+				read = consume(chunk, read, digest);
+				out.write(chunk.getData());
+
+				byte[] md5Hash = HashUtil.hash(chunk.getData());
+				context.getMetaChunks().add(new MetaChunk(chunk.getId(), md5Hash, chunk.getOrder()));
+				index++;
+			}
+		} finally {
+			out.close();
+		}
+		return read;
+	}
+
+	private long consume(Chunk chunk, long read, MessageDigest digest) throws IOException {
+		long total = read + chunk.getData().length;
+		if (total > context.consumeContentLength()) {
+			throw new IOException(String.format("The stream has more than %s bytes.", context.consumeContentLength()));
+		}
+		digest.update(chunk.getData());
+		return total;
+	}
+
+	@Override
+	protected Void doRollback() throws InvalidProcessStateException {
+		for (IParameters parameters : putChunks) {
+			if (dataManager.removeVersion(parameters)) {
+				logger.debug("Rollback of put succeeded. '{}'", parameters.toString());
+			} else {
+				logger.warn("Rollback of put failed. Remove failed. '{}'", parameters.toString());
+			}
+		}
+		putChunks.clear();
+
+		File file = context.consumeFile();
+		if (createdFile && file.exists() && !file.delete()) {
+			logger.warn("Could not delete the written file '{}'.", file.getName());
+		}
+		createdFile = false;
+		setRequiresRollback(false);
+		return null;
+	}
+
+	private static class PendingPut {
+
+		private final String chunkId;
+		private final int index;
+		// the hash of the plain chunk, the download verifies it
+		private final byte[] chunkHash;
+		private final IParameters parameters;
+		private final FuturePutListener listener;
+
+		public PendingPut(Chunk chunk, IParameters parameters, FuturePutListener listener) {
+			this.chunkId = chunk.getId();
+			this.index = chunk.getOrder();
+			this.chunkHash = HashUtil.hash(chunk.getData());
+			this.parameters = parameters;
+			this.listener = listener;
+		}
+	}
+}
@@ -7,9 +7,9 @@ import org.hive2hive.core.model.versioned.MetaFileSmall;
 import org.hive2hive.core.network.data.DataManager;
 import org.hive2hive.core.processes.context.DeleteFileProcessContext;
 import org.hive2hive.processframework.ProcessStep;
+import org.hive2hive.processframework.composites.ParallelProcess;
 import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
 import org.hive2hive.processframework.exceptions.ProcessExecutionException;
-import org.hive2hive.processframework.interfaces.IProcessComponent;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -46,18 +46,15 @@ public class DeleteChunksStep extends ProcessStep<Void> {
 			}
 		}
 
-		// process composition
-		List<IProcessComponent<?>> parentComponents = new ArrayList<>(getParent().getComponents());
-		int index = parentComponents.indexOf(this) + 1;
-
+		// process composition, the chunks are deleted concurrently
+		ParallelProcess deletionProcess = new ParallelProcess();
+		deletionProcess.setName("Delete Chunks Process");
 		for (MetaChunk metaChunk : metaChunks) {
-			// TODO at a later stage, this steps could be async (parallelized)
-			
-			IProcessComponent<?> step = new DeleteSingleChunkStep(metaChunk.getChunkId(), context.consumeProtectionKeys(),
-					dataManager);
-			getParent().add(index++, step);
+			deletionProcess.add(new DeleteSingleChunkStep(metaChunk.getChunkId(), context.consumeProtectionKeys(),
+					dataManager));
 		}
-		
+		getParent().insertAfter(deletionProcess, this);
+
 		return null;
 	}
 
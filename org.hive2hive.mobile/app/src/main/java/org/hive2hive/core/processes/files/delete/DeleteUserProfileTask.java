@@ -5,14 +5,12 @@ import org.hive2hive.core.events.framework.interfaces.IFileEventGenerator;
 import org.hive2hive.core.events.implementations.FileDeleteEvent;
 import org.hive2hive.core.exceptions.AbortModificationCode;
 import org.hive2hive.core.exceptions.AbortModifyException;
-import org.hive2hive.core.exceptions.Hive2HiveException;
 import org.hive2hive.core.exceptions.NoPeerConnectionException;
 import org.hive2hive.core.exceptions.NoSessionException;
 import org.hive2hive.core.model.FolderIndex;
 import org.hive2hive.core.model.Index;
 import org.hive2hive.core.model.versioned.UserProfile;
 import org.hive2hive.core.network.data.IUserProfileModification;
-import org.hive2hive.core.network.data.UserProfileManager;
 import org.hive2hive.core.network.userprofiletask.UserProfileTask;
 import org.hive2hive.core.processes.notify.BaseNotificationMessageFactory;
 import org.hive2hive.core.security.IH2HEncryption;
@@ -35,30 +33,22 @@ public class DeleteUserProfileTask extends UserProfileTask implements IFileEvent
 
 	private final PublicKey fileKey;
 
+	// initialized when the modification is created
+	private transient DeleteUPModification modification;
+
 	public DeleteUserProfileTask(String sender, KeyPair protectionKeys, PublicKey fileKey) {
 		super(sender, protectionKeys);
 		this.fileKey = fileKey;
 	}
 
 	@Override
-	public void start() {
-		H2HSession session;
-		try {
-			session = networkManager.getSession();
-		} catch (NoSessionException e) {
-			logger.error("No user seems to be logged in.", e);
-			return;
-		}
-
-		DeleteUPModification modification = new DeleteUPModification(session.getRootFile(), networkManager.getEncryption());
-		UserProfileManager profileManager = session.getProfileManager();
-		try {
-			profileManager.modifyUserProfile(getId(), modification);
-		} catch (Hive2HiveException e) {
-			logger.error("Couldn't update / modify the user profile.", e);
-			return;
-		}
+	public IUserProfileModification createModification(H2HSession session) {
+		modification = new DeleteUPModification(session.getRootFile(), networkManager.getEncryption());
+		return modification;
+	}
 
+	@Override
+	public void onModified(H2HSession session) {
 		try {
 			// notify own other clients
 			notifyOtherClients(modification.getMessageFactory());
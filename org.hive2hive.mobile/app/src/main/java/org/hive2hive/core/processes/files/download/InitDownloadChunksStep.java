@@ -77,7 +77,8 @@ public class InitDownloadChunksStep extends ProcessStep<Void> {
 				// can be cast because only files are downloaded
 				FileIndex fileIndex = (FileIndex) context.consumeIndex();
 				try {
-					if (HashUtil.compare(destination, fileIndex.getMD5())) {
+					if (destination.isDirectory()
+							|| HashUtil.compare(session.getFileHashCache().getHash(destination), fileIndex.getMD5())) {
 						throw new ProcessExecutionException(this,
 								"File already exists on disk. Content does match. No download needed.");
 					}
@@ -125,6 +126,13 @@ public class InitDownloadChunksStep extends ProcessStep<Void> {
 		}
 		logger.debug("Finished downloading file '{}'.", destination);
 
+		// remember the hash of the downloaded content to not hash the file again
+		if (context.downloadNewestVersion()) {
+			session.getFileHashCache().putHash(destination, ((FileIndex) context.consumeIndex()).getMD5());
+		} else {
+			session.getFileHashCache().remove(destination);
+		}
+
 		return null;
 	}
 
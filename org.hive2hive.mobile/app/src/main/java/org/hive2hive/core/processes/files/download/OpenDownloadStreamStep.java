@@ -0,0 +1,83 @@
+package org.hive2hive.core.processes.files.download;
+
+import org.hive2hive.core.exceptions.GetFailedException;
+import org.hive2hive.core.model.Index;
+import org.hive2hive.core.model.versioned.BaseMetaFile;
+import org.hive2hive.core.model.versioned.MetaFileSmall;
+import org.hive2hive.core.network.data.DataManager;
+import org.hive2hive.core.network.data.UserProfileManager;
+import org.hive2hive.core.processes.context.DownloadFileContext;
+import org.hive2hive.core.processes.files.GetMetaFileStep;
+import org.hive2hive.core.processes.files.download.dht.DownloadStreamDHT;
+import org.hive2hive.processframework.ProcessStep;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Finds the newest version of a file and opens a stream over its chunks. The step finishes as soon as the
+ * meta file is known, the chunks are downloaded while the stream is read. Only small files can be streamed,
+ * because the chunks of large files are not stored in the DHT.
+ */
+public class OpenDownloadStreamStep extends ProcessStep<InputStream> {
+
+	private static final Logger logger = LoggerFactory.getLogger(OpenDownloadStreamStep.class);
+
+	private final File file;
+	private final File root;
+	private final UserProfileManager profileManager;
+	private final DataManager dataManager;
+
+	public OpenDownloadStreamStep(File file, File root, UserProfileManager profileManager, DataManager dataManager) {
+		this.setName(getClass().getName());
+		this.file = file;
+		this.root = root;
+		this.profileManager = profileManager;
+		this.dataManager = dataManager;
+	}
+
+	@Override
+	protected InputStream doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+		Index index;
+		try {
+			index = profileManager.readUserProfile().getFileByPath(file, root);
+		} catch (GetFailedException ex) {
+			throw new ProcessExecutionException(this, ex);
+		}
+
+		if (index == null) {
+			throw new ProcessExecutionException(this, "File not found in user profile.");
+		} else if (index.isFolder()) {
+			throw new ProcessExecutionException(this, String.format("'%s' is a folder.", index.getFullPath()));
+		}
+
+		DownloadFileContext context = new DownloadFileContext(null, file, null,
+				DownloadFileContext.NEWEST_VERSION_INDEX);
+		context.provideIndex(index);
+		try {
+			new GetMetaFileStep(context, dataManager).execute();
+		} catch (ProcessExecutionException ex) {
+			throw new ProcessExecutionException(this, ex, "Meta file could not be loaded.");
+		}
+
+		BaseMetaFile metaFile = context.consumeMetaFile();
+		if (!metaFile.isSmall()) {
+			throw new ProcessExecutionException(this, String.format(
+					"'%s' is a large file, it can only be downloaded to the disk.", index.getFullPath()));
+		}
+
+		logger.debug("Opening a stream to download file '{}'.", index.getFullPath());
+		MetaFileSmall metaFileSmall = (MetaFileSmall) metaFile;
+		try {
+			return new DownloadStreamDHT(metaFileSmall.getNewestVersion().getMetaChunks(), metaFileSmall.getChunkKey()
+					.getPrivate(), dataManager, index.getName());
+		} catch (IOException ex) {
+			throw new ProcessExecutionException(this, ex, "Cannot start to download the chunks.");
+		}
+	}
+}
@@ -0,0 +1,221 @@
+package org.hive2hive.core.processes.files.download.dht;
+
+import net.tomp2p.dht.FutureGet;
+
+import org.hive2hive.core.H2HConstants;
+import org.hive2hive.core.model.BaseNetworkContent;
+import org.hive2hive.core.model.Chunk;
+import org.hive2hive.core.model.MetaChunk;
+import org.hive2hive.core.model.versioned.HybridEncryptedContent;
+import org.hive2hive.core.network.data.DataManager;
+import org.hive2hive.core.network.data.futures.FutureGetListener;
+import org.hive2hive.core.network.data.parameters.IParameters;
+import org.hive2hive.core.network.data.parameters.Parameters;
+import org.hive2hive.core.security.HashUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Reads a small file directly from the chunks in the DHT. The chunks are fetched in read order, at most
+ * {@link H2HConstants#STREAM_DOWNLOAD_READ_AHEAD} of them ahead of the reader. A read only blocks until the
+ * chunk it needs has arrived. The chunks are decrypted in memory, nothing is written to the disk.<br>
+ * Like other streams, it must not be read by multiple threads at the same time.
+ */
+public class DownloadStreamDHT extends InputStream {
+
+	private static final Logger logger = LoggerFactory.getLogger(DownloadStreamDHT.class);
+
+	private final List<MetaChunk> metaChunks;
+	private final PrivateKey decryptionKey;
+	private final DataManager dataManager;
+	private final String fileName;
+
+	// the gets in read order, the head is the chunk to read next
+	private final Queue<PendingGet> pending = new LinkedList<PendingGet>();
+	// position in the meta chunks of the next chunk to get
+	private int nextGet = 0;
+
+	// the chunk which is currently read
+	private byte[] current = new byte[0];
+	private int position = 0;
+	private boolean closed = false;
+
+	public DownloadStreamDHT(List<MetaChunk> metaChunks, PrivateKey decryptionKey, DataManager dataManager,
+			String fileName) throws IOException {
+		this.metaChunks = new ArrayList<MetaChunk>(metaChunks);
+		this.decryptionKey = decryptionKey;
+		this.dataManager = dataManager;
+		this.fileName = fileName;
+
+		Collections.sort(this.metaChunks, new Comparator<MetaChunk>() {
+			@Override
+			public int compare(MetaChunk o1, MetaChunk o2) {
+				// Integer.compare is not available on older Android versions
+				return o1.getIndex() < o2.getIndex() ? -1 : (o1.getIndex() == o2.getIndex() ? 0 : 1);
+			}
+		});
+
+		// start fetching right away, the reader usually begins with the first bytes
+		requestChunks();
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!nextChunkIfNeeded()) {
+			return -1;
+		}
+		return current[position++] & 0xff;
+	}
+
+	/**
+	 * Copies the available bytes of the current chunk. Only blocks if the current chunk is completely read
+	 * and the next one has not arrived yet.
+	 */
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (off < 0 || len < 0 || len > b.length - off) {
+			throw new IndexOutOfBoundsException();
+		} else if (len == 0) {
+			return 0;
+		} else if (!nextChunkIfNeeded()) {
+			return -1;
+		}
+
+		int length = Math.min(len, current.length - position);
+		System.arraycopy(current, position, b, off, length);
+		position += length;
+		return length;
+	}
+
+	/**
+	 * Skips at most to the end of the current chunk. Chunks cannot be skipped without fetching them, because
+	 * their size is only known after the download.
+	 */
+	@Override
+	public long skip(long n) throws IOException {
+		if (n <= 0 || !nextChunkIfNeeded()) {
+			return 0;
+		}
+
+		int length = (int) Math.min(n, current.length - position);
+		position += length;
+		return length;
+	}
+
+	@Override
+	public int available() throws IOException {
+		if (closed) {
+			throw new IOException("Stream is closed.");
+		}
+		return current.length - position;
+	}
+
+	/**
+	 * Stops reading ahead. Gets which are already running are not awaited.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		pending.clear();
+		current = new byte[0];
+		position = 0;
+	}
+
+	/**
+	 * Moves to the next chunk once the current one has been read completely.
+	 *
+	 * @return <code>false</code> if the end of the file is reached
+	 */
+	private boolean nextChunkIfNeeded() throws IOException {
+		if (closed) {
+			throw new IOException("Stream is closed.");
+		}
+
+		// loop because chunks may be empty
+		while (position == current.length) {
+			PendingGet get = pending.poll();
+			if (get == null) {
+				return false;
+			}
+			// keep the read ahead full while waiting for the chunk
+			requestChunks();
+
+			current = get.await();
+			position = 0;
+		}
+		return true;
+	}
+
+	private void requestChunks() throws IOException {
+		while (pending.size() < H2HConstants.STREAM_DOWNLOAD_READ_AHEAD && nextGet < metaChunks.size()) {
+			MetaChunk metaChunk = metaChunks.get(nextGet);
+			logger.debug("Downloading chunk {} of file {} from the DHT.", metaChunk.getIndex(), fileName);
+			IParameters parameters = new Parameters().setLocationKey(metaChunk.getChunkId()).setContentKey(
+					H2HConstants.FILE_CHUNK);
+
+			FutureGet futureGet = dataManager.getUnblocked(parameters);
+			if (futureGet == null) {
+				throw new IOException(String.format("Cannot get chunk %s of file '%s'.", metaChunk.getIndex(),
+						fileName));
+			}
+			FutureGetListener listener = new FutureGetListener(parameters, dataManager.getSerializer());
+			futureGet.addListener(listener);
+			pending.add(new PendingGet(metaChunk, listener));
+			nextGet++;
+		}
+	}
+
+	private class PendingGet {
+
+		private final MetaChunk metaChunk;
+		private final FutureGetListener listener;
+
+		public PendingGet(MetaChunk metaChunk, FutureGetListener listener) {
+			this.metaChunk = metaChunk;
+			this.listener = listener;
+		}
+
+		/**
+		 * Waits for the chunk and decrypts it
+		 *
+		 * @return the content of the chunk
+		 */
+		public byte[] await() throws IOException {
+			BaseNetworkContent content = listener.awaitAndGet();
+			if (content == null) {
+				throw new IOException(String.format("Chunk %s of file '%s' not found in the DHT.",
+						metaChunk.getIndex(), fileName));
+			}
+
+			Chunk chunk;
+			try {
+				chunk = (Chunk) dataManager.getEncryption().decryptHybrid((HybridEncryptedContent) content,
+						decryptionKey);
+			} catch (GeneralSecurityException | IllegalArgumentException | ClassNotFoundException ex) {
+				throw new IOException(String.format("Decryption of chunk %s of file '%s' failed.",
+						metaChunk.getIndex(), fileName), ex);
+			}
+
+			// files uploaded by older versions have no chunk hashes
+			if (metaChunk.getChunkHash() != null
+					&& !HashUtil.compare(HashUtil.hash(chunk.getData()), metaChunk.getChunkHash())) {
+				throw new IOException(String.format("Chunk %s of file '%s' has an invalid content.",
+						metaChunk.getIndex(), fileName));
+			}
+
+			logger.debug("Read chunk {} of file {}.", metaChunk.getIndex(), fileName);
+			return chunk.getData();
+		}
+	}
+}
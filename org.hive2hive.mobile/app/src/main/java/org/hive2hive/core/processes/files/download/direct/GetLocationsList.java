@@ -5,8 +5,7 @@ import org.hive2hive.core.model.BaseNetworkContent;
 import org.hive2hive.core.model.versioned.Locations;
 import org.hive2hive.core.network.data.DataManager;
 import org.hive2hive.core.processes.common.base.BaseGetProcessStep;
-import org.hive2hive.processframework.composites.SyncProcess;
-import org.hive2hive.processframework.decorators.AsyncComponent;
+import org.hive2hive.processframework.composites.ParallelProcess;
 import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
 import org.hive2hive.processframework.exceptions.ProcessExecutionException;
 import org.slf4j.Logger;
@@ -38,9 +37,9 @@ public class GetLocationsList implements Runnable {
 		// thread safe super collection
 		final Set<Locations> collectingSet = Collections.synchronizedSet(new HashSet<Locations>());
 
-		SyncProcess process = new SyncProcess();
+		ParallelProcess process = new ParallelProcess();
 		for (final String userId : task.getUsers()) {
-			process.add(new AsyncComponent<>(new BaseGetProcessStep(dataManager) {
+			process.add(new BaseGetProcessStep(dataManager) {
 				@Override
 				protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
 					BaseNetworkContent content = get(userId, H2HConstants.USER_LOCATIONS);
@@ -51,7 +50,7 @@ public class GetLocationsList implements Runnable {
 					}
 					return null;
 				}
-			}));
+			});
 		}
 
 		try {
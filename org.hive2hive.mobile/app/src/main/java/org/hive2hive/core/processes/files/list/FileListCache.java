@@ -0,0 +1,94 @@
+package org.hive2hive.core.processes.files.list;
+
+import net.tomp2p.peers.Number160;
+
+import org.hive2hive.core.file.FileUtil;
+import org.hive2hive.core.model.FileIndex;
+import org.hive2hive.core.model.FolderIndex;
+import org.hive2hive.core.model.Index;
+import org.hive2hive.core.model.UserPermission;
+import org.hive2hive.core.model.versioned.UserProfile;
+
+import java.io.File;
+import java.util.Set;
+
+/**
+ * Builds the {@link FileNode} tree of a user profile and keeps the latest tree per session. As long as the
+ * version of the user profile does not change, the same tree is returned. The tree is shared among all
+ * callers and must therefore not be modified.
+ */
+public class FileListCache {
+
+	private Number160 versionKey;
+	private File rootFile;
+	private FileNode rootNode;
+
+	/**
+	 * Returns the file tree of the given user profile. The tree is only built if the profile has another
+	 * version than the one of the cached tree.
+	 *
+	 * @param profile the user profile
+	 * @param rootFile the root folder of the user
+	 * @return the root node of the file tree
+	 */
+	public synchronized FileNode getFileList(UserProfile profile, File rootFile) {
+		Number160 version = profile.getVersionKey();
+		if (rootNode != null && version.equals(versionKey) && rootFile.equals(this.rootFile)) {
+			return rootNode;
+		}
+
+		FileNode node = createFileList(profile.getRoot(), rootFile);
+		if (!Number160.ZERO.equals(version)) {
+			// a profile that has never been put has no distinct version
+			this.versionKey = version;
+			this.rootFile = rootFile;
+			this.rootNode = node;
+		}
+		return node;
+	}
+
+	/**
+	 * Drops the cached tree
+	 */
+	public synchronized void clear() {
+		versionKey = null;
+		rootFile = null;
+		rootNode = null;
+	}
+
+	/**
+	 * Builds the file tree in a single pass from the root downwards. The path, the file and the inherited
+	 * permissions of a node are derived from its parent node instead of walking up to the root for every
+	 * index.
+	 *
+	 * @param rootIndex the root of the user profile
+	 * @param rootFile the root folder of the user
+	 * @return the root node of the file tree
+	 */
+	public static FileNode createFileList(FolderIndex rootIndex, File rootFile) {
+		FileNode rootNode = new FileNode(null, rootFile, "", null, rootIndex.getUserPermissions());
+		addChildren(rootIndex, rootNode, "", rootIndex.getUserPermissions(), FileUtil.getFileSep());
+		return rootNode;
+	}
+
+	private static void addChildren(FolderIndex folder, FileNode folderNode, String folderPath,
+			Set<UserPermission> folderPermissions, String fileSep) {
+		for (Index child : folder.getChildren()) {
+			File file = new File(folderNode.getFile(), child.getName());
+			if (child.isFile()) {
+				// files have the permissions of their parent folder
+				folderNode.addChild(new FileNode(folderNode, file, folderPath + child.getName(), ((FileIndex) child)
+						.getMD5(), folderPermissions));
+			} else {
+				FolderIndex childFolder = (FolderIndex) child;
+				String path = folderPath + child.getName() + fileSep;
+				// a folder without own permissions inherits them from its parent
+				Set<UserPermission> permissions = childFolder.getUserPermissions().isEmpty() ? folderPermissions
+						: childFolder.getUserPermissions();
+				FileNode node = new FileNode(folderNode, file, path, null, permissions);
+				folderNode.addChild(node);
+				addChildren(childFolder, node, path, permissions, fileSep);
+			}
+		}
+	}
+}
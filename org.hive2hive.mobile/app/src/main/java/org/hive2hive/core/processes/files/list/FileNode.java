@@ -55,6 +55,13 @@ public class FileNode {
 		return children;
 	}
 
+	/**
+	 * Adds a child node without checking whether this node is a folder on disk
+	 */
+	void addChild(FileNode child) {
+		children.add(child);
+	}
+
 	/**
 	 * The name of the file
 	 * 
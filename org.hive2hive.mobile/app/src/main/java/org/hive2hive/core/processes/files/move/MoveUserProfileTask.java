@@ -4,14 +4,12 @@ import org.hive2hive.core.H2HSession;
 import org.hive2hive.core.events.framework.interfaces.IFileEventGenerator;
 import org.hive2hive.core.events.implementations.FileMoveEvent;
 import org.hive2hive.core.exceptions.AbortModifyException;
-import org.hive2hive.core.exceptions.Hive2HiveException;
 import org.hive2hive.core.exceptions.NoPeerConnectionException;
 import org.hive2hive.core.exceptions.NoSessionException;
 import org.hive2hive.core.model.FolderIndex;
 import org.hive2hive.core.model.Index;
 import org.hive2hive.core.model.versioned.UserProfile;
 import org.hive2hive.core.network.data.IUserProfileModification;
-import org.hive2hive.core.network.data.UserProfileManager;
 import org.hive2hive.core.network.userprofiletask.UserProfileTask;
 import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
 import org.slf4j.Logger;
@@ -50,24 +48,12 @@ public class MoveUserProfileTask extends UserProfileTask implements IUserProfile
 	}
 
 	@Override
-	public void start() {
-		H2HSession session;
-		try {
-			session = networkManager.getSession();
-		} catch (NoSessionException e) {
-			logger.error("No user seems to be logged in.", e);
-			return;
-		}
-
-		UserProfileManager profileManager = session.getProfileManager();
-
-		try {
-			profileManager.modifyUserProfile(getId(), this);
-		} catch (Hive2HiveException e) {
-			logger.error("Couldn't update / modify the user profile.", e);
-			return;
-		}
+	public IUserProfileModification createModification(H2HSession session) {
+		return this;
+	}
 
+	@Override
+	public void onModified(H2HSession session) {
 		try {
 			// notify own other clients
 			notifyOtherClients(new MoveNotificationMessageFactory(networkManager.getEncryption(), sourceFileName,
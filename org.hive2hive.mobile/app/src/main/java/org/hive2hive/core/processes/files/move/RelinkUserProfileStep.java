@@ -1,6 +1,7 @@
 package org.hive2hive.core.processes.files.move;
 
 import org.hive2hive.core.exceptions.AbortModifyException;
+import org.hive2hive.core.file.IFileAgent;
 import org.hive2hive.core.model.FolderIndex;
 import org.hive2hive.core.model.Index;
 import org.hive2hive.core.model.versioned.UserProfile;
@@ -42,16 +43,19 @@ public class RelinkUserProfileStep extends BaseModifyUserProfileStep {
 
 	private final MoveFileProcessContext context;
 	private final DataManager dataManger;
+	private final IFileAgent fileAgent;
 
 	// initialized during profile modification
 	private FolderIndex oldParentNode;
 	private FolderIndex newParentNode;
 	private Index movedNode;
 
-	public RelinkUserProfileStep(MoveFileProcessContext context, UserProfileManager profileManager, DataManager dataManger) {
+	public RelinkUserProfileStep(MoveFileProcessContext context, UserProfileManager profileManager,
+			DataManager dataManger, IFileAgent fileAgent) {
 		super(profileManager);
 		this.context = context;
 		this.dataManger = dataManger;
+		this.fileAgent = fileAgent;
 	}
 
 	@Override
@@ -94,7 +98,7 @@ public class RelinkUserProfileStep extends BaseModifyUserProfileStep {
 	private void initPKUpdateStep() {
 		MoveUpdateProtectionKeyContext pkUpdateContext = new MoveUpdateProtectionKeyContext(movedNode,
 				oldParentNode.getProtectionKeys(), newParentNode.getProtectionKeys());
-		getParent().insertAfter(new InitializeMetaUpdateStep(pkUpdateContext, dataManger), this);
+		getParent().insertAfter(new InitializeMetaUpdateStep(pkUpdateContext, dataManger, fileAgent), this);
 
 	}
 
@@ -6,10 +6,9 @@ import org.hive2hive.core.network.data.DataManager;
 import org.hive2hive.core.processes.context.UpdateFileProcessContext;
 import org.hive2hive.core.processes.files.delete.DeleteSingleChunkStep;
 import org.hive2hive.processframework.ProcessStep;
-import org.hive2hive.processframework.decorators.AsyncComponent;
+import org.hive2hive.processframework.composites.ParallelProcess;
 import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
 import org.hive2hive.processframework.exceptions.ProcessExecutionException;
-import org.hive2hive.processframework.interfaces.IProcessComponent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,17 +40,14 @@ public class CleanupChunksStep extends ProcessStep<Void> {
 		KeyPair protectionKeys = context.consumeChunkProtectionKeys();
 
 		logger.debug("Cleaning {} old file chunks.", chunksToDelete.size());
-		int counter = 0;
-		IProcessComponent<?> prev = this;
+		ParallelProcess deletionProcess = new ParallelProcess();
+		deletionProcess.setName("Cleanup Chunks Process");
 		for (MetaChunk metaChunk : chunksToDelete) {
-			logger.debug("Delete chunk {} of {}.", counter++, chunksToDelete.size());
-			DeleteSingleChunkStep deleteStep = new DeleteSingleChunkStep(metaChunk.getChunkId(), protectionKeys, dataManager);
-
-			// make async, insert it as next step
-			IProcessComponent<?> asyncDeletion = new AsyncComponent<>(deleteStep);
-			getParent().insertAfter(asyncDeletion, prev);
-			prev = asyncDeletion;
+			deletionProcess.add(new DeleteSingleChunkStep(metaChunk.getChunkId(), protectionKeys, dataManager));
 		}
+
+		// delete all chunks concurrently, insert it as next step
+		getParent().insertAfter(deletionProcess, this);
 		return null;
 	}
 }
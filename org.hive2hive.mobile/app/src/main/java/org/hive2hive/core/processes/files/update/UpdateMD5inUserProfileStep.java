@@ -39,7 +39,7 @@ public class UpdateMD5inUserProfileStep extends BaseModifyUserProfileStep {
 	@Override
 	protected void beforeModify() throws ProcessExecutionException {
 		try {
-			newMD5 = HashUtil.hash(context.consumeFile());
+			newMD5 = context.consumeFileHashCache().getHash(context.consumeFile());
 		} catch (IOException e) {
 			throw new ProcessExecutionException(this, "The new MD5 hash for the user profile could not be generated.");
 		}
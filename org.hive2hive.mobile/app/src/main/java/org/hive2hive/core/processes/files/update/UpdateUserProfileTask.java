@@ -5,7 +5,6 @@ import org.hive2hive.core.events.framework.interfaces.IFileEventGenerator;
 import org.hive2hive.core.events.implementations.FileUpdateEvent;
 import org.hive2hive.core.exceptions.AbortModificationCode;
 import org.hive2hive.core.exceptions.AbortModifyException;
-import org.hive2hive.core.exceptions.Hive2HiveException;
 import org.hive2hive.core.exceptions.NoPeerConnectionException;
 import org.hive2hive.core.exceptions.NoSessionException;
 import org.hive2hive.core.model.FileIndex;
@@ -13,7 +12,6 @@ import org.hive2hive.core.model.FolderIndex;
 import org.hive2hive.core.model.Index;
 import org.hive2hive.core.model.versioned.UserProfile;
 import org.hive2hive.core.network.data.IUserProfileModification;
-import org.hive2hive.core.network.data.UserProfileManager;
 import org.hive2hive.core.network.userprofiletask.UserProfileTask;
 import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
 import org.slf4j.Logger;
@@ -44,23 +42,12 @@ public class UpdateUserProfileTask extends UserProfileTask implements IUserProfi
 	}
 
 	@Override
-	public void start() {
-		H2HSession session;
-		try {
-			session = networkManager.getSession();
-		} catch (NoSessionException e) {
-			logger.error("No user seems to be logged in.", e);
-			return;
-		}
-
-		UserProfileManager profileManager = session.getProfileManager();
-		try {
-			profileManager.modifyUserProfile(getId(), this);
-		} catch (Hive2HiveException e) {
-			logger.error("Couldn't load / modify / update user profile.", e);
-			return;
-		}
+	public IUserProfileModification createModification(H2HSession session) {
+		return this;
+	}
 
+	@Override
+	public void onModified(H2HSession session) {
 		try {
 			// notify own other clients
 			notifyOtherClients(new UpdateNotificationMessageFactory(networkManager.getEncryption(), updatedFile));
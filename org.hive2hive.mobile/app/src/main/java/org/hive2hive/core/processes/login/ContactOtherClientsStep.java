@@ -1,5 +1,7 @@
 package org.hive2hive.core.processes.login;
 
+import net.tomp2p.futures.BaseFutureAdapter;
+import net.tomp2p.futures.FutureDone;
 import net.tomp2p.peers.PeerAddress;
 
 import org.hive2hive.core.H2HConstants;
@@ -15,6 +17,7 @@ import org.hive2hive.core.network.messages.direct.response.IResponseCallBackHand
 import org.hive2hive.core.network.messages.direct.response.ResponseMessage;
 import org.hive2hive.core.processes.ProcessFactory;
 import org.hive2hive.core.processes.context.LoginProcessContext;
+import org.hive2hive.core.processes.share.pkupdate.ResumeProtectionKeyMigrationsStep;
 import org.hive2hive.processframework.ProcessStep;
 import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
 import org.hive2hive.processframework.exceptions.ProcessExecutionException;
@@ -28,6 +31,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -37,9 +41,9 @@ public class ContactOtherClientsStep extends ProcessStep<Void> implements IRespo
 	private static final Logger logger = LoggerFactory.getLogger(ContactOtherClientsStep.class);
 
 	private final Map<PeerAddress, String> evidences = new ConcurrentHashMap<PeerAddress, String>();
-	private final Map<PeerAddress, Boolean> responses = new ConcurrentHashMap<PeerAddress, Boolean>();
+	private final ConcurrentMap<PeerAddress, Boolean> responses = new ConcurrentHashMap<PeerAddress, Boolean>();
 	private CountDownLatch waitForResponses;
-	private boolean isUpdated = false;
+	private volatile boolean isUpdated = false;
 
 	private final LoginProcessContext context;
 	private final MessageManager messageManager;
@@ -66,6 +70,7 @@ public class ContactOtherClientsStep extends ProcessStep<Void> implements IRespo
 		Locations locations = context.consumeLocations();
 
 		sendBlocking(locations.getPeerAddresses(), ownPublicKey);
+		logger.debug("Aliveness check done after {} ms.", context.reportPhase("aliveness check"));
 
 		locations.getPeerAddresses().clear();
 
@@ -89,40 +94,54 @@ public class ContactOtherClientsStep extends ProcessStep<Void> implements IRespo
 		if (NetworkUtils.choseFirstPeerAddress(clientAddresses).equals(ownAddress)) {
 			logger.debug("Node is master and needs to handle possible User Profile Tasks.");
 			if (getParent() != null) {
-				getParent().add(ProcessFactory.instance().createUserProfileTaskProcess(networkManager));
+				// the queue has been requested at the beginning of the login
+				getParent().add(
+						ProcessFactory.instance().createUserProfileTaskProcess(networkManager,
+								context.consumeUserProfileTasks()));
+				// the master also continues protection key changes of an interrupted share or move
+				getParent().add(new ResumeProtectionKeyMigrationsStep(networkManager));
 			}
 		}
 
 		return null;
 	}
 
-	private void sendBlocking(Set<PeerAddress> peerAddresses, final PublicKey ownPublicKey) {
-		waitForResponses = new CountDownLatch(peerAddresses.size());
+	private void sendBlocking(Set<PeerAddress> peerAddresses, PublicKey ownPublicKey) {
+		// contact all other clients (exclude self)
+		PeerAddress ownAddress = networkManager.getConnection().getPeer().peerAddress();
+		List<PeerAddress> otherAddresses = new ArrayList<PeerAddress>(peerAddresses.size());
+		for (PeerAddress address : peerAddresses) {
+			if (!address.equals(ownAddress)) {
+				otherAddresses.add(address);
+			}
+		}
+
+		// done as soon as every other client either answered or could not be reached
+		waitForResponses = new CountDownLatch(otherAddresses.size());
 		boolean hasSlowPeers = false;
-		for (final PeerAddress address : peerAddresses) {
-			// contact all other clients (exclude self)
-			if (!address.equals(networkManager.getConnection().getPeer().peerAddress())) {
-				logger.debug("Sending contact message to check for aliveness to {}", address);
-				String evidence = UUID.randomUUID().toString();
-				evidences.put(address, evidence);
-				hasSlowPeers = hasSlowPeers || address.isSlow();
-
-				final ContactPeerMessage message = new ContactPeerMessage(address, evidence);
-				message.setCallBackHandler(this);
-
-				// asynchronously send all messages (parallel)
-				new Thread(new Runnable() {
-					@Override
-					public void run() {
-						if (!messageManager.sendDirect(message, ownPublicKey)) {
-							responses.put(address, false);
-						}
+		for (final PeerAddress address : otherAddresses) {
+			logger.debug("Sending contact message to check for aliveness to {}", address);
+			String evidence = UUID.randomUUID().toString();
+			evidences.put(address, evidence);
+			hasSlowPeers = hasSlowPeers || address.isSlow();
+
+			ContactPeerMessage message = new ContactPeerMessage(address, evidence);
+			message.setCallBackHandler(this);
+
+			// send all messages in parallel, without a thread per message
+			FutureDone<Boolean> futureSend = messageManager.sendDirectUnblocked(message, ownPublicKey);
+			futureSend.addListener(new BaseFutureAdapter<FutureDone<Boolean>>() {
+				@Override
+				public void operationComplete(FutureDone<Boolean> future) throws Exception {
+					if (!future.isSuccess() || !future.object()) {
+						logger.debug("Could not contact {}, it is removed from the locations.", address);
+						resolve(address, false);
 					}
-				}).start();
-			}
+				}
+			});
 		}
 
-		// wait (blocking) until all responses are here or the time's up
+		// wait (blocking) until all clients are resolved or the time's up
 		int waitTime = hasSlowPeers ? H2HConstants.CONTACT_SLOW_PEERS_AWAIT_MS : H2HConstants.CONTACT_PEERS_AWAIT_MS;
 		try {
 			logger.debug("Waiting for at most {}ms for the response of other clients", waitTime);
@@ -134,6 +153,15 @@ public class ContactOtherClientsStep extends ProcessStep<Void> implements IRespo
 		isUpdated = true;
 	}
 
+	/**
+	 * Records the first outcome of contacting a client. Later outcomes of the same client are ignored.
+	 */
+	private void resolve(PeerAddress address, boolean alive) {
+		if (responses.putIfAbsent(address, alive) == null) {
+			waitForResponses.countDown();
+		}
+	}
+
 	@Override
 	public void handleResponseMessage(ResponseMessage responseMessage) {
 		if (isUpdated) {
@@ -144,10 +172,10 @@ public class ContactOtherClientsStep extends ProcessStep<Void> implements IRespo
 		}
 
 		// verify response
-		if (evidences.get(responseMessage.getSenderAddress()).equals((String) responseMessage.getContent())) {
+		String evidence = evidences.get(responseMessage.getSenderAddress());
+		if (evidence != null && evidence.equals((String) responseMessage.getContent())) {
 			logger.debug("Received valid response from {}", responseMessage.getSenderAddress());
-			responses.put(responseMessage.getSenderAddress(), true);
-			waitForResponses.countDown();
+			resolve(responseMessage.getSenderAddress(), true);
 		} else {
 			logger.error(
 					"Received during liveness check of other clients a wrong evidence content. Responding node = '{}'.",
@@ -1,6 +1,5 @@
 package org.hive2hive.core.processes.login;
 
-import org.hive2hive.core.exceptions.GetFailedException;
 import org.hive2hive.core.exceptions.NoSessionException;
 import org.hive2hive.core.model.versioned.Locations;
 import org.hive2hive.core.network.NetworkManager;
@@ -10,6 +9,8 @@ import org.hive2hive.processframework.ProcessStep;
 import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
 import org.hive2hive.processframework.exceptions.ProcessExecutionException;
 
+import java.util.concurrent.ExecutionException;
+
 public class GetLocationsStep extends ProcessStep<Void> {
 
 	private final LoginProcessContext context;
@@ -31,16 +32,19 @@ public class GetLocationsStep extends ProcessStep<Void> {
 		}
 
 		try {
-			context.provideLocations(locationsManager.get());
-		} catch (GetFailedException ex) {
+			// the locations have been requested at the beginning of the login
+			context.provideLocations(context.consumePrefetchedLocations().get());
+		} catch (ExecutionException ex) {
 			Locations locations = locationsManager.repairLocations();
 			if (locations == null) {
 				// even repairing failed
-				throw new ProcessExecutionException(this, ex);
+				throw new ProcessExecutionException(this, ex.getCause());
 			} else {
 				// repairing was successful
 				context.provideLocations(locations);
 			}
+		} catch (InterruptedException ex) {
+			throw new ProcessExecutionException(this, ex, "Waiting for the locations was interrupted.");
 		}
 		return null;
 	}
@@ -0,0 +1,104 @@
+package org.hive2hive.core.processes.login;
+
+import org.hive2hive.core.H2HConstants;
+import org.hive2hive.core.exceptions.NoPeerConnectionException;
+import org.hive2hive.core.file.FileUtil;
+import org.hive2hive.core.file.PersistentMetaData;
+import org.hive2hive.core.model.versioned.Locations;
+import org.hive2hive.core.model.versioned.UserProfile;
+import org.hive2hive.core.network.NetworkManager;
+import org.hive2hive.core.network.data.DataManager;
+import org.hive2hive.core.network.data.UserProfileManager;
+import org.hive2hive.core.network.data.vdht.VersionManager;
+import org.hive2hive.core.processes.context.LoginProcessContext;
+import org.hive2hive.core.security.PasswordUtil;
+import org.hive2hive.core.security.UserCredentials;
+import org.hive2hive.processframework.ProcessExecutor;
+import org.hive2hive.processframework.ProcessStep;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.crypto.SecretKey;
+
+/**
+ * Starts to fetch the user profile, the locations and the user profile task queue at once. All of them
+ * only depend on the credentials. The following login steps wait for the results they need. The user profile
+ * is not downloaded if the snapshot persisted by the last session is still up to date.
+ */
+public class PrefetchLoginDataStep extends ProcessStep<Void> {
+
+	private static final Logger logger = LoggerFactory.getLogger(PrefetchLoginDataStep.class);
+
+	private final LoginProcessContext context;
+	private final NetworkManager networkManager;
+
+	public PrefetchLoginDataStep(LoginProcessContext context, NetworkManager networkManager) {
+		this.setName(getClass().getName());
+		this.context = context;
+		this.networkManager = networkManager;
+	}
+
+	@Override
+	protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+		final DataManager dataManager;
+		try {
+			dataManager = networkManager.getDataManager();
+		} catch (NoPeerConnectionException ex) {
+			throw new ProcessExecutionException(this, ex);
+		}
+		final String userId = context.consumeUserId();
+
+		// the meta data of the last session may contain a snapshot of the user profile
+		final PersistentMetaData metaData = FileUtil.readPersistentMetaData(context.consumeSessionParameters()
+				.getFileAgent(), dataManager.getSerializer());
+		context.providePersistentMetaData(metaData);
+
+		try {
+			prefetch(dataManager, userId, metaData);
+		} catch (RejectedExecutionException ex) {
+			throw new ProcessExecutionException(this, ex, "The login data could not be prefetched.");
+		}
+
+		// only needed if this client is the master, but it is cheap to fetch it in the meantime
+		context.provideUserProfileTasks(dataManager.getUserProfileTasksUnblocked(userId));
+		return null;
+	}
+
+	/**
+	 * Fetches the user profile and the locations on the {@link ProcessExecutor}
+	 */
+	private void prefetch(final DataManager dataManager, final String userId, final PersistentMetaData metaData) {
+		// the key derivation of the profile manager is expensive as well, do it in parallel
+		context.provideUserProfile(ProcessExecutor.submit(new Callable<UserProfile>() {
+			@Override
+			public UserProfile call() throws Exception {
+				// derive the key only once, the session keeps it until the logout
+				UserCredentials credentials = context.consumeUserCredentials();
+				SecretKey encryptionKey = PasswordUtil.generateAESKeyFromPassword(credentials.getPassword(),
+						credentials.getPin(), H2HConstants.KEYLENGTH_USER_PROFILE);
+				context.provideUserProfileEncryptionKey(encryptionKey);
+
+				UserProfileManager profileManager = new UserProfileManager(dataManager, credentials, encryptionKey);
+				// if the snapshot is still the latest version, only the digest is fetched
+				profileManager.restoreSnapshot(metaData.getUserProfileSnapshot(credentials.getProfileLocationKey()));
+				context.provideUserProfileManager(profileManager);
+				UserProfile userProfile = profileManager.readUserProfile();
+				logger.debug("User profile ready after {} ms.", context.reportPhase("user profile"));
+				return userProfile;
+			}
+		}));
+		context.providePrefetchedLocations(ProcessExecutor.submit(new Callable<Locations>() {
+			@Override
+			public Locations call() throws Exception {
+				Locations locations = new VersionManager<Locations>(dataManager, userId, H2HConstants.USER_LOCATIONS).get();
+				logger.debug("Locations ready after {} ms.", context.reportPhase("locations"));
+				return locations;
+			}
+		}));
+	}
+}
@@ -8,12 +8,16 @@ import org.hive2hive.core.processes.context.LoginProcessContext;
 import org.hive2hive.processframework.ProcessStep;
 import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
 import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * @author Seppi
  */
 public class PutLocationsStep extends ProcessStep<Void> {
 
+	private static final Logger logger = LoggerFactory.getLogger(PutLocationsStep.class);
+
 	private final NetworkManager networkManager;
 	private final LoginProcessContext context;
 
@@ -31,6 +35,10 @@ public class PutLocationsStep extends ProcessStep<Void> {
 		} catch (PutFailedException | NoSessionException ex) {
 			throw new ProcessExecutionException(this, ex);
 		}
+
+		long elapsed = context.reportPhase("locations put");
+		logger.info("Login of user '{}' ready after {} ms. Time to ready per phase: {}", context.consumeUserId(),
+				elapsed, context.getPhaseTimes());
 		return null;
 	}
 
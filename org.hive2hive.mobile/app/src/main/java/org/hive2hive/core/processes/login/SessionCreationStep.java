@@ -1,26 +1,28 @@
 package org.hive2hive.core.processes.login;
 
 import org.hive2hive.core.H2HSession;
-import org.hive2hive.core.exceptions.GetFailedException;
 import org.hive2hive.core.exceptions.NoPeerConnectionException;
-import org.hive2hive.core.file.FileUtil;
 import org.hive2hive.core.file.PersistentMetaData;
 import org.hive2hive.core.model.versioned.UserProfile;
 import org.hive2hive.core.network.NetworkManager;
 import org.hive2hive.core.network.data.PublicKeyManager;
-import org.hive2hive.core.network.data.UserProfileManager;
 import org.hive2hive.core.network.data.download.DownloadManager;
 import org.hive2hive.core.network.data.vdht.LocationsManager;
 import org.hive2hive.core.processes.context.LoginProcessContext;
 import org.hive2hive.processframework.ProcessStep;
 import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
 import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.security.PublicKey;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 public class SessionCreationStep extends ProcessStep<Void> {
 
+	private static final Logger logger = LoggerFactory.getLogger(SessionCreationStep.class);
+
 	private final LoginProcessContext context;
 	private final NetworkManager networkManager;
 
@@ -36,22 +38,18 @@ public class SessionCreationStep extends ProcessStep<Void> {
 		try {
 			SessionParameters params = context.consumeSessionParameters();
 
-			// create user profile manager
-			UserProfileManager userProfileManager = new UserProfileManager(networkManager.getDataManager(),
-					context.consumeUserCredentials());
-			params.setUserProfileManager(userProfileManager);
-
-			// load user profile
-			UserProfile userProfile = userProfileManager.readUserProfile();
+			// wait for the user profile, which has been requested together with the user profile manager
+			UserProfile userProfile = context.consumeUserProfile().get();
+			params.setUserProfileManager(context.consumeUserProfileManager());
+			params.setProfileEncryptionKey(context.consumeUserProfileEncryptionKey());
 
 			// create the locations manager
 			LocationsManager locationsManager = new LocationsManager(networkManager.getDataManager(),
 					context.consumeUserId(), userProfile.getProtectionKeys());
 			params.setLocationsManager(locationsManager);
 
-			// get the persistently cached items
-			PersistentMetaData metaData = FileUtil.readPersistentMetaData(params.getFileAgent(), networkManager
-					.getDataManager().getSerializer());
+			// get the persistently cached items (read together with the user profile snapshot)
+			PersistentMetaData metaData = context.consumePersistentMetaData();
 
 			// create the key manager
 			PublicKeyManager keyManager = new PublicKeyManager(userProfile.getUserId(), userProfile.getEncryptionKeys(),
@@ -64,6 +62,9 @@ public class SessionCreationStep extends ProcessStep<Void> {
 			}
 			params.setKeyManager(keyManager);
 
+			// the hashes of the local files from the last session
+			params.setFileHashCache(metaData.getFileHashCache());
+
 			// create the download manager
 			DownloadManager downloadManager = networkManager.getDownloadManager();
 			params.setDownloadManager(downloadManager);
@@ -72,13 +73,16 @@ public class SessionCreationStep extends ProcessStep<Void> {
 			session = new H2HSession(params);
 		} catch (NoPeerConnectionException ex) {
 			throw new ProcessExecutionException(this, ex, "Session could not be created.");
-		} catch (GetFailedException ex) {
-			throw new ProcessExecutionException(this, ex);
+		} catch (ExecutionException ex) {
+			throw new ProcessExecutionException(this, ex.getCause());
+		} catch (InterruptedException ex) {
+			throw new ProcessExecutionException(this, ex, "Waiting for the user profile was interrupted.");
 		}
 
 		// set session
 		networkManager.setSession(session);
 		setRequiresRollback(true);
+		logger.debug("Session ready after {} ms.", context.reportPhase("session"));
 
 		return null;
 	}
@@ -1,11 +1,14 @@
 package org.hive2hive.core.processes.login;
 
+import org.hive2hive.core.file.FileHashCache;
 import org.hive2hive.core.file.IFileAgent;
 import org.hive2hive.core.network.data.PublicKeyManager;
 import org.hive2hive.core.network.data.UserProfileManager;
 import org.hive2hive.core.network.data.download.DownloadManager;
 import org.hive2hive.core.network.data.vdht.LocationsManager;
 
+import javax.crypto.SecretKey;
+
 public class SessionParameters {
 
 	private final IFileAgent fileAgent;
@@ -14,6 +17,8 @@ public class SessionParameters {
 	private LocationsManager locationsManager;
 	private DownloadManager downloadManager;
 	private PublicKeyManager keyManager;
+	private FileHashCache fileHashCache;
+	private SecretKey profileEncryptionKey;
 
 	public SessionParameters(IFileAgent fileAgent) {
 		this.fileAgent = fileAgent;
@@ -51,6 +56,22 @@ public class SessionParameters {
 		this.locationsManager = locationsManager;
 	}
 
+	public FileHashCache getFileHashCache() {
+		return fileHashCache;
+	}
+
+	public void setFileHashCache(FileHashCache fileHashCache) {
+		this.fileHashCache = fileHashCache;
+	}
+
+	public SecretKey getProfileEncryptionKey() {
+		return profileEncryptionKey;
+	}
+
+	public void setProfileEncryptionKey(SecretKey profileEncryptionKey) {
+		this.profileEncryptionKey = profileEncryptionKey;
+	}
+
 	public IFileAgent getFileAgent() {
 		return fileAgent;
 	}
@@ -0,0 +1,30 @@
+package org.hive2hive.core.processes.logout;
+
+import org.hive2hive.core.security.DestroyableSecretKey;
+import org.hive2hive.processframework.ProcessStep;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+
+import javax.crypto.SecretKey;
+
+/**
+ * Overwrites the user profile key of the session. This is the last step of the logout, because the key cannot
+ * be restored in case of a rollback.
+ */
+public class DestroyProfileKeyStep extends ProcessStep<Void> {
+
+	private final SecretKey profileEncryptionKey;
+
+	public DestroyProfileKeyStep(SecretKey profileEncryptionKey) {
+		this.profileEncryptionKey = profileEncryptionKey;
+		this.setName(getClass().getName());
+	}
+
+	@Override
+	protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+		if (profileEncryptionKey instanceof DestroyableSecretKey) {
+			((DestroyableSecretKey) profileEncryptionKey).destroy();
+		}
+		return null;
+	}
+}
@@ -1,8 +1,10 @@
 package org.hive2hive.core.processes.logout;
 
+import org.hive2hive.core.file.FileHashCache;
 import org.hive2hive.core.file.FileUtil;
 import org.hive2hive.core.file.IFileAgent;
 import org.hive2hive.core.network.data.PublicKeyManager;
+import org.hive2hive.core.network.data.UserProfileManager;
 import org.hive2hive.core.serializer.IH2HSerialize;
 import org.hive2hive.processframework.ProcessStep;
 import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
@@ -18,12 +20,17 @@ public class WritePersistentStep extends ProcessStep<Void> {
 
 	private final IFileAgent fileAgent;
 	private final PublicKeyManager keyManager;
+	private final FileHashCache fileHashCache;
+	private final UserProfileManager profileManager;
 	private final IH2HSerialize serializer;
 
-	public WritePersistentStep(IFileAgent fileAgent, PublicKeyManager keyManager, IH2HSerialize serializer) {
+	public WritePersistentStep(IFileAgent fileAgent, PublicKeyManager keyManager, FileHashCache fileHashCache,
+			UserProfileManager profileManager, IH2HSerialize serializer) {
 		this.serializer = serializer;
 		this.fileAgent = fileAgent;
 		this.keyManager = keyManager;
+		this.fileHashCache = fileHashCache;
+		this.profileManager = profileManager;
 		this.setName(getClass().getName());
 	}
 
@@ -31,7 +38,7 @@ public class WritePersistentStep extends ProcessStep<Void> {
 	protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
 		try {
 			// write the current state to a meta file
-			FileUtil.writePersistentMetaData(fileAgent, keyManager, serializer);
+			FileUtil.writePersistentMetaData(fileAgent, keyManager, fileHashCache, profileManager, serializer);
 		} catch (IOException ex) {
 			// it's not mandatory, but recommended. Thus we don't rollback the logout process here
 			logger.error("Meta data could not be persisted.", ex);
@@ -8,7 +8,9 @@ import org.hive2hive.core.model.versioned.Locations;
 import org.hive2hive.core.network.data.DataManager;
 import org.hive2hive.core.processes.common.base.BaseGetProcessStep;
 import org.hive2hive.core.processes.context.NotifyProcessContext;
+import org.hive2hive.processframework.composites.ParallelProcess;
 import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -16,14 +18,14 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Gets all locations of a given list of users (iterative). If all locations are fetched, this step sends
+ * Gets all locations of a given list of users (in parallel). If all locations are fetched, this step sends
  * them.
  * 
  * @author Nico
  */
-// TODO: do parallel for faster processing
 public class GetAllLocationsStep extends BaseGetProcessStep {
 
 	private static final Logger logger = LoggerFactory.getLogger(GetAllLocationsStep.class);
@@ -36,25 +38,33 @@ public class GetAllLocationsStep extends BaseGetProcessStep {
 	}
 
 	@Override
-	protected Void doExecute() throws InvalidProcessStateException {
+	protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
 		logger.debug("Starting to get all locations from the users to be notified.");
-		Map<String, List<PeerAddress>> allLocations = new HashMap<String, List<PeerAddress>>();
-
-		// iterate over all users and get the locations of them
-		for (String userId : context.consumeUsersToNotify()) {
-			BaseNetworkContent content = get(userId, H2HConstants.USER_LOCATIONS);
-			if (content == null) {
-				allLocations.put(userId, new ArrayList<PeerAddress>());
-			} else {
-				Locations currentLoc = (Locations) content;
-				List<PeerAddress> addresses = new ArrayList<PeerAddress>(currentLoc.getPeerAddresses());
-				allLocations.put(userId, addresses);
-			}
+		final Map<String, List<PeerAddress>> allLocations = new ConcurrentHashMap<String, List<PeerAddress>>();
+
+		// get the locations of all users concurrently
+		ParallelProcess process = new ParallelProcess();
+		for (final String userId : context.consumeUsersToNotify()) {
+			process.add(new BaseGetProcessStep(dataManager) {
+				@Override
+				protected Void doExecute() throws InvalidProcessStateException {
+					BaseNetworkContent content = get(userId, H2HConstants.USER_LOCATIONS);
+					if (content == null) {
+						allLocations.put(userId, new ArrayList<PeerAddress>());
+					} else {
+						Locations currentLoc = (Locations) content;
+						List<PeerAddress> addresses = new ArrayList<PeerAddress>(currentLoc.getPeerAddresses());
+						allLocations.put(userId, addresses);
+					}
+					return null;
+				}
+			});
 		}
+		process.execute();
 
 		// done with all locations
 		logger.debug("Sending notifications to {} users: ", allLocations.size(), allLocations.keySet().toArray());
-		context.setAllLocations(allLocations);
+		context.setAllLocations(new HashMap<String, List<PeerAddress>>(allLocations));
 
 		return null;
 	}
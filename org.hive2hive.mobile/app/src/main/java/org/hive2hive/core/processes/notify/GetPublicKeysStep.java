@@ -5,7 +5,9 @@ import org.hive2hive.core.exceptions.NoPeerConnectionException;
 import org.hive2hive.core.network.data.PublicKeyManager;
 import org.hive2hive.core.processes.context.NotifyProcessContext;
 import org.hive2hive.processframework.ProcessStep;
+import org.hive2hive.processframework.composites.ParallelProcess;
 import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,14 +15,14 @@ import java.security.PublicKey;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Gets all public keys from these users iteratively
+ * Gets all public keys from these users in parallel
  * 
  * @author Nico
  * 
  */
-// TODO get the keys in parallel
 public class GetPublicKeysStep extends ProcessStep<Void> {
 
 	private static final Logger logger = LoggerFactory.getLogger(GetPublicKeysStep.class);
@@ -34,23 +36,30 @@ public class GetPublicKeysStep extends ProcessStep<Void> {
 	}
 
 	@Override
-	protected Void doExecute() throws InvalidProcessStateException {
+	protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
 		Set<String> users = context.consumeUsersToNotify();
 
 		logger.debug("Start getting public keys from {} user(s).", users.size());
-		Map<String, PublicKey> keys = new HashMap<String, PublicKey>();
-
-		for (String user : users) {
-			try {
-				PublicKey key = keyManager.getPublicKey(user);
-				keys.put(user, key);
-			} catch (GetFailedException e) {
-				logger.error("Could not get the key for user {}", user);
-			}
+		final Map<String, PublicKey> keys = new ConcurrentHashMap<String, PublicKey>();
+
+		ParallelProcess process = new ParallelProcess();
+		for (final String user : users) {
+			process.add(new ProcessStep<Void>() {
+				@Override
+				protected Void doExecute() {
+					try {
+						keys.put(user, keyManager.getPublicKey(user));
+					} catch (GetFailedException e) {
+						logger.error("Could not get the key for user {}", user);
+					}
+					return null;
+				}
+			});
 		}
+		process.execute();
 
 		// store the keys to the context
-		context.setUserPublicKeys(keys);
+		context.setUserPublicKeys(new HashMap<String, PublicKey>(keys));
 		
 		return null;
 	}
@@ -9,6 +9,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.security.PublicKey;
+import java.util.HashMap;
 import java.util.Map;
 
 public class PutAllUserProfileTasksStep extends PutUserProfileTaskStep {
@@ -33,20 +34,27 @@ public class PutAllUserProfileTasksStep extends PutUserProfileTaskStep {
 		}
 
 		Map<String, PublicKey> userPublicKeys = context.getUserPublicKeys();
+		Map<String, PublicKey> recipients = new HashMap<String, PublicKey>();
 		for (String user : context.consumeUsersToNotify()) {
 			if (user.equalsIgnoreCase(networkManager.getUserId())) {
 				// do not put a UPtask in the own queue
 				continue;
 			}
-
-			try {
-				// put the profile task to the queue
-				put(user, userProfileTask, userPublicKeys.get(user));
-			} catch (Exception e) {
-				logger.error("Could not put the user profile task to the queue of user '{}'." + user, e);
+			PublicKey publicKey = userPublicKeys.get(user);
+			if (publicKey == null) {
+				logger.error("Could not put the user profile task to the queue of user '{}'. Public key is missing.", user);
+				continue;
 			}
+			recipients.put(user, publicKey);
 		}
-		
+
+		try {
+			// put the profile task to the queues, encrypted only once
+			putAll(userProfileTask, recipients);
+		} catch (Exception e) {
+			logger.error("Could not put the user profile task to the queues of all users.", e);
+		}
+
 		return null;
 	}
 }
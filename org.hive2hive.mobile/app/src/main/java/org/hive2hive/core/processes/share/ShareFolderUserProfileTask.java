@@ -6,7 +6,6 @@ import org.hive2hive.core.events.framework.interfaces.file.IFileShareEvent;
 import org.hive2hive.core.events.implementations.FileAddEvent;
 import org.hive2hive.core.events.implementations.FileShareEvent;
 import org.hive2hive.core.exceptions.AbortModifyException;
-import org.hive2hive.core.exceptions.Hive2HiveException;
 import org.hive2hive.core.exceptions.NoPeerConnectionException;
 import org.hive2hive.core.exceptions.NoSessionException;
 import org.hive2hive.core.model.FolderIndex;
@@ -14,7 +13,6 @@ import org.hive2hive.core.model.Index;
 import org.hive2hive.core.model.UserPermission;
 import org.hive2hive.core.model.versioned.UserProfile;
 import org.hive2hive.core.network.data.IUserProfileModification;
-import org.hive2hive.core.network.data.UserProfileManager;
 import org.hive2hive.core.network.userprofiletask.UserProfileTask;
 import org.hive2hive.core.processes.files.add.AddNotificationMessageFactory;
 import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
@@ -40,34 +38,17 @@ public class ShareFolderUserProfileTask extends UserProfileTask implements IUser
 	}
 
 	@Override
-	public void start() {
-		if (this.networkManager == null) {
-			logger.error("NetworkManager is not set.");
-			return;
-		}
-
-		H2HSession session;
-		try {
-			session = networkManager.getSession();
-		} catch (NoSessionException e) {
-			logger.error("No user seems to be logged in.", e);
-			return;
-		}
-
+	public IUserProfileModification createModification(H2HSession session) {
 		logger.debug("Executing a shared folder user profile task.");
 
 		// TODO before changing the user profile, the user should be asked to accept / decline the share
 		// invitation. If the invitation is accepted, the UP should be updated and all events should be
 		// triggered. If declined, the sender should be informed about it.
+		return this;
+	}
 
-		UserProfileManager profileManager = session.getProfileManager();
-		try {
-			profileManager.modifyUserProfile(getId(), this);
-		} catch (Hive2HiveException e) {
-			logger.error("Cannot execute the share user profile task.", e);
-			return;
-		}
-
+	@Override
+	public void onModified(H2HSession session) {
 		/** Case when shared with me: Notify others that files are available */
 		if (networkManager.getUserId().equals(addedSharer.getUserId())) {
 			// trigger event that file has been shared
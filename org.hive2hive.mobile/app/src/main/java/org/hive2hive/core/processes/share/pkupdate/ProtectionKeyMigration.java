@@ -0,0 +1,163 @@
+package org.hive2hive.core.processes.share.pkupdate;
+
+import net.tomp2p.peers.Number160;
+
+import org.hive2hive.core.network.data.parameters.IParameters;
+import org.hive2hive.core.network.data.parameters.Parameters;
+
+import java.io.Serializable;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The state of a protection key migration, i.e. the change of the protection keys of all meta files and
+ * chunks below a folder that gets shared or moved. The state only contains public keys. Thus, it can be
+ * persisted and an interrupted migration can be resumed with the key pairs from the user profile.
+ *
+ * Files whose meta file has not been read yet are pending as files. Reading the meta file resolves them to
+ * the entries (the meta file and its chunks) whose protection keys need to be changed.
+ */
+public class ProtectionKeyMigration implements Serializable {
+
+	private static final long serialVersionUID = 5325498321450417839L;
+
+	private final String id;
+	private final PublicKey oldProtectionKey;
+	private final PublicKey newProtectionKey;
+	private final Set<PublicKey> pendingFiles;
+	private final Set<Entry> pendingEntries;
+	private int migrated;
+
+	public ProtectionKeyMigration(PublicKey oldProtectionKey, PublicKey newProtectionKey, Collection<PublicKey> files) {
+		this.id = UUID.randomUUID().toString();
+		this.oldProtectionKey = oldProtectionKey;
+		this.newProtectionKey = newProtectionKey;
+		this.pendingFiles = new HashSet<PublicKey>(files);
+		this.pendingEntries = new HashSet<Entry>();
+		this.migrated = 0;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public PublicKey getOldProtectionKey() {
+		return oldProtectionKey;
+	}
+
+	public PublicKey getNewProtectionKey() {
+		return newProtectionKey;
+	}
+
+	public synchronized List<PublicKey> getPendingFiles() {
+		return new ArrayList<PublicKey>(pendingFiles);
+	}
+
+	public synchronized List<Entry> getPendingEntries() {
+		return new ArrayList<Entry>(pendingEntries);
+	}
+
+	/**
+	 * The meta file of a file has been read, its entries can be migrated now
+	 */
+	public synchronized void resolveFile(PublicKey fileKey, Collection<Entry> entries) {
+		if (pendingFiles.remove(fileKey)) {
+			pendingEntries.addAll(entries);
+		}
+	}
+
+	/**
+	 * The file does not exist anymore, there is nothing to migrate
+	 */
+	public synchronized void removeFile(PublicKey fileKey) {
+		pendingFiles.remove(fileKey);
+	}
+
+	/**
+	 * The protection keys of the entries have been changed
+	 */
+	public synchronized void migrated(Collection<Entry> entries) {
+		for (Entry entry : entries) {
+			if (pendingEntries.remove(entry)) {
+				migrated++;
+			}
+		}
+	}
+
+	/**
+	 * The protection keys of the entries have been changed back by a rollback, they are pending again
+	 */
+	public synchronized void reverted(Collection<Entry> entries) {
+		for (Entry entry : entries) {
+			if (pendingEntries.add(entry)) {
+				migrated--;
+			}
+		}
+	}
+
+	public synchronized boolean isDone() {
+		return pendingFiles.isEmpty() && pendingEntries.isEmpty();
+	}
+
+	/**
+	 * @return the progress between 0 and 1. Pending files count as one entry until their meta file is read.
+	 */
+	public synchronized double getProgress() {
+		int total = migrated + pendingFiles.size() + pendingEntries.size();
+		return total == 0 ? 1.0 : (double) migrated / total;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("ProtectionKeyMigration[id=%s, migrated=%s, pending entries=%s, pending files=%s]", id,
+				migrated, pendingEntries.size(), pendingFiles.size());
+	}
+
+	/**
+	 * A single entry in the DHT whose protection keys need to be changed
+	 */
+	public static class Entry implements Serializable {
+
+		private static final long serialVersionUID = -3473284478553911542L;
+
+		private final String locationKey;
+		private final String contentKey;
+		private final Number160 versionKey;
+		private final int ttl;
+
+		public Entry(String locationKey, String contentKey, Number160 versionKey, int ttl) {
+			this.locationKey = locationKey;
+			this.contentKey = contentKey;
+			this.versionKey = versionKey;
+			this.ttl = ttl;
+		}
+
+		public IParameters toParameters(KeyPair protectionKeys, KeyPair newProtectionKeys) {
+			return new Parameters().setLocationKey(locationKey).setContentKey(contentKey).setVersionKey(versionKey)
+					.setTTL(ttl).setProtectionKeys(protectionKeys).setNewProtectionKeys(newProtectionKeys);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (31 * locationKey.hashCode() + contentKey.hashCode()) + versionKey.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			} else if (!(obj instanceof Entry)) {
+				return false;
+			}
+			Entry other = (Entry) obj;
+			return locationKey.equals(other.locationKey) && contentKey.equals(other.contentKey)
+					&& versionKey.equals(other.versionKey);
+		}
+	}
+}
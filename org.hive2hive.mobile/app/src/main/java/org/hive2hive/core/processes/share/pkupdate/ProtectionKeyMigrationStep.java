@@ -0,0 +1,281 @@
+package org.hive2hive.core.processes.share.pkupdate;
+
+import org.hive2hive.core.H2HConstants;
+import org.hive2hive.core.TimeToLiveStore;
+import org.hive2hive.core.file.IFileAgent;
+import org.hive2hive.core.model.FileVersion;
+import org.hive2hive.core.model.MetaChunk;
+import org.hive2hive.core.model.versioned.BaseMetaFile;
+import org.hive2hive.core.model.versioned.HybridEncryptedContent;
+import org.hive2hive.core.model.versioned.MetaFileSmall;
+import org.hive2hive.core.network.data.DataManager;
+import org.hive2hive.core.network.data.parameters.IParameters;
+import org.hive2hive.core.network.data.parameters.Parameters;
+import org.hive2hive.core.processes.share.pkupdate.ProtectionKeyMigration.Entry;
+import org.hive2hive.core.security.H2HDefaultEncryption;
+import org.hive2hive.processframework.ProcessExecutor;
+import org.hive2hive.processframework.ProcessState;
+import org.hive2hive.processframework.ProcessStep;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Changes the protection keys of all meta files and chunks of a {@link ProtectionKeyMigration}. The meta
+ * files are read and the entries are changed in batches, with at most
+ * {@link H2HConstants#PK_MIGRATION_CONCURRENCY} operations in flight on the shared {@link ProcessExecutor}.
+ * Every batch is a single grouped request, such that each responsible peer changes all its entries of the batch
+ * at once.
+ *
+ * The state of the migration is persisted after every batch. Entries that still could not be changed after
+ * some retries stay in the persisted state and the migration is resumed at the next login (see
+ * {@link ResumeProtectionKeyMigrationsStep}).
+ */
+public class ProtectionKeyMigrationStep extends ProcessStep<Void> {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProtectionKeyMigrationStep.class);
+
+	private final ProtectionKeyMigration migration;
+	private final KeyPair oldProtectionKeys;
+	private final KeyPair newProtectionKeys;
+	private final Map<PublicKey, KeyPair> fileKeys;
+	private final DataManager dataManager;
+	private final IFileAgent fileAgent;
+	private final boolean revertible;
+
+	// the entries changed by this step, they are changed back at a rollback
+	private final List<Entry> changedEntries = new ArrayList<Entry>();
+
+	/**
+	 * @param migration the state of the migration
+	 * @param oldProtectionKeys the current protection keys of the entries
+	 * @param newProtectionKeys the protection keys to set
+	 * @param fileKeys the key pairs of the pending files of the migration, used to read their meta files
+	 * @param dataManager the data manager
+	 * @param fileAgent the file agent to persist the migration
+	 * @param revertible whether a rollback changes the protection keys back. A resumed migration belongs to a
+	 *            process that has already finished and is not reverted.
+	 */
+	public ProtectionKeyMigrationStep(ProtectionKeyMigration migration, KeyPair oldProtectionKeys,
+			KeyPair newProtectionKeys, Map<PublicKey, KeyPair> fileKeys, DataManager dataManager, IFileAgent fileAgent,
+			boolean revertible) {
+		this.setName(getClass().getName());
+		this.migration = migration;
+		this.oldProtectionKeys = oldProtectionKeys;
+		this.newProtectionKeys = newProtectionKeys;
+		this.fileKeys = fileKeys;
+		this.dataManager = dataManager;
+		this.fileAgent = fileAgent;
+		this.revertible = revertible;
+	}
+
+	@Override
+	protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+		logger.debug("Start to change the protection keys. {}", migration);
+		ProtectionKeyMigrationStore.store(fileAgent, dataManager.getSerializer(), migration);
+
+		try {
+			for (int i = 0; i < H2HConstants.PUT_RETRIES && !migration.isDone(); i++) {
+				resolveFiles();
+				change(migration.getPendingEntries(), oldProtectionKeys, newProtectionKeys, true);
+				// entries changed right before an interruption already have the new protection keys, such
+				// entries accept a change signed with the new protection keys
+				change(migration.getPendingEntries(), newProtectionKeys, newProtectionKeys, true);
+			}
+		} catch (InterruptedException ex) {
+			throw new ProcessExecutionException(this, ex, "Changing the protection keys was interrupted.");
+		} catch (RejectedExecutionException ex) {
+			throw new ProcessExecutionException(this, ex, "Changing the protection keys could not be scheduled.");
+		} finally {
+			setRequiresRollback(revertible && !changedEntries.isEmpty());
+		}
+
+		if (migration.isDone()) {
+			logger.debug("Changed all protection keys. {}", migration);
+		} else {
+			logger.warn("Could not change all protection keys, the migration is resumed at the next login. {}",
+					migration);
+		}
+		return null;
+	}
+
+	/**
+	 * Reads the meta files of the pending files concurrently and resolves them to their entries.
+	 */
+	private void resolveFiles() throws InterruptedException {
+		Queue<PublicKey> filesInFlight = new ArrayDeque<PublicKey>(H2HConstants.PK_MIGRATION_CONCURRENCY);
+		Queue<Future<List<Entry>>> inFlight = new ArrayDeque<Future<List<Entry>>>(H2HConstants.PK_MIGRATION_CONCURRENCY);
+		for (final PublicKey fileKey : migration.getPendingFiles()) {
+			final KeyPair keys = fileKeys.get(fileKey);
+			if (keys == null) {
+				logger.warn("The file '{}' does not exist anymore.", H2HDefaultEncryption.key2String(fileKey));
+				migration.removeFile(fileKey);
+				continue;
+			}
+			if (inFlight.size() >= H2HConstants.PK_MIGRATION_CONCURRENCY) {
+				resolveFile(filesInFlight.poll(), inFlight.poll());
+			}
+			filesInFlight.add(fileKey);
+			inFlight.add(ProcessExecutor.submit(new Callable<List<Entry>>() {
+				@Override
+				public List<Entry> call() throws Exception {
+					return getEntries(keys);
+				}
+			}));
+		}
+
+		while (!inFlight.isEmpty()) {
+			resolveFile(filesInFlight.poll(), inFlight.poll());
+		}
+		ProtectionKeyMigrationStore.store(fileAgent, dataManager.getSerializer(), migration);
+	}
+
+	private void resolveFile(PublicKey fileKey, Future<List<Entry>> resolved) throws InterruptedException {
+		try {
+			List<Entry> entries = resolved.get();
+			if (entries != null) {
+				migration.resolveFile(fileKey, entries);
+			}
+		} catch (ExecutionException ex) {
+			logger.error("Could not read the meta file of '{}'.", H2HDefaultEncryption.key2String(fileKey), ex.getCause());
+		}
+	}
+
+	/**
+	 * @return the meta file and the chunks of the file or <code>null</code> if the meta file is not found
+	 */
+	private List<Entry> getEntries(KeyPair fileKeys) throws Exception {
+		String locationKey = H2HDefaultEncryption.key2String(fileKeys.getPublic());
+		HybridEncryptedContent encrypted = (HybridEncryptedContent) dataManager.get(new Parameters().setLocationKey(
+				locationKey).setContentKey(H2HConstants.META_FILE));
+		if (encrypted == null) {
+			logger.warn("Meta file of '{}' not found.", locationKey);
+			return null;
+		}
+		BaseMetaFile metaFile = (BaseMetaFile) dataManager.getEncryption().decryptHybrid(encrypted,
+				fileKeys.getPrivate());
+
+		List<Entry> entries = new ArrayList<Entry>();
+		entries.add(new Entry(locationKey, H2HConstants.META_FILE, encrypted.getVersionKey(), TimeToLiveStore
+				.getInstance().getMetaFile()));
+		if (metaFile.isSmall()) {
+			for (FileVersion version : ((MetaFileSmall) metaFile).getVersions()) {
+				for (MetaChunk metaChunk : version.getMetaChunks()) {
+					entries.add(new Entry(metaChunk.getChunkId(), H2HConstants.FILE_CHUNK, H2HConstants.TOMP2P_DEFAULT_KEY,
+							TimeToLiveStore.getInstance().getChunk()));
+				}
+			}
+		}
+		return entries;
+	}
+
+	/**
+	 * Changes the protection keys of the entries in concurrent batches. The changed entries are recorded in the
+	 * persisted migration after every batch.
+	 *
+	 * @param forward whether the entries are migrated or a migration is rolled back
+	 * @return the entries that have been changed
+	 */
+	private List<Entry> change(List<Entry> entries, final KeyPair protectionKeys, final KeyPair newProtectionKeys,
+			boolean forward) throws InterruptedException {
+		List<Entry> changed = new ArrayList<Entry>(entries.size());
+		Queue<Future<List<Entry>>> inFlight = new ArrayDeque<Future<List<Entry>>>(H2HConstants.PK_MIGRATION_CONCURRENCY);
+		for (int i = 0; i < entries.size(); i += H2HConstants.PK_MIGRATION_BATCH_SIZE) {
+			if (inFlight.size() >= H2HConstants.PK_MIGRATION_CONCURRENCY) {
+				changed.addAll(awaitBatch(inFlight.poll(), forward));
+			}
+			final List<Entry> batch = entries.subList(i, Math.min(i + H2HConstants.PK_MIGRATION_BATCH_SIZE, entries.size()));
+			inFlight.add(ProcessExecutor.submit(new Callable<List<Entry>>() {
+				@Override
+				public List<Entry> call() throws Exception {
+					Map<IParameters, Entry> parameters = new IdentityHashMap<IParameters, Entry>(batch.size());
+					for (Entry entry : batch) {
+						parameters.put(entry.toParameters(protectionKeys, newProtectionKeys), entry);
+					}
+					List<Entry> changed = new ArrayList<Entry>(batch.size());
+					for (IParameters parameter : dataManager.changeProtectionKeys(new ArrayList<IParameters>(parameters
+							.keySet()))) {
+						changed.add(parameters.get(parameter));
+					}
+					return changed;
+				}
+			}));
+		}
+
+		while (!inFlight.isEmpty()) {
+			changed.addAll(awaitBatch(inFlight.poll(), forward));
+		}
+		return changed;
+	}
+
+	private List<Entry> awaitBatch(Future<List<Entry>> batch, boolean forward) throws InterruptedException {
+		List<Entry> result;
+		try {
+			result = batch.get();
+		} catch (ExecutionException ex) {
+			logger.error("Could not change the protection keys of a batch.", ex.getCause());
+			return new ArrayList<Entry>(0);
+		}
+
+		if (forward) {
+			changedEntries.addAll(result);
+			migration.migrated(result);
+		} else {
+			migration.reverted(result);
+		}
+		ProtectionKeyMigrationStore.store(fileAgent, dataManager.getSerializer(), migration);
+		logger.debug("Changed the protection keys of {} entries. {}", result.size(), migration);
+		return result;
+	}
+
+	@Override
+	public double getProgress() {
+		if (getState() == ProcessState.EXECUTING) {
+			return migration.getProgress();
+		}
+		return super.getProgress();
+	}
+
+	@Override
+	protected Void doRollback() throws InvalidProcessStateException, ProcessRollbackException {
+		logger.debug("Rollbacking the change of {} protection keys.", changedEntries.size());
+
+		// the reverted entries become pending again, the persisted migration stays until all are reverted
+		List<Entry> remaining = new ArrayList<Entry>(changedEntries);
+		try {
+			for (int i = 0; i < H2HConstants.PUT_RETRIES && !remaining.isEmpty(); i++) {
+				// switch the protection keys
+				remaining.removeAll(new HashSet<Entry>(change(remaining, newProtectionKeys, oldProtectionKeys, false)));
+			}
+		} catch (InterruptedException ex) {
+			throw new ProcessRollbackException(this, ex, "Rollback of the protection key change was interrupted.");
+		} catch (RejectedExecutionException ex) {
+			throw new ProcessRollbackException(this, ex, "Rollback of the protection key change could not be scheduled.");
+		}
+
+		if (!remaining.isEmpty()) {
+			throw new ProcessRollbackException(this, String.format(
+					"Rollback of the protection key change failed for %s entries.", remaining.size()));
+		}
+		ProtectionKeyMigrationStore.remove(fileAgent, dataManager.getSerializer(), migration.getId());
+		changedEntries.clear();
+		setRequiresRollback(false);
+		return null;
+	}
+}
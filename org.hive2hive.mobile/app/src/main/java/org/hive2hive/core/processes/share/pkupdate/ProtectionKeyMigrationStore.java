@@ -0,0 +1,83 @@
+package org.hive2hive.core.processes.share.pkupdate;
+
+import org.hive2hive.core.H2HConstants;
+import org.hive2hive.core.file.IFileAgent;
+import org.hive2hive.core.serializer.IH2HSerialize;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Keeps the unfinished {@link ProtectionKeyMigration}s in the persistent cache of the {@link IFileAgent}, such
+ * that they can be resumed after a restart. All migrations of a user are stored together, thus the
+ * read-modify-write cycles are synchronized.
+ */
+public class ProtectionKeyMigrationStore {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProtectionKeyMigrationStore.class);
+
+	private ProtectionKeyMigrationStore() {
+		// only static methods
+	}
+
+	/**
+	 * Stores the current state of the migration, replacing an earlier state of the same migration. If the
+	 * migration is done, it is removed instead.
+	 */
+	public static synchronized void store(IFileAgent fileAgent, IH2HSerialize serializer, ProtectionKeyMigration migration) {
+		HashMap<String, ProtectionKeyMigration> migrations = read(fileAgent, serializer);
+		// the migration must not change while it is serialized
+		synchronized (migration) {
+			if (migration.isDone()) {
+				if (migrations.remove(migration.getId()) == null) {
+					return;
+				}
+			} else {
+				migrations.put(migration.getId(), migration);
+			}
+			write(fileAgent, serializer, migrations);
+		}
+	}
+
+	public static synchronized void remove(IFileAgent fileAgent, IH2HSerialize serializer, String id) {
+		HashMap<String, ProtectionKeyMigration> migrations = read(fileAgent, serializer);
+		if (migrations.remove(id) != null) {
+			write(fileAgent, serializer, migrations);
+		}
+	}
+
+	/**
+	 * @return all unfinished migrations (never null)
+	 */
+	public static synchronized List<ProtectionKeyMigration> load(IFileAgent fileAgent, IH2HSerialize serializer) {
+		return new ArrayList<ProtectionKeyMigration>(read(fileAgent, serializer).values());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static HashMap<String, ProtectionKeyMigration> read(IFileAgent fileAgent, IH2HSerialize serializer) {
+		try {
+			byte[] content = fileAgent.readCache(H2HConstants.PK_MIGRATION_FILE_NAME);
+			if (content == null || content.length == 0) {
+				return new HashMap<String, ProtectionKeyMigration>();
+			}
+			return (HashMap<String, ProtectionKeyMigration>) serializer.deserialize(content);
+		} catch (IOException | ClassNotFoundException | RuntimeException e) {
+			logger.error("Cannot read the protection key migrations. Reason: {}", e.getMessage());
+			return new HashMap<String, ProtectionKeyMigration>();
+		}
+	}
+
+	private static void write(IFileAgent fileAgent, IH2HSerialize serializer,
+			HashMap<String, ProtectionKeyMigration> migrations) {
+		try {
+			fileAgent.writeCache(H2HConstants.PK_MIGRATION_FILE_NAME, serializer.serialize(migrations));
+		} catch (IOException e) {
+			// the migration continues, it just cannot be resumed after a restart
+			logger.warn("Cannot write the protection key migrations. Reason: {}", e.getMessage());
+		}
+	}
+}
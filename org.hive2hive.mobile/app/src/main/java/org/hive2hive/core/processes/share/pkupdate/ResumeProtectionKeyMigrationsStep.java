@@ -0,0 +1,96 @@
+package org.hive2hive.core.processes.share.pkupdate;
+
+import org.hive2hive.core.H2HSession;
+import org.hive2hive.core.exceptions.GetFailedException;
+import org.hive2hive.core.exceptions.NoPeerConnectionException;
+import org.hive2hive.core.exceptions.NoSessionException;
+import org.hive2hive.core.model.Index;
+import org.hive2hive.core.model.versioned.UserProfile;
+import org.hive2hive.core.network.NetworkManager;
+import org.hive2hive.core.network.data.DataManager;
+import org.hive2hive.processframework.ProcessStep;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resumes the {@link ProtectionKeyMigration}s that have not been finished in an earlier session. The key
+ * pairs are taken from the user profile, the persisted migrations only contain the public keys. For every
+ * migration, a {@link ProtectionKeyMigrationStep} is added after this step.
+ */
+public class ResumeProtectionKeyMigrationsStep extends ProcessStep<Void> {
+
+	private static final Logger logger = LoggerFactory.getLogger(ResumeProtectionKeyMigrationsStep.class);
+
+	private final NetworkManager networkManager;
+
+	public ResumeProtectionKeyMigrationsStep(NetworkManager networkManager) {
+		this.setName(getClass().getName());
+		this.networkManager = networkManager;
+	}
+
+	@Override
+	protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+		H2HSession session;
+		DataManager dataManager;
+		try {
+			session = networkManager.getSession();
+			dataManager = networkManager.getDataManager();
+		} catch (NoSessionException | NoPeerConnectionException ex) {
+			throw new ProcessExecutionException(this, ex);
+		}
+
+		List<ProtectionKeyMigration> migrations = ProtectionKeyMigrationStore.load(session.getFileAgent(),
+				dataManager.getSerializer());
+		if (migrations.isEmpty()) {
+			return null;
+		}
+
+		UserProfile userProfile;
+		try {
+			userProfile = session.getProfileManager().readUserProfile();
+		} catch (GetFailedException ex) {
+			throw new ProcessExecutionException(this, ex, "Could not get the user profile.");
+		}
+
+		// all protection keys in use: the default ones of the root and the ones of the shared folders
+		List<Index> indexList = Index.getIndexList(userProfile.getRoot());
+		Map<PublicKey, KeyPair> protectionKeys = new HashMap<PublicKey, KeyPair>();
+		for (Index index : indexList) {
+			if (index.isFolder() && index.getProtectionKeys() != null) {
+				protectionKeys.put(index.getProtectionKeys().getPublic(), index.getProtectionKeys());
+			}
+		}
+
+		for (ProtectionKeyMigration migration : migrations) {
+			KeyPair oldProtectionKeys = protectionKeys.get(migration.getOldProtectionKey());
+			KeyPair newProtectionKeys = protectionKeys.get(migration.getNewProtectionKey());
+			if (oldProtectionKeys == null || newProtectionKeys == null) {
+				logger.warn("The protection keys are not in use anymore, cannot resume. {}", migration);
+				ProtectionKeyMigrationStore.remove(session.getFileAgent(), dataManager.getSerializer(), migration.getId());
+				continue;
+			}
+
+			Map<PublicKey, KeyPair> fileKeys = new HashMap<PublicKey, KeyPair>();
+			for (PublicKey fileKey : migration.getPendingFiles()) {
+				Index index = userProfile.getFileById(fileKey);
+				if (index != null && index.isFile()) {
+					fileKeys.put(fileKey, index.getFileKeys());
+				}
+			}
+
+			logger.debug("Resume the protection key migration. {}", migration);
+			getParent().insertAfter(
+					new ProtectionKeyMigrationStep(migration, oldProtectionKeys, newProtectionKeys, fileKeys, dataManager,
+							session.getFileAgent(), false), this);
+		}
+		return null;
+	}
+}
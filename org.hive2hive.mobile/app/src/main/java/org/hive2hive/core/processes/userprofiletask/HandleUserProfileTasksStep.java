@@ -0,0 +1,138 @@
+package org.hive2hive.core.processes.userprofiletask;
+
+import org.hive2hive.core.H2HSession;
+import org.hive2hive.core.exceptions.AbortModifyException;
+import org.hive2hive.core.exceptions.Hive2HiveException;
+import org.hive2hive.core.exceptions.NoSessionException;
+import org.hive2hive.core.model.versioned.UserProfile;
+import org.hive2hive.core.network.NetworkManager;
+import org.hive2hive.core.network.data.IUserProfileModification;
+import org.hive2hive.core.network.userprofiletask.UserProfileTask;
+import org.hive2hive.core.processes.common.userprofiletask.GetUserProfileTasksStep;
+import org.hive2hive.core.processes.common.userprofiletask.RemoveUserProfileTasksStep;
+import org.hive2hive.core.processes.context.UserProfileTaskContext;
+import org.hive2hive.processframework.ProcessStep;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Handles all fetched {@link UserProfileTask}s at once. The modifications of the tasks are applied in the order
+ * of the tasks to the user profile, which is put only once. A task whose modification is aborted is skipped
+ * and removed like the others.
+ */
+public class HandleUserProfileTasksStep extends ProcessStep<Void> {
+
+	private static final Logger logger = LoggerFactory.getLogger(HandleUserProfileTasksStep.class);
+
+	private final UserProfileTaskContext context;
+	private final NetworkManager networkManager;
+
+	public HandleUserProfileTasksStep(UserProfileTaskContext context, NetworkManager networkManager) {
+		this.setName(getClass().getName());
+		this.context = context;
+		this.networkManager = networkManager;
+
+		if (context == null) {
+			throw new IllegalArgumentException("Context can't be null.");
+		}
+	}
+
+	@Override
+	protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+		List<UserProfileTask> userProfileTasks = context.consumeUserProfileTasks();
+		String userId = networkManager.getUserId();
+
+		if (userProfileTasks == null || userProfileTasks.isEmpty()) {
+			logger.debug("No more user profile tasks in queue. Stopping handling. User ID = '{}'.", userId);
+			// all user profile tasks are handled, stop process
+			return null;
+		}
+
+		H2HSession session;
+		try {
+			session = networkManager.getSession();
+		} catch (NoSessionException ex) {
+			throw new ProcessExecutionException(this, ex);
+		}
+
+		logger.debug("Executing {} user profile tasks. User ID = '{}'.", userProfileTasks.size(), userId);
+		for (UserProfileTask userProfileTask : userProfileTasks) {
+			// give the network manager reference to be able to run
+			userProfileTask.setNetworkManager(networkManager);
+		}
+
+		BatchModification batch = new BatchModification(session, userProfileTasks);
+		try {
+			session.getProfileManager().modifyUserProfile(UUID.randomUUID().toString(), batch);
+		} catch (AbortModifyException ex) {
+			logger.warn("None of the {} user profile tasks modified the user profile.", userProfileTasks.size());
+		} catch (Hive2HiveException ex) {
+			// keep the tasks in the queue, they are handled at the next attempt
+			throw new ProcessExecutionException(this, ex, "Could not modify the user profile.");
+		}
+
+		for (UserProfileTask task : batch.getModified()) {
+			task.onModified(session);
+		}
+
+		/*
+		 * Initialize next steps.
+		 * 1. Remove the handled user profile tasks from network.
+		 * 2. Get the user profile tasks queued meanwhile.
+		 * 3. Handle the fetched user profile tasks (can be empty if no task has been queued)
+		 */
+		getParent().add(new RemoveUserProfileTasksStep(context, networkManager));
+		getParent().add(new GetUserProfileTasksStep(context, networkManager));
+		getParent().add(new HandleUserProfileTasksStep(context, networkManager));
+
+		return null;
+	}
+
+	/**
+	 * Applies the modifications of multiple tasks to the same user profile.
+	 */
+	private static class BatchModification implements IUserProfileModification {
+
+		private final List<UserProfileTask> tasks;
+		private final List<IUserProfileModification> modifications;
+		private final List<UserProfileTask> modified;
+
+		public BatchModification(H2HSession session, List<UserProfileTask> tasks) {
+			this.tasks = tasks;
+			this.modifications = new ArrayList<IUserProfileModification>(tasks.size());
+			this.modified = new ArrayList<UserProfileTask>(tasks.size());
+			for (UserProfileTask task : tasks) {
+				modifications.add(task.createModification(session));
+			}
+		}
+
+		@Override
+		public void modifyUserProfile(UserProfile userProfile) throws AbortModifyException {
+			// called again after a version fork
+			modified.clear();
+			for (int i = 0; i < tasks.size(); i++) {
+				UserProfileTask task = tasks.get(i);
+				try {
+					modifications.get(i).modifyUserProfile(userProfile);
+					modified.add(task);
+				} catch (AbortModifyException ex) {
+					logger.error("Skipping the '{}' user profile task.", task.getClass().getSimpleName(), ex);
+				}
+			}
+
+			if (modified.isEmpty()) {
+				throw new AbortModifyException("All user profile tasks have been skipped.");
+			}
+		}
+
+		public List<UserProfileTask> getModified() {
+			return modified;
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package org.hive2hive.core.security;
+
+import java.util.Arrays;
+
+import javax.crypto.SecretKey;
+
+/**
+ * A raw secret key whose key material can be overwritten once it is not needed anymore (e.g. the user profile
+ * key at logout). Unlike {@link javax.crypto.spec.SecretKeySpec}, {@link #destroy()} really clears the key.
+ */
+public final class DestroyableSecretKey implements SecretKey {
+
+	private static final long serialVersionUID = -3585146429012306837L;
+
+	private final byte[] key;
+	private final String algorithm;
+	private volatile boolean destroyed;
+
+	/**
+	 * @param key the key material, which is copied
+	 * @param algorithm the algorithm of the key (e.g. AES)
+	 */
+	public DestroyableSecretKey(byte[] key, String algorithm) {
+		this.key = key.clone();
+		this.algorithm = algorithm;
+	}
+
+	@Override
+	public String getAlgorithm() {
+		return algorithm;
+	}
+
+	@Override
+	public String getFormat() {
+		return "RAW";
+	}
+
+	/**
+	 * @return a copy of the key material
+	 * @throws IllegalStateException if the key has been destroyed
+	 */
+	@Override
+	public byte[] getEncoded() {
+		if (destroyed) {
+			throw new IllegalStateException("The key has been destroyed");
+		}
+		return key.clone();
+	}
+
+	/**
+	 * Overwrites the key material with zeros. The key cannot be used anymore afterwards.
+	 */
+	public void destroy() {
+		destroyed = true;
+		Arrays.fill(key, (byte) 0);
+	}
+
+	public boolean isDestroyed() {
+		return destroyed;
+	}
+}
@@ -1,5 +1,8 @@
 package org.hive2hive.core.security;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
 import org.hive2hive.core.model.versioned.HybridEncryptedContent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,6 +22,8 @@ import java.security.Signature;
 import java.security.SignatureException;
 import java.security.spec.RSAKeyGenParameterSpec;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
@@ -150,13 +155,41 @@ public final class EncryptionUtil {
 	 */
 	public static byte[] encryptAES(byte[] data, SecretKey secretKey, byte[] initVector, String securityProvider,
 			IStrongAESEncryption strongAES) throws GeneralSecurityException {
+		return encryptAES(data, 0, data.length, secretKey, initVector, securityProvider, strongAES);
+	}
+
+	/**
+	 * Symmetrically encrypts a part of the provided array by means of the AES algorithm. This allows to
+	 * encrypt directly from a (reused) serialization buffer without copying the plain text first.
+	 * 
+	 * @param data The array holding the data to be encrypted.
+	 * @param offset The offset of the data in the array
+	 * @param length The number of bytes to encrypt
+	 * @param secretKey The symmetric key with which the data shall be encrypted.
+	 * @param initVector The initialization vector (IV) with which the data shall be encrypted.
+	 * @return Returns the encrypted data.
+	 * @throws GeneralSecurityException in case something goes wrong
+	 */
+	public static byte[] encryptAES(byte[] data, int offset, int length, SecretKey secretKey, byte[] initVector,
+			String securityProvider, IStrongAESEncryption strongAES) throws GeneralSecurityException {
 		int keySize = secretKey.getEncoded().length * 8;
 		if (Cipher.getMaxAllowedKeyLength("AES") >= keySize) {
-			return processAESCiphering(true, data, secretKey, initVector, securityProvider);
+			ByteBuf encrypted = processAESCiphering(true, data, offset, length, secretKey, initVector, securityProvider);
+			byte[] output = encrypted.array();
+			if (output.length == encrypted.readableBytes()) {
+				// the output size is exact when encrypting with padding, no need to copy
+				return output;
+			}
+			byte[] result = new byte[encrypted.readableBytes()];
+			encrypted.readBytes(result);
+			return result;
 		} else {
 			logger.trace("Using strong AES encryptor because key has {} bits. Max allowed are {} bits", keySize,
 					Cipher.getMaxAllowedKeyLength("AES"));
-			return strongAES.encryptStrongAES(data, secretKey, initVector);
+			if (offset == 0 && length == data.length) {
+				return strongAES.encryptStrongAES(data, secretKey, initVector);
+			}
+			return strongAES.encryptStrongAES(Arrays.copyOfRange(data, offset, offset + length), secretKey, initVector);
 		}
 	}
 
@@ -172,13 +205,37 @@ public final class EncryptionUtil {
 	 */
 	public static byte[] decryptAES(byte[] data, SecretKey secretKey, byte[] initVector, String securityProvider,
 			IStrongAESEncryption strongAES) throws GeneralSecurityException {
+		ByteBuf decrypted = decryptAESToBuffer(data, secretKey, initVector, securityProvider, strongAES);
+		byte[] output = decrypted.array();
+		if (output.length == decrypted.readableBytes()) {
+			return output;
+		}
+		byte[] result = new byte[decrypted.readableBytes()];
+		decrypted.readBytes(result);
+		return result;
+	}
+
+	/**
+	 * Symmetrically decrypts the provided data by means of the AES algorithm. Since the exact size of the
+	 * plain text is only known after decryption, the returned buffer wraps the (possibly larger) output
+	 * array. This avoids copying the plain text once more if it is deserialized right away.
+	 * 
+	 * @param data The data to be decrypted.
+	 * @param secretKey The symmetric key with which the data shall be decrypted.
+	 * @param initVector The initialization vector (IV) with which the data shall be decrypted.
+	 * @param strongAES
+	 * @return Returns a heap buffer whose readable bytes are the decrypted data.
+	 * @throws GeneralSecurityException in case something goes wrong
+	 */
+	public static ByteBuf decryptAESToBuffer(byte[] data, SecretKey secretKey, byte[] initVector,
+			String securityProvider, IStrongAESEncryption strongAES) throws GeneralSecurityException {
 		int keySize = secretKey.getEncoded().length * 8;
 		if (Cipher.getMaxAllowedKeyLength("AES") >= keySize) {
-			return processAESCiphering(false, data, secretKey, initVector, securityProvider);
+			return processAESCiphering(false, data, 0, data.length, secretKey, initVector, securityProvider);
 		} else {
 			logger.trace("Using strong AES decryptor because key has {} bits. Max allowed are {} bits", keySize,
 					Cipher.getMaxAllowedKeyLength("AES"));
-			return strongAES.decryptStrongAES(data, secretKey, initVector);
+			return Unpooled.wrappedBuffer(strongAES.decryptStrongAES(data, secretKey, initVector));
 		}
 	}
 
@@ -246,6 +303,26 @@ public final class EncryptionUtil {
 	 */
 	public static HybridEncryptedContent encryptHybrid(byte[] data, PublicKey publicKey, AES_KEYLENGTH aesKeyLength,
 			String securityProvider, IStrongAESEncryption strongAES) throws GeneralSecurityException {
+		return encryptHybrid(data, 0, data.length, publicKey, aesKeyLength, securityProvider, strongAES);
+	}
+
+	/**
+	 * Encrypts a part of the provided array in a hybrid manner. See
+	 * {@link #encryptHybrid(byte[], PublicKey, AES_KEYLENGTH, String, IStrongAESEncryption)}.
+	 * 
+	 * @param data The array holding the data to be encrypted in a hybrid manner.
+	 * @param offset The offset of the data in the array
+	 * @param length The number of bytes to encrypt
+	 * @param publicKey The RSA public key with which the data shall be encrypted.
+	 * @param aesKeyLength The key length of the inner AES encryption.
+	 * @param securityProvider the security provider (e.g. "BC" for bouncy castle)
+	 * @return Returns a {@link HybridEncryptedContent} object containing the RSA encrypted parameters and the
+	 *         AES encrypted content.
+	 * @throws GeneralSecurityException in case something goes wrong
+	 */
+	public static HybridEncryptedContent encryptHybrid(byte[] data, int offset, int length, PublicKey publicKey,
+			AES_KEYLENGTH aesKeyLength, String securityProvider, IStrongAESEncryption strongAES)
+			throws GeneralSecurityException {
 
 		// generate AES key
 		SecretKey aesKey = generateAESKey(aesKeyLength, securityProvider);
@@ -261,7 +338,7 @@ public final class EncryptionUtil {
 		System.arraycopy(encodedAesKey, 0, params, initVector.length, encodedAesKey.length);
 
 		// encrypt data symmetrically
-		byte[] aesEncryptedData = encryptAES(data, aesKey, initVector, securityProvider, strongAES);
+		byte[] aesEncryptedData = encryptAES(data, offset, length, aesKey, initVector, securityProvider, strongAES);
 
 		// encrypt parameters asymmetrically
 		byte[] rsaEncryptedParams = encryptRSA(params, publicKey, securityProvider);
@@ -269,6 +346,50 @@ public final class EncryptionUtil {
 		return new HybridEncryptedContent(rsaEncryptedParams, aesEncryptedData);
 	}
 
+	/**
+	 * Encrypts a part of the provided array in a hybrid manner for multiple recipients. The data is
+	 * serialized and symmetrically encrypted only once, only the symmetric encryption parameters are encrypted
+	 * asymmetrically for every recipient. The returned contents share the same encrypted data. Each of them
+	 * can be decrypted with
+	 * {@link #decryptHybrid(HybridEncryptedContent, PrivateKey, String, IStrongAESEncryption)}.
+	 * 
+	 * @param data The array holding the data to be encrypted in a hybrid manner.
+	 * @param offset The offset of the data in the array
+	 * @param length The number of bytes to encrypt
+	 * @param publicKeys The RSA public keys of the recipients
+	 * @param aesKeyLength The key length of the inner AES encryption.
+	 * @param securityProvider the security provider (e.g. "BC" for bouncy castle)
+	 * @return Returns a {@link HybridEncryptedContent} object for every recipient
+	 * @throws GeneralSecurityException in case something goes wrong
+	 */
+	public static <K> Map<K, HybridEncryptedContent> encryptHybrid(byte[] data, int offset, int length,
+			Map<K, PublicKey> publicKeys, AES_KEYLENGTH aesKeyLength, String securityProvider,
+			IStrongAESEncryption strongAES) throws GeneralSecurityException {
+
+		// generate AES key
+		SecretKey aesKey = generateAESKey(aesKeyLength, securityProvider);
+		byte[] encodedAesKey = aesKey.getEncoded();
+
+		// generate IV
+		byte[] initVector = generateIV();
+
+		// concatenate symmetric encryption parameters
+		byte[] params = new byte[initVector.length + encodedAesKey.length];
+		System.arraycopy(initVector, 0, params, 0, initVector.length);
+		System.arraycopy(encodedAesKey, 0, params, initVector.length, encodedAesKey.length);
+
+		// encrypt data symmetrically, once for all recipients
+		byte[] aesEncryptedData = encryptAES(data, offset, length, aesKey, initVector, securityProvider, strongAES);
+
+		// encrypt parameters asymmetrically for every recipient
+		Map<K, HybridEncryptedContent> encrypted = new LinkedHashMap<K, HybridEncryptedContent>(publicKeys.size());
+		for (Map.Entry<K, PublicKey> entry : publicKeys.entrySet()) {
+			byte[] rsaEncryptedParams = encryptRSA(params, entry.getValue(), securityProvider);
+			encrypted.put(entry.getKey(), new HybridEncryptedContent(rsaEncryptedParams, aesEncryptedData));
+		}
+		return encrypted;
+	}
+
 	/**
 	 * Decrypts the provided data in a hybrid manner. First, the symmetric encryption parameters stored in the
 	 * {@link HybridEncryptedContent} are asymmetrically decrypted with the specified RSA private key. Then,
@@ -282,6 +403,29 @@ public final class EncryptionUtil {
 	 */
 	public static byte[] decryptHybrid(HybridEncryptedContent data, PrivateKey privateKey, String securityProvider,
 			IStrongAESEncryption strongAES) throws GeneralSecurityException {
+		ByteBuf decrypted = decryptHybridToBuffer(data, privateKey, securityProvider, strongAES);
+		byte[] output = decrypted.array();
+		if (output.length == decrypted.readableBytes()) {
+			return output;
+		}
+		byte[] result = new byte[decrypted.readableBytes()];
+		decrypted.readBytes(result);
+		return result;
+	}
+
+	/**
+	 * Decrypts the provided data in a hybrid manner, see
+	 * {@link #decryptHybrid(HybridEncryptedContent, PrivateKey, String, IStrongAESEncryption)}. The
+	 * decrypted data is not copied into an array of the exact size.
+	 * 
+	 * @param data The {@link HybridEncryptedContent} to be decrypted in a hybrid manner.
+	 * @param privateKey The RSA private key with which the data shall be decrypted.
+	 * @param securityProvider the security provider (e.g. "BC" for bouncy castle)
+	 * @return Returns a heap buffer whose readable bytes are the decrypted data.
+	 * @throws GeneralSecurityException in case something goes wrong
+	 */
+	public static ByteBuf decryptHybridToBuffer(HybridEncryptedContent data, PrivateKey privateKey,
+			String securityProvider, IStrongAESEncryption strongAES) throws GeneralSecurityException {
 
 		// decrypt parameters asymmetrically
 		byte[] params = decryptRSA(data.getEncryptedParameters(), privateKey, securityProvider);
@@ -292,7 +436,7 @@ public final class EncryptionUtil {
 
 		// decrypt data symmetrically
 		SecretKey aesKey = new SecretKeySpec(encodedAesKey, 0, encodedAesKey.length, "AES");
-		return decryptAES(data.getEncryptedData(), aesKey, initVector, securityProvider, strongAES);
+		return decryptAESToBuffer(data.getEncryptedData(), aesKey, initVector, securityProvider, strongAES);
 	}
 
 	/**
@@ -346,10 +490,11 @@ public final class EncryptionUtil {
 
 	/**
 	 * Encrypts or decrypts using AES. Note that this method uses the native method and has an upper limit for
-	 * the key size. If the size is too large, use {@link IStrongAESEncryption} instead.
+	 * the key size. If the size is too large, use {@link IStrongAESEncryption} instead. The returned buffer
+	 * wraps the output array, whose length may be larger than the processed bytes when decrypting.
 	 */
-	private static byte[] processAESCiphering(boolean forEncrypting, byte[] data, SecretKey key, byte[] initVector,
-			String securityProvider) throws GeneralSecurityException {
+	private static ByteBuf processAESCiphering(boolean forEncrypting, byte[] data, int offset, int length,
+			SecretKey key, byte[] initVector, String securityProvider) throws GeneralSecurityException {
 		IvParameterSpec ivSpec = new IvParameterSpec(initVector);
 		SecretKeySpec keySpec = new SecretKeySpec(key.getEncoded(), "AES");
 		Cipher cipher = Cipher.getInstance("AES/CBC/PKCS7Padding", securityProvider);
@@ -357,15 +502,12 @@ public final class EncryptionUtil {
 		cipher.init(encryptMode, keySpec, ivSpec);
 
 		// process ciphering
-		byte[] output = new byte[cipher.getOutputSize(data.length)];
+		byte[] output = new byte[cipher.getOutputSize(length)];
 
-		int bytesProcessed1 = cipher.update(data, 0, data.length, output, 0);
+		int bytesProcessed1 = cipher.update(data, offset, length, output, 0);
 		int bytesProcessed2 = cipher.doFinal(output, bytesProcessed1);
 
-		byte[] result = new byte[bytesProcessed1 + bytesProcessed2];
-		System.arraycopy(output, 0, result, 0, result.length);
-		return result;
-
+		return Unpooled.wrappedBuffer(output, 0, bytesProcessed1 + bytesProcessed2);
 	}
 
 	/**
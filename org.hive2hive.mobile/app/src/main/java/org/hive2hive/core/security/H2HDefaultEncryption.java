@@ -1,5 +1,8 @@
 package org.hive2hive.core.security;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.hive2hive.core.H2HConstants;
 import org.hive2hive.core.model.BaseNetworkContent;
@@ -14,6 +17,7 @@ import java.security.KeyPair;
 import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.security.Security;
+import java.util.Map;
 
 import javax.crypto.SecretKey;
 
@@ -56,31 +60,64 @@ public class H2HDefaultEncryption implements IH2HEncryption {
 	@Override
 	public EncryptedNetworkContent encryptAES(BaseNetworkContent content, SecretKey aesKey) throws IOException,
 			GeneralSecurityException {
-		byte[] serialized = serializer.serialize(content);
-		byte[] initVector = EncryptionUtil.generateIV();
-		byte[] encryptedContent = EncryptionUtil.encryptAES(serialized, aesKey, initVector, securityProvider, strongAES);
-
-		EncryptedNetworkContent encryptedNetworkContent = new EncryptedNetworkContent(encryptedContent, initVector);
-		encryptedNetworkContent.setTimeToLive(content.getTimeToLive());
-		return encryptedNetworkContent;
+		// serialize into a pooled buffer and encrypt directly from there
+		ByteBuf serialized = PooledByteBufAllocator.DEFAULT.heapBuffer();
+		try {
+			serializer.serialize(content, serialized);
+			byte[] initVector = EncryptionUtil.generateIV();
+			byte[] encryptedContent = EncryptionUtil.encryptAES(serialized.array(),
+					serialized.arrayOffset() + serialized.readerIndex(), serialized.readableBytes(), aesKey, initVector,
+					securityProvider, strongAES);
+
+			EncryptedNetworkContent encryptedNetworkContent = new EncryptedNetworkContent(encryptedContent, initVector);
+			encryptedNetworkContent.setTimeToLive(content.getTimeToLive());
+			return encryptedNetworkContent;
+		} finally {
+			serialized.release();
+		}
 	}
 
 	@Override
 	public BaseNetworkContent decryptAES(EncryptedNetworkContent content, SecretKey aesKey) throws ClassNotFoundException,
 			IOException, GeneralSecurityException {
-		byte[] decrypted = EncryptionUtil.decryptAES(content.getCipherContent(), aesKey, content.getInitVector(),
-				securityProvider, strongAES);
+		ByteBuf decrypted = EncryptionUtil.decryptAESToBuffer(content.getCipherContent(), aesKey,
+				content.getInitVector(), securityProvider, strongAES);
 		return (BaseNetworkContent) serializer.deserialize(decrypted);
 	}
 
 	@Override
 	public HybridEncryptedContent encryptHybrid(BaseNetworkContent content, PublicKey publicKey) throws IOException,
 			GeneralSecurityException {
-		byte[] serialized = serializer.serialize(content);
+		// serialize into a pooled buffer and encrypt directly from there
+		ByteBuf serialized = PooledByteBufAllocator.DEFAULT.heapBuffer();
+		try {
+			serializer.serialize(content, serialized);
+			HybridEncryptedContent encryptHybrid = EncryptionUtil.encryptHybrid(serialized.array(),
+					serialized.arrayOffset() + serialized.readerIndex(), serialized.readableBytes(), publicKey,
+					H2HConstants.KEYLENGTH_HYBRID_AES, securityProvider, strongAES);
+			encryptHybrid.setTimeToLive(content.getTimeToLive());
+			return encryptHybrid;
+		} finally {
+			serialized.release();
+		}
+	}
 
-		HybridEncryptedContent encryptHybrid = encryptHybrid(serialized, publicKey);
-		encryptHybrid.setTimeToLive(content.getTimeToLive());
-		return encryptHybrid;
+	@Override
+	public <K> Map<K, HybridEncryptedContent> encryptHybrid(BaseNetworkContent content, Map<K, PublicKey> publicKeys)
+			throws IOException, GeneralSecurityException {
+		ByteBuf serialized = PooledByteBufAllocator.DEFAULT.heapBuffer();
+		try {
+			serializer.serialize(content, serialized);
+			Map<K, HybridEncryptedContent> encrypted = EncryptionUtil.encryptHybrid(serialized.array(),
+					serialized.arrayOffset() + serialized.readerIndex(), serialized.readableBytes(), publicKeys,
+					H2HConstants.KEYLENGTH_HYBRID_AES, securityProvider, strongAES);
+			for (HybridEncryptedContent encryptHybrid : encrypted.values()) {
+				encryptHybrid.setTimeToLive(content.getTimeToLive());
+			}
+			return encrypted;
+		} finally {
+			serialized.release();
+		}
 	}
 
 	@Override
@@ -92,7 +129,8 @@ public class H2HDefaultEncryption implements IH2HEncryption {
 	@Override
 	public BaseNetworkContent decryptHybrid(HybridEncryptedContent content, PrivateKey privateKey)
 			throws ClassNotFoundException, IOException, GeneralSecurityException {
-		return (BaseNetworkContent) serializer.deserialize(decryptHybridRaw(content, privateKey));
+		ByteBuf decrypted = EncryptionUtil.decryptHybridToBuffer(content, privateKey, securityProvider, strongAES);
+		return (BaseNetworkContent) serializer.deserialize(decrypted);
 	}
 
 	@Override
@@ -46,6 +46,21 @@ public class HashUtil {
 		}
 	}
 
+	/**
+	 * Creates a digest to calculate the MD5 hash of data that is not available at once (e.g. a stream that
+	 * is read chunk by chunk).
+	 * 
+	 * @return the digest or <code>null</code> if the hash algorithm is not available
+	 */
+	public static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance(HASH_ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			logger.error("Invalid hash algorithm {}", HASH_ALGORITHM, e);
+			return null;
+		}
+	}
+
 	/**
 	 * Generates a MD5 hash of an input stream (can take a while)
 	 *
@@ -10,6 +10,7 @@ import java.security.GeneralSecurityException;
 import java.security.KeyPair;
 import java.security.PrivateKey;
 import java.security.PublicKey;
+import java.util.Map;
 
 import javax.crypto.SecretKey;
 
@@ -62,6 +63,20 @@ public interface IH2HEncryption {
 	HybridEncryptedContent encryptHybrid(BaseNetworkContent content, PublicKey publicKey) throws IOException,
 			GeneralSecurityException;
 
+	/**
+	 * Asymmetrically encrypts a content inheriting from {@link BaseNetworkContent} for multiple recipients.
+	 * The content is serialized and symmetrically encrypted only once, the recipients share the encrypted
+	 * data.
+	 * 
+	 * @param content the content to be encrypted.
+	 * @param publicKeys The asymmetric public keys of the recipients
+	 * @return the encrypted content for every recipient
+	 * @throws IOException
+	 * @throws GeneralSecurityException
+	 */
+	<K> Map<K, HybridEncryptedContent> encryptHybrid(BaseNetworkContent content, Map<K, PublicKey> publicKeys)
+			throws IOException, GeneralSecurityException;
+
 	/**
 	 * Asymmetrically encrypts any content that is already serialized. A default key length will be
 	 * used.
@@ -9,11 +9,11 @@ import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.KeySpec;
+import java.util.Arrays;
 
 import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.PBEKeySpec;
-import javax.crypto.spec.SecretKeySpec;
 
 /**
  * This class provides basic functionalities regarding password validation.
@@ -103,7 +103,7 @@ public final class PasswordUtil {
 	 * @param password The UserPassword from which the AES key is derivated.
 	 * @param pin The pin of the user (used for salting)
 	 * @param keyLength The desired key lengt<h of the resulting AES key.
-	 * @return Returns the derived symmetric AES key of desired size.
+	 * @return Returns the derived symmetric AES key of desired size. It is a {@link DestroyableSecretKey}.
 	 */
 	public static SecretKey generateAESKeyFromPassword(String password, String pin, AES_KEYLENGTH keyLength) {
 
@@ -116,7 +116,11 @@ public final class PasswordUtil {
 		// use the enlarged PIN as salt to generate the symmetric AES key
 		byte[] secretKeyEncoded = getPBKDF2Hash(password.toCharArray(), enlargedPin, keyLength.value());
 
-		return new SecretKeySpec(secretKeyEncoded, "AES");
+		// the key can be destroyed, don't leave any copies of it
+		DestroyableSecretKey secretKey = new DestroyableSecretKey(secretKeyEncoded, "AES");
+		Arrays.fill(secretKeyEncoded, (byte) 0);
+		Arrays.fill(enlargedPin, (byte) 0);
+		return secretKey;
 	}
 
 	/**
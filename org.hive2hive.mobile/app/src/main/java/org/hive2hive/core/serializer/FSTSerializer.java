@@ -1,5 +1,8 @@
 package org.hive2hive.core.serializer;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 import net.tomp2p.peers.Number160;
 import net.tomp2p.peers.PeerAddress;
 import net.tomp2p.peers.PeerSocketAddress;
@@ -20,6 +23,8 @@ import org.hive2hive.core.network.messages.direct.ContactPeerMessage;
 import org.hive2hive.core.network.messages.direct.response.ResponseMessage;
 import org.hive2hive.core.security.BCSecurityClassProvider;
 import org.nustaq.serialization.FSTConfiguration;
+import org.nustaq.serialization.FSTObjectInput;
+import org.nustaq.serialization.FSTObjectOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -109,4 +114,39 @@ public final class FSTSerializer implements IH2HSerialize {
 		}
 	}
 
+	@Override
+	public void serialize(Serializable object, ByteBuf buffer) throws IOException {
+		try {
+			// the object output is reused per thread, don't close it
+			FSTObjectOutput out = fst.getObjectOutput(new ByteBufOutputStream(buffer));
+			out.writeObject(object);
+			out.flush();
+		} catch (Throwable e) {
+			logger.error("Exception while serializing object {}", object, e);
+			throw e;
+		}
+	}
+
+	@Override
+	public Object deserialize(ByteBuf buffer) throws IOException, ClassNotFoundException {
+		if (buffer == null || !buffer.isReadable()) {
+			// nothing to deserialize
+			return null;
+		}
+
+		try {
+			if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.readerIndex() == 0) {
+				// read from the backing array directly
+				Object result = fst.getObjectInput(buffer.array(), buffer.readableBytes()).readObject();
+				buffer.skipBytes(buffer.readableBytes());
+				return result;
+			}
+			// the object input is reused per thread, don't close it
+			FSTObjectInput in = fst.getObjectInput(new ByteBufInputStream(buffer));
+			return in.readObject();
+		} catch (Throwable e) {
+			logger.error("Exception while deserializing object.");
+			throw e;
+		}
+	}
 }
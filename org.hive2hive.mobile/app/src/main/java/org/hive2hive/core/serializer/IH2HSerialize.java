@@ -1,5 +1,7 @@
 package org.hive2hive.core.serializer;
 
+import io.netty.buffer.ByteBuf;
+
 import java.io.IOException;
 import java.io.Serializable;
 
@@ -21,4 +23,16 @@ public interface IH2HSerialize {
 	 */
 	Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException;
 
+	/**
+	 * Serializes an object into the given buffer, which grows if required. This allows to serialize into a
+	 * pooled buffer and to process the result (e.g. encrypt it) without an intermediate copy.
+	 */
+	void serialize(Serializable object, ByteBuf buffer) throws IOException;
+
+	/**
+	 * Deserializes an object from the readable bytes of the buffer, without copying them into an
+	 * intermediate array first. The reader index of the buffer is moved.
+	 */
+	Object deserialize(ByteBuf buffer) throws IOException, ClassNotFoundException;
+
 }
@@ -1,5 +1,9 @@
 package org.hive2hive.core.serializer;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -82,4 +86,53 @@ public final class JavaSerializer implements IH2HSerialize {
 		return result;
 	}
 
+	@Override
+	public void serialize(Serializable object, ByteBuf buffer) throws IOException {
+		ObjectOutputStream oos = null;
+		try {
+			oos = new ObjectOutputStream(new ByteBufOutputStream(buffer));
+			oos.writeObject(object);
+			oos.flush();
+		} catch (IOException e) {
+			logger.error("Exception while serializing object:", e);
+			throw e;
+		} finally {
+			try {
+				if (oos != null) {
+					oos.close();
+				}
+			} catch (IOException e) {
+				logger.error("Exception while closing serialization process.", e);
+			}
+		}
+	}
+
+	@Override
+	public Object deserialize(ByteBuf buffer) throws IOException, ClassNotFoundException {
+		if (buffer == null || !buffer.isReadable()) {
+			// nothing to deserialize
+			return null;
+		}
+
+		ObjectInputStream ois = null;
+		Object result = null;
+
+		try {
+			ois = new ObjectInputStream(new ByteBufInputStream(buffer));
+			result = ois.readObject();
+		} catch (IOException | ClassNotFoundException e) {
+			logger.error("Exception while deserializing object.");
+			throw e;
+		} finally {
+			try {
+				if (ois != null) {
+					ois.close();
+				}
+			} catch (IOException e) {
+				logger.error("Exception while closing deserialization process.", e);
+			}
+		}
+
+		return result;
+	}
 }
@@ -24,6 +24,7 @@ import org.hive2hive.mobile.common.ISuccessFailListener;
 import org.hive2hive.mobile.connection.ConnectActivity;
 import org.hive2hive.mobile.files.tasks.FileListTask;
 import org.hive2hive.mobile.files.tasks.FileUploadTask;
+import org.hive2hive.mobile.login.PersistSessionTask;
 import org.hive2hive.mobile.login.UserLogoutTask;
 import org.hive2hive.mobile.preference.SettingsActivity;
 import org.slf4j.Logger;
@@ -70,6 +71,13 @@ public class FilesActivity extends Activity {
 		}
 	}
 
+	@Override
+	protected void onPause() {
+		super.onPause();
+		// the app may be killed in the background before the user logs out
+		new PersistSessionTask(context.h2hNode()).execute();
+	}
+
 	/**
 	 * Gets the file list (asynchronous) and shows a loading dialog
 	 */
@@ -0,0 +1,40 @@
+package org.hive2hive.mobile.login;
+
+import android.os.AsyncTask;
+
+import org.hive2hive.core.api.interfaces.IH2HNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the meta data of the session (e.g. the hashes of the local files) in the background. The app can be
+ * killed at any time after it has been paused, thus the meta data would be lost until the next logout.
+ */
+public class PersistSessionTask extends AsyncTask<Void, Void, Void> {
+	private static final Logger LOG = LoggerFactory.getLogger(PersistSessionTask.class);
+
+	private final IH2HNode node;
+
+	public PersistSessionTask(IH2HNode node) {
+		this.node = node;
+	}
+
+	@Override
+	protected Void doInBackground(Void... params) {
+		if (node == null || !node.isConnected()) {
+			LOG.debug("H2HNode is null or not connected (anymore), nothing to persist");
+			return null;
+		}
+
+		try {
+			if (node.getUserManager().isLoggedIn()) {
+				node.getUserManager().createPersistProcess().execute();
+				LOG.debug("Persisted the meta data of the session");
+			}
+		} catch (Exception e) {
+			// not critical, it is written again at logout
+			LOG.warn("Cannot persist the meta data of the session", e);
+		}
+		return null;
+	}
+}
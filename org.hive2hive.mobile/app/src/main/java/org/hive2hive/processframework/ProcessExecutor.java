@@ -0,0 +1,116 @@
+package org.hive2hive.processframework;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hive2hive.processframework.composites.ParallelProcess;
+import org.hive2hive.processframework.decorators.AsyncComponent;
+
+/**
+ * Provides the {@link ExecutorService} that is shared by all asynchronous parts of the process framework
+ * (e.g., {@link AsyncComponent} and {@link ParallelProcess}).</br>
+ * By default, a bounded pool of daemon threads is used. Idle threads terminate after a while, thus the
+ * default executor never needs to be shut down. Another executor can be plugged in using
+ * {@link #setExecutor(ExecutorService)}.</br></br>
+ * <b>Note:</b>
+ * Tasks submitted through {@link #submit(Callable)} are executed by the thread awaiting their result if no
+ * pool thread has started them yet. Thus, nested asynchronous components cannot starve the bounded pool.
+ */
+public final class ProcessExecutor {
+
+	/**
+	 * The default number of pool threads. Most process steps block on network operations, thus more threads
+	 * than cores are used.
+	 */
+	public static final int DEFAULT_POOL_SIZE = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+
+	private static final long KEEP_ALIVE_SECONDS = 30;
+
+	private static final ExecutorService defaultExecutor = createDefaultExecutor();
+	private static volatile ExecutorService executor = defaultExecutor;
+
+	private ProcessExecutor() {
+		// only static methods
+	}
+
+	/**
+	 * Gets the {@link ExecutorService} that is currently used by the process framework.
+	 *
+	 * @return The shared {@link ExecutorService}.
+	 */
+	public static ExecutorService getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Sets the {@link ExecutorService} that is used by the process framework. The previous executor is not
+	 * shut down, components that are already running are not affected.
+	 *
+	 * @param executorService The {@link ExecutorService} to use. If {@code null}, the default executor is
+	 *            used again.
+	 */
+	public static void setExecutor(ExecutorService executorService) {
+		executor = executorService == null ? defaultExecutor : executorService;
+	}
+
+	/**
+	 * Submits a task to the shared {@link ExecutorService}. If the returned {@link Future} is awaited before a
+	 * pool thread started the task, the task is executed by the awaiting thread.
+	 *
+	 * @param task The task to execute.
+	 * @return A {@link Future} representing the pending result of the task.
+	 * @throws RejectedExecutionException If the task cannot be scheduled for execution.
+	 */
+	public static <T> Future<T> submit(Callable<T> task) {
+		HelpingFuture<T> future = new HelpingFuture<T>(task);
+		executor.execute(future);
+		return future;
+	}
+
+	private static ExecutorService createDefaultExecutor() {
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(DEFAULT_POOL_SIZE, DEFAULT_POOL_SIZE, KEEP_ALIVE_SECONDS,
+				TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ProcessThreadFactory());
+		pool.allowCoreThreadTimeOut(true);
+		return pool;
+	}
+
+	/**
+	 * A {@link FutureTask} that runs itself when awaited before it has been started. Running a
+	 * {@link FutureTask} twice is a no-op, thus the pool thread skips it later on.
+	 */
+	private static class HelpingFuture<T> extends FutureTask<T> {
+
+		public HelpingFuture(Callable<T> callable) {
+			super(callable);
+		}
+
+		@Override
+		public T get() throws InterruptedException, ExecutionException {
+			if (!isDone()) {
+				run();
+			}
+			return super.get();
+		}
+	}
+
+	private static class ProcessThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger counter = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "process-executor-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,259 @@
+package org.hive2hive.processframework.composites;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.hive2hive.processframework.ProcessComposite;
+import org.hive2hive.processframework.ProcessExecutor;
+import org.hive2hive.processframework.ProcessState;
+import org.hive2hive.processframework.decorators.AsyncComponent;
+import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
+import org.hive2hive.processframework.exceptions.ProcessExecutionException;
+import org.hive2hive.processframework.exceptions.ProcessRollbackException;
+import org.hive2hive.processframework.interfaces.IProcessComponent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link ProcessComposite} that executes its components concurrently on the shared
+ * {@link ProcessExecutor} and awaits all of them before completion.</br>
+ * <b>Note:</b>
+ * The components of a {@code ParallelProcess} must be <i>independent</i> of each other. They must not
+ * modify this composite during execution.</br></br>
+ * If a component fails, components that have not been started yet are skipped. The composite still awaits
+ * the running components and then fails with the first {@link ProcessExecutionException}. A rollback rolls
+ * back all components that have been executed (successfully or not), also concurrently, and fails with the
+ * first {@link ProcessRollbackException} after all rollbacks terminated.
+ */
+public final class ParallelProcess extends ProcessComposite<Void> {
+
+	private static final Logger logger = LoggerFactory.getLogger(ParallelProcess.class);
+
+	private final List<IProcessComponent<?>> components = new CopyOnWriteArrayList<IProcessComponent<?>>();
+
+	// set by the first failing component, prevents the start of further components
+	private volatile ProcessExecutionException executionFailure;
+
+	@Override
+	protected Void doExecute() throws InvalidProcessStateException, ProcessExecutionException {
+		executionFailure = null;
+
+		List<Future<?>> executions = new ArrayList<Future<?>>(components.size());
+		for (IProcessComponent<?> component : components) {
+			if (!isExecutable(component.getState())) {
+				// already executed before this composite has been paused
+				continue;
+			}
+			try {
+				executions.add(ProcessExecutor.submit(new ExecutionRunner(component)));
+			} catch (RejectedExecutionException ex) {
+				executionFailure = new ProcessExecutionException(this, ex);
+				break;
+			}
+		}
+
+		// await all components, such that none is running when a rollback starts
+		for (Future<?> execution : executions) {
+			awaitExecution(execution);
+		}
+
+		if (executionFailure != null) {
+			throw executionFailure;
+		}
+		return null;
+	}
+
+	@Override
+	protected Void doRollback() throws InvalidProcessStateException, ProcessRollbackException {
+
+		ProcessRollbackException rollbackFailure = null;
+		List<Future<?>> rollbacks = new ArrayList<Future<?>>(components.size());
+		for (IProcessComponent<?> component : components) {
+			if (!isRollbackable(component.getState())) {
+				// not executed or already rolled back
+				continue;
+			}
+			try {
+				rollbacks.add(ProcessExecutor.submit(new RollbackRunner(component)));
+			} catch (RejectedExecutionException ex) {
+				rollbackFailure = new ProcessRollbackException(this, ex);
+				break;
+			}
+		}
+
+		// all rollbacks are awaited, even if one of them fails
+		for (Future<?> rollback : rollbacks) {
+			try {
+				rollback.get();
+			} catch (ExecutionException ex) {
+				if (rollbackFailure == null) {
+					rollbackFailure = ex.getCause() instanceof ProcessRollbackException ? (ProcessRollbackException) ex
+							.getCause() : new ProcessRollbackException(this, ex.getCause());
+				} else {
+					logger.warn("Rollback of another parallel component failed as well.", ex.getCause());
+				}
+			} catch (InterruptedException ex) {
+				if (rollbackFailure == null) {
+					rollbackFailure = new ProcessRollbackException(this, ex);
+				}
+			}
+		}
+
+		if (rollbackFailure != null) {
+			throw rollbackFailure;
+		}
+		return null;
+	}
+
+	@Override
+	protected void doAdd(IProcessComponent<?> component) {
+		components.add(component);
+	}
+
+	@Override
+	protected void doAdd(int index, IProcessComponent<?> component) {
+		components.add(index, component);
+	}
+
+	@Override
+	protected boolean doInsertAfter(IProcessComponent<?> component, IProcessComponent<?> predecessor) {
+		int index = components.indexOf(predecessor);
+		if (index == -1) {
+			return false;
+		}
+		components.add(index + 1, component);
+		return true;
+	}
+
+	@Override
+	protected void doRemove(IProcessComponent<?> component) {
+		components.remove(component);
+	}
+
+	@Override
+	public List<IProcessComponent<?>> getComponents() {
+		return Collections.unmodifiableList(components);
+	}
+
+	@Override
+	public IProcessComponent<?> getComponent(int index) {
+		return components.get(index);
+	}
+
+	@Override
+	public double getProgress() {
+		if (components.isEmpty()) {
+			return 0.0;
+		}
+
+		double progress = 0.0;
+		double weight = 1.0 / components.size();
+		for (IProcessComponent<?> component : components) {
+			progress += weight * component.getProgress();
+		}
+		return progress;
+	}
+
+	private static boolean isExecutable(ProcessState state) {
+		return state == ProcessState.READY || state == ProcessState.ROLLBACK_SUCCEEDED
+				|| state == ProcessState.PAUSED;
+	}
+
+	private static boolean isRollbackable(ProcessState state) {
+		return state == ProcessState.EXECUTION_SUCCEEDED || state == ProcessState.EXECUTION_FAILED
+				|| state == ProcessState.PAUSED;
+	}
+
+	private void awaitExecution(Future<?> execution) {
+		try {
+			execution.get();
+		} catch (ExecutionException ex) {
+			// failures are recorded by the runner itself
+			logger.trace("Parallel component failed.", ex.getCause());
+		} catch (InterruptedException ex) {
+			failExecution(new ProcessExecutionException(this, ex));
+		}
+	}
+
+	private synchronized void failExecution(ProcessExecutionException failure) {
+		if (executionFailure == null) {
+			executionFailure = failure;
+		}
+	}
+
+	private class ExecutionRunner implements Callable<Void> {
+
+		private final IProcessComponent<?> component;
+
+		public ExecutionRunner(IProcessComponent<?> component) {
+			this.component = component;
+		}
+
+		@Override
+		public Void call() throws Exception {
+			if (executionFailure != null || isPaused) {
+				// skip the component, it remains executable
+				return null;
+			}
+
+			try {
+				if (component instanceof AsyncComponent<?>) {
+					awaitAsync(((AsyncComponent<?>) component).execute());
+				} else {
+					component.execute();
+				}
+			} catch (ProcessExecutionException ex) {
+				failExecution(ex);
+				throw ex;
+			} catch (Exception ex) {
+				failExecution(new ProcessExecutionException(ParallelProcess.this, ex));
+				throw ex;
+			}
+			return null;
+		}
+
+		private void awaitAsync(Future<?> async) throws Exception {
+			try {
+				async.get();
+			} catch (ExecutionException ex) {
+				if (ex.getCause() instanceof Exception) {
+					throw (Exception) ex.getCause();
+				}
+				throw ex;
+			}
+		}
+	}
+
+	private class RollbackRunner implements Callable<Void> {
+
+		private final IProcessComponent<?> component;
+
+		public RollbackRunner(IProcessComponent<?> component) {
+			this.component = component;
+		}
+
+		@Override
+		public Void call() throws Exception {
+			if (component instanceof AsyncComponent<?>) {
+				Future<?> async = ((AsyncComponent<?>) component).rollback();
+				try {
+					async.get();
+				} catch (ExecutionException ex) {
+					if (ex.getCause() instanceof Exception) {
+						throw (Exception) ex.getCause();
+					}
+					throw ex;
+				}
+			} else {
+				component.rollback();
+			}
+			return null;
+		}
+	}
+}
@@ -2,12 +2,11 @@ package org.hive2hive.processframework.decorators;
 
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 
 import org.hive2hive.processframework.ProcessDecorator;
+import org.hive2hive.processframework.ProcessExecutor;
 import org.hive2hive.processframework.exceptions.InvalidProcessStateException;
 import org.hive2hive.processframework.exceptions.ProcessExecutionException;
 import org.hive2hive.processframework.exceptions.ProcessRollbackException;
@@ -17,7 +16,7 @@ import org.slf4j.LoggerFactory;
 
 /**
  * A {@link ProcessDecorator} that executes the wrapped/decorated {@link IProcessComponent} on a separate
- * thread and thus immediately returns the control.
+ * thread of the shared {@link ProcessExecutor} and thus immediately returns the control.
  * Both, execution and rollback run on a separate thread and return a {@link Future} object as the result of
  * the asynchronous computation. Possible exceptions can be retrieved through this {@link Future} object (see
  * example).</br>
@@ -76,15 +75,10 @@ public class AsyncComponent<T> extends ProcessDecorator<Future<T>> {
 	@Override
 	protected Future<T> doExecute() throws InvalidProcessStateException, ProcessExecutionException {
 
-		ExecutorService executor = Executors.newSingleThreadExecutor();
-		ExecutionRunner executionRunner = new ExecutionRunner();
 		try {
-			executionHandle = executor.submit(executionRunner);
+			executionHandle = ProcessExecutor.submit(new ExecutionRunner());
 		} catch (RejectedExecutionException ex) {
 			throw new ProcessExecutionException(this, ex);
-		} finally {
-			// already shutdown the executor, does not disturb the already running thread
-			executor.shutdown();
 		}
 
 		// immediate return, since execution is async
@@ -94,16 +88,11 @@ public class AsyncComponent<T> extends ProcessDecorator<Future<T>> {
 	@Override
 	protected Future<T> doRollback() throws InvalidProcessStateException, ProcessRollbackException {
 
-		ExecutorService executor = Executors.newSingleThreadExecutor();
-		RollbackRunner rollbackRunner = new RollbackRunner();
 		try {
 			// immediate return, since rollback is async
-			return executor.submit(rollbackRunner);
+			return ProcessExecutor.submit(new RollbackRunner());
 		} catch (RejectedExecutionException ex) {
 			throw new ProcessRollbackException(this, ex);
-		} finally {
-			// already shutdown the executor, does not disturb the already running thread
-			executor.shutdown();
 		}
 	}
 
@@ -112,22 +101,11 @@ public class AsyncComponent<T> extends ProcessDecorator<Future<T>> {
 		return String.format("Async[%s]", decoratedComponent.toString());
 	}
 
-	private void nameThread(boolean isExecution) {
-		try {
-			Thread.currentThread().checkAccess();
-			Thread.currentThread().setName(String.format("async %s", isExecution ? "execution" : "rollback"));
-		} catch (SecurityException ex) {
-			// occurs if the current thread does not have access
-		}
-	}
-
 	private class ExecutionRunner implements Callable<T> {
 
 		@Override
 		public T call() throws Exception {
 
-			nameThread(true);
-
 			// throw all kinds of exceptions
 			return component.execute();
 		}
@@ -138,14 +116,12 @@ public class AsyncComponent<T> extends ProcessDecorator<Future<T>> {
 		@Override
 		public T call() throws Exception {
 
-			nameThread(false);
-
 			// mind: async component might be in any state
 			// 1st try
 			try {
 				return component.rollback();
 			} catch (InvalidProcessStateException ex) {
-				// happens only with >1 threads in the pool:
+				// happens if the rollback runs concurrently to the execution:
 				// ProcessComponent.rollback() was allowed, thus AsyncComponent is EXECUTION_SUCCESSED/FAILED
 				// or PAUSED
 				// -> wrapped component is either EXECUTING, EXECUTION_SUCCESSED/FAILED or PAUSED